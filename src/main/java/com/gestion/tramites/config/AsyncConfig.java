@@ -1,11 +1,15 @@
 package com.gestion.tramites.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableAsync
@@ -22,4 +26,31 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Pool de la auditoría de secuencia de radicación. Se expone como ExecutorService y no como
+     * TaskExecutor para que @Async siga resolviendo notificationExecutor como ejecutor por defecto.
+     */
+    @Bean(name = "auditoriaExecutor", destroyMethod = "shutdown")
+    public ExecutorService auditoriaExecutor(@Value("${radicacion.auditoria.paralelismo:4}") int paralelismo) {
+        return Executors.newFixedThreadPool(Math.max(1, paralelismo), new CustomizableThreadFactory("Auditoria-"));
+    }
+
+    /**
+     * Escritores de la cola de radicación asíncrona; cada tarea radica las solicitudes pendientes
+     * de una entidad. Como auditoriaExecutor, no es un TaskExecutor.
+     */
+    @Bean(name = "colaRadicacionExecutor", destroyMethod = "shutdown")
+    public ExecutorService colaRadicacionExecutor(@Value("${radicacion.cola.escritores:4}") int escritores) {
+        return Executors.newFixedThreadPool(Math.max(1, escritores), new CustomizableThreadFactory("ColaRadicacion-"));
+    }
+
+    /**
+     * Hilos de MVC asíncrono en que se escriben las exportaciones por streaming (StreamingResponseBody).
+     * Acota cuántas exportaciones leen de la base de datos a la vez; las demás esperan su turno.
+     */
+    @Bean(name = "exportacionExecutor", destroyMethod = "shutdown")
+    public ExecutorService exportacionExecutor(@Value("${tramites.exportacion.concurrencia-maxima:4}") int concurrencia) {
+        return Executors.newFixedThreadPool(Math.max(1, concurrencia), new CustomizableThreadFactory("Exportacion-"));
+    }
+}
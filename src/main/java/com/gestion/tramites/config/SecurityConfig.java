@@ -2,6 +2,7 @@ package com.gestion.tramites.config;
 
 import com.gestion.tramites.service.CustomUserDetailsService;
 import com.gestion.tramites.security.filter.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -58,6 +59,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(
                         authorize -> authorize
                                 .requestMatchers("/api/v1/auth/**", "/api/public/**", "/api/test/**", "/actuator/health").permitAll()
+                                // El despacho ASYNC termina un request que ya se autorizó (exportación por streaming)
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .anyRequest().authenticated())
                 .authenticationProvider(authenticationProvider()).addFilterBefore(
                         jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
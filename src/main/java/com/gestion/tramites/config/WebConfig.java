@@ -2,19 +2,39 @@ package com.gestion.tramites.config;
 
 import com.gestion.tramites.interceptor.EntityInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.concurrent.ExecutorService;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
     @Autowired
     private EntityInterceptor entityInterceptor;
 
+    @Autowired
+    @Qualifier("exportacionExecutor")
+    private ExecutorService exportacionExecutor;
+
+    @Value("${tramites.exportacion.tiempo-maximo-ms:1800000}")
+    private long tiempoMaximoExportacionMs = 1800000;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(entityInterceptor).addPathPatterns("/api/**")
                 .excludePathPatterns("/api/auth/**", "/api/public/**");
     }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Las exportaciones por streaming se escriben en su propio pool y pueden tardar varios minutos
+        configurer.setTaskExecutor(new TaskExecutorAdapter(exportacionExecutor));
+        configurer.setDefaultTimeout(tiempoMaximoExportacionMs);
+    }
 }
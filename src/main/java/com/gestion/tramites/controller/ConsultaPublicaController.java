@@ -1,5 +1,6 @@
 package com.gestion.tramites.controller;
 
+import com.gestion.tramites.model.NumeroRadicacion;
 import com.gestion.tramites.service.SeguimientoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -44,7 +45,8 @@ public class ConsultaPublicaController {
                       example = "11001-0-25-0001")
             @PathVariable
             @NotBlank(message = "El número de radicación es obligatorio")
-            @Size(min = 10, max = 20, message = "El número de radicación debe tener entre 10 y 20 caracteres")
+            @Size(min = 10, max = NumeroRadicacion.LONGITUD_MAXIMA,
+                  message = "El número de radicación debe tener entre {min} y {max} caracteres")
             String numeroRadicacion) {
 
         logger.info("Consulta pública de trámite: {}", numeroRadicacion);
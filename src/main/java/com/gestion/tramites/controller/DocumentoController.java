@@ -2,6 +2,7 @@ package com.gestion.tramites.controller;
 
 import com.gestion.tramites.dto.documentos.DocumentoResponseDTO;
 import com.gestion.tramites.dto.documentos.EstadisticasDocumentosDTO;
+import com.gestion.tramites.mapper.DocumentoMapper;
 import com.gestion.tramites.model.Documento;
 import com.gestion.tramites.service.DocumentoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,7 +26,6 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/documentos")
@@ -34,10 +34,12 @@ import java.util.stream.Collectors;
 public class DocumentoController {
 
     private final DocumentoService documentoService;
+    private final DocumentoMapper documentoMapper;
 
     @Autowired
-    public DocumentoController(DocumentoService documentoService) {
+    public DocumentoController(DocumentoService documentoService, DocumentoMapper documentoMapper) {
         this.documentoService = documentoService;
+        this.documentoMapper = documentoMapper;
     }
 
     @Operation(
@@ -116,7 +118,7 @@ public class DocumentoController {
             @RequestParam(value = "descripcion", required = false) String descripcion) throws IOException {
 
         Documento documento = documentoService.subirDocumento(tramiteId, archivo, tipoDocumento, descripcion);
-        DocumentoResponseDTO response = new DocumentoResponseDTO(documento);
+        DocumentoResponseDTO response = documentoMapper.toResponseDTO(documento);
 
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
@@ -178,9 +180,7 @@ public class DocumentoController {
             @PathVariable Long tramiteId) {
 
         List<Documento> documentos = documentoService.obtenerDocumentosPorTramite(tramiteId);
-        List<DocumentoResponseDTO> response = documentos.stream()
-                .map(DocumentoResponseDTO::new)
-                .collect(Collectors.toList());
+        List<DocumentoResponseDTO> response = documentoMapper.toResponseDTOs(documentos);
 
         return ResponseEntity.ok(response);
     }
@@ -197,7 +197,7 @@ public class DocumentoController {
             @PathVariable Long documentoId) {
 
         Documento documento = documentoService.obtenerDocumento(documentoId);
-        DocumentoResponseDTO response = new DocumentoResponseDTO(documento);
+        DocumentoResponseDTO response = documentoMapper.toResponseDTO(documento);
 
         return ResponseEntity.ok(response);
     }
@@ -239,9 +239,7 @@ public class DocumentoController {
             @RequestParam("q") String consulta) {
 
         List<Documento> documentos = documentoService.buscarDocumentosPorNombre(tramiteId, consulta);
-        List<DocumentoResponseDTO> response = documentos.stream()
-                .map(DocumentoResponseDTO::new)
-                .collect(Collectors.toList());
+        List<DocumentoResponseDTO> response = documentoMapper.toResponseDTOs(documentos);
 
         return ResponseEntity.ok(response);
     }
@@ -258,9 +256,7 @@ public class DocumentoController {
             @PathVariable Long documentoId) {
 
         List<Documento> versiones = documentoService.obtenerVersionesDocumento(documentoId);
-        List<DocumentoResponseDTO> response = versiones.stream()
-                .map(DocumentoResponseDTO::new)
-                .collect(Collectors.toList());
+        List<DocumentoResponseDTO> response = documentoMapper.toResponseDTOs(versiones);
 
         return ResponseEntity.ok(response);
     }
@@ -280,9 +276,7 @@ public class DocumentoController {
             @PathVariable Documento.TipoDocumento tipoDocumento) {
 
         List<Documento> documentos = documentoService.obtenerDocumentosPorTipoYTramite(tramiteId, tipoDocumento);
-        List<DocumentoResponseDTO> response = documentos.stream()
-                .map(DocumentoResponseDTO::new)
-                .collect(Collectors.toList());
+        List<DocumentoResponseDTO> response = documentoMapper.toResponseDTOs(documentos);
 
         return ResponseEntity.ok(response);
     }
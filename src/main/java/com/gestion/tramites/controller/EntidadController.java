@@ -13,6 +13,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/entidades")
@@ -90,7 +92,7 @@ public class EntidadController {
                             )
                     )
             )
-            @RequestBody EntidadDTO entidadDto) {
+            @Valid @RequestBody EntidadDTO entidadDto) {
         EntidadDTO nuevaEntidad = entidadService.crearEntidad(entidadDto);
         return new ResponseEntity<>(nuevaEntidad, HttpStatus.CREATED);
     }
@@ -134,7 +136,7 @@ public class EntidadController {
     @PreAuthorize("hasRole('ADMIN_GLOBAL')")
     @PutMapping("/{id}")
     public ResponseEntity<EntidadDTO> actualizarEntidad(@PathVariable Long id,
-            @RequestBody EntidadDTO entidadDto) { // Recibe y devuelve DTO
+            @Valid @RequestBody EntidadDTO entidadDto) { // Recibe y devuelve DTO
         try {
             EntidadDTO entidadActualizada = entidadService.actualizarEntidad(id, entidadDto); // Servicio
                                                                                               // devuelve
@@ -187,4 +189,12 @@ public class EntidadController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> manejarArgumentoInvalido(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of(
+            "error", "DATOS_INVALIDOS",
+            "mensaje", ex.getMessage()
+        ));
+    }
 }
@@ -1,5 +1,7 @@
 package com.gestion.tramites.controller;
 
+import com.gestion.tramites.service.AuditoriaRadicacionService;
+import com.gestion.tramites.service.CambioAnoRadicacionService;
 import com.gestion.tramites.service.RadicacionService;
 import com.gestion.tramites.service.ValidacionRadicacionService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/radicacion")
@@ -29,21 +32,124 @@ public class RadicacionController {
     @Autowired
     private ValidacionRadicacionService validacionService;
 
+    @Autowired
+    private CambioAnoRadicacionService cambioAnoService;
+
+    @Autowired
+    private AuditoriaRadicacionService auditoriaService;
+
     @Autowired
     private com.gestion.tramites.repository.EntidadRepository entidadRepository;
 
+    @Autowired
+    private com.gestion.tramites.service.CacheEntidades cacheEntidades;
+
+    @Autowired
+    private com.gestion.tramites.service.ReintentoRadicacion reintentoRadicacion;
+
+    @Autowired
+    private com.gestion.tramites.service.ColaRadicacionService colaRadicacionService;
+
+    @Autowired
+    private com.gestion.tramites.service.IdempotenciaService idempotenciaService;
+
     @PostMapping("/radicar")
     @Operation(summary = "Radicar nuevo trámite",
                description = "Radica un nuevo trámite asignando automáticamente el número de radicación oficial")
     @ApiResponse(responseCode = "201", description = "Trámite radicado exitosamente")
     @ApiResponse(responseCode = "400", description = "Datos de solicitud inválidos")
     @ApiResponse(responseCode = "403", description = "No autorizado para radicar en esta entidad")
+    @ApiResponse(responseCode = "409", description = "La solicitud original con la misma Idempotency-Key aún se está procesando")
+    @ApiResponse(responseCode = "422", description = "La Idempotency-Key ya se usó con una solicitud diferente")
+    @ApiResponse(responseCode = "503", description = "Contención en la base de datos; se agotaron los reintentos")
     @PreAuthorize("hasRole('VENTANILLA_UNICA') or hasRole('ADMIN_ENTIDAD') or hasRole('ADMIN_GLOBAL')")
     public ResponseEntity<RadicacionService.SolicitudRadicacion> radicarTramite(
+            @Parameter(description = "Clave del cliente para reintentar sin radicar dos veces")
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
             @Valid @RequestBody RadicacionService.SolicitudRadicacionTramite solicitud) {
 
-        RadicacionService.SolicitudRadicacion radicacion = radicacionService.radicarTramite(solicitud);
-        return ResponseEntity.status(HttpStatus.CREATED).body(radicacion);
+        com.gestion.tramites.service.IdempotenciaService.ResultadoIdempotente<RadicacionService.SolicitudRadicacion> resultado =
+                reintentoRadicacion.ejecutar(solicitud.getEntidadId(),
+                        () -> idempotenciaService.ejecutar(claveIdempotencia, "RADICAR", solicitud,
+                                RadicacionService.SolicitudRadicacion.class, HttpStatus.CREATED.value(),
+                                () -> radicacionService.radicarTramite(solicitud)));
+        return ResponseEntity.status(resultado.getCodigoRespuesta())
+                .header("Idempotent-Replayed", String.valueOf(resultado.isRepetida()))
+                .body(resultado.getRespuesta());
+    }
+
+    @PostMapping("/cola")
+    @Operation(summary = "Encolar radicación de trámite",
+               description = "Valida la solicitud, la guarda en la cola de radicación y responde de inmediato con un ticket. " +
+                             "El número se asigna en orden de llegada; consulte el ticket o suscríbase a sus eventos")
+    @ApiResponse(responseCode = "202", description = "Solicitud encolada; el cuerpo contiene el ticket")
+    @ApiResponse(responseCode = "400", description = "Datos de solicitud inválidos")
+    @ApiResponse(responseCode = "503", description = "La radicación asíncrona no está habilitada")
+    @PreAuthorize("hasRole('VENTANILLA_UNICA') or hasRole('ADMIN_ENTIDAD') or hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<com.gestion.tramites.service.ColaRadicacionService.TicketRadicacion> encolarRadicacion(
+            @Valid @RequestBody RadicacionService.SolicitudRadicacionTramite solicitud) {
+
+        if (!colaRadicacionService.isHabilitada()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        com.gestion.tramites.service.ColaRadicacionService.TicketRadicacion ticket =
+                colaRadicacionService.encolar(solicitud);
+        return ResponseEntity.accepted()
+                .location(java.net.URI.create("/api/radicacion/cola/" + ticket.getTicket()))
+                .body(ticket);
+    }
+
+    @GetMapping("/cola/{ticket}")
+    @Operation(summary = "Consultar ticket de radicación",
+               description = "Retorna el estado del ticket: PENDIENTE (con las solicitudes que van antes), RADICADA con el " +
+                             "número asignado, o RECHAZADA con el motivo")
+    @ApiResponse(responseCode = "200", description = "Estado del ticket")
+    @ApiResponse(responseCode = "404", description = "Ticket no encontrado")
+    @PreAuthorize("hasRole('VENTANILLA_UNICA') or hasRole('ADMIN_ENTIDAD') or hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<com.gestion.tramites.service.ColaRadicacionService.TicketRadicacion> consultarTicket(
+            @Parameter(description = "Ticket entregado al encolar") @PathVariable String ticket) {
+
+        return colaRadicacionService.consultar(ticket)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/cola/{ticket}/eventos", produces = org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribirse al resultado de un ticket",
+               description = "Envía un evento 'radicacion' con el estado final del ticket y cierra la conexión. Si la " +
+                             "suscripción vence antes, el cliente consulta el ticket")
+    @ApiResponse(responseCode = "200", description = "Flujo de eventos del ticket")
+    @ApiResponse(responseCode = "404", description = "Ticket no encontrado")
+    @PreAuthorize("hasRole('VENTANILLA_UNICA') or hasRole('ADMIN_ENTIDAD') or hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.SseEmitter> suscribirTicket(
+            @Parameter(description = "Ticket entregado al encolar") @PathVariable String ticket) {
+
+        if (colaRadicacionService.consultar(ticket).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(colaRadicacionService.suscribir(ticket));
+    }
+
+    @PostMapping("/radicar/lote")
+    @Operation(summary = "Radicar lote de trámites",
+               description = "Radica varios trámites en una sola transacción, reservando un rango contiguo de números por entidad. " +
+                             "Retorna el resultado de cada solicitud en el mismo orden del lote")
+    @ApiResponse(responseCode = "201", description = "Lote procesado; cada resultado indica si la solicitud fue radicada")
+    @ApiResponse(responseCode = "400", description = "Lote vacío o excede el tamaño máximo")
+    @ApiResponse(responseCode = "503", description = "Contención en la base de datos; se agotaron los reintentos")
+    @PreAuthorize("hasRole('VENTANILLA_UNICA') or hasRole('ADMIN_ENTIDAD') or hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<List<RadicacionService.ResultadoRadicacionLote>> radicarLote(
+            @RequestBody List<RadicacionService.SolicitudRadicacionTramite> solicitudes) {
+
+        // El lote se reintenta completo; la contención se cuenta en la entidad de la primera solicitud
+        Long entidadId = solicitudes == null ? null : solicitudes.stream()
+                .map(RadicacionService.SolicitudRadicacionTramite::getEntidadId)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+        List<RadicacionService.ResultadoRadicacionLote> resultados = reintentoRadicacion.ejecutar(
+                entidadId, () -> radicacionService.radicarLote(solicitudes));
+        return ResponseEntity.status(HttpStatus.CREATED).body(resultados);
     }
 
     @PostMapping("/generar-numero/{entidadId}")
@@ -52,11 +158,13 @@ public class RadicacionController {
     @ApiResponse(responseCode = "200", description = "Número generado exitosamente")
     @ApiResponse(responseCode = "404", description = "Entidad no encontrada")
     @ApiResponse(responseCode = "400", description = "Entidad inactiva o error en generación")
+    @ApiResponse(responseCode = "503", description = "Contención en la base de datos; se agotaron los reintentos")
     @PreAuthorize("hasRole('VENTANILLA_UNICA') or hasRole('ADMIN_ENTIDAD') or hasRole('ADMIN_GLOBAL')")
     public ResponseEntity<Map<String, String>> generarNumeroRadicacion(
             @Parameter(description = "ID de la entidad") @PathVariable Long entidadId) {
 
-        String numeroRadicacion = radicacionService.generarSiguienteNumeroRadicacion(entidadId);
+        String numeroRadicacion = reintentoRadicacion.ejecutar(
+                entidadId, () -> radicacionService.generarSiguienteNumeroRadicacion(entidadId));
 
         return ResponseEntity.ok(Map.of(
             "numeroRadicacion", numeroRadicacion,
@@ -166,23 +274,137 @@ public class RadicacionController {
         return ResponseEntity.ok(reporte);
     }
 
+    @GetMapping("/reporte-validacion")
+    @Operation(summary = "Generar reporte de validación de toda la plataforma",
+               description = "Audita en paralelo la secuencia de todas las entidades que radicaron en el año")
+    @ApiResponse(responseCode = "200", description = "Reportes generados exitosamente")
+    @PreAuthorize("hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<List<ValidacionRadicacionService.ReporteValidacionRadicacion>> generarReportes(
+            @Parameter(description = "Año del reporte (opcional, por defecto año actual)") @RequestParam(required = false) Integer ano) {
+
+        if (ano == null) {
+            ano = java.time.LocalDate.now().getYear();
+        }
+
+        return ResponseEntity.ok(validacionService.generarReportesValidacion(ano));
+    }
+
+    @GetMapping("/reporte-validacion/{entidadId}/ultimo")
+    @Operation(summary = "Consultar último reporte de auditoría",
+               description = "Retorna el reporte guardado por la auditoría nocturna de secuencia, sin recalcularlo")
+    @ApiResponse(responseCode = "200", description = "Último reporte guardado")
+    @ApiResponse(responseCode = "204", description = "La entidad aún no ha sido auditada en el año")
+    @PreAuthorize("hasRole('ADMIN_ENTIDAD') or hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<AuditoriaRadicacionService.ReporteAuditado> consultarUltimoReporte(
+            @Parameter(description = "ID de la entidad") @PathVariable Long entidadId,
+            @Parameter(description = "Año del reporte (opcional, por defecto año actual)") @RequestParam(required = false) Integer ano) {
+
+        if (ano == null) {
+            ano = java.time.LocalDate.now().getYear();
+        }
+
+        return auditoriaService.obtenerUltimoReporte(entidadId, ano)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/auditoria")
+    @Operation(summary = "Ejecutar auditoría de secuencia de la plataforma",
+               description = "Audita y guarda el reporte de las entidades activas con radicaciones nuevas desde la última " +
+                             "auditoría. Con forzar=true audita todas las entidades activas")
+    @ApiResponse(responseCode = "200", description = "Auditoría ejecutada")
+    @ApiResponse(responseCode = "409", description = "Ya hay una auditoría en curso")
+    @PreAuthorize("hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<AuditoriaRadicacionService.ResumenAuditoria> ejecutarAuditoria(
+            @Parameter(description = "Año a auditar (opcional, por defecto año actual)") @RequestParam(required = false) Integer ano,
+            @Parameter(description = "Auditar también las entidades sin radicaciones nuevas") @RequestParam(defaultValue = "false") boolean forzar) {
+
+        if (ano == null) {
+            ano = java.time.LocalDate.now().getYear();
+        }
+
+        AuditoriaRadicacionService.ResumenAuditoria resumen = auditoriaService.ejecutarAuditoria(ano, forzar);
+        if (resumen == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(resumen);
+    }
+
+    @GetMapping("/auditoria/ultima")
+    @Operation(summary = "Consultar última auditoría de la plataforma",
+               description = "Retorna el resumen de la última ejecución de la auditoría de secuencia")
+    @ApiResponse(responseCode = "200", description = "Resumen de la última ejecución")
+    @ApiResponse(responseCode = "204", description = "La auditoría aún no se ha ejecutado")
+    @PreAuthorize("hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<AuditoriaRadicacionService.ResumenAuditoria> consultarUltimaAuditoria() {
+        AuditoriaRadicacionService.ResumenAuditoria resumen = auditoriaService.getUltimoResumen();
+        if (resumen == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(resumen);
+    }
+
+    @GetMapping("/reintentos")
+    @Operation(summary = "Consultar reintentos de radicación por entidad",
+               description = "Intentos, reintentos por contención en la base de datos y abandonos de radicación por entidad " +
+                             "desde el inicio del nodo, ordenados por número de reintentos")
+    @ApiResponse(responseCode = "200", description = "Contadores por entidad")
+    @PreAuthorize("hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<List<com.gestion.tramites.service.ReintentoRadicacion.EstadisticasReintento>> consultarReintentos() {
+        return ResponseEntity.ok(reintentoRadicacion.obtenerEstadisticas());
+    }
+
     @PostMapping("/reservar/{entidadId}")
     @Operation(summary = "Reservar número de radicación",
-               description = "Reserva un número de radicación para uso posterior")
+               description = "Reserva un número de radicación para uso posterior. La reserva vence si no se utiliza " +
+                             "en una radicación (campo numeroRadicacionReservado) y su consecutivo se reutiliza")
     @ApiResponse(responseCode = "200", description = "Número reservado exitosamente")
     @ApiResponse(responseCode = "404", description = "Entidad no encontrada")
     @ApiResponse(responseCode = "400", description = "Error en reserva")
+    @ApiResponse(responseCode = "503", description = "Contención en la base de datos; se agotaron los reintentos")
     @PreAuthorize("hasRole('ADMIN_ENTIDAD') or hasRole('ADMIN_GLOBAL')")
     public ResponseEntity<RadicacionService.ReservaRadicacion> reservarNumero(
             @Parameter(description = "ID de la entidad") @PathVariable Long entidadId,
             @Parameter(description = "Motivo de la reserva") @RequestParam String motivo) {
 
-        RadicacionService.ReservaRadicacion reserva =
-                radicacionService.reservarNumeroRadicacion(entidadId, motivo);
+        RadicacionService.ReservaRadicacion reserva = reintentoRadicacion.ejecutar(
+                entidadId, () -> radicacionService.reservarNumeroRadicacion(entidadId, motivo));
 
         return ResponseEntity.ok(reserva);
     }
 
+    @PostMapping("/cambio-ano")
+    @Operation(summary = "Preparar consecutivos del año siguiente",
+               description = "Crea los consecutivos del año destino para las entidades activas y desactiva los de años anteriores. " +
+                             "Con simulacion=true solo reporta lo que se haría")
+    @ApiResponse(responseCode = "200", description = "Cambio de año ejecutado o simulado")
+    @ApiResponse(responseCode = "400", description = "El año destino no es el año en curso ni el siguiente")
+    @PreAuthorize("hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<CambioAnoRadicacionService.ReporteCambioAno> ejecutarCambioAno(
+            @Parameter(description = "Año destino (opcional, por defecto año siguiente)") @RequestParam(required = false) Integer anoDestino,
+            @Parameter(description = "Solo simular, sin crear ni desactivar consecutivos") @RequestParam(defaultValue = "true") boolean simulacion) {
+
+        if (anoDestino == null) {
+            anoDestino = java.time.LocalDate.now().getYear() + 1;
+        }
+
+        return ResponseEntity.ok(cambioAnoService.ejecutarCambioAno(anoDestino, simulacion));
+    }
+
+    @GetMapping("/cambio-ano/ultimo")
+    @Operation(summary = "Consultar última ejecución del cambio de año",
+               description = "Retorna las métricas de la última ejecución real del proceso de cambio de año")
+    @ApiResponse(responseCode = "200", description = "Reporte de la última ejecución")
+    @ApiResponse(responseCode = "204", description = "El proceso aún no se ha ejecutado")
+    @PreAuthorize("hasRole('ADMIN_GLOBAL')")
+    public ResponseEntity<CambioAnoRadicacionService.ReporteCambioAno> consultarUltimoCambioAno() {
+        CambioAnoRadicacionService.ReporteCambioAno reporte = cambioAnoService.getUltimoReporte();
+        if (reporte == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(reporte);
+    }
+
     @GetMapping("/tipo-entidad/{entidadId}")
     @Operation(summary = "Determinar tipo de entidad para radicación",
                description = "Determina si una entidad es secretaría o curaduría para efectos de numeración")
@@ -192,9 +414,8 @@ public class RadicacionController {
     public ResponseEntity<Map<String, Object>> determinarTipoEntidad(
             @Parameter(description = "ID de la entidad") @PathVariable Long entidadId) {
 
-        com.gestion.tramites.model.Entidad entidad = obtenerEntidadPorId(entidadId);
-        com.gestion.tramites.model.ConsecutivoRadicacion.TipoEntidadRadicacion tipo =
-                validacionService.determinarTipoEntidad(entidad);
+        com.gestion.tramites.model.EntidadSnapshot entidad = cacheEntidades.obtenerRequerida(entidadId);
+        com.gestion.tramites.model.ConsecutivoRadicacion.TipoEntidadRadicacion tipo = entidad.getTipoRadicacion();
 
         return ResponseEntity.ok(Map.of(
             "entidadId", entidadId,
@@ -214,16 +435,16 @@ public class RadicacionController {
     public ResponseEntity<Map<String, Object>> consultarSiguienteNumero(
             @Parameter(description = "ID de la entidad") @PathVariable Long entidadId) {
 
-        com.gestion.tramites.model.Entidad entidad = obtenerEntidadPorId(entidadId);
-        com.gestion.tramites.model.ConsecutivoRadicacion.TipoEntidadRadicacion tipo =
-                validacionService.determinarTipoEntidad(entidad);
+        com.gestion.tramites.model.EntidadSnapshot entidad = cacheEntidades.obtenerRequerida(entidadId);
+        com.gestion.tramites.model.ConsecutivoRadicacion.TipoEntidadRadicacion tipo = entidad.getTipoRadicacion();
 
         // Simular generación sin persistir
         java.time.LocalDate hoy = java.time.LocalDate.now();
-        String patron = String.format("%s-%s-%02d-XXXX",
+        String patron = String.format("%s-%s-%02d-%s",
                 entidad.getCodigoDane(),
                 tipo.getCodigo(),
-                hoy.getYear() % 100);
+                hoy.getYear() % 100,
+                "X".repeat(entidad.getDigitosConsecutivo()));
 
         return ResponseEntity.ok(Map.of(
             "entidadId", entidadId,
@@ -263,4 +484,12 @@ public class RadicacionController {
         public Long getEntidadId() { return entidadId; }
         public void setEntidadId(Long entidadId) { this.entidadId = entidadId; }
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> manejarArgumentoInvalido(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of(
+            "error", "DATOS_INVALIDOS",
+            "mensaje", ex.getMessage()
+        ));
+    }
+}
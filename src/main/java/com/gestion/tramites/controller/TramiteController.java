@@ -5,6 +5,8 @@ import com.gestion.tramites.dto.tramite.TramiteRequestDTO;
 import com.gestion.tramites.dto.tramite.TramiteResponseDTO;
 import com.gestion.tramites.exception.ResourceNotFoundException;
 import com.gestion.tramites.model.Tramite; // Import Tramite to access EstadoTramite enum
+import com.gestion.tramites.service.ExportacionTramitesService;
+import com.gestion.tramites.service.IdempotenciaService;
 import com.gestion.tramites.service.TramiteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,11 +19,18 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tramites")
@@ -30,25 +39,37 @@ import java.util.List;
 public class TramiteController {
 
     private final TramiteService tramiteService;
+    private final IdempotenciaService idempotenciaService;
+    private final ExportacionTramitesService exportacionTramitesService;
 
     @Autowired
-    public TramiteController(TramiteService tramiteService) {
+    public TramiteController(TramiteService tramiteService, IdempotenciaService idempotenciaService,
+                             ExportacionTramitesService exportacionTramitesService) {
         this.tramiteService = tramiteService;
+        this.idempotenciaService = idempotenciaService;
+        this.exportacionTramitesService = exportacionTramitesService;
     }
 
     @Operation(
-            summary = "Listar todos los trámites",
-            description = "Obtiene la lista completa de trámites filtrados por la entidad del usuario autenticado (multi-tenant)"
+            summary = "Listar trámites por páginas",
+            description = "Obtiene una página de trámites de la entidad del usuario autenticado (multi-tenant), " +
+                    "del más reciente al más antiguo. Para la página siguiente se envía el siguienteCursor " +
+                    "de la respuesta con los mismos filtros; es null en la última página."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Lista de trámites obtenida exitosamente",
+                    description = "Página de trámites obtenida exitosamente",
                     content = @Content(
                             mediaType = "application/json",
-                            schema = @Schema(implementation = TramiteResponseDTO.class)
+                            schema = @Schema(implementation = TramiteService.PaginaTramites.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Cursor inválido o de otros filtros, tamaño de página o rango de fechas inválido",
+                    content = @Content(mediaType = "application/json")
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "Token JWT inválido o expirado",
@@ -61,9 +82,196 @@ public class TramiteController {
             )
     })
     @GetMapping
-    public ResponseEntity<List<TramiteResponseDTO>> getAllTramites() {
-        List<TramiteResponseDTO> tramites = tramiteService.obtenerTramites();
-        return ResponseEntity.ok(tramites);
+    public ResponseEntity<TramiteService.PaginaTramites> getAllTramites(
+            @Parameter(description = "Cursor de continuación devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de trámites por página")
+            @RequestParam(required = false) Integer limite,
+            @Parameter(description = "Estado actual del trámite")
+            @RequestParam(required = false) Tramite.EstadoTramite estado,
+            @Parameter(description = "ID del tipo de trámite")
+            @RequestParam(required = false) Long tipoTramiteId,
+            @Parameter(description = "ID del revisor asignado")
+            @RequestParam(required = false) Long revisorId,
+            @Parameter(description = "Fecha de radicación inicial (inclusive), formato yyyy-MM-dd")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @Parameter(description = "Fecha de radicación final (inclusive), formato yyyy-MM-dd")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @Parameter(description = "ID de la entidad (solo administrador global)")
+            @RequestParam(required = false) Long entidadId) {
+        TramiteService.FiltroTramites filtro = new TramiteService.FiltroTramites();
+        filtro.setEntidadId(entidadId);
+        filtro.setEstado(estado);
+        filtro.setTipoTramiteId(tipoTramiteId);
+        filtro.setRevisorId(revisorId);
+        filtro.setFechaDesde(fechaDesde);
+        filtro.setFechaHasta(fechaHasta);
+        return ResponseEntity.ok(tramiteService.obtenerTramites(filtro, cursor, limite));
+    }
+
+    @Operation(
+            summary = "Buscar trámites por criterios",
+            description = "Busca trámites de la entidad del usuario autenticado (multi-tenant) combinando estado, " +
+                    "tipo, revisor, prefijo de la dirección, fechas de radicación y vencimiento del próximo plazo. " +
+                    "Devuelve páginas numeradas con el total de resultados. El administrador global debe indicar la entidad."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultados obtenidos exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TramiteService.ResultadoBusquedaTramites.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Criterios incompatibles, rango de fechas, página o tamaño de página inválido",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Token JWT inválido o expirado",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/buscar")
+    public ResponseEntity<TramiteService.ResultadoBusquedaTramites> buscarTramites(
+            @Parameter(description = "Estados del trámite; se puede repetir para buscar en varios")
+            @RequestParam(required = false) List<Tramite.EstadoTramite> estado,
+            @Parameter(description = "ID del tipo de trámite")
+            @RequestParam(required = false) Long tipoTramiteId,
+            @Parameter(description = "ID del revisor asignado")
+            @RequestParam(required = false) Long revisorId,
+            @Parameter(description = "Solo trámites sin revisor asignado")
+            @RequestParam(defaultValue = "false") boolean sinRevisor,
+            @Parameter(description = "Inicio de la dirección del inmueble, sin distinguir mayúsculas")
+            @RequestParam(required = false) String direccion,
+            @Parameter(description = "Fecha de radicación inicial (inclusive), formato yyyy-MM-dd")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @Parameter(description = "Fecha de radicación final (inclusive), formato yyyy-MM-dd")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @Parameter(description = "Trámites cuyo próximo plazo vence a más tardar en esta fecha, formato yyyy-MM-dd")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate vencenHasta,
+            @Parameter(description = "ID de la entidad (obligatorio para el administrador global)")
+            @RequestParam(required = false) Long entidadId,
+            @Parameter(description = "Número de página, desde 0")
+            @RequestParam(required = false) Integer pagina,
+            @Parameter(description = "Cantidad de trámites por página")
+            @RequestParam(required = false) Integer limite) {
+        TramiteService.CriteriosBusquedaTramites criterios = new TramiteService.CriteriosBusquedaTramites();
+        criterios.setEntidadId(entidadId);
+        criterios.setEstados(estado);
+        criterios.setTipoTramiteId(tipoTramiteId);
+        criterios.setRevisorId(revisorId);
+        criterios.setSinRevisor(sinRevisor);
+        criterios.setDireccion(direccion);
+        criterios.setFechaDesde(fechaDesde);
+        criterios.setFechaHasta(fechaHasta);
+        criterios.setVencenHasta(vencenHasta);
+        return ResponseEntity.ok(tramiteService.buscarTramites(criterios, pagina, limite));
+    }
+
+    @Operation(
+            summary = "Buscar trámites por texto",
+            description = "Busca trámites de la entidad del usuario autenticado (multi-tenant) por texto libre en el " +
+                    "objeto, la descripción del proyecto y la dirección del inmueble, del más relevante al menos " +
+                    "relevante. Admite \"frases entre comillas\", or y -exclusiones. Para la página siguiente, " +
+                    "enviar el siguienteCursor de la respuesta. El administrador global debe indicar la entidad."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultados obtenidos exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TramiteService.PaginaTramites.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Texto vacío o muy largo, cursor o tamaño de página inválido",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Token JWT inválido o expirado",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/buscar-texto")
+    public ResponseEntity<TramiteService.PaginaTramites> buscarTramitesPorTexto(
+            @Parameter(description = "Texto a buscar, p. ej. licencia ampliación calle 45")
+            @RequestParam String q,
+            @Parameter(description = "ID de la entidad (obligatorio para el administrador global)")
+            @RequestParam(required = false) Long entidadId,
+            @Parameter(description = "Cursor opaco de la página anterior (siguienteCursor)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de trámites por página")
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(tramiteService.buscarPorTexto(q, entidadId, cursor, limite));
+    }
+
+    @Operation(
+            summary = "Exportar trámites",
+            description = "Exporta todos los trámites de la entidad del usuario autenticado (multi-tenant) que " +
+                    "cumplen los filtros, del más reciente al más antiguo, en NDJSON (un objeto JSON por línea) " +
+                    "o CSV. La respuesta se escribe por streaming a medida que se leen las filas."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Exportación en curso",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Formato no soportado o rango de fechas inválido",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Token JWT inválido o expirado",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarTramites(
+            @Parameter(description = "Formato de la exportación: ndjson (por defecto) o csv")
+            @RequestParam(required = false) String formato,
+            @Parameter(description = "Estado actual del trámite")
+            @RequestParam(required = false) Tramite.EstadoTramite estado,
+            @Parameter(description = "ID del tipo de trámite")
+            @RequestParam(required = false) Long tipoTramiteId,
+            @Parameter(description = "ID del revisor asignado")
+            @RequestParam(required = false) Long revisorId,
+            @Parameter(description = "Fecha de radicación inicial (inclusive), formato yyyy-MM-dd")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaDesde,
+            @Parameter(description = "Fecha de radicación final (inclusive), formato yyyy-MM-dd")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaHasta,
+            @Parameter(description = "ID de la entidad (solo administrador global)")
+            @RequestParam(required = false) Long entidadId) {
+        TramiteService.FiltroTramites filtro = new TramiteService.FiltroTramites();
+        filtro.setEntidadId(entidadId);
+        filtro.setEstado(estado);
+        filtro.setTipoTramiteId(tipoTramiteId);
+        filtro.setRevisorId(revisorId);
+        filtro.setFechaDesde(fechaDesde);
+        filtro.setFechaHasta(fechaHasta);
+
+        // Se valida y se resuelve la entidad aquí, en el hilo del request; las filas se escriben después
+        ExportacionTramitesService.SolicitudExportacion solicitud = exportacionTramitesService.preparar(filtro, formato);
+        StreamingResponseBody cuerpo = salida -> exportacionTramitesService.escribir(solicitud, salida);
+
+        String nombreArchivo = "tramites-" + LocalDate.now() + "." + solicitud.getFormato().getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(solicitud.getFormato().getTipoContenido()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(nombreArchivo).build().toString())
+                .body(cuerpo);
     }
 
     @Operation(
@@ -168,10 +376,22 @@ public class TramiteController {
                     responseCode = "401",
                     description = "Token JWT inválido o expirado",
                     content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "La solicitud original con la misma Idempotency-Key aún se está procesando",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "La Idempotency-Key ya se usó con una solicitud diferente",
+                    content = @Content(mediaType = "application/json")
             )
     })
     @PostMapping
     public ResponseEntity<TramiteResponseDTO> createTramite(
+            @Parameter(description = "Clave del cliente para reintentar sin crear el trámite dos veces")
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
             @Valid @RequestBody
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Datos del trámite a crear",
@@ -194,8 +414,12 @@ public class TramiteController {
                     )
             )
             TramiteRequestDTO tramiteRequestDTO) {
-        TramiteResponseDTO createdTramite = tramiteService.crearTramite(tramiteRequestDTO);
-        return new ResponseEntity<>(createdTramite, HttpStatus.CREATED);
+        IdempotenciaService.ResultadoIdempotente<TramiteResponseDTO> resultado = idempotenciaService.ejecutar(
+                claveIdempotencia, "CREAR_TRAMITE", tramiteRequestDTO, TramiteResponseDTO.class,
+                HttpStatus.CREATED.value(), () -> tramiteService.crearTramite(tramiteRequestDTO));
+        return ResponseEntity.status(resultado.getCodigoRespuesta())
+                .header("Idempotent-Replayed", String.valueOf(resultado.isRepetida()))
+                .body(resultado.getRespuesta());
     }
 
     @Operation(
@@ -312,4 +536,12 @@ public class TramiteController {
         TramiteResponseDTO updatedTramite = tramiteService.asignarRevisor(id, revisorId);
         return ResponseEntity.ok(updatedTramite);
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> manejarArgumentoInvalido(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of(
+            "error", "DATOS_INVALIDOS",
+            "mensaje", ex.getMessage()
+        ));
+    }
 }
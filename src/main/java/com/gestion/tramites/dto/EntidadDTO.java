@@ -4,6 +4,8 @@ package com.gestion.tramites.dto; // Paquete correcto
 // import jakarta.validation.constraints.NotBlank;
 // import jakarta.validation.constraints.Size;
 // import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 
 public class EntidadDTO {
 
@@ -20,6 +22,9 @@ public class EntidadDTO {
     private String email;
     private String sitioWeb;
     private boolean activo; // Para reflejar el estado activo/inactivo
+    @Min(value = 4, message = "Los dígitos del consecutivo deben estar entre 4 y 7")
+    @Max(value = 7, message = "Los dígitos del consecutivo deben estar entre 4 y 7")
+    private Integer digitosConsecutivo; // Dígitos del consecutivo de radicación; nulo conserva el actual y no se puede reducir
 
     // Constructor vacío
     public EntidadDTO() {
@@ -101,4 +106,12 @@ public class EntidadDTO {
     public void setActivo(boolean activo) {
         this.activo = activo;
     }
+
+    public Integer getDigitosConsecutivo() {
+        return digitosConsecutivo;
+    }
+
+    public void setDigitosConsecutivo(Integer digitosConsecutivo) {
+        this.digitosConsecutivo = digitosConsecutivo;
+    }
 }
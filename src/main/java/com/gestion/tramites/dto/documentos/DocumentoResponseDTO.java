@@ -1,6 +1,5 @@
 package com.gestion.tramites.dto.documentos;
 
-import com.gestion.tramites.model.Documento;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDateTime;
@@ -67,29 +66,6 @@ public class DocumentoResponseDTO {
 
     public DocumentoResponseDTO() {}
 
-    public DocumentoResponseDTO(Documento documento) {
-        this.id = documento.getIdDocumento();
-        this.nombreOriginal = documento.getNombreOriginal();
-        this.tipoMime = documento.getTipoMime();
-        this.extension = documento.getExtension();
-        this.tamanoBytes = documento.getTamanoBytes();
-        this.tamanoLegible = documento.getTamanoLegible();
-        this.tipoDocumento = documento.getTipoDocumento().name();
-        this.descripcionTipoDocumento = documento.getTipoDocumento().getDescripcion();
-        this.descripcion = documento.getDescripcion();
-        this.version = documento.getVersion();
-        this.esVersionActual = documento.getEsVersionActual();
-        this.estado = documento.getEstado().name();
-        this.fechaSubida = documento.getFechaSubida();
-        this.fechaUltimoAcceso = documento.getFechaUltimoAcceso();
-        this.tramiteId = documento.getTramite().getIdTramite();
-        this.numeroRadicacionTramite = documento.getTramite().getNumeroRadicacion();
-        this.nombreUsuarioSubida = documento.getUsuarioSubida().getNombreCompleto();
-        this.documentoPadreId = documento.getDocumentoPadre() != null ?
-                               documento.getDocumentoPadre().getIdDocumento() : null;
-        this.hashArchivo = documento.getHashArchivo();
-    }
-
     // Getters y Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
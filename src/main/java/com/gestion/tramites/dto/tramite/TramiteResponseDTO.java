@@ -66,6 +66,50 @@ public class TramiteResponseDTO {
     // Constructores
     public TramiteResponseDTO() {}
 
+    /**
+     * Constructor de la proyección JPQL (TramiteConsultaRepository): recibe las columnas del
+     * trámite y de sus relaciones ya resueltas por la consulta, sin cargar entidades.
+     */
+    public TramiteResponseDTO(Long idTramite, String numeroRadicacion, LocalDate fechaRadicacion,
+            String objetoTramite, String descripcionProyecto, String direccionInmueble,
+            String condicionRadicacion, Tramite.EstadoTramite estadoActual, LocalDateTime fechaCreacion,
+            LocalDateTime fechaUltimoCambioEstado, LocalDate fechaLimiteProximo,
+            LocalDate fechaLimiteCompletar, LocalDateTime fechaFinalizacion, String comentariosRevisor,
+            Long idEntidad, String nombreEntidad,
+            Long idSolicitante, String nombreSolicitante, String correoSolicitante,
+            Long idRevisorAsignado, String nombreRevisor,
+            Long idTipoTramite, String nombreTipoTramite,
+            Long idModalidadTramite, String nombreModalidadTramite,
+            Long idSubtipoTramite, String nombreSubtipoTramite) {
+        this.idTramite = idTramite;
+        this.numeroRadicacion = numeroRadicacion;
+        this.fechaRadicacion = fechaRadicacion;
+        this.objetoTramite = objetoTramite;
+        this.descripcionProyecto = descripcionProyecto;
+        this.direccionInmueble = direccionInmueble;
+        this.condicionRadicacion = condicionRadicacion;
+        this.estadoActual = estadoActual;
+        this.fechaCreacion = fechaCreacion;
+        this.fechaUltimoCambioEstado = fechaUltimoCambioEstado;
+        this.fechaLimiteProximo = fechaLimiteProximo;
+        this.fechaLimiteCompletar = fechaLimiteCompletar;
+        this.fechaFinalizacion = fechaFinalizacion;
+        this.comentariosRevisor = comentariosRevisor;
+        this.idEntidad = idEntidad;
+        this.nombreEntidad = nombreEntidad;
+        this.idSolicitante = idSolicitante;
+        this.nombreSolicitante = nombreSolicitante;
+        this.correoSolicitante = correoSolicitante;
+        this.idRevisorAsignado = idRevisorAsignado;
+        this.nombreRevisor = nombreRevisor;
+        this.idTipoTramite = idTipoTramite;
+        this.nombreTipoTramite = nombreTipoTramite;
+        this.idModalidadTramite = idModalidadTramite;
+        this.nombreModalidadTramite = nombreModalidadTramite;
+        this.idSubtipoTramite = idSubtipoTramite;
+        this.nombreSubtipoTramite = nombreSubtipoTramite;
+    }
+
     // Getters y Setters
     public Long getIdTramite() {
         return idTramite;
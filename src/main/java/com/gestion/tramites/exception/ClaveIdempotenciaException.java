@@ -0,0 +1,19 @@
+package com.gestion.tramites.exception;
+
+/**
+ * La clave Idempotency-Key no se puede usar: la solicitud original aún se está procesando
+ * (409, el cliente reintenta después) o la clave ya se usó con otro cuerpo (422).
+ */
+public class ClaveIdempotenciaException extends RuntimeException {
+
+    private final boolean enProceso;
+
+    public ClaveIdempotenciaException(String message, boolean enProceso) {
+        super(message);
+        this.enProceso = enProceso;
+    }
+
+    public boolean isEnProceso() {
+        return enProceso;
+    }
+}
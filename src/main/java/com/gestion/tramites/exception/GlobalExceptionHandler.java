@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
@@ -28,6 +29,28 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ReintentosAgotadosException.class)
+    public ResponseEntity<Object> handleReintentosAgotados(ReintentosAgotadosException ex) {
+        Map<String, Object> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        errors.put("intentos", ex.getIntentos());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errors);
+    }
+
+    @ExceptionHandler(ClaveIdempotenciaException.class)
+    public ResponseEntity<Object> handleClaveIdempotencia(ClaveIdempotenciaException ex) {
+        Map<String, Object> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        if (ex.isEnProceso()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(errors);
+        }
+        return ResponseEntity.unprocessableEntity().body(errors);
+    }
+
     // Puedes añadir más manejadores de excepciones aquí si es necesario
     // Por ejemplo, para DataIntegrityViolationException (claves duplicadas, etc.)
     // @ExceptionHandler(DataIntegrityViolationException.class)
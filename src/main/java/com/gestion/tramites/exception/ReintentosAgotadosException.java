@@ -0,0 +1,19 @@
+package com.gestion.tramites.exception;
+
+/**
+ * La operación falló por contención en la base de datos y se agotaron los reintentos.
+ * Se responde 503 para que el cliente vuelva a intentar.
+ */
+public class ReintentosAgotadosException extends RuntimeException {
+
+    private final int intentos;
+
+    public ReintentosAgotadosException(String message, int intentos, Throwable cause) {
+        super(message, cause);
+        this.intentos = intentos;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+}
@@ -2,6 +2,7 @@ package com.gestion.tramites.interceptor;
 
 import com.gestion.tramites.context.EntityContext;
 import com.gestion.tramites.service.CustomUserDetails;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -10,13 +11,13 @@ import org.hibernate.Session;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 import jakarta.persistence.EntityManager;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class EntityInterceptor implements HandlerInterceptor {
+public class EntityInterceptor implements AsyncHandlerInterceptor {
 
     private final EntityManager entityManager;
 
@@ -24,6 +25,12 @@ public class EntityInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
             Object handler) throws Exception {
 
+        // El despacho ASYNC solo termina un request ya validado (p. ej. una exportación por streaming);
+        // el hilo asíncrono que escribió la respuesta activó su propio filtro
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
         // Obtener el usuario autenticado
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -74,6 +81,14 @@ public class EntityInterceptor implements HandlerInterceptor {
         return true;
     }
 
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) throws Exception {
+        // Con procesamiento asíncrono afterCompletion no se ejecuta en este hilo: se limpia aquí para que
+        // el contexto no quede en el hilo del contenedor que atenderá otro request
+        EntityContext.clear();
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
             Object handler, Exception ex) throws Exception {
@@ -0,0 +1,17 @@
+package com.gestion.tramites.mapper;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Configuración común de los mappers entidad → DTO generados por MapStruct en compilación.
+ *
+ * Reemplazan el mapeo por reflexión de ModelMapper: el código generado son getters y setters
+ * directos, sin introspección ni objetos intermedios por cada fila. Un campo del DTO sin origen
+ * es un error de compilación, no un null silencioso en la respuesta.
+ */
+@MapperConfig(componentModel = MappingConstants.ComponentModel.SPRING,
+              unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ConfiguracionMappers {
+}
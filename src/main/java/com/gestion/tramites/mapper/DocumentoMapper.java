@@ -0,0 +1,26 @@
+package com.gestion.tramites.mapper;
+
+import com.gestion.tramites.dto.documentos.DocumentoResponseDTO;
+import com.gestion.tramites.model.Documento;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Documento → DocumentoResponseDTO. Los listados deben traer trámite y usuario con el grafo
+ * Documento.listado para no cargarlos fila por fila.
+ */
+@Mapper(config = ConfiguracionMappers.class)
+public interface DocumentoMapper {
+
+    @Mapping(target = "id", source = "idDocumento")
+    @Mapping(target = "descripcionTipoDocumento", source = "tipoDocumento.descripcion")
+    @Mapping(target = "tramiteId", source = "tramite.idTramite")
+    @Mapping(target = "numeroRadicacionTramite", source = "tramite.numeroRadicacion")
+    @Mapping(target = "nombreUsuarioSubida", source = "usuarioSubida.nombreCompleto")
+    @Mapping(target = "documentoPadreId", source = "documentoPadre.idDocumento")
+    DocumentoResponseDTO toResponseDTO(Documento documento);
+
+    List<DocumentoResponseDTO> toResponseDTOs(List<Documento> documentos);
+}
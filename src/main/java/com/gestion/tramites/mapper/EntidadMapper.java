@@ -0,0 +1,14 @@
+package com.gestion.tramites.mapper;
+
+import com.gestion.tramites.dto.EntidadDTO;
+import com.gestion.tramites.model.Entidad;
+import org.mapstruct.Mapper;
+
+/**
+ * Entidad → EntidadDTO
+ */
+@Mapper(config = ConfiguracionMappers.class)
+public interface EntidadMapper {
+
+    EntidadDTO toDto(Entidad entidad);
+}
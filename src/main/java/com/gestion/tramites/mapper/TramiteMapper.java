@@ -0,0 +1,29 @@
+package com.gestion.tramites.mapper;
+
+import com.gestion.tramites.dto.tramite.TramiteResponseDTO;
+import com.gestion.tramites.model.Tramite;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Tramite → TramiteResponseDTO para las respuestas de creación y cambios de un trámite.
+ * Listado y detalle ya leen el DTO desde la consulta (TramiteConsultaRepository).
+ */
+@Mapper(config = ConfiguracionMappers.class)
+public interface TramiteMapper {
+
+    @Mapping(target = "idEntidad", source = "entidad.id")
+    @Mapping(target = "nombreEntidad", source = "entidad.nombre")
+    @Mapping(target = "idSolicitante", source = "solicitante.idUsuario")
+    @Mapping(target = "nombreSolicitante", source = "solicitante.nombreCompleto")
+    @Mapping(target = "correoSolicitante", source = "solicitante.correoElectronico")
+    @Mapping(target = "idRevisorAsignado", source = "revisorAsignado.idUsuario")
+    @Mapping(target = "nombreRevisor", source = "revisorAsignado.nombreCompleto")
+    @Mapping(target = "idTipoTramite", source = "tipoTramite.idTipoTramite")
+    @Mapping(target = "nombreTipoTramite", source = "tipoTramite.nombre")
+    @Mapping(target = "idModalidadTramite", source = "modalidadTramite.idModalidadTramite")
+    @Mapping(target = "nombreModalidadTramite", source = "modalidadTramite.nombre")
+    @Mapping(target = "idSubtipoTramite", source = "subtipoTramite.idSubtipoTramite")
+    @Mapping(target = "nombreSubtipoTramite", source = "subtipoTramite.nombre")
+    TramiteResponseDTO toResponseDTO(Tramite tramite);
+}
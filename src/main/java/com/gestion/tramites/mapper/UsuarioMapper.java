@@ -0,0 +1,31 @@
+package com.gestion.tramites.mapper;
+
+import com.gestion.tramites.dto.EntidadDTO;
+import com.gestion.tramites.dto.UsuarioResponseDTO;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.Usuario;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+/**
+ * Usuario → UsuarioResponseDTO. La contraseña no tiene destino en el DTO y nunca se copia.
+ */
+@Mapper(config = ConfiguracionMappers.class)
+public interface UsuarioMapper {
+
+    @Mapping(target = "entidad", qualifiedByName = "entidadResumen")
+    UsuarioResponseDTO toResponseDto(Usuario usuario);
+
+    /**
+     * En la respuesta de un usuario la entidad va resumida: id, nombre, NIT y estado
+     */
+    @Named("entidadResumen")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "nombre", source = "nombre")
+    @Mapping(target = "nit", source = "nit")
+    @Mapping(target = "activo", source = "activo")
+    EntidadDTO toEntidadResumen(Entidad entidad);
+}
@@ -0,0 +1,123 @@
+package com.gestion.tramites.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta registrada para una clave Idempotency-Key. La clave es única por usuario y
+ * operación; los reintentos con la misma clave reciben la respuesta guardada sin repetir
+ * la operación.
+ */
+@Entity
+@Table(name = "claves_idempotencia",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"usuario", "operacion", "clave"}, name = "uk_clave_idempotencia")
+       },
+       indexes = {
+           @Index(name = "idx_clave_idempotencia_expiracion", columnList = "fecha_expiracion")
+       })
+public class ClaveIdempotencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_clave")
+    private Long idClave;
+
+    @Column(name = "clave", nullable = false, length = 255)
+    private String clave;
+
+    @Column(name = "operacion", nullable = false, length = 50)
+    private String operacion;
+
+    @Column(name = "usuario", nullable = false, length = 100)
+    private String usuario;
+
+    @Column(name = "hash_solicitud", nullable = false, length = 64)
+    private String hashSolicitud;
+
+    @Column(name = "estado", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private EstadoClave estado;
+
+    @Column(name = "codigo_respuesta")
+    private Integer codigoRespuesta;
+
+    @Column(name = "cuerpo_respuesta", columnDefinition = "TEXT")
+    private String cuerpoRespuesta;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_registro", nullable = false)
+    private LocalDateTime fechaRegistro;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    public enum EstadoClave {
+        EN_PROCESO("La primera solicitud con la clave aún se está procesando"),
+        COMPLETADA("La respuesta está guardada");
+
+        private final String descripcion;
+
+        EstadoClave(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() { return descripcion; }
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.fechaCreacion == null) {
+            this.fechaCreacion = LocalDateTime.now();
+        }
+        if (this.fechaRegistro == null) {
+            this.fechaRegistro = this.fechaCreacion;
+        }
+        if (this.estado == null) {
+            this.estado = EstadoClave.EN_PROCESO;
+        }
+    }
+
+    public void completar(int codigoRespuesta, String cuerpoRespuesta) {
+        this.estado = EstadoClave.COMPLETADA;
+        this.codigoRespuesta = codigoRespuesta;
+        this.cuerpoRespuesta = cuerpoRespuesta;
+    }
+
+    // Getters y Setters
+    public Long getIdClave() { return idClave; }
+    public void setIdClave(Long idClave) { this.idClave = idClave; }
+
+    public String getClave() { return clave; }
+    public void setClave(String clave) { this.clave = clave; }
+
+    public String getOperacion() { return operacion; }
+    public void setOperacion(String operacion) { this.operacion = operacion; }
+
+    public String getUsuario() { return usuario; }
+    public void setUsuario(String usuario) { this.usuario = usuario; }
+
+    public String getHashSolicitud() { return hashSolicitud; }
+    public void setHashSolicitud(String hashSolicitud) { this.hashSolicitud = hashSolicitud; }
+
+    public EstadoClave getEstado() { return estado; }
+    public void setEstado(EstadoClave estado) { this.estado = estado; }
+
+    public Integer getCodigoRespuesta() { return codigoRespuesta; }
+    public void setCodigoRespuesta(Integer codigoRespuesta) { this.codigoRespuesta = codigoRespuesta; }
+
+    public String getCuerpoRespuesta() { return cuerpoRespuesta; }
+    public void setCuerpoRespuesta(String cuerpoRespuesta) { this.cuerpoRespuesta = cuerpoRespuesta; }
+
+    public LocalDateTime getFechaCreacion() { return fechaCreacion; }
+    public void setFechaCreacion(LocalDateTime fechaCreacion) { this.fechaCreacion = fechaCreacion; }
+
+    public LocalDateTime getFechaRegistro() { return fechaRegistro; }
+    public void setFechaRegistro(LocalDateTime fechaRegistro) { this.fechaRegistro = fechaRegistro; }
+
+    public LocalDateTime getFechaExpiracion() { return fechaExpiracion; }
+    public void setFechaExpiracion(LocalDateTime fechaExpiracion) { this.fechaExpiracion = fechaExpiracion; }
+}
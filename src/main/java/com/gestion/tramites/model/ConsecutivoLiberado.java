@@ -0,0 +1,110 @@
+package com.gestion.tramites.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consecutivo de radicación que fue asignado al contador pero nunca llegó a un trámite
+ * (bloques no utilizados al apagar un nodo, radicaciones revertidas, reservas vencidas).
+ * Permite que la auditoría de secuencia distinga un salto explicado de uno desconocido, y
+ * funciona como pool de reutilización: la siguiente radicación de la entidad toma primero
+ * el menor consecutivo liberado.
+ */
+@Entity
+@Table(name = "consecutivos_liberados",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"entidad_id", "tipo_entidad", "ano", "consecutivo"},
+                           name = "uk_consecutivo_liberado")
+       },
+       indexes = {
+           @Index(name = "idx_liberado_busqueda", columnList = "entidad_id, tipo_entidad, ano")
+       })
+public class ConsecutivoLiberado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_consecutivo_liberado")
+    private Long idConsecutivoLiberado;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "entidad_id", nullable = false)
+    @NotNull(message = "La entidad es obligatoria")
+    private Entidad entidad;
+
+    @Column(name = "tipo_entidad", nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "El tipo de entidad es obligatorio")
+    private ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad;
+
+    @Column(name = "ano", nullable = false)
+    @NotNull(message = "El año es obligatorio")
+    private Integer ano;
+
+    @Column(name = "consecutivo", nullable = false)
+    @NotNull(message = "El consecutivo es obligatorio")
+    private Integer consecutivo;
+
+    @Column(name = "motivo", nullable = false, length = 30)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "El motivo es obligatorio")
+    private MotivoLiberacion motivo;
+
+    @Column(name = "fecha_liberacion", nullable = false)
+    private LocalDateTime fechaLiberacion;
+
+    public enum MotivoLiberacion {
+        BLOQUE_NO_UTILIZADO("Bloque de consecutivos no utilizado al detener el nodo"),
+        RADICACION_REVERTIDA("Radicación revertida después de asignar el consecutivo"),
+        RESERVA_EXPIRADA("Reserva de número vencida sin utilizar");
+
+        private final String descripcion;
+
+        MotivoLiberacion(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() { return descripcion; }
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.fechaLiberacion == null) {
+            this.fechaLiberacion = LocalDateTime.now();
+        }
+    }
+
+    public ConsecutivoLiberado() {}
+
+    public ConsecutivoLiberado(Entidad entidad, ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                               Integer ano, Integer consecutivo, MotivoLiberacion motivo) {
+        this.entidad = entidad;
+        this.tipoEntidad = tipoEntidad;
+        this.ano = ano;
+        this.consecutivo = consecutivo;
+        this.motivo = motivo;
+    }
+
+    // Getters y Setters
+    public Long getIdConsecutivoLiberado() { return idConsecutivoLiberado; }
+    public void setIdConsecutivoLiberado(Long idConsecutivoLiberado) { this.idConsecutivoLiberado = idConsecutivoLiberado; }
+
+    public Entidad getEntidad() { return entidad; }
+    public void setEntidad(Entidad entidad) { this.entidad = entidad; }
+
+    public ConsecutivoRadicacion.TipoEntidadRadicacion getTipoEntidad() { return tipoEntidad; }
+    public void setTipoEntidad(ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad) { this.tipoEntidad = tipoEntidad; }
+
+    public Integer getAno() { return ano; }
+    public void setAno(Integer ano) { this.ano = ano; }
+
+    public Integer getConsecutivo() { return consecutivo; }
+    public void setConsecutivo(Integer consecutivo) { this.consecutivo = consecutivo; }
+
+    public MotivoLiberacion getMotivo() { return motivo; }
+    public void setMotivo(MotivoLiberacion motivo) { this.motivo = motivo; }
+
+    public LocalDateTime getFechaLiberacion() { return fechaLiberacion; }
+    public void setFechaLiberacion(LocalDateTime fechaLiberacion) { this.fechaLiberacion = fechaLiberacion; }
+}
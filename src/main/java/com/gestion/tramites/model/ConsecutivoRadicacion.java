@@ -104,17 +104,35 @@ public class ConsecutivoRadicacion {
      * Genera el siguiente número de radicación en el formato correcto
      * Secretarías: COD_DANE-0-YY-NNNN
      * Curadurías: COD_DANE-CUR-YY-NNNN
+     * El consecutivo usa los dígitos configurados en la entidad (4 por defecto)
      */
     public String generarSiguienteRadicacion() {
-        int siguienteNumero = this.ultimoConsecutivo + 1;
-        String anoCorto = String.valueOf(this.ano % 100);
-        String numeroFormateado = String.format("%04d", siguienteNumero);
-
-        return String.format("%s-%s-%s-%s",
-                this.codigoDane,
-                this.tipoEntidad.getCodigo(),
-                anoCorto,
-                numeroFormateado);
+        return generarRadicacion(this.ultimoConsecutivo + 1);
+    }
+
+    /**
+     * Genera el número de radicación para un consecutivo específico de este contador
+     * (usado cuando los consecutivos se asignan por bloques)
+     */
+    public String generarRadicacion(int consecutivo) {
+        int digitos = this.entidad != null ? this.entidad.getDigitosConsecutivo() : NumeroRadicacion.DIGITOS_CONSECUTIVO;
+        return formatearRadicacion(this.codigoDane, this.tipoEntidad, this.ano, consecutivo, digitos);
+    }
+
+    /**
+     * Formatea un número de radicación a partir de sus componentes
+     */
+    public static String formatearRadicacion(String codigoDane, TipoEntidadRadicacion tipoEntidad,
+                                             int ano, int consecutivo) {
+        return NumeroRadicacion.formatear(codigoDane, tipoEntidad, ano, consecutivo);
+    }
+
+    /**
+     * Formatea un número de radicación con el consecutivo en al menos digitosConsecutivo dígitos
+     */
+    public static String formatearRadicacion(String codigoDane, TipoEntidadRadicacion tipoEntidad,
+                                             int ano, int consecutivo, int digitosConsecutivo) {
+        return NumeroRadicacion.formatear(codigoDane, tipoEntidad, ano, consecutivo, digitosConsecutivo);
     }
 
     /**
@@ -123,43 +141,29 @@ public class ConsecutivoRadicacion {
     public String incrementarYGenerar() {
         this.ultimoConsecutivo++;
         this.fechaActualizacion = LocalDateTime.now();
-        return generarSiguienteRadicacion();
+        return generarRadicacion(this.ultimoConsecutivo);
     }
 
     /**
      * Valida si un número de radicación corresponde a este consecutivo
      */
     public boolean correspondeAEsteConsecutivo(String numeroRadicacion) {
-        if (numeroRadicacion == null || numeroRadicacion.trim().isEmpty()) {
+        long numero = NumeroRadicacion.parsear(numeroRadicacion);
+        if (numero == NumeroRadicacion.INVALIDO) {
             return false;
         }
 
-        String patron = String.format("%s-%s-%s-\\d{4}",
-                this.codigoDane,
-                this.tipoEntidad.getCodigo(),
-                String.valueOf(this.ano % 100));
-
-        return numeroRadicacion.matches(patron);
+        return NumeroRadicacion.codigoDane(numero) == NumeroRadicacion.parsearCodigoDane(this.codigoDane)
+                && NumeroRadicacion.tipoEntidad(numero) == this.tipoEntidad
+                && NumeroRadicacion.anoCorto(numero) == this.ano % 100;
     }
 
     /**
      * Extrae el número consecutivo de una radicación
      */
     public static Integer extraerConsecutivo(String numeroRadicacion) {
-        if (numeroRadicacion == null || numeroRadicacion.trim().isEmpty()) {
-            return null;
-        }
-
-        String[] partes = numeroRadicacion.split("-");
-        if (partes.length != 4) {
-            return null;
-        }
-
-        try {
-            return Integer.parseInt(partes[3]);
-        } catch (NumberFormatException e) {
-            return null;
-        }
+        long numero = NumeroRadicacion.parsear(numeroRadicacion);
+        return numero != NumeroRadicacion.INVALIDO ? NumeroRadicacion.consecutivo(numero) : null;
     }
 
     public ConsecutivoRadicacion() {}
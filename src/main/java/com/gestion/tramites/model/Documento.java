@@ -8,9 +8,17 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
+// Listados de documentos: DocumentoResponseDTO lee el trámite y quién subió cada documento
+@NamedEntityGraph(name = Documento.GRAFO_LISTADO,
+        attributeNodes = {
+            @NamedAttributeNode("tramite"),
+            @NamedAttributeNode("usuarioSubida")
+        })
 @Table(name = "documentos")
 public class Documento extends BaseTenantEntity {
 
+    public static final String GRAFO_LISTADO = "Documento.listado";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_documento")
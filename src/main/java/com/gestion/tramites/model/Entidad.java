@@ -35,6 +35,11 @@ public class Entidad {
     @Column(nullable = false) // Estado de la entidad (Activa/Inactiva)
     private boolean activo = true; // Por defecto, se crea como activa
 
+    // Dígitos del consecutivo en sus números de radicación (4 a 7). Solo debería ampliarse:
+    // los números ya emitidos conservan el ancho con el que se escribieron
+    @Column(name = "digitos_consecutivo", nullable = false)
+    private int digitosConsecutivo = NumeroRadicacion.DIGITOS_CONSECUTIVO;
+
     // Constructores
     public Entidad() {}
 
@@ -127,6 +132,19 @@ public class Entidad {
         this.activo = activo;
     }
 
+    public int getDigitosConsecutivo() {
+        return digitosConsecutivo;
+    }
+
+    public void setDigitosConsecutivo(int digitosConsecutivo) {
+        if (!NumeroRadicacion.esAnchoValido(digitosConsecutivo)) {
+            throw new IllegalArgumentException(String.format(
+                    "Los dígitos del consecutivo deben estar entre %d y %d",
+                    NumeroRadicacion.DIGITOS_CONSECUTIVO, NumeroRadicacion.DIGITOS_CONSECUTIVO_MAXIMO));
+        }
+        this.digitosConsecutivo = digitosConsecutivo;
+    }
+
     // Métodos equals y hashCode (importante para colecciones y JPA)
     @Override
     public boolean equals(Object o) {
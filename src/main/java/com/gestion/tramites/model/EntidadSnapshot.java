@@ -0,0 +1,67 @@
+package com.gestion.tramites.model;
+
+/**
+ * Copia inmutable de los datos de una entidad que consultan la radicación, la validación,
+ * las notificaciones y el portal ciudadano.
+ *
+ * El tipo de entidad para radicación se calcula una sola vez al crear la copia. La versión
+ * es la del caché de entidades en el momento de la carga.
+ */
+public final class EntidadSnapshot {
+
+    private final Long id;
+    private final String nombre;
+    private final String codigoDane;
+    private final ConsecutivoRadicacion.TipoEntidadRadicacion tipoRadicacion;
+    private final boolean activo;
+    private final String email;
+    private final String telefono;
+    private final int digitosConsecutivo;
+    private final long version;
+
+    private EntidadSnapshot(Entidad entidad, long version) {
+        this.id = entidad.getId();
+        this.nombre = entidad.getNombre();
+        this.codigoDane = entidad.getCodigoDane();
+        this.tipoRadicacion = determinarTipoRadicacion(entidad.getNombre());
+        this.activo = entidad.isActivo();
+        this.email = entidad.getEmail();
+        this.telefono = entidad.getTelefono();
+        this.digitosConsecutivo = entidad.getDigitosConsecutivo();
+        this.version = version;
+    }
+
+    public static EntidadSnapshot de(Entidad entidad, long version) {
+        return new EntidadSnapshot(entidad, version);
+    }
+
+    /**
+     * Las curadurías se reconocen por su nombre ("Curaduría", "Curador"); las demás entidades
+     * radican como secretaría. Compara sin distinguir mayúsculas y sin crear objetos.
+     */
+    public static ConsecutivoRadicacion.TipoEntidadRadicacion determinarTipoRadicacion(String nombre) {
+        if (nombre != null) {
+            for (int i = 0; i + 7 <= nombre.length(); i++) {
+                if (nombre.regionMatches(true, i, "curadur", 0, 7) || nombre.regionMatches(true, i, "curador", 0, 7)) {
+                    return ConsecutivoRadicacion.TipoEntidadRadicacion.CURADURIA;
+                }
+            }
+        }
+        return ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA;
+    }
+
+    public Long getId() { return id; }
+    public String getNombre() { return nombre; }
+    public String getCodigoDane() { return codigoDane; }
+    public ConsecutivoRadicacion.TipoEntidadRadicacion getTipoRadicacion() { return tipoRadicacion; }
+    public boolean isActivo() { return activo; }
+    public String getEmail() { return email; }
+    public String getTelefono() { return telefono; }
+    public int getDigitosConsecutivo() { return digitosConsecutivo; }
+    public long getVersion() { return version; }
+
+    @Override
+    public String toString() {
+        return "EntidadSnapshot{id=" + id + ", nombre='" + nombre + "', version=" + version + '}';
+    }
+}
@@ -0,0 +1,346 @@
+package com.gestion.tramites.model;
+
+/**
+ * Número de radicación oficial (DANE-0-YY-NNNN para secretarías, DANE-CUR-YY-NNNN para curadurías)
+ * empaquetado en un long. El consecutivo tiene de 4 a 7 dígitos: cada entidad define su ancho
+ * (Entidad.digitosConsecutivo) y un consecutivo que no cabe en el ancho se escribe con los dígitos
+ * que necesite. Los números de 4 dígitos ya emitidos siguen siendo válidos.
+ *
+ * Los métodos estáticos parsean y formatean sin expresiones regulares, split, parseInt ni
+ * String.format: el parseo recorre el texto una sola vez y no crea objetos, y el formateo solo
+ * crea el String resultante. Son los usados por la validación, la generación y la extracción del
+ * consecutivo; la clase sirve además como tipo de valor inmutable para quien necesite una instancia.
+ *
+ * Distribución de bits: código DANE (17) | tipo de entidad (2) | año corto (7) | consecutivo (31) |
+ * dígitos del consecutivo menos 4 (2). El ancho va en los bits bajos para no alterar el orden por
+ * entidad, tipo, año y consecutivo, y para que parsear y formatear sean inversos.
+ */
+public final class NumeroRadicacion implements Comparable<NumeroRadicacion> {
+
+    /** Resultado de parsear un texto que no es un número de radicación válido */
+    public static final long INVALIDO = -1L;
+
+    public static final int DIGITOS_DANE = 5;
+    public static final int DIGITOS_ANO = 2;
+    /** Ancho por defecto y mínimo del consecutivo */
+    public static final int DIGITOS_CONSECUTIVO = 4;
+    public static final int DIGITOS_CONSECUTIVO_MAXIMO = 7;
+    public static final int CONSECUTIVO_MAXIMO = 9_999_999;
+
+    /** Longitud del número más largo: DANE-CUR-YY-NNNNNNN */
+    public static final int LONGITUD_MAXIMA = DIGITOS_DANE + DIGITOS_ANO + DIGITOS_CONSECUTIVO_MAXIMO + 6;
+
+    private static final int DESPLAZAMIENTO_CONSECUTIVO = 2;
+    private static final int DESPLAZAMIENTO_ANO = 33;
+    private static final int DESPLAZAMIENTO_TIPO = 40;
+    private static final int DESPLAZAMIENTO_DANE = 42;
+    private static final long MASCARA_DIGITOS = (1L << 2) - 1;
+    private static final long MASCARA_CONSECUTIVO = (1L << 31) - 1;
+    private static final long MASCARA_ANO = (1L << 7) - 1;
+    private static final long MASCARA_TIPO = (1L << 2) - 1;
+    private static final long MASCARA_DANE = (1L << 17) - 1;
+
+    private static final ConsecutivoRadicacion.TipoEntidadRadicacion[] TIPOS =
+            ConsecutivoRadicacion.TipoEntidadRadicacion.values();
+
+    private final long valor;
+
+    private NumeroRadicacion(long valor) {
+        this.valor = valor;
+    }
+
+    /**
+     * Crea el número a partir de su valor empaquetado
+     */
+    public static NumeroRadicacion de(long valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor empaquetado de radicación no válido: " + valor);
+        }
+        return new NumeroRadicacion(valor);
+    }
+
+    /**
+     * Parsea el número de radicación; lanza IllegalArgumentException si el formato no es válido
+     */
+    public static NumeroRadicacion de(CharSequence texto) {
+        long valor = parsear(texto);
+        if (valor == INVALIDO) {
+            throw new IllegalArgumentException("Número de radicación no válido: " + texto);
+        }
+        return new NumeroRadicacion(valor);
+    }
+
+    /**
+     * Empaqueta los componentes de un número de radicación con el ancho mínimo del consecutivo
+     */
+    public static long empaquetar(int codigoDane, ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                  int anoCorto, int consecutivo) {
+        return empaquetar(codigoDane, tipoEntidad, anoCorto, consecutivo, DIGITOS_CONSECUTIVO);
+    }
+
+    /**
+     * Empaqueta los componentes de un número de radicación; el consecutivo se escribe con al menos
+     * digitosConsecutivo dígitos
+     */
+    public static long empaquetar(int codigoDane, ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                  int anoCorto, int consecutivo, int digitosConsecutivo) {
+        int digitos = calcularDigitos(consecutivo, digitosConsecutivo);
+        return ((long) codigoDane << DESPLAZAMIENTO_DANE)
+                | ((long) tipoEntidad.ordinal() << DESPLAZAMIENTO_TIPO)
+                | ((long) anoCorto << DESPLAZAMIENTO_ANO)
+                | ((long) consecutivo << DESPLAZAMIENTO_CONSECUTIVO)
+                | (digitos - DIGITOS_CONSECUTIVO);
+    }
+
+    /**
+     * Parsea un número de radicación y retorna su valor empaquetado, o INVALIDO si no tiene el formato
+     * oficial. Ignora espacios al inicio y al final y acepta el tipo CUR en minúsculas.
+     */
+    public static long parsear(CharSequence texto) {
+        if (texto == null) {
+            return INVALIDO;
+        }
+        int inicio = 0;
+        int fin = texto.length();
+        while (inicio < fin && texto.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fin > inicio && texto.charAt(fin - 1) <= ' ') {
+            fin--;
+        }
+
+        int posicion = inicio;
+        if (fin - posicion < DIGITOS_DANE + 1) {
+            return INVALIDO;
+        }
+        int codigoDane = leerDigitos(texto, posicion, DIGITOS_DANE);
+        posicion += DIGITOS_DANE;
+        if (codigoDane < 0 || texto.charAt(posicion++) != '-') {
+            return INVALIDO;
+        }
+
+        ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad;
+        if (fin - posicion >= 2 && texto.charAt(posicion) == '0' && texto.charAt(posicion + 1) == '-') {
+            tipoEntidad = ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA;
+            posicion += 2;
+        } else if (fin - posicion >= 4
+                && (texto.charAt(posicion) | 0x20) == 'c'
+                && (texto.charAt(posicion + 1) | 0x20) == 'u'
+                && (texto.charAt(posicion + 2) | 0x20) == 'r'
+                && texto.charAt(posicion + 3) == '-') {
+            tipoEntidad = ConsecutivoRadicacion.TipoEntidadRadicacion.CURADURIA;
+            posicion += 4;
+        } else {
+            return INVALIDO;
+        }
+
+        int digitosConsecutivo = fin - posicion - DIGITOS_ANO - 1;
+        if (digitosConsecutivo < DIGITOS_CONSECUTIVO || digitosConsecutivo > DIGITOS_CONSECUTIVO_MAXIMO) {
+            return INVALIDO;
+        }
+        int anoCorto = leerDigitos(texto, posicion, DIGITOS_ANO);
+        posicion += DIGITOS_ANO;
+        if (anoCorto < 0 || texto.charAt(posicion++) != '-') {
+            return INVALIDO;
+        }
+        int consecutivo = leerDigitos(texto, posicion, digitosConsecutivo);
+        if (consecutivo < 0) {
+            return INVALIDO;
+        }
+
+        return empaquetar(codigoDane, tipoEntidad, anoCorto, consecutivo, digitosConsecutivo);
+    }
+
+    /**
+     * Convierte un código DANE de 5 dígitos a número, o -1 si no es válido
+     */
+    public static int parsearCodigoDane(CharSequence codigoDane) {
+        if (codigoDane == null || codigoDane.length() != DIGITOS_DANE) {
+            return -1;
+        }
+        return leerDigitos(codigoDane, 0, DIGITOS_DANE);
+    }
+
+    public static int codigoDane(long valor) {
+        return (int) ((valor >>> DESPLAZAMIENTO_DANE) & MASCARA_DANE);
+    }
+
+    public static ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad(long valor) {
+        return TIPOS[(int) ((valor >>> DESPLAZAMIENTO_TIPO) & MASCARA_TIPO)];
+    }
+
+    public static int anoCorto(long valor) {
+        return (int) ((valor >>> DESPLAZAMIENTO_ANO) & MASCARA_ANO);
+    }
+
+    public static int consecutivo(long valor) {
+        return (int) ((valor >>> DESPLAZAMIENTO_CONSECUTIVO) & MASCARA_CONSECUTIVO);
+    }
+
+    /**
+     * Dígitos con los que está escrito el consecutivo
+     */
+    public static int digitosConsecutivo(long valor) {
+        return DIGITOS_CONSECUTIVO + (int) (valor & MASCARA_DIGITOS);
+    }
+
+    /**
+     * Mayor consecutivo que cabe en el ancho indicado
+     */
+    public static int consecutivoMaximo(int digitosConsecutivo) {
+        int maximo = 9;
+        for (int i = 1; i < digitosConsecutivo; i++) {
+            maximo = maximo * 10 + 9;
+        }
+        return maximo;
+    }
+
+    /**
+     * Indica si el ancho de consecutivo está entre el mínimo y el máximo del formato oficial
+     */
+    public static boolean esAnchoValido(int digitosConsecutivo) {
+        return digitosConsecutivo >= DIGITOS_CONSECUTIVO && digitosConsecutivo <= DIGITOS_CONSECUTIVO_MAXIMO;
+    }
+
+    /**
+     * Formatea un valor empaquetado en el texto oficial
+     */
+    public static String formatear(long valor) {
+        return formatear(codigoDane(valor), tipoEntidad(valor), anoCorto(valor), consecutivo(valor),
+                digitosConsecutivo(valor));
+    }
+
+    /**
+     * Formatea el número de radicación de un contador (año completo, se usan sus dos últimos dígitos)
+     */
+    public static String formatear(String codigoDane, ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                   int ano, int consecutivo) {
+        return formatear(codigoDane, tipoEntidad, ano, consecutivo, DIGITOS_CONSECUTIVO);
+    }
+
+    /**
+     * Formatea el número de radicación con el consecutivo escrito en al menos digitosConsecutivo dígitos
+     */
+    public static String formatear(String codigoDane, ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                   int ano, int consecutivo, int digitosConsecutivo) {
+        digitosConsecutivo = calcularDigitos(consecutivo, digitosConsecutivo);
+        String codigoTipo = tipoEntidad.getCodigo();
+        char[] texto = new char[codigoDane.length() + codigoTipo.length() + DIGITOS_ANO + digitosConsecutivo + 3];
+
+        int posicion = 0;
+        codigoDane.getChars(0, codigoDane.length(), texto, posicion);
+        posicion += codigoDane.length();
+        texto[posicion++] = '-';
+        codigoTipo.getChars(0, codigoTipo.length(), texto, posicion);
+        posicion += codigoTipo.length();
+        texto[posicion++] = '-';
+        posicion = escribirDigitos(texto, posicion, ano % 100, DIGITOS_ANO);
+        texto[posicion++] = '-';
+        escribirDigitos(texto, posicion, consecutivo, digitosConsecutivo);
+
+        return new String(texto);
+    }
+
+    private static String formatear(int codigoDane, ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                    int anoCorto, int consecutivo, int digitosConsecutivo) {
+        String codigoTipo = tipoEntidad.getCodigo();
+        char[] texto = new char[DIGITOS_DANE + codigoTipo.length() + DIGITOS_ANO + digitosConsecutivo + 3];
+
+        int posicion = escribirDigitos(texto, 0, codigoDane, DIGITOS_DANE);
+        texto[posicion++] = '-';
+        codigoTipo.getChars(0, codigoTipo.length(), texto, posicion);
+        posicion += codigoTipo.length();
+        texto[posicion++] = '-';
+        posicion = escribirDigitos(texto, posicion, anoCorto, DIGITOS_ANO);
+        texto[posicion++] = '-';
+        escribirDigitos(texto, posicion, consecutivo, digitosConsecutivo);
+
+        return new String(texto);
+    }
+
+    /**
+     * Escribe el texto oficial en un StringBuilder existente, sin crear objetos intermedios
+     */
+    public static StringBuilder escribir(StringBuilder destino, long valor) {
+        int codigoDane = codigoDane(valor);
+        for (int divisor = 10000; divisor > 0; divisor /= 10) {
+            destino.append((char) ('0' + (codigoDane / divisor) % 10));
+        }
+        destino.append('-').append(tipoEntidad(valor).getCodigo()).append('-');
+        int anoCorto = anoCorto(valor);
+        destino.append((char) ('0' + anoCorto / 10)).append((char) ('0' + anoCorto % 10)).append('-');
+        int consecutivo = consecutivo(valor);
+        for (int digitos = contarDigitos(consecutivo), ancho = digitosConsecutivo(valor); digitos < ancho; digitos++) {
+            destino.append('0');
+        }
+        return destino.append(consecutivo);
+    }
+
+    /**
+     * Ancho con el que se escribe el consecutivo: el de la entidad, o más si el consecutivo no cabe
+     */
+    private static int calcularDigitos(int consecutivo, int digitosConsecutivo) {
+        if (consecutivo < 0 || consecutivo > CONSECUTIVO_MAXIMO) {
+            throw new IllegalArgumentException("Consecutivo de radicación fuera de rango: " + consecutivo);
+        }
+        if (!esAnchoValido(digitosConsecutivo)) {
+            throw new IllegalArgumentException("Ancho de consecutivo no válido: " + digitosConsecutivo);
+        }
+        return Math.max(digitosConsecutivo, contarDigitos(consecutivo));
+    }
+
+    private static int leerDigitos(CharSequence texto, int desde, int cantidad) {
+        int valor = 0;
+        for (int i = desde; i < desde + cantidad; i++) {
+            int digito = texto.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private static int escribirDigitos(char[] destino, int desde, int valor, int cantidad) {
+        for (int i = desde + cantidad - 1; i >= desde; i--) {
+            destino[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+        return desde + cantidad;
+    }
+
+    private static int contarDigitos(int valor) {
+        int digitos = 1;
+        while (valor >= 10) {
+            valor /= 10;
+            digitos++;
+        }
+        return digitos;
+    }
+
+    public long getValor() { return valor; }
+    public int getCodigoDane() { return codigoDane(valor); }
+    public ConsecutivoRadicacion.TipoEntidadRadicacion getTipoEntidad() { return tipoEntidad(valor); }
+    public int getAnoCorto() { return anoCorto(valor); }
+    public int getConsecutivo() { return consecutivo(valor); }
+
+    @Override
+    public int compareTo(NumeroRadicacion otro) {
+        return Long.compare(valor, otro.valor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof NumeroRadicacion otro && valor == otro.valor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(valor);
+    }
+
+    @Override
+    public String toString() {
+        return formatear(valor);
+    }
+}
@@ -0,0 +1,166 @@
+package com.gestion.tramites.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Último resultado de la auditoría nocturna de secuencia de una entidad en un año.
+ * Hay una sola fila por (entidad, año); cada auditoría la reemplaza. marca_total_radicaciones y
+ * marca_ultimo_tramite_id se toman antes de auditar y son la marca con la que la siguiente
+ * ejecución decide si la entidad tuvo radicaciones nuevas y debe auditarse otra vez.
+ */
+@Entity
+@Table(name = "reportes_auditoria_radicacion",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"entidad_id", "ano"}, name = "uk_reporte_auditoria_entidad_ano")
+       })
+public class ReporteAuditoriaRadicacion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_reporte")
+    private Long idReporte;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "entidad_id", nullable = false)
+    @NotNull(message = "La entidad es obligatoria")
+    private Entidad entidad;
+
+    @Column(name = "ano", nullable = false)
+    @NotNull(message = "El año es obligatorio")
+    private Integer ano;
+
+    @Column(name = "estado", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "El estado es obligatorio")
+    private EstadoAuditoria estado;
+
+    @Column(name = "total_radicaciones", nullable = false)
+    private long totalRadicaciones;
+
+    @Column(name = "radicaciones_validas", nullable = false)
+    private long radicacionesValidas;
+
+    @Column(name = "problemas_detectados", nullable = false)
+    private long problemasDetectados;
+
+    @Column(name = "marca_total_radicaciones", nullable = false)
+    private long marcaTotalRadicaciones;
+
+    @Column(name = "marca_ultimo_tramite_id")
+    private Long marcaUltimoTramiteId;
+
+    @Column(name = "mensaje_error", length = 500)
+    private String mensajeError;
+
+    @Column(name = "duracion_ms", nullable = false)
+    private long duracionMs;
+
+    @Column(name = "fecha_auditoria", nullable = false)
+    private LocalDateTime fechaAuditoria;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "problemas_auditoria_radicacion",
+                     joinColumns = @JoinColumn(name = "reporte_id"),
+                     indexes = @Index(name = "idx_problema_auditoria_reporte", columnList = "reporte_id"))
+    private List<ProblemaAuditado> problemas = new ArrayList<>();
+
+    public enum EstadoAuditoria {
+        COMPLETA,
+        TIEMPO_AGOTADO,
+        ERROR
+    }
+
+    /**
+     * Problema de secuencia detectado por la auditoría
+     */
+    @Embeddable
+    public static class ProblemaAuditado {
+
+        @Column(name = "tipo_entidad", nullable = false, length = 10)
+        @Enumerated(EnumType.STRING)
+        private ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad;
+
+        @Column(name = "consecutivo", nullable = false)
+        private int consecutivo;
+
+        @Column(name = "tipo_problema", nullable = false, length = 30)
+        private String tipoProblema;
+
+        @Column(name = "descripcion", length = 200)
+        private String descripcion;
+
+        public ProblemaAuditado() {}
+
+        public ProblemaAuditado(ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad, int consecutivo,
+                                String tipoProblema, String descripcion) {
+            this.tipoEntidad = tipoEntidad;
+            this.consecutivo = consecutivo;
+            this.tipoProblema = tipoProblema;
+            this.descripcion = descripcion;
+        }
+
+        public ConsecutivoRadicacion.TipoEntidadRadicacion getTipoEntidad() { return tipoEntidad; }
+        public int getConsecutivo() { return consecutivo; }
+        public String getTipoProblema() { return tipoProblema; }
+        public String getDescripcion() { return descripcion; }
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.fechaAuditoria == null) {
+            this.fechaAuditoria = LocalDateTime.now();
+        }
+    }
+
+    public ReporteAuditoriaRadicacion() {}
+
+    public ReporteAuditoriaRadicacion(Entidad entidad, Integer ano) {
+        this.entidad = entidad;
+        this.ano = ano;
+    }
+
+    // Getters y Setters
+    public Long getIdReporte() { return idReporte; }
+    public void setIdReporte(Long idReporte) { this.idReporte = idReporte; }
+
+    public Entidad getEntidad() { return entidad; }
+    public void setEntidad(Entidad entidad) { this.entidad = entidad; }
+
+    public Integer getAno() { return ano; }
+    public void setAno(Integer ano) { this.ano = ano; }
+
+    public EstadoAuditoria getEstado() { return estado; }
+    public void setEstado(EstadoAuditoria estado) { this.estado = estado; }
+
+    public long getTotalRadicaciones() { return totalRadicaciones; }
+    public void setTotalRadicaciones(long totalRadicaciones) { this.totalRadicaciones = totalRadicaciones; }
+
+    public long getRadicacionesValidas() { return radicacionesValidas; }
+    public void setRadicacionesValidas(long radicacionesValidas) { this.radicacionesValidas = radicacionesValidas; }
+
+    public long getProblemasDetectados() { return problemasDetectados; }
+    public void setProblemasDetectados(long problemasDetectados) { this.problemasDetectados = problemasDetectados; }
+
+    public long getMarcaTotalRadicaciones() { return marcaTotalRadicaciones; }
+    public void setMarcaTotalRadicaciones(long marcaTotalRadicaciones) { this.marcaTotalRadicaciones = marcaTotalRadicaciones; }
+
+    public Long getMarcaUltimoTramiteId() { return marcaUltimoTramiteId; }
+    public void setMarcaUltimoTramiteId(Long marcaUltimoTramiteId) { this.marcaUltimoTramiteId = marcaUltimoTramiteId; }
+
+    public String getMensajeError() { return mensajeError; }
+    public void setMensajeError(String mensajeError) { this.mensajeError = mensajeError; }
+
+    public long getDuracionMs() { return duracionMs; }
+    public void setDuracionMs(long duracionMs) { this.duracionMs = duracionMs; }
+
+    public LocalDateTime getFechaAuditoria() { return fechaAuditoria; }
+    public void setFechaAuditoria(LocalDateTime fechaAuditoria) { this.fechaAuditoria = fechaAuditoria; }
+
+    public List<ProblemaAuditado> getProblemas() { return problemas; }
+    public void setProblemas(List<ProblemaAuditado> problemas) { this.problemas = problemas; }
+}
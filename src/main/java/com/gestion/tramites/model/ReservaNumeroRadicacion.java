@@ -0,0 +1,139 @@
+package com.gestion.tramites.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Número de radicación reservado para uso posterior (ventanilla, radicación presencial).
+ * La reserva vence en fecha_expiracion; si no se utiliza, el barrido de reservas la elimina
+ * y devuelve el consecutivo al pool de consecutivos liberados de la entidad (motivo
+ * RESERVA_EXPIRADA). Así el número puede volver a reservarse sin violar uk_reserva_numero_radicacion.
+ */
+@Entity
+@Table(name = "reservas_radicacion",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"numero_radicacion"}, name = "uk_reserva_numero_radicacion")
+       },
+       indexes = {
+           @Index(name = "idx_reserva_vencimiento", columnList = "estado, fecha_expiracion"),
+           @Index(name = "idx_reserva_consecutivo", columnList = "entidad_id, tipo_entidad, ano")
+       })
+public class ReservaNumeroRadicacion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_reserva")
+    private Long idReserva;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "entidad_id", nullable = false)
+    @NotNull(message = "La entidad es obligatoria")
+    private Entidad entidad;
+
+    @Column(name = "tipo_entidad", nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "El tipo de entidad es obligatorio")
+    private ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad;
+
+    @Column(name = "ano", nullable = false)
+    @NotNull(message = "El año es obligatorio")
+    private Integer ano;
+
+    @Column(name = "consecutivo", nullable = false)
+    @NotNull(message = "El consecutivo es obligatorio")
+    private Integer consecutivo;
+
+    @Column(name = "numero_radicacion", nullable = false, length = 50)
+    @NotBlank(message = "El número de radicación es obligatorio")
+    private String numeroRadicacion;
+
+    @Column(name = "motivo", length = 500)
+    private String motivo;
+
+    @Column(name = "usuario_reserva", length = 100)
+    private String usuarioReserva;
+
+    @Column(name = "estado", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "El estado es obligatorio")
+    private EstadoReserva estado;
+
+    @Column(name = "fecha_reserva", nullable = false)
+    private LocalDateTime fechaReserva;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    @NotNull(message = "La fecha de expiración es obligatoria")
+    private LocalDateTime fechaExpiracion;
+
+    @Column(name = "fecha_utilizacion")
+    private LocalDateTime fechaUtilizacion;
+
+    public enum EstadoReserva {
+        RESERVADO("Número reservado, pendiente de utilizar"),
+        UTILIZADO("Número utilizado en la radicación de un trámite"),
+        /** Ya no se asigna: el barrido elimina las reservas vencidas; se conserva por el CHECK de V6 */
+        EXPIRADO("Reserva vencida; el consecutivo volvió al pool de liberados");
+
+        private final String descripcion;
+
+        EstadoReserva(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() { return descripcion; }
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.fechaReserva == null) {
+            this.fechaReserva = LocalDateTime.now();
+        }
+        if (this.estado == null) {
+            this.estado = EstadoReserva.RESERVADO;
+        }
+    }
+
+    public boolean estaVigente(LocalDateTime ahora) {
+        return estado == EstadoReserva.RESERVADO && fechaExpiracion.isAfter(ahora);
+    }
+
+    // Getters y Setters
+    public Long getIdReserva() { return idReserva; }
+    public void setIdReserva(Long idReserva) { this.idReserva = idReserva; }
+
+    public Entidad getEntidad() { return entidad; }
+    public void setEntidad(Entidad entidad) { this.entidad = entidad; }
+
+    public ConsecutivoRadicacion.TipoEntidadRadicacion getTipoEntidad() { return tipoEntidad; }
+    public void setTipoEntidad(ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad) { this.tipoEntidad = tipoEntidad; }
+
+    public Integer getAno() { return ano; }
+    public void setAno(Integer ano) { this.ano = ano; }
+
+    public Integer getConsecutivo() { return consecutivo; }
+    public void setConsecutivo(Integer consecutivo) { this.consecutivo = consecutivo; }
+
+    public String getNumeroRadicacion() { return numeroRadicacion; }
+    public void setNumeroRadicacion(String numeroRadicacion) { this.numeroRadicacion = numeroRadicacion; }
+
+    public String getMotivo() { return motivo; }
+    public void setMotivo(String motivo) { this.motivo = motivo; }
+
+    public String getUsuarioReserva() { return usuarioReserva; }
+    public void setUsuarioReserva(String usuarioReserva) { this.usuarioReserva = usuarioReserva; }
+
+    public EstadoReserva getEstado() { return estado; }
+    public void setEstado(EstadoReserva estado) { this.estado = estado; }
+
+    public LocalDateTime getFechaReserva() { return fechaReserva; }
+    public void setFechaReserva(LocalDateTime fechaReserva) { this.fechaReserva = fechaReserva; }
+
+    public LocalDateTime getFechaExpiracion() { return fechaExpiracion; }
+    public void setFechaExpiracion(LocalDateTime fechaExpiracion) { this.fechaExpiracion = fechaExpiracion; }
+
+    public LocalDateTime getFechaUtilizacion() { return fechaUtilizacion; }
+    public void setFechaUtilizacion(LocalDateTime fechaUtilizacion) { this.fechaUtilizacion = fechaUtilizacion; }
+}
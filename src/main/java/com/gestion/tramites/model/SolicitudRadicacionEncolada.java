@@ -0,0 +1,172 @@
+package com.gestion.tramites.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Solicitud de radicación recibida en modo asíncrono. Se guarda validada y con un ticket;
+ * el escritor de la entidad la radica después, en orden de llegada, junto con las demás
+ * solicitudes pendientes de la misma entidad.
+ */
+@Entity
+@Table(name = "cola_radicacion",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"ticket"}, name = "uk_cola_radicacion_ticket")
+       },
+       indexes = {
+           @Index(name = "idx_cola_radicacion_pendientes", columnList = "entidad_id, estado, id_solicitud"),
+           // Entidades con solicitudes pendientes (barrido de la cola). En V9 es parcial
+           // (WHERE estado = 'PENDIENTE'); JPA no permite la condición, así que aquí va por estado
+           @Index(name = "idx_cola_radicacion_entidades_pendientes", columnList = "estado, entidad_id")
+       })
+public class SolicitudRadicacionEncolada {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_solicitud")
+    private Long idSolicitud;
+
+    @Column(name = "ticket", nullable = false, length = 36)
+    @NotBlank(message = "El ticket es obligatorio")
+    private String ticket;
+
+    @Column(name = "entidad_id", nullable = false)
+    @NotNull(message = "La entidad es obligatoria")
+    private Long entidadId;
+
+    @Column(name = "tipo_tramite_id", nullable = false)
+    @NotNull(message = "El tipo de trámite es obligatorio")
+    private Long tipoTramiteId;
+
+    @Column(name = "objeto_tramite", nullable = false, columnDefinition = "TEXT")
+    @NotBlank(message = "El objeto del trámite es obligatorio")
+    private String objetoTramite;
+
+    @Column(name = "solicitante_email", nullable = false)
+    @NotBlank(message = "El email del solicitante es obligatorio")
+    private String solicitanteEmail;
+
+    @Column(name = "observaciones", columnDefinition = "TEXT")
+    private String observaciones;
+
+    @Column(name = "usuario_solicitud", length = 100)
+    private String usuarioSolicitud;
+
+    @Column(name = "estado", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "El estado es obligatorio")
+    private EstadoSolicitud estado;
+
+    @Column(name = "numero_radicacion", length = 50)
+    private String numeroRadicacion;
+
+    @Column(name = "id_tramite")
+    private Long idTramite;
+
+    @Column(name = "mensaje_error", length = 500)
+    private String mensajeError;
+
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos = 0;
+
+    @Column(name = "fecha_solicitud", nullable = false)
+    private LocalDateTime fechaSolicitud;
+
+    @Column(name = "fecha_procesamiento")
+    private LocalDateTime fechaProcesamiento;
+
+    public enum EstadoSolicitud {
+        PENDIENTE("Recibida, en espera de radicación"),
+        RADICADA("Radicada; el número de radicación está asignado"),
+        RECHAZADA("No se pudo radicar; ver el mensaje de error");
+
+        private final String descripcion;
+
+        EstadoSolicitud(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() { return descripcion; }
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.fechaSolicitud == null) {
+            this.fechaSolicitud = LocalDateTime.now();
+        }
+        if (this.estado == null) {
+            this.estado = EstadoSolicitud.PENDIENTE;
+        }
+    }
+
+    public void marcarRadicada(String numeroRadicacion, Long idTramite, LocalDateTime ahora) {
+        this.estado = EstadoSolicitud.RADICADA;
+        this.numeroRadicacion = numeroRadicacion;
+        this.idTramite = idTramite;
+        this.fechaProcesamiento = ahora;
+    }
+
+    public void marcarRechazada(String mensajeError, LocalDateTime ahora) {
+        this.estado = EstadoSolicitud.RECHAZADA;
+        this.mensajeError = mensajeError != null && mensajeError.length() > 500
+                ? mensajeError.substring(0, 500) : mensajeError;
+        this.fechaProcesamiento = ahora;
+    }
+
+    /**
+     * Registra un fallo de radicación individual y retorna cuántos lleva la solicitud
+     */
+    public int registrarIntentoFallido() {
+        this.intentos = (this.intentos != null ? this.intentos : 0) + 1;
+        return this.intentos;
+    }
+
+    // Getters y Setters
+    public Long getIdSolicitud() { return idSolicitud; }
+    public void setIdSolicitud(Long idSolicitud) { this.idSolicitud = idSolicitud; }
+
+    public String getTicket() { return ticket; }
+    public void setTicket(String ticket) { this.ticket = ticket; }
+
+    public Long getEntidadId() { return entidadId; }
+    public void setEntidadId(Long entidadId) { this.entidadId = entidadId; }
+
+    public Long getTipoTramiteId() { return tipoTramiteId; }
+    public void setTipoTramiteId(Long tipoTramiteId) { this.tipoTramiteId = tipoTramiteId; }
+
+    public String getObjetoTramite() { return objetoTramite; }
+    public void setObjetoTramite(String objetoTramite) { this.objetoTramite = objetoTramite; }
+
+    public String getSolicitanteEmail() { return solicitanteEmail; }
+    public void setSolicitanteEmail(String solicitanteEmail) { this.solicitanteEmail = solicitanteEmail; }
+
+    public String getObservaciones() { return observaciones; }
+    public void setObservaciones(String observaciones) { this.observaciones = observaciones; }
+
+    public String getUsuarioSolicitud() { return usuarioSolicitud; }
+    public void setUsuarioSolicitud(String usuarioSolicitud) { this.usuarioSolicitud = usuarioSolicitud; }
+
+    public EstadoSolicitud getEstado() { return estado; }
+    public void setEstado(EstadoSolicitud estado) { this.estado = estado; }
+
+    public String getNumeroRadicacion() { return numeroRadicacion; }
+    public void setNumeroRadicacion(String numeroRadicacion) { this.numeroRadicacion = numeroRadicacion; }
+
+    public Long getIdTramite() { return idTramite; }
+    public void setIdTramite(Long idTramite) { this.idTramite = idTramite; }
+
+    public String getMensajeError() { return mensajeError; }
+    public void setMensajeError(String mensajeError) { this.mensajeError = mensajeError; }
+
+    public Integer getIntentos() { return intentos; }
+    public void setIntentos(Integer intentos) { this.intentos = intentos; }
+
+    public LocalDateTime getFechaSolicitud() { return fechaSolicitud; }
+    public void setFechaSolicitud(LocalDateTime fechaSolicitud) { this.fechaSolicitud = fechaSolicitud; }
+
+    public LocalDateTime getFechaProcesamiento() { return fechaProcesamiento; }
+    public void setFechaProcesamiento(LocalDateTime fechaProcesamiento) { this.fechaProcesamiento = fechaProcesamiento; }
+}
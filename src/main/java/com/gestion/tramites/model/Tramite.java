@@ -7,9 +7,51 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tramites")
+// Planes de carga por caso de uso (TramiteRepository); el resto de lecturas cae en el batch fetching
+@NamedEntityGraph(name = Tramite.GRAFO_DETALLE,
+        attributeNodes = {
+            @NamedAttributeNode("entidad"),
+            @NamedAttributeNode("solicitante"),
+            @NamedAttributeNode("revisorAsignado"),
+            @NamedAttributeNode("tipoTramite"),
+            @NamedAttributeNode("modalidadTramite"),
+            @NamedAttributeNode("subtipoTramite")
+        })
+@NamedEntityGraph(name = Tramite.GRAFO_CONSULTA_PUBLICA,
+        attributeNodes = {
+            @NamedAttributeNode("entidad"),
+            @NamedAttributeNode("solicitante"),
+            @NamedAttributeNode("tipoTramite")
+        })
+@Table(name = "tramites",
+       indexes = {
+           @Index(name = "idx_tramite_radicacion_componentes",
+                  columnList = "id_entidad, codigo_dane, tipo_radicacion, ano_radicacion, consecutivo"),
+           // Listado paginado por keyset (TramiteConsultaRepository)
+           @Index(name = "idx_tramite_entidad_listado",
+                  columnList = "id_entidad, fecha_radicacion DESC, id_tramite DESC"),
+           @Index(name = "idx_tramite_entidad_estado_listado",
+                  columnList = "id_entidad, estado_actual, fecha_radicacion DESC, id_tramite DESC"),
+           @Index(name = "idx_tramite_entidad_tipo_listado",
+                  columnList = "id_entidad, id_tipo_tramite, fecha_radicacion DESC, id_tramite DESC"),
+           @Index(name = "idx_tramite_entidad_revisor_listado",
+                  columnList = "id_entidad, id_revisor_asignado, fecha_radicacion DESC, id_tramite DESC"),
+           // Búsqueda por criterios (EspecificacionesTramite); idx_tramite_entidad_direccion solo está en V13
+           @Index(name = "idx_tramite_entidad_revisor_estado",
+                  columnList = "id_entidad, id_revisor_asignado, estado_actual, fecha_radicacion DESC, id_tramite DESC"),
+           @Index(name = "idx_tramite_entidad_vencimiento",
+                  columnList = "id_entidad, fecha_limite_proximo, id_tramite"),
+           @Index(name = "idx_tramite_listado",
+                  columnList = "fecha_radicacion DESC, id_tramite DESC")
+       })
 public class Tramite extends BaseTenantEntity {
 
+    /** Trámite con todas sus relaciones: cambios de estado, asignación, edición y sus notificaciones */
+    public static final String GRAFO_DETALLE = "Tramite.detalle";
+
+    /** Trámite con lo que muestra el portal ciudadano: entidad, solicitante y tipo */
+    public static final String GRAFO_CONSULTA_PUBLICA = "Tramite.consultaPublica";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id_tramite")
@@ -19,6 +61,20 @@ public class Tramite extends BaseTenantEntity {
     @NotBlank(message = "El número de radicación es obligatorio")
     private String numeroRadicacion;
 
+    // Componentes del número de radicación, derivados de numeroRadicacion para consultas por índice
+    @Column(name = "codigo_dane", length = 5)
+    private String codigoDane;
+
+    @Column(name = "tipo_radicacion", length = 10)
+    @Enumerated(EnumType.STRING)
+    private ConsecutivoRadicacion.TipoEntidadRadicacion tipoRadicacion;
+
+    @Column(name = "ano_radicacion")
+    private Integer anoRadicacion;
+
+    @Column(name = "consecutivo")
+    private Integer consecutivo;
+
     @Column(name = "fecha_radicacion", nullable = false)
     @NotNull(message = "La fecha de radicación es obligatoria")
     private LocalDate fechaRadicacion;
@@ -149,7 +205,7 @@ public class Tramite extends BaseTenantEntity {
     public Tramite(String numeroRadicacion, Entidad entidad, Usuario solicitante,
             TipoTramite tipoTramite, String objetoTramite) {
         this.setEntidad(entidad); // Usar el setter de la clase base
-        this.numeroRadicacion = numeroRadicacion;
+        this.setNumeroRadicacion(numeroRadicacion);
         this.solicitante = solicitante;
         this.tipoTramite = tipoTramite;
         this.objetoTramite = objetoTramite;
@@ -161,7 +217,25 @@ public class Tramite extends BaseTenantEntity {
     public Long getIdTramite() { return idTramite; }
     public void setIdTramite(Long idTramite) { this.idTramite = idTramite; }
     public String getNumeroRadicacion() { return numeroRadicacion; }
-    public void setNumeroRadicacion(String numeroRadicacion) { this.numeroRadicacion = numeroRadicacion; }
+    public void setNumeroRadicacion(String numeroRadicacion) {
+        this.numeroRadicacion = numeroRadicacion;
+        long numero = NumeroRadicacion.parsear(numeroRadicacion);
+        if (numero != NumeroRadicacion.INVALIDO) {
+            this.codigoDane = numeroRadicacion.trim().substring(0, NumeroRadicacion.DIGITOS_DANE);
+            this.tipoRadicacion = NumeroRadicacion.tipoEntidad(numero);
+            this.anoRadicacion = 2000 + NumeroRadicacion.anoCorto(numero);
+            this.consecutivo = NumeroRadicacion.consecutivo(numero);
+        } else {
+            this.codigoDane = null;
+            this.tipoRadicacion = null;
+            this.anoRadicacion = null;
+            this.consecutivo = null;
+        }
+    }
+    public String getCodigoDane() { return codigoDane; }
+    public ConsecutivoRadicacion.TipoEntidadRadicacion getTipoRadicacion() { return tipoRadicacion; }
+    public Integer getAnoRadicacion() { return anoRadicacion; }
+    public Integer getConsecutivo() { return consecutivo; }
     public LocalDate getFechaRadicacion() { return fechaRadicacion; }
     public void setFechaRadicacion(LocalDate fechaRadicacion) { this.fechaRadicacion = fechaRadicacion; }
     public String getObjetoTramite() { return objetoTramite; }
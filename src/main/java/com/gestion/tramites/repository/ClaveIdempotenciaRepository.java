@@ -0,0 +1,59 @@
+package com.gestion.tramites.repository;
+
+import com.gestion.tramites.model.ClaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, Long> {
+
+    Optional<ClaveIdempotencia> findByUsuarioAndOperacionAndClave(String usuario, String operacion, String clave);
+
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.fechaExpiracion < :fecha")
+    int deleteVencidas(@Param("fecha") LocalDateTime fecha);
+
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.idClave = :idClave AND c.fechaExpiracion < :fecha")
+    int deleteSiVencida(@Param("idClave") Long idClave, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Libera la clave si sigue EN_PROCESO con el registro de quien la libera
+     */
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.idClave = :idClave AND c.fechaRegistro = :fechaRegistro " +
+           "AND c.estado = com.gestion.tramites.model.ClaveIdempotencia.EstadoClave.EN_PROCESO")
+    int deleteEnProceso(@Param("idClave") Long idClave, @Param("fechaRegistro") LocalDateTime fechaRegistro);
+
+    /**
+     * Toma una clave EN_PROCESO abandonada; retorna 0 si otra solicitud ya la tomó
+     */
+    @Modifying
+    @Query("UPDATE ClaveIdempotencia c SET c.fechaRegistro = :nuevoRegistro " +
+           "WHERE c.idClave = :idClave AND c.fechaRegistro = :fechaRegistro " +
+           "AND c.estado = com.gestion.tramites.model.ClaveIdempotencia.EstadoClave.EN_PROCESO")
+    int retomarEnProceso(@Param("idClave") Long idClave,
+                         @Param("fechaRegistro") LocalDateTime fechaRegistro,
+                         @Param("nuevoRegistro") LocalDateTime nuevoRegistro);
+
+    /**
+     * Guarda la respuesta si la clave sigue EN_PROCESO con el registro de quien la completa;
+     * retorna 0 si otra solicitud la retomó
+     */
+    @Modifying
+    @Query("UPDATE ClaveIdempotencia c " +
+           "SET c.estado = com.gestion.tramites.model.ClaveIdempotencia.EstadoClave.COMPLETADA, " +
+           "c.codigoRespuesta = :codigoRespuesta, c.cuerpoRespuesta = :cuerpoRespuesta " +
+           "WHERE c.idClave = :idClave AND c.fechaRegistro = :fechaRegistro " +
+           "AND c.estado = com.gestion.tramites.model.ClaveIdempotencia.EstadoClave.EN_PROCESO")
+    int completar(@Param("idClave") Long idClave,
+                  @Param("fechaRegistro") LocalDateTime fechaRegistro,
+                  @Param("codigoRespuesta") int codigoRespuesta,
+                  @Param("cuerpoRespuesta") String cuerpoRespuesta);
+}
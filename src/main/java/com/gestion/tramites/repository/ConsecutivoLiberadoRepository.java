@@ -0,0 +1,38 @@
+package com.gestion.tramites.repository;
+
+import com.gestion.tramites.model.ConsecutivoLiberado;
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConsecutivoLiberadoRepository extends JpaRepository<ConsecutivoLiberado, Long> {
+
+    /**
+     * Consecutivos liberados de una entidad, tipo y año (para la auditoría de secuencia)
+     */
+    List<ConsecutivoLiberado> findByEntidadAndTipoEntidadAndAnoOrderByConsecutivo(Entidad entidad,
+                                                                                  ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                                                                  Integer ano);
+
+    /**
+     * Toma del pool el menor consecutivo liberado de la entidad, tipo y año, en una sola sentencia.
+     * SKIP LOCKED evita que dos radicaciones concurrentes esperen por el mismo consecutivo.
+     * Retorna null si el pool está vacío.
+     */
+    @Query(value = "DELETE FROM consecutivos_liberados " +
+                   "WHERE id_consecutivo_liberado = (" +
+                   "SELECT id_consecutivo_liberado FROM consecutivos_liberados " +
+                   "WHERE entidad_id = :entidadId AND tipo_entidad = :tipoEntidad AND ano = :ano " +
+                   "ORDER BY consecutivo LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING consecutivo",
+           nativeQuery = true)
+    Integer tomarConsecutivoLiberado(@Param("entidadId") Long entidadId,
+                                     @Param("tipoEntidad") String tipoEntidad,
+                                     @Param("ano") Integer ano);
+}
@@ -52,11 +52,68 @@ public interface ConsecutivoRadicacionRepository extends JpaRepository<Consecuti
                                                                  @Param("ano") Integer ano);
 
     /**
-     * Incrementa atomicamente el consecutivo
+     * Avanza atómicamente el contador en la cantidad indicada y retorna el nuevo último consecutivo,
+     * en una sola sentencia. Si el contador del año no existe lo crea (primera radicación del año).
+     * Retorna null si el contador existe pero está inactivo.
+     */
+    @Query(value = "INSERT INTO consecutivos_radicacion " +
+                   "(entidad_id, codigo_dane, tipo_entidad, ano, ultimo_consecutivo, fecha_creacion, fecha_actualizacion, activo) " +
+                   "VALUES (:entidadId, :codigoDane, :tipoEntidad, :ano, :cantidad, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true) " +
+                   "ON CONFLICT (entidad_id, tipo_entidad, ano) DO UPDATE " +
+                   "SET ultimo_consecutivo = consecutivos_radicacion.ultimo_consecutivo + EXCLUDED.ultimo_consecutivo, " +
+                   "fecha_actualizacion = CURRENT_TIMESTAMP " +
+                   "WHERE consecutivos_radicacion.activo = true " +
+                   "RETURNING ultimo_consecutivo",
+           nativeQuery = true)
+    Integer avanzarConsecutivo(@Param("entidadId") Long entidadId,
+                               @Param("codigoDane") String codigoDane,
+                               @Param("tipoEntidad") String tipoEntidad,
+                               @Param("ano") Integer ano,
+                               @Param("cantidad") Integer cantidad);
+
+    /**
+     * Entrega el siguiente consecutivo en una sola sentencia: toma del pool el menor consecutivo
+     * liberado de la entidad, tipo y año y, solo si el pool está vacío, avanza el contador en uno
+     * (creándolo si es la primera radicación del año). Retorna null si hay que avanzar el contador
+     * y este está inactivo.
+     */
+    @Query(value = "WITH liberado AS (" +
+                   "DELETE FROM consecutivos_liberados " +
+                   "WHERE id_consecutivo_liberado = (" +
+                   "SELECT id_consecutivo_liberado FROM consecutivos_liberados " +
+                   "WHERE entidad_id = :entidadId AND tipo_entidad = :tipoEntidad AND ano = :ano " +
+                   "ORDER BY consecutivo LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING consecutivo), " +
+                   "avance AS (" +
+                   "INSERT INTO consecutivos_radicacion " +
+                   "(entidad_id, codigo_dane, tipo_entidad, ano, ultimo_consecutivo, fecha_creacion, fecha_actualizacion, activo) " +
+                   "SELECT :entidadId, :codigoDane, :tipoEntidad, :ano, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM liberado) " +
+                   "ON CONFLICT (entidad_id, tipo_entidad, ano) DO UPDATE " +
+                   "SET ultimo_consecutivo = consecutivos_radicacion.ultimo_consecutivo + 1, " +
+                   "fecha_actualizacion = CURRENT_TIMESTAMP " +
+                   "WHERE consecutivos_radicacion.activo = true " +
+                   "RETURNING ultimo_consecutivo) " +
+                   "SELECT COALESCE((SELECT consecutivo FROM liberado), (SELECT ultimo_consecutivo FROM avance))",
+           nativeQuery = true)
+    Integer tomarLiberadoOAvanzarConsecutivo(@Param("entidadId") Long entidadId,
+                                             @Param("codigoDane") String codigoDane,
+                                             @Param("tipoEntidad") String tipoEntidad,
+                                             @Param("ano") Integer ano);
+
+    /**
+     * Devuelve al contador los consecutivos no usados de un bloque, solo si nadie más
+     * ha avanzado el contador desde que se tomó el bloque
      */
     @Modifying
-    @Query("UPDATE ConsecutivoRadicacion c SET c.ultimoConsecutivo = c.ultimoConsecutivo + 1, c.fechaActualizacion = CURRENT_TIMESTAMP WHERE c.id = :id")
-    int incrementarConsecutivo(@Param("id") Long id);
+    @Query("UPDATE ConsecutivoRadicacion c SET c.ultimoConsecutivo = :nuevoUltimo, c.fechaActualizacion = CURRENT_TIMESTAMP " +
+           "WHERE c.entidad.id = :entidadId AND c.tipoEntidad = :tipoEntidad AND c.ano = :ano " +
+           "AND c.ultimoConsecutivo = :ultimoEsperado")
+    int devolverConsecutivos(@Param("entidadId") Long entidadId,
+                             @Param("tipoEntidad") ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                             @Param("ano") Integer ano,
+                             @Param("ultimoEsperado") Integer ultimoEsperado,
+                             @Param("nuevoUltimo") Integer nuevoUltimo);
 
     /**
      * Verifica si existe un consecutivo para los parámetros dados
@@ -89,10 +146,32 @@ public interface ConsecutivoRadicacionRepository extends JpaRepository<Consecuti
     List<Entidad> findEntidadesParaMigracionAno(@Param("anoAnterior") Integer anoAnterior);
 
     /**
-     * Desactiva consecutivos de años anteriores (proceso de limpieza)
+     * Crea el consecutivo de un año en cero si aún no existe (pre-creación del cambio de año).
+     * Retorna 1 si lo creó y 0 si ya existía.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO consecutivos_radicacion " +
+                   "(entidad_id, codigo_dane, tipo_entidad, ano, ultimo_consecutivo, fecha_creacion, fecha_actualizacion, activo) " +
+                   "VALUES (:entidadId, :codigoDane, :tipoEntidad, :ano, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, true) " +
+                   "ON CONFLICT (entidad_id, tipo_entidad, ano) DO NOTHING",
+           nativeQuery = true)
+    int crearConsecutivoSiNoExiste(@Param("entidadId") Long entidadId,
+                                   @Param("codigoDane") String codigoDane,
+                                   @Param("tipoEntidad") String tipoEntidad,
+                                   @Param("ano") Integer ano);
+
+    /**
+     * Cuenta los consecutivos activos de años anteriores (simulación del proceso de limpieza)
+     */
+    long countByAnoLessThanAndActivoTrue(Integer anoMinimo);
+
+    /**
+     * Desactiva consecutivos activos de años anteriores (proceso de limpieza); retorna los mismos que
+     * countByAnoLessThanAndActivoTrue
      */
     @Modifying
-    @Query("UPDATE ConsecutivoRadicacion c SET c.activo = false, c.fechaActualizacion = CURRENT_TIMESTAMP WHERE c.ano < :anoMinimo")
+    @Query("UPDATE ConsecutivoRadicacion c SET c.activo = false, c.fechaActualizacion = CURRENT_TIMESTAMP " +
+           "WHERE c.ano < :anoMinimo AND c.activo = true")
     int desactivarConsecutivosAntiguos(@Param("anoMinimo") Integer anoMinimo);
 
     /**
@@ -2,6 +2,7 @@ package com.gestion.tramites.repository;
 
 import com.gestion.tramites.model.Documento;
 import com.gestion.tramites.model.Tramite;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,8 +15,10 @@ import java.util.Optional;
 public interface DocumentoRepository extends JpaRepository<Documento, Long> {
 
     /**
-     * Buscar documentos por ID de trámite
+     * Buscar documentos por ID de trámite.
+     * Los listados traen el trámite y el usuario que subió cada documento en la misma consulta.
      */
+    @EntityGraph(Documento.GRAFO_LISTADO)
     @Query("SELECT d FROM Documento d WHERE d.tramite.idTramite = :tramiteId AND d.estado = 'ACTIVO'")
     List<Documento> findByTramiteIdAndEstadoActivo(@Param("tramiteId") Long tramiteId);
 
@@ -27,6 +30,7 @@ public interface DocumentoRepository extends JpaRepository<Documento, Long> {
     /**
      * Buscar documentos por tipo de documento y trámite
      */
+    @EntityGraph(Documento.GRAFO_LISTADO)
     @Query("SELECT d FROM Documento d WHERE d.tramite.idTramite = :tramiteId " +
            "AND d.tipoDocumento = :tipoDocumento AND d.estado = 'ACTIVO'")
     List<Documento> findByTramiteIdAndTipoDocumentoAndEstadoActivo(
@@ -36,6 +40,7 @@ public interface DocumentoRepository extends JpaRepository<Documento, Long> {
     /**
      * Buscar versiones de un documento
      */
+    @EntityGraph(Documento.GRAFO_LISTADO)
     @Query("SELECT d FROM Documento d WHERE d.documentoPadre.idDocumento = :documentoPadreId " +
            "OR d.idDocumento = :documentoPadreId ORDER BY d.version DESC")
     List<Documento> findVersionesByDocumentoPadreId(@Param("documentoPadreId") Long documentoPadreId);
@@ -76,6 +81,7 @@ public interface DocumentoRepository extends JpaRepository<Documento, Long> {
     /**
      * Buscar documentos por nombre original (búsqueda parcial)
      */
+    @EntityGraph(Documento.GRAFO_LISTADO)
     @Query("SELECT d FROM Documento d WHERE d.tramite.idTramite = :tramiteId " +
            "AND LOWER(d.nombreOriginal) LIKE LOWER(CONCAT('%', :nombre, '%')) " +
            "AND d.estado = 'ACTIVO' ORDER BY d.fechaSubida DESC")
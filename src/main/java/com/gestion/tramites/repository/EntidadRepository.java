@@ -4,6 +4,7 @@ import com.gestion.tramites.model.Entidad;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional; // <--- Importa Optional si aún no lo está
 
 @Repository
@@ -11,4 +12,6 @@ public interface EntidadRepository extends JpaRepository<Entidad, Long> {
     // Método para buscar una entidad por su NIT
     Optional<Entidad> findByNit(String nit); // <--- ¡AÑADE ESTA LÍNEA!
     // Asegúrate de que el nombre del campo en tu Entidad es 'nit' (es lo que definimos).
+
+    List<Entidad> findByActivoTrue();
 }
@@ -0,0 +1,95 @@
+package com.gestion.tramites.repository;
+
+import com.gestion.tramites.model.Tramite;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Criterios de la búsqueda de trámites (TramiteRepository como JpaSpecificationExecutor).
+ *
+ * Cada método retorna null cuando el criterio no aplica, y Specification.where/and lo ignoran; así la
+ * consulta solo lleva los predicados presentes. La búsqueda siempre empieza por deEntidad para que
+ * cada combinación se resuelva con un índice que empieza por id_entidad (V12 y V13).
+ */
+public final class EspecificacionesTramite {
+
+    private static final char ESCAPE_LIKE = '\\';
+
+    private EspecificacionesTramite() {
+    }
+
+    public static Specification<Tramite> deEntidad(Long entidadId) {
+        return entidadId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("entidad").get("id"), entidadId);
+    }
+
+    public static Specification<Tramite> enEstados(Collection<Tramite.EstadoTramite> estados) {
+        if (estados == null || estados.isEmpty()) {
+            return null;
+        }
+        if (estados.size() == 1) {
+            Tramite.EstadoTramite estado = estados.iterator().next();
+            return (root, query, cb) -> cb.equal(root.get("estadoActual"), estado);
+        }
+        return (root, query, cb) -> root.get("estadoActual").in(estados);
+    }
+
+    public static Specification<Tramite> deTipo(Long tipoTramiteId) {
+        return tipoTramiteId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("tipoTramite").get("idTipoTramite"), tipoTramiteId);
+    }
+
+    public static Specification<Tramite> asignadoA(Long revisorId) {
+        return revisorId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("revisorAsignado").get("idUsuario"), revisorId);
+    }
+
+    public static Specification<Tramite> sinRevisor() {
+        return (root, query, cb) -> cb.isNull(root.get("revisorAsignado"));
+    }
+
+    /**
+     * Dirección del inmueble que empieza por el texto indicado, sin distinguir mayúsculas. Se compara
+     * lower(direccion_inmueble) con un prefijo para usar idx_tramite_entidad_direccion (text_pattern_ops).
+     */
+    public static Specification<Tramite> direccionEmpiezaPor(String direccion) {
+        if (direccion == null || direccion.isBlank()) {
+            return null;
+        }
+        String patron = escaparLike(direccion.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("direccionInmueble")), patron, ESCAPE_LIKE);
+    }
+
+    public static Specification<Tramite> radicadoDesde(LocalDate fecha) {
+        return fecha == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("fechaRadicacion"), fecha);
+    }
+
+    public static Specification<Tramite> radicadoHasta(LocalDate fecha) {
+        return fecha == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("fechaRadicacion"), fecha);
+    }
+
+    /**
+     * Trámites cuyo próximo plazo vence a más tardar en la fecha indicada
+     */
+    public static Specification<Tramite> vencenHasta(LocalDate fecha) {
+        return fecha == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("fechaLimiteProximo"), fecha);
+    }
+
+    private static String escaparLike(String texto) {
+        StringBuilder escapado = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE_LIKE) {
+                escapado.append(ESCAPE_LIKE);
+            }
+            escapado.append(c);
+        }
+        return escapado.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.gestion.tramites.repository;
+
+import com.gestion.tramites.model.ReporteAuditoriaRadicacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReporteAuditoriaRadicacionRepository extends JpaRepository<ReporteAuditoriaRadicacion, Long> {
+
+    // Búsqueda por la llave única (entidad_id, ano)
+    @Query("SELECT r FROM ReporteAuditoriaRadicacion r WHERE r.entidad.id = :entidadId AND r.ano = :ano")
+    Optional<ReporteAuditoriaRadicacion> findByEntidadIdAndAno(@Param("entidadId") Long entidadId,
+                                                              @Param("ano") Integer ano);
+
+    // Últimas auditorías del año, sin cargar sus problemas
+    @Query("SELECT r FROM ReporteAuditoriaRadicacion r WHERE r.ano = :ano")
+    List<ReporteAuditoriaRadicacion> findByAno(@Param("ano") Integer ano);
+}
@@ -0,0 +1,54 @@
+package com.gestion.tramites.repository;
+
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.ReservaNumeroRadicacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReservaNumeroRadicacionRepository extends JpaRepository<ReservaNumeroRadicacion, Long> {
+
+    /**
+     * Reservas vencidas pendientes de liberar. SKIP LOCKED permite que varios nodos
+     * ejecuten el barrido a la vez sin bloquearse ni procesar la misma reserva.
+     */
+    @Query(value = "SELECT * FROM reservas_radicacion " +
+                   "WHERE estado = 'RESERVADO' AND fecha_expiracion <= :ahora " +
+                   "ORDER BY fecha_expiracion " +
+                   "LIMIT :limite FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<ReservaNumeroRadicacion> findVencidasParaBarrido(@Param("ahora") LocalDateTime ahora,
+                                                          @Param("limite") int limite);
+
+    /**
+     * Marca una reserva vigente como utilizada. Retorna 0 si no existe, ya fue utilizada o venció.
+     */
+    @Modifying
+    @Query("UPDATE ReservaNumeroRadicacion r SET r.estado = :utilizado, r.fechaUtilizacion = :ahora " +
+           "WHERE r.numeroRadicacion = :numeroRadicacion AND r.entidad.id = :entidadId " +
+           "AND r.estado = :reservado AND r.fechaExpiracion > :ahora")
+    int marcarUtilizada(@Param("numeroRadicacion") String numeroRadicacion,
+                        @Param("entidadId") Long entidadId,
+                        @Param("ahora") LocalDateTime ahora,
+                        @Param("reservado") ReservaNumeroRadicacion.EstadoReserva reservado,
+                        @Param("utilizado") ReservaNumeroRadicacion.EstadoReserva utilizado);
+
+    /**
+     * Consecutivos con reserva vigente (para la auditoría de secuencia)
+     */
+    @Query("SELECT r.consecutivo FROM ReservaNumeroRadicacion r " +
+           "WHERE r.entidad = :entidad AND r.tipoEntidad = :tipoEntidad AND r.ano = :ano " +
+           "AND r.estado = :estado AND r.fechaExpiracion > :ahora")
+    List<Integer> findConsecutivosConReserva(@Param("entidad") Entidad entidad,
+                                             @Param("tipoEntidad") ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                             @Param("ano") Integer ano,
+                                             @Param("estado") ReservaNumeroRadicacion.EstadoReserva estado,
+                                             @Param("ahora") LocalDateTime ahora);
+}
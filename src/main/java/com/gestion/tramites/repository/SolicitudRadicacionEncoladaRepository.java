@@ -0,0 +1,60 @@
+package com.gestion.tramites.repository;
+
+import com.gestion.tramites.model.SolicitudRadicacionEncolada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SolicitudRadicacionEncoladaRepository extends JpaRepository<SolicitudRadicacionEncolada, Long> {
+
+    Optional<SolicitudRadicacionEncolada> findByTicket(String ticket);
+
+    List<SolicitudRadicacionEncolada> findByTicketIn(Collection<String> tickets);
+
+    /**
+     * Toma el lock de escritor de la cola de la entidad hasta el fin de la transacción.
+     * Retorna false si otro nodo ya está radicando las solicitudes de la entidad.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:clase, CAST(:entidadId AS integer))", nativeQuery = true)
+    boolean bloquearEscritorEntidad(@Param("clase") int clase, @Param("entidadId") Long entidadId);
+
+    /**
+     * Siguientes solicitudes pendientes de la entidad, en orden de llegada
+     */
+    @Query(value = "SELECT * FROM cola_radicacion " +
+                   "WHERE entidad_id = :entidadId AND estado = 'PENDIENTE' " +
+                   "ORDER BY id_solicitud " +
+                   "LIMIT :limite FOR UPDATE",
+           nativeQuery = true)
+    List<SolicitudRadicacionEncolada> findPendientesParaRadicar(@Param("entidadId") Long entidadId,
+                                                                @Param("limite") int limite);
+
+    @Query("SELECT DISTINCT s.entidadId FROM SolicitudRadicacionEncolada s WHERE s.estado = :estado")
+    List<Long> findEntidadesConEstado(@Param("estado") SolicitudRadicacionEncolada.EstadoSolicitud estado);
+
+    boolean existsByEntidadIdAndEstado(Long entidadId, SolicitudRadicacionEncolada.EstadoSolicitud estado);
+
+    /**
+     * Solicitudes pendientes de la entidad recibidas antes que la indicada
+     */
+    long countByEntidadIdAndEstadoAndIdSolicitudLessThan(Long entidadId,
+                                                         SolicitudRadicacionEncolada.EstadoSolicitud estado,
+                                                         Long idSolicitud);
+
+    /**
+     * Elimina las solicitudes ya resueltas (radicadas o rechazadas) antes de la fecha indicada
+     */
+    @Modifying
+    @Query("DELETE FROM SolicitudRadicacionEncolada s " +
+           "WHERE s.estado <> com.gestion.tramites.model.SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE " +
+           "AND s.fechaProcesamiento < :fecha")
+    int deleteResueltasAntesDe(@Param("fecha") LocalDateTime fecha);
+}
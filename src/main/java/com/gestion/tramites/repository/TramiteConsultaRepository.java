@@ -0,0 +1,239 @@
+package com.gestion.tramites.repository;
+
+import com.gestion.tramites.dto.tramite.TramiteResponseDTO;
+import com.gestion.tramites.model.Tramite;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de lectura de trámites que retornan directamente TramiteResponseDTO.
+ *
+ * Cada consulta es una proyección JPQL por constructor: trae en un solo SELECT con LEFT JOIN las
+ * columnas del trámite y los nombres de entidad, solicitante, revisor, tipo, modalidad y subtipo,
+ * sin cargar entidades ni proxies LAZY (antes, 1 + 4N consultas por listado).
+ *
+ * El listado se pagina por keyset (seek) sobre (fecha_radicacion, id_tramite), del más reciente al
+ * más antiguo. Cada página continúa desde la última fila de la anterior con un predicado de rango en
+ * lugar de OFFSET, así que su costo no depende de cuántas páginas se hayan recorrido. La consulta se
+ * arma solo con los filtros presentes y empieza por id_entidad cuando hay entidad, para que se
+ * resuelva con los índices idx_tramite_entidad_*_listado sin condiciones "IS NULL OR" que impidan usarlos.
+ *
+ * La exportación usa los mismos filtros y el mismo orden, pero recorre todas las filas por streaming.
+ *
+ * La búsqueda por texto ordena por relevancia y pagina por keyset sobre (relevancia, id_tramite).
+ */
+@Repository
+public class TramiteConsultaRepository {
+
+    private static final String SELECT_RESPUESTA =
+            "SELECT new com.gestion.tramites.dto.tramite.TramiteResponseDTO(" +
+            "t.idTramite, t.numeroRadicacion, t.fechaRadicacion, t.objetoTramite, t.descripcionProyecto, " +
+            "t.direccionInmueble, t.condicionRadicacion, t.estadoActual, t.fechaCreacion, " +
+            "t.fechaUltimoCambioEstado, t.fechaLimiteProximo, t.fechaLimiteCompletar, t.fechaFinalizacion, " +
+            "t.comentariosRevisor, " +
+            "e.id, e.nombre, " +
+            "s.idUsuario, s.nombreCompleto, s.correoElectronico, " +
+            "r.idUsuario, r.nombreCompleto, " +
+            "tt.idTipoTramite, tt.nombre, " +
+            "m.idModalidadTramite, m.nombre, " +
+            "st.idSubtipoTramite, st.nombre) " +
+            "FROM Tramite t " +
+            "LEFT JOIN t.entidad e " +
+            "LEFT JOIN t.solicitante s " +
+            "LEFT JOIN t.revisorAsignado r " +
+            "LEFT JOIN t.tipoTramite tt " +
+            "LEFT JOIN t.modalidadTramite m " +
+            "LEFT JOIN t.subtipoTramite st ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Retorna hasta {@code limite} trámites que cumplen los filtros, posteriores al cursor
+     * (fechaCursor, idCursor) en el orden del listado. Sin cursor retorna la primera página.
+     */
+    public List<TramiteResponseDTO> buscarPagina(Long entidadId,
+                                                 Tramite.EstadoTramite estado,
+                                                 Long tipoTramiteId,
+                                                 Long revisorId,
+                                                 LocalDate fechaDesde,
+                                                 LocalDate fechaHasta,
+                                                 LocalDate fechaCursor,
+                                                 Long idCursor,
+                                                 int limite) {
+        StringBuilder jpql = new StringBuilder(SELECT_RESPUESTA).append("WHERE 1 = 1");
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        agregarFiltros(jpql, parametros, entidadId, estado, tipoTramiteId, revisorId, fechaDesde, fechaHasta);
+
+        if (fechaCursor != null && idCursor != null) {
+            jpql.append(" AND (t.fechaRadicacion < :fechaCursor" +
+                        " OR (t.fechaRadicacion = :fechaCursor AND t.idTramite < :idCursor))");
+            parametros.put("fechaCursor", fechaCursor);
+            parametros.put("idCursor", idCursor);
+        }
+        jpql.append(" ORDER BY t.fechaRadicacion DESC, t.idTramite DESC");
+
+        TypedQuery<TramiteResponseDTO> consulta = entityManager.createQuery(jpql.toString(), TramiteResponseDTO.class);
+        parametros.forEach(consulta::setParameter);
+        return consulta.setMaxResults(limite).getResultList();
+    }
+
+    /**
+     * Recorre por streaming todos los trámites que cumplen los filtros, en el orden del listado y con
+     * las relaciones del grafo de detalle en la misma sentencia. Las filas se leen del cursor JDBC de a
+     * {@code tamanoLote} y las entidades se cargan en modo solo lectura (sin copia para dirty checking).
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    public Stream<Tramite> streamExportacion(Long entidadId,
+                                             Tramite.EstadoTramite estado,
+                                             Long tipoTramiteId,
+                                             Long revisorId,
+                                             LocalDate fechaDesde,
+                                             LocalDate fechaHasta,
+                                             int tamanoLote) {
+        StringBuilder jpql = new StringBuilder("SELECT t FROM Tramite t WHERE 1 = 1");
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        agregarFiltros(jpql, parametros, entidadId, estado, tipoTramiteId, revisorId, fechaDesde, fechaHasta);
+        jpql.append(" ORDER BY t.fechaRadicacion DESC, t.idTramite DESC");
+
+        TypedQuery<Tramite> consulta = entityManager.createQuery(jpql.toString(), Tramite.class)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Tramite.GRAFO_DETALLE))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, tamanoLote)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        parametros.forEach(consulta::setParameter);
+        return consulta.getResultStream();
+    }
+
+    /**
+     * Retorna el detalle de un trámite. Con entidadId solo lo encuentra si pertenece a esa entidad.
+     */
+    public Optional<TramiteResponseDTO> buscarPorId(Long idTramite, Long entidadId) {
+        String jpql = SELECT_RESPUESTA + "WHERE t.idTramite = :idTramite"
+                + (entidadId != null ? " AND t.entidad.id = :entidadId" : "");
+        TypedQuery<TramiteResponseDTO> consulta = entityManager.createQuery(jpql, TramiteResponseDTO.class)
+                .setParameter("idTramite", idTramite);
+        if (entidadId != null) {
+            consulta.setParameter("entidadId", entidadId);
+        }
+        return consulta.getResultStream().findFirst();
+    }
+
+    /**
+     * Retorna hasta {@code limite} trámites de la entidad que coinciden con el texto, de mayor a menor
+     * relevancia y posteriores al cursor (rangoCursor, idCursor). Sin cursor retorna la primera página.
+     *
+     * El texto se interpreta con websearch_to_tsquery('spanish'): palabras sueltas (todas deben estar),
+     * "frases entre comillas", or y -exclusiones, sin errores de sintaxis. Las coincidencias salen del
+     * índice GIN sobre busqueda_texto, columna generada que solo existe en V14 (la entidad Tramite no
+     * la mapea); la relevancia es ts_rank_cd con los pesos de objeto (A), descripción (B) y dirección
+     * (C). Es SQL nativo, así que la entidad se filtra explícitamente.
+     */
+    @SuppressWarnings("unchecked")
+    public List<CoincidenciaTexto> buscarPorTexto(Long entidadId,
+                                                  String texto,
+                                                  Float rangoCursor,
+                                                  Long idCursor,
+                                                  int limite) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT c.id_tramite, c.rango FROM (" +
+                "SELECT t.id_tramite, ts_rank_cd(t.busqueda_texto, consulta) AS rango " +
+                "FROM tramites t, websearch_to_tsquery('spanish', :texto) AS consulta " +
+                "WHERE t.id_entidad = :entidadId AND t.busqueda_texto @@ consulta) c");
+        boolean conCursor = rangoCursor != null && idCursor != null;
+        if (conCursor) {
+            sql.append(" WHERE (c.rango < :rangoCursor OR (c.rango = :rangoCursor AND c.id_tramite < :idCursor))");
+        }
+        sql.append(" ORDER BY c.rango DESC, c.id_tramite DESC");
+
+        Query consulta = entityManager.createNativeQuery(sql.toString())
+                .setParameter("texto", texto)
+                .setParameter("entidadId", entidadId);
+        if (conCursor) {
+            consulta.setParameter("rangoCursor", rangoCursor).setParameter("idCursor", idCursor);
+        }
+        List<Object[]> filas = consulta.setMaxResults(limite).getResultList();
+        return filas.stream()
+                .map(fila -> new CoincidenciaTexto(((Number) fila[0]).longValue(), ((Number) fila[1]).floatValue()))
+                .toList();
+    }
+
+    /**
+     * Retorna los trámites indicados con la proyección del listado, en el mismo orden de {@code ids}
+     */
+    public List<TramiteResponseDTO> buscarPorIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TramiteResponseDTO> porId = entityManager
+                .createQuery(SELECT_RESPUESTA + "WHERE t.idTramite IN :ids", TramiteResponseDTO.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(TramiteResponseDTO::getIdTramite, Function.identity()));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    private void agregarFiltros(StringBuilder jpql,
+                                Map<String, Object> parametros,
+                                Long entidadId,
+                                Tramite.EstadoTramite estado,
+                                Long tipoTramiteId,
+                                Long revisorId,
+                                LocalDate fechaDesde,
+                                LocalDate fechaHasta) {
+        if (entidadId != null) {
+            jpql.append(" AND t.entidad.id = :entidadId");
+            parametros.put("entidadId", entidadId);
+        }
+        if (estado != null) {
+            jpql.append(" AND t.estadoActual = :estado");
+            parametros.put("estado", estado);
+        }
+        if (tipoTramiteId != null) {
+            jpql.append(" AND t.tipoTramite.idTipoTramite = :tipoTramiteId");
+            parametros.put("tipoTramiteId", tipoTramiteId);
+        }
+        if (revisorId != null) {
+            jpql.append(" AND t.revisorAsignado.idUsuario = :revisorId");
+            parametros.put("revisorId", revisorId);
+        }
+        if (fechaDesde != null) {
+            jpql.append(" AND t.fechaRadicacion >= :fechaDesde");
+            parametros.put("fechaDesde", fechaDesde);
+        }
+        if (fechaHasta != null) {
+            jpql.append(" AND t.fechaRadicacion <= :fechaHasta");
+            parametros.put("fechaHasta", fechaHasta);
+        }
+    }
+
+    /**
+     * Trámite que coincide con una búsqueda por texto y su relevancia (ts_rank_cd)
+     */
+    public static class CoincidenciaTexto {
+        private final Long idTramite;
+        private final float rango;
+
+        public CoincidenciaTexto(Long idTramite, float rango) {
+            this.idTramite = idTramite;
+            this.rango = rango;
+        }
+
+        public Long getIdTramite() { return idTramite; }
+        public float getRango() { return rango; }
+    }
+}
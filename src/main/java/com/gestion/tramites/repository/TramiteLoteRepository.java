@@ -0,0 +1,90 @@
+package com.gestion.tramites.repository;
+
+import com.gestion.tramites.model.Tramite;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserción masiva de trámites con batching JDBC.
+ *
+ * Tramite usa IDENTITY, lo que impide que Hibernate agrupe los INSERT; para la
+ * radicación por lotes se insertan directamente en un solo batch y se recuperan
+ * los identificadores generados en el mismo orden de la lista.
+ */
+@Repository
+public class TramiteLoteRepository {
+
+    private static final String INSERT_TRAMITE =
+            "INSERT INTO tramites (id_entidad, numero_radicacion, fecha_radicacion, objeto_tramite, " +
+            "estado_actual, observaciones, fecha_creacion, fecha_ultimo_cambio_estado, " +
+            "id_solicitante, id_tipo_tramite, codigo_dane, tipo_radicacion, ano_radicacion, consecutivo) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta los trámites en un solo batch y asigna a cada uno su id generado
+     */
+    public List<Long> insertarTramites(List<Tramite> tramites) {
+        if (tramites.isEmpty()) {
+            return List.of();
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_TRAMITE, new String[]{"id_tramite"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Tramite tramite = tramites.get(i);
+                        ps.setLong(1, tramite.getEntidad().getId());
+                        ps.setString(2, tramite.getNumeroRadicacion());
+                        ps.setDate(3, Date.valueOf(tramite.getFechaRadicacion()));
+                        ps.setString(4, tramite.getObjetoTramite());
+                        ps.setString(5, tramite.getEstadoActual().name());
+                        if (tramite.getObservaciones() != null) {
+                            ps.setString(6, tramite.getObservaciones());
+                        } else {
+                            ps.setNull(6, Types.VARCHAR);
+                        }
+                        ps.setTimestamp(7, Timestamp.valueOf(tramite.getFechaCreacion()));
+                        ps.setTimestamp(8, Timestamp.valueOf(tramite.getFechaUltimoCambioEstado()));
+                        ps.setLong(9, tramite.getSolicitante().getIdUsuario());
+                        ps.setLong(10, tramite.getTipoTramite().getIdTipoTramite());
+                        ps.setString(11, tramite.getCodigoDane());
+                        ps.setString(12, tramite.getTipoRadicacion() != null ? tramite.getTipoRadicacion().name() : null);
+                        ps.setObject(13, tramite.getAnoRadicacion(), Types.INTEGER);
+                        ps.setObject(14, tramite.getConsecutivo(), Types.INTEGER);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tramites.size();
+                    }
+                },
+                keyHolder);
+
+        List<Long> ids = new ArrayList<>(tramites.size());
+        List<Map<String, Object>> claves = keyHolder.getKeyList();
+        for (int i = 0; i < tramites.size(); i++) {
+            Long id = ((Number) claves.get(i).get("id_tramite")).longValue();
+            tramites.get(i).setIdTramite(id);
+            ids.add(id);
+        }
+        return ids;
+    }
+}
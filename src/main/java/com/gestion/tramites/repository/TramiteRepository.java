@@ -3,43 +3,84 @@ package com.gestion.tramites.repository;
 import com.gestion.tramites.model.Tramite;
 import com.gestion.tramites.model.Entidad;
 import com.gestion.tramites.model.ConsecutivoRadicacion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TramiteRepository extends JpaRepository<Tramite, Long> {
+public interface TramiteRepository extends JpaRepository<Tramite, Long>, JpaSpecificationExecutor<Tramite> {
+
+    // Búsqueda por criterios (EspecificacionesTramite), con las relaciones del detalle en la misma sentencia
+    @Override
+    @EntityGraph(Tramite.GRAFO_DETALLE)
+    Page<Tramite> findAll(Specification<Tramite> spec, Pageable pageable);
 
     // Método básico para consulta pública
     @Query("SELECT t FROM Tramite t WHERE t.numeroRadicacion = :numeroRadicacion")
     Optional<Tramite> findByNumeroRadicacion(@Param("numeroRadicacion") String numeroRadicacion);
 
+    // Consulta pública con entidad, solicitante y tipo en la misma sentencia
+    @EntityGraph(Tramite.GRAFO_CONSULTA_PUBLICA)
+    @Query("SELECT t FROM Tramite t WHERE t.numeroRadicacion = :numeroRadicacion")
+    Optional<Tramite> findConsultaPublicaByNumeroRadicacion(@Param("numeroRadicacion") String numeroRadicacion);
+
+    // Trámite con todas sus relaciones, para los cambios que responden con el detalle y notifican
+    // (las notificaciones son @Async y leen las relaciones fuera de la transacción)
+    @EntityGraph(Tramite.GRAFO_DETALLE)
+    @Query("SELECT t FROM Tramite t WHERE t.idTramite = :idTramite")
+    Optional<Tramite> findDetalleById(@Param("idTramite") Long idTramite);
+
+    // Números de radicación ya usados dentro de un lote, para validar unicidad en una sola consulta
+    @Query("SELECT t.numeroRadicacion AS numeroRadicacion, t.idTramite AS idTramite " +
+           "FROM Tramite t WHERE t.numeroRadicacion IN :numeros")
+    List<NumeroRadicacionExistente> findExistentesByNumeroRadicacionIn(@Param("numeros") Collection<String> numeros);
+
+    interface NumeroRadicacionExistente {
+        String getNumeroRadicacion();
+        Long getIdTramite();
+    }
+
     // Métodos para validación de radicación
     @Query("SELECT COUNT(t) FROM Tramite t WHERE t.entidad = :entidad AND YEAR(t.fechaRadicacion) = :ano")
     long countByEntidadAndAno(@Param("entidad") Entidad entidad, @Param("ano") Integer ano);
 
-    // Extraer consecutivos usados por entidad, tipo y año
-    @Query("SELECT CAST(SUBSTRING(t.numeroRadicacion, LENGTH(t.numeroRadicacion) - 3) AS INTEGER) " +
-           "FROM Tramite t WHERE t.entidad = :entidad " +
-           "AND t.numeroRadicacion LIKE CONCAT(t.entidad.codigoDane, '-', :tipoCode, '-', :anoCorto, '-%') " +
-           "ORDER BY t.numeroRadicacion")
-    List<Integer> findConsecutivosUsadosByEntidadAndTipoAndAno(@Param("entidad") Entidad entidad,
-                                                              @Param("tipoCode") String tipoCode,
-                                                              @Param("anoCorto") String anoCorto);
-
-    // Detectar consecutivos duplicados
-    @Query("SELECT CAST(SUBSTRING(t.numeroRadicacion, LENGTH(t.numeroRadicacion) - 3) AS INTEGER) " +
-           "FROM Tramite t WHERE t.entidad = :entidad " +
-           "AND t.numeroRadicacion LIKE CONCAT(t.entidad.codigoDane, '-', :tipoCode, '-', :anoCorto, '-%') " +
-           "GROUP BY t.numeroRadicacion HAVING COUNT(t.numeroRadicacion) > 1")
-    List<Integer> findConsecutivosDuplicadosByEntidadAndTipoAndAno(@Param("entidad") Entidad entidad,
-                                                                  @Param("tipoCode") String tipoCode,
-                                                                  @Param("anoCorto") String anoCorto);
+    // Total de radicaciones y último trámite por entidad en el año, para detectar cambios desde la última auditoría
+    @Query("SELECT t.entidad.id AS entidadId, COUNT(t) AS totalRadicaciones, MAX(t.idTramite) AS ultimoTramiteId " +
+           "FROM Tramite t WHERE YEAR(t.fechaRadicacion) = :ano GROUP BY t.entidad.id")
+    List<MarcaRadicacionEntidad> findMarcasRadicacionByAno(@Param("ano") Integer ano);
+
+    interface MarcaRadicacionEntidad {
+        Long getEntidadId();
+        long getTotalRadicaciones();
+        Long getUltimoTramiteId();
+    }
+
+    // Consecutivos usados por entidad, tipo y año, leídos por streaming para la auditoría de secuencia.
+    // Se resuelve con un range scan sobre idx_tramite_radicacion_componentes.
+    // Debe consumirse dentro de una transacción y cerrarse al terminar.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.consecutivo FROM Tramite t " +
+           "WHERE t.entidad = :entidad AND t.codigoDane = :codigoDane " +
+           "AND t.tipoRadicacion = :tipoRadicacion AND t.anoRadicacion = :ano")
+    Stream<Integer> streamConsecutivosUsadosByEntidadAndTipoAndAno(@Param("entidad") Entidad entidad,
+                                                                  @Param("codigoDane") String codigoDane,
+                                                                  @Param("tipoRadicacion") ConsecutivoRadicacion.TipoEntidadRadicacion tipoRadicacion,
+                                                                  @Param("ano") Integer ano);
 
     // Buscar trámites por entidad (para multi-tenant)
     List<Tramite> findByEntidad(Entidad entidad);
@@ -49,9 +90,11 @@ public interface TramiteRepository extends JpaRepository<Tramite, Long> {
     List<Tramite> findByEntidadAndAno(@Param("entidad") Entidad entidad, @Param("ano") Integer ano);
 
     // Métodos para consulta pública (Portal Ciudadano)
+    @EntityGraph(Tramite.GRAFO_CONSULTA_PUBLICA)
     List<Tramite> findBySolicitanteCorreoElectronicoOrderByFechaRadicacionDesc(String correoElectronico);
 
     // Métodos para estadísticas públicas
+    @EntityGraph(attributePaths = "tipoTramite")
     @Query("SELECT t FROM Tramite t WHERE t.entidad.id = :entidadId AND t.fechaRadicacion > :fechaLimite ORDER BY t.fechaRadicacion DESC")
     List<Tramite> findByEntidadIdAndFechaRadicacionAfterOrderByFechaRadicacionDesc(@Param("entidadId") Long entidadId, @Param("fechaLimite") LocalDate fechaLimite);
 
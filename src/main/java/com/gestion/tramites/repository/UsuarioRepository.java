@@ -2,8 +2,12 @@ package com.gestion.tramites.repository;
 
 import com.gestion.tramites.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional; // Importar Optional
 
 @Repository
@@ -13,5 +17,46 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByNumeroDocumento(String numeroDocumento);
     Optional<Usuario> findByCorreoElectronico(String correoElectronico);
 
+    /**
+     * Búsqueda en una sola consulta para la radicación por lotes: pares (correo, id) de los usuarios con los correos indicados, sin aplicar el filtro multi-tenant
+     */
+    @Query(value = "SELECT correo_electronico, id_usuario FROM usuarios WHERE correo_electronico IN (:correos)",
+           nativeQuery = true)
+    List<Object[]> findIdsByCorreoElectronicoIn(@Param("correos") Collection<String> correos);
+
+    /**
+     * Crea el solicitante si su correo no está registrado y retorna su id, en una sola sentencia.
+     * Si el correo ya existe no inserta nada (ON CONFLICT DO NOTHING) y retorna el id existente, así
+     * que dos radicaciones concurrentes de un correo nuevo no fallan por la restricción única. El
+     * conflicto va sin columna: numero_documento también es único y el documento provisional se
+     * deriva del correo, así que cualquiera de las dos restricciones puede ser la que choque.
+     * Retorna null si el usuario que ganó la inserción aún no era visible al iniciar la sentencia;
+     * en ese caso basta con findIdByCorreoElectronico.
+     */
+    @Query(value = "WITH nuevo AS (" +
+                   "INSERT INTO usuarios (nombre_completo, tipo_documento, numero_documento, correo_electronico, " +
+                   "rol, contrasena_hash, fecha_creacion, esta_activo, id_entidad) " +
+                   "VALUES (:nombreCompleto, :tipoDocumento, :numeroDocumento, :correo, 'SOLICITANTE', " +
+                   ":contrasena, CURRENT_TIMESTAMP, true, :entidadId) " +
+                   "ON CONFLICT DO NOTHING " +
+                   "RETURNING id_usuario) " +
+                   "SELECT id_usuario FROM nuevo " +
+                   "UNION ALL " +
+                   "SELECT id_usuario FROM usuarios WHERE correo_electronico = :correo " +
+                   "LIMIT 1",
+           nativeQuery = true)
+    Long insertarSolicitanteSiNoExiste(@Param("correo") String correo,
+                                       @Param("nombreCompleto") String nombreCompleto,
+                                       @Param("tipoDocumento") String tipoDocumento,
+                                       @Param("numeroDocumento") String numeroDocumento,
+                                       @Param("contrasena") String contrasena,
+                                       @Param("entidadId") Long entidadId);
+
+    /**
+     * Id del usuario con el correo indicado, sin aplicar el filtro multi-tenant
+     */
+    @Query(value = "SELECT id_usuario FROM usuarios WHERE correo_electronico = :correo", nativeQuery = true)
+    Optional<Long> findIdByCorreoElectronico(@Param("correo") String correo);
+
     // Puedes añadir otros métodos personalizados si los necesitas
 }
\ No newline at end of file
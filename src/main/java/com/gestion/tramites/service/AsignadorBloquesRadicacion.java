@@ -0,0 +1,326 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoLiberado;
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.repository.ConsecutivoLiberadoRepository;
+import com.gestion.tramites.repository.ConsecutivoRadicacionRepository;
+import com.gestion.tramites.repository.EntidadRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Asignador de consecutivos de radicación por bloques (estrategia hi-lo).
+ *
+ * El contador de consecutivos_radicacion se avanza con una sola sentencia
+ * (INSERT ... ON CONFLICT DO UPDATE ... RETURNING), sin leer la fila ni depender de
+ * aislamiento SERIALIZABLE. Cada nodo toma un bloque de números por (entidad, tipo, año)
+ * en una transacción corta e independiente, y luego los entrega desde memoria. Con
+ * tamaño de bloque 1 el contador se avanza dentro de la transacción del llamador, igual
+ * que la numeración estrictamente consecutiva.
+ *
+ * Los números de un bloque que no alcanzan a usarse se devuelven al contador al detener
+ * el nodo, o se registran en consecutivos_liberados para que la auditoría de secuencia
+ * los reporte como saltos explicados. Antes de avanzar el contador se reutiliza el menor
+ * consecutivo liberado de la entidad, si existe; con tamaño de bloque 1 la toma del pool y
+ * el avance del contador van en la misma sentencia.
+ *
+ * Los datos de la entidad vienen del caché de entidades: asignar un número no lee la entidad.
+ */
+@Service
+public class AsignadorBloquesRadicacion {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsignadorBloquesRadicacion.class);
+
+    @Autowired
+    private ConsecutivoRadicacionRepository consecutivoRepository;
+
+    @Autowired
+    private ConsecutivoLiberadoRepository consecutivoLiberadoRepository;
+
+    @Autowired
+    private EntidadRepository entidadRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${radicacion.consecutivos.tamano-bloque:1}")
+    private int tamanoBloque = 1;
+
+    @Value("${radicacion.consecutivos.reutilizar-liberados:true}")
+    private boolean reutilizarLiberados = true;
+
+    private final ConcurrentMap<ClaveConsecutivo, BloqueConsecutivos> bloques = new ConcurrentHashMap<>();
+
+    /**
+     * Asigna el siguiente número de radicación para la entidad, tipo y año indicados
+     */
+    public String asignarNumeroRadicacion(EntidadSnapshot entidad,
+                                          ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                          int ano) {
+        if (tamanoBloque <= 1 && reutilizarLiberados) {
+            Integer consecutivo = consecutivoRepository.tomarLiberadoOAvanzarConsecutivo(
+                    entidad.getId(), entidad.getCodigoDane(), tipoEntidad.name(), ano);
+            if (consecutivo == null) {
+                throw contadorInactivo(entidad.getId(), tipoEntidad, ano);
+            }
+            return ConsecutivoRadicacion.formatearRadicacion(entidad.getCodigoDane(), tipoEntidad, ano, consecutivo,
+                    entidad.getDigitosConsecutivo());
+        }
+
+        if (reutilizarLiberados) {
+            Integer liberado = consecutivoLiberadoRepository.tomarConsecutivoLiberado(entidad.getId(), tipoEntidad.name(), ano);
+            if (liberado != null) {
+                // Si la transacción se revierte, el consecutivo vuelve al pool con el rollback
+                logger.debug("Consecutivo liberado {} reutilizado para entidad: {}, tipo: {}, año: {}",
+                        liberado, entidad.getId(), tipoEntidad, ano);
+                return ConsecutivoRadicacion.formatearRadicacion(entidad.getCodigoDane(), tipoEntidad, ano, liberado,
+                        entidad.getDigitosConsecutivo());
+            }
+        }
+
+        if (tamanoBloque <= 1) {
+            int consecutivo = avanzarContador(entidad.getId(), entidad.getCodigoDane(), tipoEntidad, ano, 1);
+            return ConsecutivoRadicacion.formatearRadicacion(entidad.getCodigoDane(), tipoEntidad, ano, consecutivo,
+                    entidad.getDigitosConsecutivo());
+        }
+
+        ClaveConsecutivo clave = new ClaveConsecutivo(entidad.getId(), tipoEntidad, ano);
+        BloqueConsecutivos bloque = bloques.computeIfAbsent(clave, k -> new BloqueConsecutivos());
+
+        int consecutivoAsignado;
+        String numeroRadicacion;
+        synchronized (bloque) {
+            if (!bloque.tieneDisponibles()) {
+                arrendarBloque(entidad, tipoEntidad, ano, bloque);
+            }
+            consecutivoAsignado = bloque.tomarSiguiente();
+            numeroRadicacion = ConsecutivoRadicacion.formatearRadicacion(
+                    bloque.getEntidad().getCodigoDane(), tipoEntidad, ano, consecutivoAsignado,
+                    bloque.getEntidad().getDigitosConsecutivo());
+        }
+
+        registrarLiberacionSiSeRevierte(entidad.getId(), tipoEntidad, ano, consecutivoAsignado);
+        return numeroRadicacion;
+    }
+
+    /**
+     * Reserva un rango contiguo de consecutivos con una sola actualización del contador,
+     * dentro de la transacción del llamador, y retorna el primero del rango.
+     * No usa los bloques en memoria: si la transacción se revierte el contador vuelve atrás
+     * y el rango completo queda disponible.
+     */
+    public int asignarRango(Entidad entidad,
+                            ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                            int ano,
+                            int cantidad) {
+        if (cantidad < 1) {
+            throw new IllegalArgumentException("La cantidad de consecutivos debe ser mayor a cero");
+        }
+        int fin = avanzarContador(entidad.getId(), entidad.getCodigoDane(), tipoEntidad, ano, cantidad);
+
+        logger.debug("Rango de consecutivos {}-{} asignado para entidad: {}, tipo: {}, año: {}",
+                fin - cantidad + 1, fin, entidad.getId(), tipoEntidad, ano);
+        return fin - cantidad + 1;
+    }
+
+    /**
+     * Indica si un consecutivo pertenece a un bloque de este nodo que aún no se ha entregado.
+     * La auditoría de secuencia no debe reportarlo como salto.
+     */
+    public boolean estaPendienteEnBloque(Long entidadId,
+                                         ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                         int ano,
+                                         int consecutivo) {
+        BloqueConsecutivos bloque = bloques.get(new ClaveConsecutivo(entidadId, tipoEntidad, ano));
+        if (bloque == null) {
+            return false;
+        }
+        synchronized (bloque) {
+            return bloque.contiene(consecutivo);
+        }
+    }
+
+    /**
+     * Devuelve o reporta los consecutivos no utilizados al detener el nodo
+     */
+    @PreDestroy
+    public void liberarBloquesPendientes() {
+        for (Map.Entry<ClaveConsecutivo, BloqueConsecutivos> entrada : bloques.entrySet()) {
+            BloqueConsecutivos bloque = entrada.getValue();
+            synchronized (bloque) {
+                if (bloque.tieneDisponibles()) {
+                    liberarBloque(entrada.getKey(), bloque);
+                }
+            }
+        }
+        bloques.clear();
+    }
+
+    private void arrendarBloque(EntidadSnapshot entidad,
+                                ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                int ano,
+                                BloqueConsecutivos bloque) {
+        Integer fin = nuevaTransaccion().execute(status ->
+                avanzarContador(entidad.getId(), entidad.getCodigoDane(), tipoEntidad, ano, tamanoBloque));
+        bloque.asignar(entidad, fin - tamanoBloque + 1, fin);
+
+        logger.debug("Bloque de consecutivos {}-{} tomado para entidad: {}, tipo: {}, año: {}",
+                fin - tamanoBloque + 1, fin, entidad.getId(), tipoEntidad, ano);
+    }
+
+    private void liberarBloque(ClaveConsecutivo clave, BloqueConsecutivos bloque) {
+        int inicio = bloque.getSiguiente();
+        int fin = bloque.getFin();
+        try {
+            Integer devueltos = nuevaTransaccion().execute(status ->
+                    consecutivoRepository.devolverConsecutivos(clave.entidadId(), clave.tipoEntidad(), clave.ano(),
+                            fin, inicio - 1));
+
+            if (devueltos != null && devueltos > 0) {
+                logger.info("Consecutivos {}-{} devueltos al contador de entidad: {}, tipo: {}, año: {}",
+                        inicio, fin, clave.entidadId(), clave.tipoEntidad(), clave.ano());
+            } else {
+                registrarLiberados(clave.entidadId(), clave.tipoEntidad(), clave.ano(),
+                        inicio, fin, ConsecutivoLiberado.MotivoLiberacion.BLOQUE_NO_UTILIZADO);
+                logger.warn("Consecutivos {}-{} de entidad: {}, tipo: {}, año: {} registrados como liberados",
+                        inicio, fin, clave.entidadId(), clave.tipoEntidad(), clave.ano());
+            }
+            bloque.agotar();
+        } catch (Exception e) {
+            logger.error("Error liberando consecutivos {}-{} de entidad {}: {}",
+                    inicio, fin, clave.entidadId(), e.getMessage());
+        }
+    }
+
+    private void registrarLiberacionSiSeRevierte(Long entidadId,
+                                                 ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                                 int ano,
+                                                 int consecutivo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    try {
+                        registrarLiberados(entidadId, tipoEntidad, ano, consecutivo, consecutivo,
+                                ConsecutivoLiberado.MotivoLiberacion.RADICACION_REVERTIDA);
+                    } catch (Exception e) {
+                        logger.error("Error registrando consecutivo {} revertido para entidad {}: {}",
+                                consecutivo, entidadId, e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    private void registrarLiberados(Long entidadId,
+                                    ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                    int ano,
+                                    int inicio,
+                                    int fin,
+                                    ConsecutivoLiberado.MotivoLiberacion motivo) {
+        nuevaTransaccion().executeWithoutResult(status -> {
+            Entidad entidad = entidadRepository.getReferenceById(entidadId);
+            List<ConsecutivoLiberado> liberados = new ArrayList<>();
+            for (int consecutivo = inicio; consecutivo <= fin; consecutivo++) {
+                liberados.add(new ConsecutivoLiberado(entidad, tipoEntidad, ano, consecutivo, motivo));
+            }
+            consecutivoLiberadoRepository.saveAll(liberados);
+        });
+    }
+
+    /**
+     * Avanza el contador en una sola sentencia y retorna el nuevo último consecutivo.
+     * El contador del año se crea en la misma sentencia si aún no existe.
+     */
+    private int avanzarContador(Long entidadId,
+                                String codigoDane,
+                                ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                int ano,
+                                int cantidad) {
+        Integer ultimo = consecutivoRepository.avanzarConsecutivo(
+                entidadId, codigoDane, tipoEntidad.name(), ano, cantidad);
+
+        if (ultimo == null) {
+            throw contadorInactivo(entidadId, tipoEntidad, ano);
+        }
+        return ultimo;
+    }
+
+    private IllegalStateException contadorInactivo(Long entidadId,
+                                                   ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                                   int ano) {
+        return new IllegalStateException(String.format(
+                "El consecutivo de radicación de la entidad %d para %s %d está inactivo",
+                entidadId, tipoEntidad, ano));
+    }
+
+    private TransactionTemplate nuevaTransaccion() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaccion;
+    }
+
+    public int getTamanoBloque() {
+        return tamanoBloque;
+    }
+
+    private record ClaveConsecutivo(Long entidadId,
+                                    ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                    int ano) {
+    }
+
+    /**
+     * Rango [siguiente, fin] de consecutivos tomados del contador y aún no entregados
+     */
+    private static class BloqueConsecutivos {
+        private EntidadSnapshot entidad;
+        private int siguiente = 1;
+        private int fin = 0;
+
+        boolean tieneDisponibles() {
+            return siguiente <= fin;
+        }
+
+        boolean contiene(int consecutivo) {
+            return consecutivo >= siguiente && consecutivo <= fin;
+        }
+
+        void asignar(EntidadSnapshot entidad, int inicio, int fin) {
+            this.entidad = entidad;
+            this.siguiente = inicio;
+            this.fin = fin;
+        }
+
+        int tomarSiguiente() {
+            return siguiente++;
+        }
+
+        void agotar() {
+            this.siguiente = fin + 1;
+        }
+
+        EntidadSnapshot getEntidad() { return entidad; }
+        int getSiguiente() { return siguiente; }
+        int getFin() { return fin; }
+    }
+}
@@ -0,0 +1,77 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.repository.TramiteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Auditor de la secuencia de consecutivos de una entidad, tipo y año.
+ *
+ * Lee los consecutivos usados por streaming desde la base de datos y los marca en un BitSet;
+ * los consecutivos faltantes y duplicados salen de una sola pasada lineal, con memoria de
+ * un bit por consecutivo.
+ */
+@Service
+public class AuditorSecuenciaRadicacion {
+
+    @Autowired
+    private TramiteRepository tramiteRepository;
+
+    @Transactional(readOnly = true)
+    public ResultadoSecuencia auditar(Entidad entidad,
+                                      ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
+                                      int ano,
+                                      int ultimoConsecutivo) {
+        BitSet usados = new BitSet(ultimoConsecutivo + 1);
+        BitSet duplicados = new BitSet();
+        int totalUsados = 0;
+
+        try (Stream<Integer> consecutivos = tramiteRepository
+                .streamConsecutivosUsadosByEntidadAndTipoAndAno(entidad, entidad.getCodigoDane(), tipoEntidad, ano)) {
+            Iterator<Integer> iterador = consecutivos.iterator();
+            while (iterador.hasNext()) {
+                Integer consecutivo = iterador.next();
+                if (consecutivo == null || consecutivo < 1) {
+                    continue;
+                }
+                totalUsados++;
+                if (usados.get(consecutivo)) {
+                    duplicados.set(consecutivo);
+                } else {
+                    usados.set(consecutivo);
+                }
+            }
+        }
+
+        BitSet faltantes = new BitSet(ultimoConsecutivo + 1);
+        if (ultimoConsecutivo > 0) {
+            faltantes.set(1, ultimoConsecutivo + 1);
+            faltantes.andNot(usados);
+        }
+
+        return new ResultadoSecuencia(totalUsados, faltantes, duplicados);
+    }
+
+    public static class ResultadoSecuencia {
+        private final int totalUsados;
+        private final BitSet faltantes;
+        private final BitSet duplicados;
+
+        public ResultadoSecuencia(int totalUsados, BitSet faltantes, BitSet duplicados) {
+            this.totalUsados = totalUsados;
+            this.faltantes = faltantes;
+            this.duplicados = duplicados;
+        }
+
+        public int getTotalUsados() { return totalUsados; }
+        public BitSet getFaltantes() { return faltantes; }
+        public BitSet getDuplicados() { return duplicados; }
+    }
+}
@@ -0,0 +1,312 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.ReporteAuditoriaRadicacion;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.ReporteAuditoriaRadicacionRepository;
+import com.gestion.tramites.repository.TramiteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Auditoría nocturna de la secuencia de radicación de toda la plataforma.
+ *
+ * Ejecuta generarReporteValidacion para cada entidad activa en el executor de auditoría,
+ * con un tiempo máximo por entidad (timeout de la transacción de lectura), y guarda el
+ * resultado en reportes_auditoria_radicacion. Solo se vuelven a auditar las entidades con
+ * radicaciones nuevas desde la última auditoría completa; la consulta del último reporte
+ * de una entidad lee la fila guardada por su llave única en lugar de recalcularlo.
+ */
+@Service
+public class AuditoriaRadicacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditoriaRadicacionService.class);
+
+    @Autowired
+    private ValidacionRadicacionService validacionService;
+
+    @Autowired
+    private EntidadRepository entidadRepository;
+
+    @Autowired
+    private TramiteRepository tramiteRepository;
+
+    @Autowired
+    private ReporteAuditoriaRadicacionRepository reporteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("auditoriaExecutor")
+    private Executor auditoriaExecutor;
+
+    @Value("${radicacion.auditoria.tiempo-maximo-entidad-segundos:300}")
+    private int tiempoMaximoEntidadSegundos = 300;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+
+    private volatile ResumenAuditoria ultimoResumen;
+
+    /**
+     * Ejecución programada: audita el año en curso
+     */
+    @Scheduled(cron = "${radicacion.auditoria.cron:0 30 3 * * *}")
+    public void auditarPlataforma() {
+        ejecutarAuditoria(LocalDate.now().getYear(), false);
+    }
+
+    /**
+     * Audita las entidades activas con radicaciones nuevas en el año, o todas si forzar es true.
+     * Retorna null si ya hay una auditoría en curso en este nodo.
+     */
+    public ResumenAuditoria ejecutarAuditoria(int ano, boolean forzar) {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            logger.warn("Auditoría de radicación {} omitida: ya hay una ejecución en curso", ano);
+            return null;
+        }
+        try {
+            return auditar(ano, forzar);
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+
+    /**
+     * Resumen de la última ejecución, o null si aún no se ha ejecutado
+     */
+    public ResumenAuditoria getUltimoResumen() {
+        return ultimoResumen;
+    }
+
+    /**
+     * Último reporte guardado de la entidad en el año
+     */
+    @Transactional(readOnly = true)
+    public Optional<ReporteAuditado> obtenerUltimoReporte(Long entidadId, int ano) {
+        return reporteRepository.findByEntidadIdAndAno(entidadId, ano).map(this::convertirReporte);
+    }
+
+    private ResumenAuditoria auditar(int ano, boolean forzar) {
+        long inicio = System.currentTimeMillis();
+        ResumenAuditoria resumen = new ResumenAuditoria();
+        resumen.setAno(ano);
+        resumen.setFechaEjecucion(LocalDateTime.now());
+
+        List<Entidad> entidades = entidadRepository.findByActivoTrue();
+        Map<Long, TramiteRepository.MarcaRadicacionEntidad> marcas = tramiteRepository.findMarcasRadicacionByAno(ano)
+                .stream()
+                .collect(Collectors.toMap(TramiteRepository.MarcaRadicacionEntidad::getEntidadId, Function.identity()));
+        Map<Long, ReporteAuditoriaRadicacion> anteriores = reporteRepository.findByAno(ano).stream()
+                .collect(Collectors.toMap(reporte -> reporte.getEntidad().getId(), Function.identity()));
+        resumen.setEntidadesEvaluadas(entidades.size());
+
+        List<CompletableFuture<ReporteAuditoriaRadicacion.EstadoAuditoria>> tareas = new ArrayList<>();
+        for (Entidad entidad : entidades) {
+            TramiteRepository.MarcaRadicacionEntidad marca = marcas.get(entidad.getId());
+            long totalMarca = marca != null ? marca.getTotalRadicaciones() : 0;
+            Long ultimoTramiteMarca = marca != null ? marca.getUltimoTramiteId() : null;
+
+            if (!forzar && sinCambios(anteriores.get(entidad.getId()), totalMarca, ultimoTramiteMarca)) {
+                resumen.setEntidadesSinCambios(resumen.getEntidadesSinCambios() + 1);
+                continue;
+            }
+            tareas.add(CompletableFuture.supplyAsync(
+                    () -> auditarEntidad(entidad, ano, totalMarca, ultimoTramiteMarca), auditoriaExecutor));
+        }
+
+        for (CompletableFuture<ReporteAuditoriaRadicacion.EstadoAuditoria> tarea : tareas) {
+            switch (tarea.join()) {
+                case COMPLETA -> resumen.setEntidadesAuditadas(resumen.getEntidadesAuditadas() + 1);
+                case TIEMPO_AGOTADO -> resumen.setEntidadesConTiempoAgotado(resumen.getEntidadesConTiempoAgotado() + 1);
+                case ERROR -> resumen.setEntidadesConError(resumen.getEntidadesConError() + 1);
+            }
+        }
+
+        resumen.setDuracionMs(System.currentTimeMillis() - inicio);
+        ultimoResumen = resumen;
+
+        logger.info("Auditoría de radicación {} completada: {} auditadas, {} sin cambios, {} con tiempo agotado, {} con error en {} ms",
+                ano, resumen.getEntidadesAuditadas(), resumen.getEntidadesSinCambios(),
+                resumen.getEntidadesConTiempoAgotado(), resumen.getEntidadesConError(), resumen.getDuracionMs());
+        return resumen;
+    }
+
+    private boolean sinCambios(ReporteAuditoriaRadicacion anterior, long totalMarca, Long ultimoTramiteMarca) {
+        return anterior != null
+                && anterior.getEstado() == ReporteAuditoriaRadicacion.EstadoAuditoria.COMPLETA
+                && anterior.getMarcaTotalRadicaciones() == totalMarca
+                && Objects.equals(anterior.getMarcaUltimoTramiteId(), ultimoTramiteMarca);
+    }
+
+    private ReporteAuditoriaRadicacion.EstadoAuditoria auditarEntidad(Entidad entidad, int ano,
+                                                                     long totalMarca, Long ultimoTramiteMarca) {
+        long inicio = System.currentTimeMillis();
+
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        lectura.setTimeout(tiempoMaximoEntidadSegundos);
+        TransactionTemplate escritura = new TransactionTemplate(transactionManager);
+
+        ReporteAuditoriaRadicacion.EstadoAuditoria estado;
+        String mensajeError = null;
+        ValidacionRadicacionService.ReporteValidacionRadicacion reporte = null;
+        try {
+            reporte = lectura.execute(status -> validacionService.generarReporteValidacion(entidad, ano));
+            estado = ReporteAuditoriaRadicacion.EstadoAuditoria.COMPLETA;
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            logger.warn("Auditoría de la entidad {} en {} superó el tiempo máximo de {} s",
+                    entidad.getId(), ano, tiempoMaximoEntidadSegundos);
+            estado = ReporteAuditoriaRadicacion.EstadoAuditoria.TIEMPO_AGOTADO;
+            mensajeError = "Tiempo máximo de " + tiempoMaximoEntidadSegundos + " s superado";
+        } catch (RuntimeException e) {
+            logger.error("Error auditando la secuencia de la entidad {} en {}", entidad.getId(), ano, e);
+            estado = ReporteAuditoriaRadicacion.EstadoAuditoria.ERROR;
+            mensajeError = e.getMessage();
+        }
+
+        long duracionMs = System.currentTimeMillis() - inicio;
+        ReporteAuditoriaRadicacion.EstadoAuditoria estadoFinal = estado;
+        String mensajeFinal = mensajeError;
+        ValidacionRadicacionService.ReporteValidacionRadicacion reporteFinal = reporte;
+        try {
+            escritura.executeWithoutResult(status -> guardarReporte(entidad, ano, estadoFinal, mensajeFinal,
+                    reporteFinal, totalMarca, ultimoTramiteMarca, duracionMs));
+        } catch (RuntimeException e) {
+            logger.error("Error guardando la auditoría de la entidad {} en {}", entidad.getId(), ano, e);
+            return ReporteAuditoriaRadicacion.EstadoAuditoria.ERROR;
+        }
+        return estado;
+    }
+
+    private void guardarReporte(Entidad entidad, int ano, ReporteAuditoriaRadicacion.EstadoAuditoria estado,
+                                String mensajeError, ValidacionRadicacionService.ReporteValidacionRadicacion reporte,
+                                long totalMarca, Long ultimoTramiteMarca, long duracionMs) {
+        ReporteAuditoriaRadicacion guardado = reporteRepository.findByEntidadIdAndAno(entidad.getId(), ano)
+                .orElseGet(() -> new ReporteAuditoriaRadicacion(entidadRepository.getReferenceById(entidad.getId()), ano));
+
+        guardado.setEstado(estado);
+        guardado.setMensajeError(mensajeError != null && mensajeError.length() > 500
+                ? mensajeError.substring(0, 500) : mensajeError);
+        guardado.setDuracionMs(duracionMs);
+        guardado.setFechaAuditoria(LocalDateTime.now());
+
+        // Si la auditoría no terminó se conserva el resultado anterior; la marca no cambia
+        // para que la siguiente ejecución la intente de nuevo
+        if (reporte != null) {
+            guardado.setTotalRadicaciones(reporte.getTotalRadicaciones());
+            guardado.setRadicacionesValidas(reporte.getRadicacionesValidas());
+            guardado.setProblemasDetectados(reporte.getProblemasDetectados());
+            guardado.setMarcaTotalRadicaciones(totalMarca);
+            guardado.setMarcaUltimoTramiteId(ultimoTramiteMarca);
+            guardado.getProblemas().clear();
+            for (ValidacionRadicacionService.ProblemaConsecutivo problema : reporte.getProblemas()) {
+                guardado.getProblemas().add(new ReporteAuditoriaRadicacion.ProblemaAuditado(
+                        problema.getTipoEntidad(), problema.getConsecutivo(),
+                        problema.getTipoProblema().name(), problema.getDescripcion()));
+            }
+        }
+
+        reporteRepository.save(guardado);
+    }
+
+    private ReporteAuditado convertirReporte(ReporteAuditoriaRadicacion guardado) {
+        List<ValidacionRadicacionService.ProblemaConsecutivo> problemas = guardado.getProblemas().stream()
+                .map(problema -> new ValidacionRadicacionService.ProblemaConsecutivo(
+                        problema.getTipoEntidad(), guardado.getAno(), problema.getConsecutivo(),
+                        problema.getDescripcion(),
+                        ValidacionRadicacionService.TipoProblema.valueOf(problema.getTipoProblema())))
+                .toList();
+
+        ValidacionRadicacionService.ReporteValidacionRadicacion reporte =
+                new ValidacionRadicacionService.ReporteValidacionRadicacion(
+                        guardado.getEntidad().getId(),
+                        guardado.getEntidad().getNombre(),
+                        guardado.getAno(),
+                        guardado.getTotalRadicaciones(),
+                        guardado.getRadicacionesValidas(),
+                        guardado.getProblemasDetectados(),
+                        problemas);
+
+        return new ReporteAuditado(guardado.getEstado(), guardado.getFechaAuditoria(),
+                guardado.getMensajeError(), reporte);
+    }
+
+    public static class ReporteAuditado {
+        private final ReporteAuditoriaRadicacion.EstadoAuditoria estado;
+        private final LocalDateTime fechaAuditoria;
+        private final String mensajeError;
+        private final ValidacionRadicacionService.ReporteValidacionRadicacion reporte;
+
+        public ReporteAuditado(ReporteAuditoriaRadicacion.EstadoAuditoria estado, LocalDateTime fechaAuditoria,
+                               String mensajeError, ValidacionRadicacionService.ReporteValidacionRadicacion reporte) {
+            this.estado = estado;
+            this.fechaAuditoria = fechaAuditoria;
+            this.mensajeError = mensajeError;
+            this.reporte = reporte;
+        }
+
+        public ReporteAuditoriaRadicacion.EstadoAuditoria getEstado() { return estado; }
+        public LocalDateTime getFechaAuditoria() { return fechaAuditoria; }
+        public String getMensajeError() { return mensajeError; }
+        public ValidacionRadicacionService.ReporteValidacionRadicacion getReporte() { return reporte; }
+    }
+
+    public static class ResumenAuditoria {
+        private int ano;
+        private LocalDateTime fechaEjecucion;
+        private int entidadesEvaluadas;
+        private int entidadesSinCambios;
+        private int entidadesAuditadas;
+        private int entidadesConTiempoAgotado;
+        private int entidadesConError;
+        private long duracionMs;
+
+        public int getAno() { return ano; }
+        public void setAno(int ano) { this.ano = ano; }
+
+        public LocalDateTime getFechaEjecucion() { return fechaEjecucion; }
+        public void setFechaEjecucion(LocalDateTime fechaEjecucion) { this.fechaEjecucion = fechaEjecucion; }
+
+        public int getEntidadesEvaluadas() { return entidadesEvaluadas; }
+        public void setEntidadesEvaluadas(int entidadesEvaluadas) { this.entidadesEvaluadas = entidadesEvaluadas; }
+
+        public int getEntidadesSinCambios() { return entidadesSinCambios; }
+        public void setEntidadesSinCambios(int entidadesSinCambios) { this.entidadesSinCambios = entidadesSinCambios; }
+
+        public int getEntidadesAuditadas() { return entidadesAuditadas; }
+        public void setEntidadesAuditadas(int entidadesAuditadas) { this.entidadesAuditadas = entidadesAuditadas; }
+
+        public int getEntidadesConTiempoAgotado() { return entidadesConTiempoAgotado; }
+        public void setEntidadesConTiempoAgotado(int entidadesConTiempoAgotado) { this.entidadesConTiempoAgotado = entidadesConTiempoAgotado; }
+
+        public int getEntidadesConError() { return entidadesConError; }
+        public void setEntidadesConError(int entidadesConError) { this.entidadesConError = entidadesConError; }
+
+        public long getDuracionMs() { return duracionMs; }
+        public void setDuracionMs(long duracionMs) { this.duracionMs = duracionMs; }
+    }
+}
@@ -0,0 +1,63 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoLiberado;
+import com.gestion.tramites.model.ReservaNumeroRadicacion;
+import com.gestion.tramites.repository.ConsecutivoLiberadoRepository;
+import com.gestion.tramites.repository.ReservaNumeroRadicacionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Barrido periódico de reservas de radicación vencidas.
+ *
+ * Cada reserva vencida se elimina y su consecutivo se registra en consecutivos_liberados
+ * (motivo RESERVA_EXPIRADA), de donde lo toma la siguiente radicación o reserva de la entidad.
+ * La fila se elimina en lugar de quedar como EXPIRADO porque numero_radicacion es único en
+ * reservas_radicacion: una nueva reserva que tomara ese número del pool violaría la restricción.
+ */
+@Service
+public class BarridoReservasRadicacion {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarridoReservasRadicacion.class);
+
+    @Autowired
+    private ReservaNumeroRadicacionRepository reservaRepository;
+
+    @Autowired
+    private ConsecutivoLiberadoRepository consecutivoLiberadoRepository;
+
+    @Value("${radicacion.reservas.tamano-lote-barrido:500}")
+    private int tamanoLoteBarrido = 500;
+
+    @Scheduled(fixedDelayString = "${radicacion.reservas.intervalo-barrido-ms:60000}",
+               initialDelayString = "${radicacion.reservas.intervalo-barrido-ms:60000}")
+    @Transactional
+    public int liberarReservasVencidas() {
+        List<ReservaNumeroRadicacion> vencidas =
+                reservaRepository.findVencidasParaBarrido(LocalDateTime.now(), tamanoLoteBarrido);
+
+        if (vencidas.isEmpty()) {
+            return 0;
+        }
+
+        List<ConsecutivoLiberado> liberados = new ArrayList<>(vencidas.size());
+        for (ReservaNumeroRadicacion reserva : vencidas) {
+            liberados.add(new ConsecutivoLiberado(reserva.getEntidad(), reserva.getTipoEntidad(),
+                    reserva.getAno(), reserva.getConsecutivo(), ConsecutivoLiberado.MotivoLiberacion.RESERVA_EXPIRADA));
+        }
+        reservaRepository.deleteAllInBatch(vencidas);
+        consecutivoLiberadoRepository.saveAll(liberados);
+
+        logger.info("{} reservas de radicación vencidas devueltas al pool de consecutivos", vencidas.size());
+        return vencidas.size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.exception.ResourceNotFoundException;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.repository.EntidadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché en memoria de los datos de entidad que usan la radicación, la validación, las
+ * notificaciones y el portal ciudadano.
+ *
+ * Se carga completo al iniciar la aplicación; una entidad que no esté en el caché se lee de
+ * la base de datos en el primer acceso. EntidadService y VerificacionEntidadGubernamentalService
+ * invalidan la entidad al modificarla: se descarta de inmediato y otra vez al terminar la
+ * transacción, para que ninguna lectura concurrente deje en el caché los datos anteriores al
+ * commit. Cada invalidación incrementa la versión del caché; una carga que empezó antes de una
+ * invalidación no se guarda.
+ */
+@Service
+public class CacheEntidades {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheEntidades.class);
+
+    @Autowired
+    private EntidadRepository entidadRepository;
+
+    private final ConcurrentMap<Long, EntidadSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        long versionCarga = version.get();
+        int cargadas = 0;
+        for (Entidad entidad : entidadRepository.findAll()) {
+            guardarSiVigente(EntidadSnapshot.de(entidad, versionCarga), versionCarga);
+            cargadas++;
+        }
+        logger.info("Caché de entidades cargado con {} entidades (versión {})", cargadas, versionCarga);
+    }
+
+    /**
+     * Retorna los datos de la entidad, o vacío si no existe
+     */
+    public Optional<EntidadSnapshot> obtener(Long entidadId) {
+        if (entidadId == null) {
+            return Optional.empty();
+        }
+        EntidadSnapshot snapshot = snapshots.get(entidadId);
+        if (snapshot != null) {
+            return Optional.of(snapshot);
+        }
+
+        long versionCarga = version.get();
+        return entidadRepository.findById(entidadId)
+                .map(entidad -> guardarSiVigente(EntidadSnapshot.de(entidad, versionCarga), versionCarga));
+    }
+
+    /**
+     * Retorna los datos de la entidad; lanza ResourceNotFoundException si no existe
+     */
+    public EntidadSnapshot obtenerRequerida(Long entidadId) {
+        return obtener(entidadId).orElseThrow(() -> new ResourceNotFoundException("Entidad", "id", entidadId));
+    }
+
+    /**
+     * Descarta la entidad del caché. Dentro de una transacción se descarta además al terminarla.
+     */
+    public void invalidar(Long entidadId) {
+        if (entidadId == null) {
+            return;
+        }
+        descartar(entidadId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar(entidadId);
+                }
+            });
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int getTamano() {
+        return snapshots.size();
+    }
+
+    private void descartar(Long entidadId) {
+        version.incrementAndGet();
+        snapshots.remove(entidadId);
+        logger.debug("Entidad {} descartada del caché (versión {})", entidadId, version.get());
+    }
+
+    private EntidadSnapshot guardarSiVigente(EntidadSnapshot snapshot, long versionCarga) {
+        // compute bloquea la clave, así que una invalidación concurrente ocurre antes o después completa
+        snapshots.compute(snapshot.getId(), (id, actual) -> version.get() == versionCarga ? snapshot : actual);
+        return snapshot;
+    }
+}
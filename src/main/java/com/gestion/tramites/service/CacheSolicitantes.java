@@ -0,0 +1,93 @@
+package com.gestion.tramites.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caché acotado (LRU) de los solicitantes resueltos recientemente en la radicación: correo
+ * electrónico → id de usuario.
+ *
+ * Un solicitante que vuelve a radicar no cuesta ninguna consulta. El id solo se guarda después del
+ * commit de la transacción que lo resolvió, para no retener el id de un solicitante creado en una
+ * radicación que se revirtió. UsuarioService descarta el usuario al modificarlo o eliminarlo.
+ */
+@Service
+public class CacheSolicitantes {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSolicitantes.class);
+
+    @Value("${radicacion.solicitantes.cache.tamano-maximo:10000}")
+    private int tamanoMaximo = 10000;
+
+    /** LRU acotado por tamanoMaximo; se accede sincronizado sobre el mismo mapa */
+    private final Map<String, Long> idsPorCorreo = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > tamanoMaximo;
+        }
+    };
+
+    /**
+     * Retorna el id del solicitante con el correo indicado, o vacío si no está en el caché
+     */
+    public Optional<Long> obtenerId(String correoElectronico) {
+        if (correoElectronico == null) {
+            return Optional.empty();
+        }
+        synchronized (idsPorCorreo) {
+            return Optional.ofNullable(idsPorCorreo.get(correoElectronico));
+        }
+    }
+
+    /**
+     * Guarda el solicitante al confirmar la transacción actual, o de inmediato si no hay una
+     */
+    public void guardarDespuesDeCommit(String correoElectronico, Long idUsuario) {
+        if (correoElectronico == null || idUsuario == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guardar(correoElectronico, idUsuario);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guardar(correoElectronico, idUsuario);
+            }
+        });
+    }
+
+    /**
+     * Descarta del caché el usuario indicado, cualquiera sea su correo
+     */
+    public void invalidar(Long idUsuario) {
+        if (idUsuario == null) {
+            return;
+        }
+        synchronized (idsPorCorreo) {
+            idsPorCorreo.values().removeIf(idUsuario::equals);
+        }
+        logger.debug("Solicitante {} descartado del caché", idUsuario);
+    }
+
+    public int getTamano() {
+        synchronized (idsPorCorreo) {
+            return idsPorCorreo.size();
+        }
+    }
+
+    private void guardar(String correoElectronico, Long idUsuario) {
+        synchronized (idsPorCorreo) {
+            idsPorCorreo.put(correoElectronico, idUsuario);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.exception.ResourceNotFoundException;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.repository.TipoTramiteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché en memoria del catálogo de tipos de trámite (id → nombre) que consultan la radicación
+ * y sus notificaciones.
+ *
+ * Funciona igual que CacheEntidades: se carga completo al iniciar la aplicación, un tipo que no
+ * esté en el caché se lee en el primer acceso, y TipoTramiteService lo invalida al modificarlo o
+ * eliminarlo, de inmediato y otra vez al terminar la transacción.
+ */
+@Service
+public class CacheTiposTramite {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheTiposTramite.class);
+
+    @Autowired
+    private TipoTramiteRepository tipoTramiteRepository;
+
+    private final ConcurrentMap<Long, String> nombres = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        long versionCarga = version.get();
+        int cargados = 0;
+        for (TipoTramite tipo : tipoTramiteRepository.findAll()) {
+            guardarSiVigente(tipo.getIdTipoTramite(), tipo.getNombre(), versionCarga);
+            cargados++;
+        }
+        logger.info("Caché de tipos de trámite cargado con {} tipos (versión {})", cargados, versionCarga);
+    }
+
+    /**
+     * Retorna el nombre del tipo de trámite, o vacío si no existe
+     */
+    public Optional<String> obtenerNombre(Long tipoTramiteId) {
+        if (tipoTramiteId == null) {
+            return Optional.empty();
+        }
+        String nombre = nombres.get(tipoTramiteId);
+        if (nombre != null) {
+            return Optional.of(nombre);
+        }
+
+        long versionCarga = version.get();
+        return tipoTramiteRepository.findById(tipoTramiteId)
+                .map(tipo -> guardarSiVigente(tipo.getIdTipoTramite(), tipo.getNombre(), versionCarga));
+    }
+
+    /**
+     * Retorna el nombre del tipo de trámite; lanza ResourceNotFoundException si no existe
+     */
+    public String obtenerNombreRequerido(Long tipoTramiteId) {
+        return obtenerNombre(tipoTramiteId)
+                .orElseThrow(() -> new ResourceNotFoundException("TipoTramite", "id", tipoTramiteId));
+    }
+
+    /**
+     * Descarta el tipo de trámite del caché. Dentro de una transacción se descarta además al terminarla.
+     */
+    public void invalidar(Long tipoTramiteId) {
+        if (tipoTramiteId == null) {
+            return;
+        }
+        descartar(tipoTramiteId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar(tipoTramiteId);
+                }
+            });
+        }
+    }
+
+    public int getTamano() {
+        return nombres.size();
+    }
+
+    private void descartar(Long tipoTramiteId) {
+        version.incrementAndGet();
+        nombres.remove(tipoTramiteId);
+        logger.debug("Tipo de trámite {} descartado del caché (versión {})", tipoTramiteId, version.get());
+    }
+
+    private String guardarSiVigente(Long tipoTramiteId, String nombre, long versionCarga) {
+        nombres.compute(tipoTramiteId, (id, actual) -> version.get() == versionCarga ? nombre : actual);
+        return nombre;
+    }
+}
@@ -0,0 +1,189 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.repository.ConsecutivoRadicacionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cambio de año de la numeración de radicación.
+ *
+ * Antes del 1 de enero crea en cero los consecutivos del año siguiente para cada entidad
+ * activa que radicó en el año en curso, en lotes con transacciones cortas, y luego desactiva
+ * los consecutivos de años anteriores. Así la primera radicación del año no compite por
+ * crear la fila del contador. La creación es idempotente: el proceso puede ejecutarse
+ * varias veces (todos los días de diciembre) y solo crea lo que falta.
+ */
+@Service
+public class CambioAnoRadicacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CambioAnoRadicacionService.class);
+
+    @Autowired
+    private ConsecutivoRadicacionRepository consecutivoRepository;
+
+    @Autowired
+    private ValidacionRadicacionService validacionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${radicacion.cambio-ano.tamano-lote:200}")
+    private int tamanoLote = 200;
+
+    private volatile ReporteCambioAno ultimoReporte;
+
+    /**
+     * Ejecución programada: prepara el año siguiente al año en curso
+     */
+    @Scheduled(cron = "${radicacion.cambio-ano.cron:0 0 2 * 12 *}")
+    public void prepararAnoSiguiente() {
+        ejecutarCambioAno(LocalDate.now().getYear() + 1, false);
+    }
+
+    /**
+     * Crea los consecutivos del año destino a partir de las entidades que radicaron el año anterior.
+     * En modo simulación solo reporta lo que se crearía y desactivaría, sin escribir.
+     *
+     * El año destino solo puede ser el año en curso o el siguiente, y la limpieza nunca desactiva
+     * los consecutivos del año en curso: un año destino mayor dejaría a todas las entidades sin
+     * contador activo. Lanza IllegalArgumentException si el año destino no es válido.
+     */
+    public ReporteCambioAno ejecutarCambioAno(int anoDestino, boolean simulacion) {
+        long inicio = System.currentTimeMillis();
+        int anoActual = LocalDate.now().getYear();
+        if (anoDestino != anoActual && anoDestino != anoActual + 1) {
+            throw new IllegalArgumentException(String.format(
+                    "El año destino del cambio de año debe ser %d o %d", anoActual, anoActual + 1));
+        }
+        int anoOrigen = anoDestino - 1;
+        int anoCorte = Math.min(anoOrigen, anoActual);
+        logger.info("Iniciando cambio de año de radicación {} -> {}{}", anoOrigen, anoDestino,
+                simulacion ? " (simulación)" : "");
+
+        ReporteCambioAno reporte = new ReporteCambioAno();
+        reporte.setAnoOrigen(anoOrigen);
+        reporte.setAnoDestino(anoDestino);
+        reporte.setSimulacion(simulacion);
+        reporte.setFechaEjecucion(LocalDateTime.now());
+
+        List<Entidad> entidades = consecutivoRepository.findEntidadesParaMigracionAno(anoOrigen);
+        reporte.setEntidadesEvaluadas(entidades.size());
+
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(simulacion);
+        for (int desde = 0; desde < entidades.size(); desde += tamanoLote) {
+            List<Entidad> lote = entidades.subList(desde, Math.min(desde + tamanoLote, entidades.size()));
+            transaccion.executeWithoutResult(status -> procesarLote(lote, anoDestino, simulacion, reporte));
+            reporte.setLotesProcesados(reporte.getLotesProcesados() + 1);
+        }
+
+        TransactionTemplate limpieza = new TransactionTemplate(transactionManager);
+        Long desactivados = simulacion
+                ? limpieza.execute(status -> consecutivoRepository.countByAnoLessThanAndActivoTrue(anoCorte))
+                : limpieza.execute(status -> (long) consecutivoRepository.desactivarConsecutivosAntiguos(anoCorte));
+        reporte.setConsecutivosDesactivados(desactivados != null ? desactivados : 0);
+
+        reporte.setDuracionMs(System.currentTimeMillis() - inicio);
+        if (!simulacion) {
+            ultimoReporte = reporte;
+        }
+
+        logger.info("Cambio de año {} -> {} completado{}: {} creados, {} existentes, {} omitidos, {} desactivados en {} ms",
+                anoOrigen, anoDestino, simulacion ? " (simulación)" : "",
+                reporte.getConsecutivosCreados(), reporte.getConsecutivosExistentes(),
+                reporte.getEntidadesOmitidas().size(), reporte.getConsecutivosDesactivados(), reporte.getDuracionMs());
+        return reporte;
+    }
+
+    /**
+     * Reporte de la última ejecución real (no simulada), o null si aún no se ha ejecutado
+     */
+    public ReporteCambioAno getUltimoReporte() {
+        return ultimoReporte;
+    }
+
+    private void procesarLote(List<Entidad> lote, int anoDestino, boolean simulacion, ReporteCambioAno reporte) {
+        for (Entidad entidad : lote) {
+            if (!entidad.isActivo()) {
+                reporte.getEntidadesOmitidas().add(entidad.getId() + ": entidad inactiva");
+                continue;
+            }
+            if (entidad.getCodigoDane() == null) {
+                reporte.getEntidadesOmitidas().add(entidad.getId() + ": sin código DANE");
+                continue;
+            }
+
+            ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad = validacionService.determinarTipoEntidad(entidad);
+            boolean creado = simulacion
+                    ? !consecutivoRepository.existsByEntidadAndTipoEntidadAndAnoAndActivoTrue(entidad, tipoEntidad, anoDestino)
+                    : consecutivoRepository.crearConsecutivoSiNoExiste(
+                            entidad.getId(), entidad.getCodigoDane(), tipoEntidad.name(), anoDestino) > 0;
+
+            if (creado) {
+                reporte.setConsecutivosCreados(reporte.getConsecutivosCreados() + 1);
+            } else {
+                reporte.setConsecutivosExistentes(reporte.getConsecutivosExistentes() + 1);
+            }
+        }
+    }
+
+    public static class ReporteCambioAno {
+        private int anoOrigen;
+        private int anoDestino;
+        private boolean simulacion;
+        private LocalDateTime fechaEjecucion;
+        private int entidadesEvaluadas;
+        private int lotesProcesados;
+        private int consecutivosCreados;
+        private int consecutivosExistentes;
+        private long consecutivosDesactivados;
+        private List<String> entidadesOmitidas = new ArrayList<>();
+        private long duracionMs;
+
+        public int getAnoOrigen() { return anoOrigen; }
+        public void setAnoOrigen(int anoOrigen) { this.anoOrigen = anoOrigen; }
+
+        public int getAnoDestino() { return anoDestino; }
+        public void setAnoDestino(int anoDestino) { this.anoDestino = anoDestino; }
+
+        public boolean isSimulacion() { return simulacion; }
+        public void setSimulacion(boolean simulacion) { this.simulacion = simulacion; }
+
+        public LocalDateTime getFechaEjecucion() { return fechaEjecucion; }
+        public void setFechaEjecucion(LocalDateTime fechaEjecucion) { this.fechaEjecucion = fechaEjecucion; }
+
+        public int getEntidadesEvaluadas() { return entidadesEvaluadas; }
+        public void setEntidadesEvaluadas(int entidadesEvaluadas) { this.entidadesEvaluadas = entidadesEvaluadas; }
+
+        public int getLotesProcesados() { return lotesProcesados; }
+        public void setLotesProcesados(int lotesProcesados) { this.lotesProcesados = lotesProcesados; }
+
+        public int getConsecutivosCreados() { return consecutivosCreados; }
+        public void setConsecutivosCreados(int consecutivosCreados) { this.consecutivosCreados = consecutivosCreados; }
+
+        public int getConsecutivosExistentes() { return consecutivosExistentes; }
+        public void setConsecutivosExistentes(int consecutivosExistentes) { this.consecutivosExistentes = consecutivosExistentes; }
+
+        public long getConsecutivosDesactivados() { return consecutivosDesactivados; }
+        public void setConsecutivosDesactivados(long consecutivosDesactivados) { this.consecutivosDesactivados = consecutivosDesactivados; }
+
+        public List<String> getEntidadesOmitidas() { return entidadesOmitidas; }
+        public void setEntidadesOmitidas(List<String> entidadesOmitidas) { this.entidadesOmitidas = entidadesOmitidas; }
+
+        public long getDuracionMs() { return duracionMs; }
+        public void setDuracionMs(long duracionMs) { this.duracionMs = duracionMs; }
+    }
+}
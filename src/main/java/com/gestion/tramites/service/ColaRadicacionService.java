@@ -0,0 +1,527 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.exception.ReintentosAgotadosException;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.model.SolicitudRadicacionEncolada;
+import com.gestion.tramites.repository.SolicitudRadicacionEncoladaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Radicación asíncrona: recibe la solicitud, la valida, la guarda en cola_radicacion y
+ * responde de inmediato con un ticket, sin que el hilo HTTP espere el lock del consecutivo.
+ *
+ * Cada entidad tiene un único escritor. En este nodo lo garantiza una bandera por entidad y
+ * entre nodos un advisory lock de PostgreSQL que se toma en la transacción de cada lote. El
+ * escritor toma hasta radicacion.cola.tamano-lote solicitudes pendientes en orden de llegada y
+ * las radica con RadicacionService.radicarLote: un solo avance del contador y un insert por
+ * batch, con los números asignados en el orden de la cola. Si el lote falla completo, sus
+ * solicitudes se radican una por una para que solo la que causa el error quede pendiente; tras
+ * radicacion.cola.max-intentos fallos se rechaza y deja de bloquear la cola de la entidad. El
+ * barrido periódico vuelve a programar las entidades con pendientes (reinicios, lotes fallidos,
+ * solicitudes de otros nodos).
+ *
+ * El cliente consulta el ticket o se suscribe por SSE para recibir el resultado. Las solicitudes
+ * resueltas se conservan radicacion.cola.retencion-dias para esas consultas y después se eliminan.
+ */
+@Service
+public class ColaRadicacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColaRadicacionService.class);
+
+    /** Primera llave del advisory lock de escritor; la segunda es el id de la entidad */
+    static final int CLASE_BLOQUEO_ESCRITOR = 0x52414443;
+
+    /** Resultado de un lote cuando otro nodo tiene el lock de escritor de la entidad */
+    static final int ESCRITOR_EN_OTRO_NODO = -1;
+
+    /** Resultado de un lote cuando ninguna solicitud se pudo resolver; se reintenta en el siguiente barrido */
+    static final int LOTE_SIN_AVANCE = -2;
+
+    @Autowired
+    private SolicitudRadicacionEncoladaRepository colaRepository;
+
+    @Autowired
+    private RadicacionService radicacionService;
+
+    @Autowired
+    private CacheEntidades cacheEntidades;
+
+    @Autowired
+    private ReintentoRadicacion reintentoRadicacion;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("colaRadicacionExecutor")
+    private Executor colaExecutor;
+
+    @Value("${radicacion.cola.habilitada:false}")
+    private boolean habilitada = false;
+
+    @Value("${radicacion.cola.tamano-lote:100}")
+    private int tamanoLote = 100;
+
+    @Value("${radicacion.cola.max-intentos:5}")
+    private int maxIntentos = 5;
+
+    @Value("${radicacion.cola.tiempo-suscripcion-ms:60000}")
+    private long tiempoSuscripcionMs = 60000;
+
+    @Value("${radicacion.cola.retencion-dias:7}")
+    private int retencionDias = 7;
+
+    private final ConcurrentMap<Long, AtomicBoolean> escritores = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<SseEmitter>> suscripciones = new ConcurrentHashMap<>();
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Valida y encola la solicitud; el escritor de la entidad se programa después del commit
+     */
+    @Transactional
+    public TicketRadicacion encolar(RadicacionService.SolicitudRadicacionTramite solicitud) {
+        radicacionService.validarSolicitudRadicacion(solicitud);
+        if (solicitud.getNumeroRadicacionReservado() != null) {
+            throw new IllegalArgumentException("Las solicitudes con número reservado se radican individualmente");
+        }
+        EntidadSnapshot entidad = cacheEntidades.obtenerRequerida(solicitud.getEntidadId());
+        if (!entidad.isActivo()) {
+            throw new IllegalStateException("No se puede radicar en una entidad inactiva");
+        }
+
+        SolicitudRadicacionEncolada encolada = new SolicitudRadicacionEncolada();
+        encolada.setTicket(UUID.randomUUID().toString());
+        encolada.setEntidadId(entidad.getId());
+        encolada.setTipoTramiteId(solicitud.getTipoTramiteId());
+        encolada.setObjetoTramite(solicitud.getObjetoTramite());
+        encolada.setSolicitanteEmail(solicitud.getSolicitanteEmail());
+        encolada.setObservaciones(solicitud.getObservaciones());
+        encolada.setUsuarioSolicitud(obtenerUsuarioActual());
+        encolada.setEstado(SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE);
+        SolicitudRadicacionEncolada guardada = colaRepository.save(encolada);
+
+        despuesDeCommit(() -> programarEscritor(guardada.getEntidadId()));
+
+        logger.debug("Solicitud de radicación encolada con ticket {} para entidad {}",
+                guardada.getTicket(), guardada.getEntidadId());
+        return TicketRadicacion.de(guardada, null);
+    }
+
+    /**
+     * Estado del ticket; para los pendientes incluye cuántas solicitudes de la entidad van antes
+     */
+    @Transactional(readOnly = true)
+    public Optional<TicketRadicacion> consultar(String ticket) {
+        return colaRepository.findByTicket(ticket).map(solicitud -> {
+            Long posicion = null;
+            if (solicitud.getEstado() == SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE) {
+                posicion = colaRepository.countByEntidadIdAndEstadoAndIdSolicitudLessThan(solicitud.getEntidadId(),
+                        SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE, solicitud.getIdSolicitud());
+            }
+            return TicketRadicacion.de(solicitud, posicion);
+        });
+    }
+
+    /**
+     * Suscribe al cliente al resultado del ticket. Si ya está resuelto se envía de inmediato.
+     */
+    public SseEmitter suscribir(String ticket) {
+        TicketRadicacion actual = consultar(ticket).orElse(null);
+        SseEmitter emitter = new SseEmitter(tiempoSuscripcionMs);
+        if (actual == null) {
+            emitter.completeWithError(new IllegalArgumentException("Ticket no encontrado: " + ticket));
+            return emitter;
+        }
+        if (actual.estaResuelto()) {
+            enviar(emitter, actual);
+            return emitter;
+        }
+
+        List<SseEmitter> emitters = suscripciones.computeIfAbsent(ticket, t -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        Runnable quitar = () -> quitarSuscripcion(ticket, emitter);
+        emitter.onCompletion(quitar);
+        emitter.onTimeout(quitar);
+        emitter.onError(error -> quitar.run());
+        return emitter;
+    }
+
+    /**
+     * Programa el escritor de cada entidad con solicitudes pendientes y entrega a los suscriptores
+     * los tickets que otro nodo resolvió
+     */
+    @Scheduled(fixedDelayString = "${radicacion.cola.intervalo-barrido-ms:5000}",
+               initialDelayString = "${radicacion.cola.intervalo-barrido-ms:5000}")
+    public void programarPendientes() {
+        if (!habilitada) {
+            return;
+        }
+        for (Long entidadId : colaRepository.findEntidadesConEstado(SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE)) {
+            programarEscritor(entidadId);
+        }
+        if (!suscripciones.isEmpty()) {
+            for (SolicitudRadicacionEncolada solicitud : colaRepository.findByTicketIn(List.copyOf(suscripciones.keySet()))) {
+                if (solicitud.getEstado() != SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE) {
+                    notificarSuscriptores(TicketRadicacion.de(solicitud, null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Elimina las solicitudes radicadas o rechazadas hace más de radicacion.cola.retencion-dias,
+     * para que la cola solo crezca con las pendientes. Corre aunque la cola esté deshabilitada:
+     * puede haber solicitudes resueltas de cuando estuvo habilitada.
+     */
+    @Scheduled(fixedDelayString = "${radicacion.cola.intervalo-limpieza-ms:3600000}",
+               initialDelayString = "${radicacion.cola.intervalo-limpieza-ms:3600000}")
+    @Transactional
+    public int eliminarResueltasAntiguas() {
+        int eliminadas = colaRepository.deleteResueltasAntesDe(LocalDateTime.now().minusDays(retencionDias));
+        if (eliminadas > 0) {
+            logger.info("{} solicitudes resueltas eliminadas de la cola de radicación", eliminadas);
+        }
+        return eliminadas;
+    }
+
+    /**
+     * Programa el escritor de la entidad si no hay uno en curso en este nodo
+     */
+    void programarEscritor(Long entidadId) {
+        AtomicBoolean enCurso = escritores.computeIfAbsent(entidadId, id -> new AtomicBoolean());
+        if (!enCurso.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            colaExecutor.execute(() -> ejecutarEscritor(entidadId, enCurso));
+        } catch (RejectedExecutionException e) {
+            enCurso.set(false);
+            logger.warn("Escritor de la cola de radicación rechazado para entidad {}: {}", entidadId, e.getMessage());
+        }
+    }
+
+    /**
+     * Radica lotes de la entidad hasta vaciar su cola. Antes de soltar la bandera vuelve a revisar
+     * la cola, para no dejar sin escritor una solicitud que llegó mientras terminaba. Si otro nodo
+     * tiene el lock de escritor, las solicitudes nuevas quedan a su cargo; si ninguna solicitud
+     * avanzó, la cola espera al siguiente barrido.
+     */
+    void ejecutarEscritor(Long entidadId, AtomicBoolean enCurso) {
+        try {
+            while (true) {
+                int procesadas;
+                do {
+                    procesadas = radicarSiguienteLote(entidadId);
+                } while (procesadas > 0);
+
+                enCurso.set(false);
+                if (procesadas == ESCRITOR_EN_OTRO_NODO || procesadas == LOTE_SIN_AVANCE
+                        || !colaRepository.existsByEntidadIdAndEstado(entidadId, SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE)
+                        || !enCurso.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            enCurso.set(false);
+            logger.error("Error radicando la cola de la entidad {}; se reintentará en el siguiente barrido: {}",
+                    entidadId, e.getMessage());
+        }
+    }
+
+    /**
+     * Radica el siguiente lote de la entidad en una transacción y retorna cuántas solicitudes procesó:
+     * 0 si la cola está vacía, ESCRITOR_EN_OTRO_NODO si otro nodo tiene el lock de escritor. Si el
+     * lote falla completo (por algo distinto a la contención, que ya se reintentó) se radica una
+     * solicitud a la vez.
+     */
+    int radicarSiguienteLote(Long entidadId) {
+        try {
+            return radicarLoteCompleto(entidadId);
+        } catch (ReintentosAgotadosException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            logger.warn("El lote de la cola de la entidad {} falló completo; se radicará solicitud por solicitud: {}",
+                    entidadId, e.getMessage());
+            return radicarUnaPorUna(entidadId);
+        }
+    }
+
+    private int radicarLoteCompleto(Long entidadId) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Integer procesadas = reintentoRadicacion.ejecutar(entidadId, () -> transaccion.execute(status -> {
+            if (!colaRepository.bloquearEscritorEntidad(CLASE_BLOQUEO_ESCRITOR, entidadId)) {
+                return ESCRITOR_EN_OTRO_NODO;
+            }
+            List<SolicitudRadicacionEncolada> pendientes = colaRepository.findPendientesParaRadicar(entidadId, tamanoLote);
+            if (pendientes.isEmpty()) {
+                return 0;
+            }
+
+            List<RadicacionService.SolicitudRadicacionTramite> solicitudes = new ArrayList<>(pendientes.size());
+            for (SolicitudRadicacionEncolada pendiente : pendientes) {
+                solicitudes.add(aSolicitudRadicacion(pendiente));
+            }
+            List<RadicacionService.ResultadoRadicacionLote> resultados = radicacionService.radicarLote(solicitudes);
+
+            LocalDateTime ahora = LocalDateTime.now();
+            List<TicketRadicacion> resueltos = new ArrayList<>(pendientes.size());
+            for (int i = 0; i < pendientes.size(); i++) {
+                SolicitudRadicacionEncolada pendiente = pendientes.get(i);
+                RadicacionService.ResultadoRadicacionLote resultado = resultados.get(i);
+                if (resultado.isExitoso()) {
+                    pendiente.marcarRadicada(resultado.getRadicacion().getNumeroRadicacion(),
+                            resultado.getRadicacion().getIdTramite(), ahora);
+                } else {
+                    pendiente.marcarRechazada(resultado.getError(), ahora);
+                }
+                resueltos.add(TicketRadicacion.de(pendiente, null));
+            }
+            colaRepository.saveAll(pendientes);
+            despuesDeCommit(() -> resueltos.forEach(this::notificarSuscriptores));
+
+            logger.info("Cola de radicación de la entidad {}: {} solicitudes procesadas", entidadId, pendientes.size());
+            return pendientes.size();
+        }));
+        return procesadas != null ? procesadas : 0;
+    }
+
+    /**
+     * Radica cada solicitud del siguiente lote en su propia transacción. La que falla suma un
+     * intento y sigue pendiente hasta agotar radicacion.cola.max-intentos; las demás no la esperan.
+     * Retorna cuántas solicitudes quedaron resueltas, o LOTE_SIN_AVANCE si ninguna.
+     */
+    private int radicarUnaPorUna(Long entidadId) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        List<Long> ids = transaccion.execute(status -> {
+            if (!colaRepository.bloquearEscritorEntidad(CLASE_BLOQUEO_ESCRITOR, entidadId)) {
+                return null;
+            }
+            List<Long> pendientes = new ArrayList<>();
+            for (SolicitudRadicacionEncolada pendiente : colaRepository.findPendientesParaRadicar(entidadId, tamanoLote)) {
+                pendientes.add(pendiente.getIdSolicitud());
+            }
+            return pendientes;
+        });
+        if (ids == null) {
+            return ESCRITOR_EN_OTRO_NODO;
+        }
+
+        int resueltas = 0;
+        for (Long idSolicitud : ids) {
+            try {
+                Boolean radicada = reintentoRadicacion.ejecutar(entidadId,
+                        () -> transaccion.execute(status -> radicarSolicitud(entidadId, idSolicitud)));
+                if (radicada == null) {
+                    return ESCRITOR_EN_OTRO_NODO;
+                }
+                if (radicada) {
+                    resueltas++;
+                }
+            } catch (RuntimeException e) {
+                if (registrarIntentoFallido(idSolicitud, e)) {
+                    resueltas++;
+                }
+            }
+        }
+        return resueltas > 0 ? resueltas : LOTE_SIN_AVANCE;
+    }
+
+    /**
+     * Radica una sola solicitud pendiente. Retorna null si otro nodo tomó el lock de escritor y
+     * false si la solicitud ya no está pendiente.
+     */
+    private Boolean radicarSolicitud(Long entidadId, Long idSolicitud) {
+        if (!colaRepository.bloquearEscritorEntidad(CLASE_BLOQUEO_ESCRITOR, entidadId)) {
+            return null;
+        }
+        SolicitudRadicacionEncolada pendiente = colaRepository.findById(idSolicitud)
+                .filter(s -> s.getEstado() == SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE)
+                .orElse(null);
+        if (pendiente == null) {
+            return false;
+        }
+
+        RadicacionService.ResultadoRadicacionLote resultado =
+                radicacionService.radicarLote(List.of(aSolicitudRadicacion(pendiente))).get(0);
+        if (resultado.isExitoso()) {
+            pendiente.marcarRadicada(resultado.getRadicacion().getNumeroRadicacion(),
+                    resultado.getRadicacion().getIdTramite(), LocalDateTime.now());
+        } else {
+            pendiente.marcarRechazada(resultado.getError(), LocalDateTime.now());
+        }
+        colaRepository.save(pendiente);
+        TicketRadicacion resuelto = TicketRadicacion.de(pendiente, null);
+        despuesDeCommit(() -> notificarSuscriptores(resuelto));
+        return true;
+    }
+
+    /**
+     * Suma un intento fallido a la solicitud y la rechaza si agotó radicacion.cola.max-intentos.
+     * Retorna true si quedó rechazada.
+     */
+    private boolean registrarIntentoFallido(Long idSolicitud, RuntimeException error) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Boolean rechazada = transaccion.execute(status -> {
+            SolicitudRadicacionEncolada pendiente = colaRepository.findById(idSolicitud)
+                    .filter(s -> s.getEstado() == SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE)
+                    .orElse(null);
+            if (pendiente == null) {
+                return false;
+            }
+            int intentos = pendiente.registrarIntentoFallido();
+            boolean agotada = intentos >= maxIntentos;
+            if (agotada) {
+                pendiente.marcarRechazada(String.format("No se pudo radicar tras %d intentos: %s",
+                        intentos, error.getMessage()), LocalDateTime.now());
+                TicketRadicacion resuelto = TicketRadicacion.de(pendiente, null);
+                despuesDeCommit(() -> notificarSuscriptores(resuelto));
+            }
+            colaRepository.save(pendiente);
+            logger.warn("Solicitud {} de la cola de radicación falló (intento {} de {}): {}",
+                    pendiente.getTicket(), intentos, maxIntentos, error.getMessage());
+            return agotada;
+        });
+        return Boolean.TRUE.equals(rechazada);
+    }
+
+    private RadicacionService.SolicitudRadicacionTramite aSolicitudRadicacion(SolicitudRadicacionEncolada encolada) {
+        RadicacionService.SolicitudRadicacionTramite solicitud = new RadicacionService.SolicitudRadicacionTramite();
+        solicitud.setEntidadId(encolada.getEntidadId());
+        solicitud.setTipoTramiteId(encolada.getTipoTramiteId());
+        solicitud.setObjetoTramite(encolada.getObjetoTramite());
+        solicitud.setSolicitanteEmail(encolada.getSolicitanteEmail());
+        solicitud.setObservaciones(encolada.getObservaciones());
+        return solicitud;
+    }
+
+    private void notificarSuscriptores(TicketRadicacion ticket) {
+        List<SseEmitter> emitters = suscripciones.remove(ticket.getTicket());
+        if (emitters != null) {
+            emitters.forEach(emitter -> enviar(emitter, ticket));
+        }
+    }
+
+    private void enviar(SseEmitter emitter, TicketRadicacion ticket) {
+        try {
+            emitter.send(SseEmitter.event().name("radicacion").data(ticket));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("No se pudo entregar el ticket {} al suscriptor: {}", ticket.getTicket(), e.getMessage());
+        }
+    }
+
+    private void quitarSuscripcion(String ticket, SseEmitter emitter) {
+        suscripciones.computeIfPresent(ticket, (t, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void despuesDeCommit(Runnable tarea) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tarea.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tarea.run();
+            }
+        });
+    }
+
+    private String obtenerUsuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion != null && autenticacion.getPrincipal() instanceof CustomUserDetails usuario) {
+            return usuario.getUsername();
+        }
+        return null;
+    }
+
+    public static class TicketRadicacion {
+        private String ticket;
+        private Long entidadId;
+        private SolicitudRadicacionEncolada.EstadoSolicitud estado;
+        private String numeroRadicacion;
+        private Long idTramite;
+        private String mensajeError;
+        private Long solicitudesAntes;
+        private LocalDateTime fechaSolicitud;
+        private LocalDateTime fechaProcesamiento;
+
+        static TicketRadicacion de(SolicitudRadicacionEncolada solicitud, Long solicitudesAntes) {
+            TicketRadicacion ticket = new TicketRadicacion();
+            ticket.setTicket(solicitud.getTicket());
+            ticket.setEntidadId(solicitud.getEntidadId());
+            ticket.setEstado(solicitud.getEstado());
+            ticket.setNumeroRadicacion(solicitud.getNumeroRadicacion());
+            ticket.setIdTramite(solicitud.getIdTramite());
+            ticket.setMensajeError(solicitud.getMensajeError());
+            ticket.setSolicitudesAntes(solicitudesAntes);
+            ticket.setFechaSolicitud(solicitud.getFechaSolicitud());
+            ticket.setFechaProcesamiento(solicitud.getFechaProcesamiento());
+            return ticket;
+        }
+
+        public boolean estaResuelto() {
+            return estado != SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE;
+        }
+
+        public String getTicket() { return ticket; }
+        public void setTicket(String ticket) { this.ticket = ticket; }
+
+        public Long getEntidadId() { return entidadId; }
+        public void setEntidadId(Long entidadId) { this.entidadId = entidadId; }
+
+        public SolicitudRadicacionEncolada.EstadoSolicitud getEstado() { return estado; }
+        public void setEstado(SolicitudRadicacionEncolada.EstadoSolicitud estado) { this.estado = estado; }
+
+        public String getNumeroRadicacion() { return numeroRadicacion; }
+        public void setNumeroRadicacion(String numeroRadicacion) { this.numeroRadicacion = numeroRadicacion; }
+
+        public Long getIdTramite() { return idTramite; }
+        public void setIdTramite(Long idTramite) { this.idTramite = idTramite; }
+
+        public String getMensajeError() { return mensajeError; }
+        public void setMensajeError(String mensajeError) { this.mensajeError = mensajeError; }
+
+        public Long getSolicitudesAntes() { return solicitudesAntes; }
+        public void setSolicitudesAntes(Long solicitudesAntes) { this.solicitudesAntes = solicitudesAntes; }
+
+        public LocalDateTime getFechaSolicitud() { return fechaSolicitud; }
+        public void setFechaSolicitud(LocalDateTime fechaSolicitud) { this.fechaSolicitud = fechaSolicitud; }
+
+        public LocalDateTime getFechaProcesamiento() { return fechaProcesamiento; }
+        public void setFechaProcesamiento(LocalDateTime fechaProcesamiento) { this.fechaProcesamiento = fechaProcesamiento; }
+    }
+}
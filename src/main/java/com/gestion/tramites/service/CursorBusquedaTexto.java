@@ -0,0 +1,66 @@
+package com.gestion.tramites.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de continuación de la búsqueda de trámites por texto.
+ *
+ * Igual que CursorTramites, pero la posición de la última fila entregada es su relevancia (el valor
+ * real de ts_rank_cd, que se conserva exacto) y el id del trámite. La huella corresponde a la entidad
+ * y al texto buscado; un cursor mal formado o usado con otra búsqueda se rechaza.
+ */
+public final class CursorBusquedaTexto {
+
+    private static final String VERSION = "1";
+    private static final char SEPARADOR = '|';
+
+    private final float rango;
+    private final Long idTramite;
+    private final int huellaBusqueda;
+
+    public CursorBusquedaTexto(float rango, Long idTramite, int huellaBusqueda) {
+        this.rango = rango;
+        this.idTramite = idTramite;
+        this.huellaBusqueda = huellaBusqueda;
+    }
+
+    public String codificar() {
+        String contenido = VERSION + SEPARADOR + Float.toString(rango) + SEPARADOR + idTramite + SEPARADOR
+                + Integer.toHexString(huellaBusqueda);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica el cursor y verifica que corresponda a la búsqueda actual.
+     * Lanza IllegalArgumentException si el cursor no es válido.
+     */
+    public static CursorBusquedaTexto decodificar(String cursor, int huellaBusquedaEsperada) {
+        String contenido;
+        try {
+            contenido = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido");
+        }
+        try {
+            String[] partes = contenido.split("\\|");
+            if (partes.length != 4 || !VERSION.equals(partes[0])) {
+                throw new IllegalArgumentException("El cursor de paginación no es válido");
+            }
+            int huella = Integer.parseUnsignedInt(partes[3], 16);
+            if (huella != huellaBusquedaEsperada) {
+                throw new IllegalArgumentException("El cursor de paginación corresponde a otra búsqueda");
+            }
+            float rango = Float.parseFloat(partes[1]);
+            if (!Float.isFinite(rango)) {
+                throw new IllegalArgumentException("El cursor de paginación no es válido");
+            }
+            return new CursorBusquedaTexto(rango, Long.parseLong(partes[2]), huella);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido");
+        }
+    }
+
+    public float getRango() { return rango; }
+    public Long getIdTramite() { return idTramite; }
+}
@@ -0,0 +1,66 @@
+package com.gestion.tramites.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de continuación del listado de trámites.
+ *
+ * Contiene la posición de la última fila entregada (fecha de radicación e id del trámite) y una
+ * huella de los filtros con que se generó, codificados en Base64 URL-safe. El cliente solo lo
+ * devuelve tal cual; un cursor mal formado o usado con otros filtros se rechaza. La huella no está
+ * firmada: detecta errores del cliente, no cursores fabricados, que de todos modos solo pueden
+ * mover la posición dentro de los trámites que el usuario ya puede listar.
+ */
+public final class CursorTramites {
+
+    private static final String VERSION = "1";
+    private static final char SEPARADOR = '|';
+
+    private final LocalDate fechaRadicacion;
+    private final Long idTramite;
+    private final int huellaFiltros;
+
+    public CursorTramites(LocalDate fechaRadicacion, Long idTramite, int huellaFiltros) {
+        this.fechaRadicacion = fechaRadicacion;
+        this.idTramite = idTramite;
+        this.huellaFiltros = huellaFiltros;
+    }
+
+    public String codificar() {
+        String contenido = VERSION + SEPARADOR + fechaRadicacion + SEPARADOR + idTramite + SEPARADOR
+                + Integer.toHexString(huellaFiltros);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica el cursor y verifica que corresponda a los filtros actuales.
+     * Lanza IllegalArgumentException si el cursor no es válido.
+     */
+    public static CursorTramites decodificar(String cursor, int huellaFiltrosEsperada) {
+        String contenido;
+        try {
+            contenido = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido");
+        }
+        try {
+            String[] partes = contenido.split("\\|");
+            if (partes.length != 4 || !VERSION.equals(partes[0])) {
+                throw new IllegalArgumentException("El cursor de paginación no es válido");
+            }
+            int huella = Integer.parseUnsignedInt(partes[3], 16);
+            if (huella != huellaFiltrosEsperada) {
+                throw new IllegalArgumentException("El cursor de paginación corresponde a otros filtros");
+            }
+            return new CursorTramites(LocalDate.parse(partes[1]), Long.parseLong(partes[2]), huella);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido");
+        }
+    }
+
+    public LocalDate getFechaRadicacion() { return fechaRadicacion; }
+    public Long getIdTramite() { return idTramite; }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.gestion.tramites.exception.ResourceNotFoundException;
 import com.gestion.tramites.dto.EntidadDTO;
+import com.gestion.tramites.mapper.EntidadMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,24 +25,25 @@ public class EntidadService {
     private final EntidadRepository entidadRepository;
     private final EntidadGubernamentalRepository entidadGubernamentalRepository;
     private final VerificacionEntidadGubernamentalService verificacionService;
+    private final CacheEntidades cacheEntidades;
+    private final EntidadMapper entidadMapper;
 
     @Autowired
     public EntidadService(EntidadRepository entidadRepository,
                          EntidadGubernamentalRepository entidadGubernamentalRepository,
-                         VerificacionEntidadGubernamentalService verificacionService) {
+                         VerificacionEntidadGubernamentalService verificacionService,
+                         CacheEntidades cacheEntidades,
+                         EntidadMapper entidadMapper) {
         this.entidadRepository = entidadRepository;
         this.entidadGubernamentalRepository = entidadGubernamentalRepository;
         this.verificacionService = verificacionService;
+        this.cacheEntidades = cacheEntidades;
+        this.entidadMapper = entidadMapper;
     }
 
-    // Helper para convertir Entidad a EntidadDTO
+    // Helper para convertir Entidad a EntidadDTO (mapper generado en compilación)
     private EntidadDTO convertToDto(Entidad entidad) {
-        if (entidad == null) {
-            return null;
-        }
-        return new EntidadDTO(entidad.getId(), entidad.getNombre(), entidad.getNit(),
-                entidad.getDireccion(), entidad.getTelefono(), entidad.getEmail(),
-                entidad.getSitioWeb(), entidad.isActivo());
+        return entidadMapper.toDto(entidad);
     }
 
     // Helper para convertir EntidadDTO a Entidad
@@ -58,6 +60,9 @@ public class EntidadService {
         entidad.setEmail(entidadDto.getEmail());
         entidad.setSitioWeb(entidadDto.getSitioWeb());
         entidad.setActivo(entidadDto.isActivo());
+        if (entidadDto.getDigitosConsecutivo() != null) {
+            entidad.setDigitosConsecutivo(entidadDto.getDigitosConsecutivo());
+        }
         return entidad;
     }
 
@@ -92,6 +97,13 @@ public class EntidadService {
     public EntidadDTO actualizarEntidad(Long id, EntidadDTO entidadActualizadaDto) { // Recibe y
                                                                                      // devuelve DTO
         return entidadRepository.findById(id).map(entidad -> {
+            Integer digitosNuevos = entidadActualizadaDto.getDigitosConsecutivo();
+            if (digitosNuevos != null && digitosNuevos < entidad.getDigitosConsecutivo()) {
+                // Los números ya emitidos y las reservas vigentes quedarían más anchos que la entidad
+                throw new IllegalArgumentException(String.format(
+                        "Los dígitos del consecutivo no se pueden reducir de %d a %d",
+                        entidad.getDigitosConsecutivo(), digitosNuevos));
+            }
             // Actualiza los campos de la entidad existente con los datos del DTO
             entidad.setNombre(entidadActualizadaDto.getNombre());
             entidad.setNit(entidadActualizadaDto.getNit());
@@ -100,7 +112,11 @@ public class EntidadService {
             entidad.setEmail(entidadActualizadaDto.getEmail());
             entidad.setSitioWeb(entidadActualizadaDto.getSitioWeb());
             entidad.setActivo(entidadActualizadaDto.isActivo());
+            if (entidadActualizadaDto.getDigitosConsecutivo() != null) {
+                entidad.setDigitosConsecutivo(entidadActualizadaDto.getDigitosConsecutivo());
+            }
             Entidad entidadGuardada = entidadRepository.save(entidad);
+            cacheEntidades.invalidar(id);
             return convertToDto(entidadGuardada); // Devuelve DTO
         }).orElseThrow(() -> new ResourceNotFoundException("Entidad", "id", id));
     }
@@ -111,6 +127,7 @@ public class EntidadService {
             throw new ResourceNotFoundException("Entidad", "id", id);
         }
         entidadRepository.deleteById(id);
+        cacheEntidades.invalidar(id);
     }
 
     @Transactional
@@ -123,6 +140,7 @@ public class EntidadService {
 
             entidad.setActivo(nuevoEstado);
             Entidad entidadGuardada = entidadRepository.save(entidad);
+            cacheEntidades.invalidar(id);
 
             logger.info("Estado de entidad {} cambiado a: {}", entidad.getNombre(), nuevoEstado);
 
@@ -0,0 +1,282 @@
+package com.gestion.tramites.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gestion.tramites.context.EntityContext;
+import com.gestion.tramites.dto.tramite.TramiteResponseDTO;
+import com.gestion.tramites.mapper.TramiteMapper;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.repository.TramiteConsultaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Exportación completa de los trámites de una entidad en NDJSON o CSV, para auditores.
+ *
+ * Los trámites se leen por streaming desde la base de datos y cada fila se escribe a la respuesta
+ * apenas llega; el contexto de persistencia se limpia cada lote. La memoria usada no depende de
+ * cuántos trámites tenga la entidad.
+ *
+ * La escritura corre en un hilo de MVC asíncrono (StreamingResponseBody), fuera del hilo en que
+ * EntityInterceptor activó el filtro multi-tenant. Por eso la entidad se resuelve en preparar(),
+ * todavía en el hilo del request, y escribir() vuelve a activar entityFilter en la sesión de su
+ * propia transacción, además de filtrar por la entidad en la consulta.
+ */
+@Service
+public class ExportacionTramitesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacionTramitesService.class);
+
+    private static final String FILTRO_ENTIDAD = "entityFilter";
+
+    private static final String[] COLUMNAS_CSV = {
+        "id_tramite", "numero_radicacion", "fecha_radicacion", "estado", "objeto_tramite",
+        "direccion_inmueble", "id_entidad", "entidad", "solicitante", "correo_solicitante", "revisor",
+        "tipo_tramite", "modalidad", "subtipo", "fecha_ultimo_cambio_estado", "fecha_finalizacion"
+    };
+
+    @Autowired
+    private TramiteConsultaRepository tramiteConsultaRepository;
+
+    @Autowired
+    private TramiteMapper tramiteMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${tramites.exportacion.tamano-lote:500}")
+    private int tamanoLote = 500;
+
+    /**
+     * Valida el formato y los filtros y fija la entidad a exportar según el usuario autenticado.
+     * Debe llamarse en el hilo del request; lanza IllegalArgumentException si algo no es válido.
+     */
+    public SolicitudExportacion preparar(TramiteService.FiltroTramites filtro, String formato) {
+        CustomUserDetails currentUser = getCurrentUser();
+        TramiteService.FiltroTramites filtroEfectivo = filtro != null ? filtro : new TramiteService.FiltroTramites();
+        filtroEfectivo.validarRangoFechas();
+
+        // Igual que el listado: el admin global exporta todo o la entidad que filtre; los demás, solo la suya
+        Long entidadId = currentUser.isAdminGlobal() ? filtroEfectivo.getEntidadId() : currentUser.getIdEntidad();
+
+        return new SolicitudExportacion(FormatoExportacion.desde(formato), filtroEfectivo, entidadId,
+                EntityContext.getCurrentEntityId());
+    }
+
+    /**
+     * Escribe en la salida todos los trámites de la solicitud, en el orden del listado.
+     * Retorna la cantidad de trámites escritos.
+     */
+    @Transactional(readOnly = true)
+    public long escribir(SolicitudExportacion solicitud, OutputStream salida) throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        boolean activarFiltro = solicitud.getEntidadFiltro() != null && session.getEnabledFilter(FILTRO_ENTIDAD) == null;
+        if (activarFiltro) {
+            session.enableFilter(FILTRO_ENTIDAD).setParameter("entityId", solicitud.getEntidadFiltro());
+        }
+
+        TramiteService.FiltroTramites filtro = solicitud.getFiltro();
+        long total = 0;
+        try (Stream<Tramite> tramites = tramiteConsultaRepository.streamExportacion(solicitud.getEntidadId(),
+                filtro.getEstado(), filtro.getTipoTramiteId(), filtro.getRevisorId(),
+                filtro.getFechaDesde(), filtro.getFechaHasta(), tamanoLote)) {
+            EscritorFilas escritor = solicitud.getFormato() == FormatoExportacion.CSV
+                    ? new EscritorCsv(salida) : new EscritorNdjson(salida);
+            Iterator<Tramite> iterador = tramites.iterator();
+            while (iterador.hasNext()) {
+                escritor.escribir(tramiteMapper.toResponseDTO(iterador.next()));
+                total++;
+                if (total % tamanoLote == 0) {
+                    // Las filas ya escritas no se vuelven a leer: se sueltan del contexto de persistencia
+                    entityManager.clear();
+                    escritor.vaciar();
+                }
+            }
+            escritor.vaciar();
+        } finally {
+            if (activarFiltro) {
+                session.disableFilter(FILTRO_ENTIDAD);
+            }
+        }
+
+        logger.info("Exportación {} de trámites completada: {} filas, entidad {}",
+                solicitud.getFormato(), total, solicitud.getEntidadId());
+        return total;
+    }
+
+    private CustomUserDetails getCurrentUser() {
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (!(principal instanceof CustomUserDetails)) {
+            throw new IllegalStateException("Usuario no autenticado correctamente");
+        }
+        return (CustomUserDetails) principal;
+    }
+
+    private interface EscritorFilas {
+        void escribir(TramiteResponseDTO tramite) throws IOException;
+        void vaciar() throws IOException;
+    }
+
+    /**
+     * Un objeto JSON por línea. Un solo generador para toda la exportación, sin flush por fila.
+     */
+    private class EscritorNdjson implements EscritorFilas {
+        private final JsonGenerator generador;
+        private final ObjectWriter escritor;
+
+        EscritorNdjson(OutputStream salida) throws IOException {
+            this.generador = objectMapper.getFactory().createGenerator(salida)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generador.setRootValueSeparator(null);
+            this.escritor = objectMapper.writerFor(TramiteResponseDTO.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void escribir(TramiteResponseDTO tramite) throws IOException {
+            escritor.writeValue(generador, tramite);
+            generador.writeRaw('\n');
+        }
+
+        @Override
+        public void vaciar() throws IOException {
+            generador.flush();
+        }
+    }
+
+    /**
+     * CSV (RFC 4180) en UTF-8 con BOM, para que las hojas de cálculo reconozcan las tildes.
+     * Los valores que empiezan por =, +, - o @ se anteponen con ' para que no se evalúen como fórmulas.
+     */
+    private static class EscritorCsv implements EscritorFilas {
+        private final Writer salida;
+
+        EscritorCsv(OutputStream salida) throws IOException {
+            this.salida = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+            this.salida.write('\uFEFF');
+            escribirFila(COLUMNAS_CSV);
+        }
+
+        @Override
+        public void escribir(TramiteResponseDTO t) throws IOException {
+            escribirFila(new Object[] {
+                t.getIdTramite(), t.getNumeroRadicacion(), t.getFechaRadicacion(), t.getEstadoActual(),
+                t.getObjetoTramite(), t.getDireccionInmueble(), t.getIdEntidad(), t.getNombreEntidad(),
+                t.getNombreSolicitante(), t.getCorreoSolicitante(), t.getNombreRevisor(),
+                t.getNombreTipoTramite(), t.getNombreModalidadTramite(), t.getNombreSubtipoTramite(),
+                t.getFechaUltimoCambioEstado(), t.getFechaFinalizacion()
+            });
+        }
+
+        @Override
+        public void vaciar() throws IOException {
+            salida.flush();
+        }
+
+        private void escribirFila(Object[] valores) throws IOException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    salida.write(',');
+                }
+                if (valores[i] != null) {
+                    escribirCampo(valores[i].toString());
+                }
+            }
+            salida.write("\r\n");
+        }
+
+        private void escribirCampo(String valor) throws IOException {
+            if (!valor.isEmpty() && "=+-@".indexOf(valor.charAt(0)) >= 0) {
+                valor = "'" + valor;
+            }
+            boolean entreComillas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                    || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+            if (!entreComillas) {
+                salida.write(valor);
+                return;
+            }
+            salida.write('"');
+            salida.write(valor.replace("\"", "\"\""));
+            salida.write('"');
+        }
+    }
+
+    /**
+     * Formatos de exportación soportados
+     */
+    public enum FormatoExportacion {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String tipoContenido;
+        private final String extension;
+
+        FormatoExportacion(String tipoContenido, String extension) {
+            this.tipoContenido = tipoContenido;
+            this.extension = extension;
+        }
+
+        static FormatoExportacion desde(String formato) {
+            if (formato == null || formato.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(formato.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato de exportación no soportado: " + formato
+                        + ". Use ndjson o csv");
+            }
+        }
+
+        public String getTipoContenido() { return tipoContenido; }
+        public String getExtension() { return extension; }
+    }
+
+    /**
+     * Exportación validada y con la entidad ya resuelta; se arma en preparar()
+     */
+    public static class SolicitudExportacion {
+        private final FormatoExportacion formato;
+        private final TramiteService.FiltroTramites filtro;
+        private final Long entidadId;
+        private final Long entidadFiltro;
+
+        private SolicitudExportacion(FormatoExportacion formato, TramiteService.FiltroTramites filtro,
+                                     Long entidadId, Long entidadFiltro) {
+            this.formato = formato;
+            this.filtro = filtro;
+            this.entidadId = entidadId;
+            this.entidadFiltro = entidadFiltro;
+        }
+
+        public FormatoExportacion getFormato() { return formato; }
+        public TramiteService.FiltroTramites getFiltro() { return filtro; }
+        /** Entidad exportada; null solo para el admin global sin filtro de entidad */
+        public Long getEntidadId() { return entidadId; }
+        /** Entidad con que EntityInterceptor activó entityFilter en el request */
+        public Long getEntidadFiltro() { return entidadFiltro; }
+    }
+}
@@ -0,0 +1,353 @@
+package com.gestion.tramites.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.tramites.exception.ClaveIdempotenciaException;
+import com.gestion.tramites.model.ClaveIdempotencia;
+import com.gestion.tramites.repository.ClaveIdempotenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Soporte del encabezado Idempotency-Key para las operaciones que consumen consecutivos o
+ * crean trámites.
+ *
+ * La primera solicitud con una clave la registra EN_PROCESO en claves_idempotencia (en su propia
+ * transacción, de modo que el índice único resuelve las carreras entre nodos) y ejecuta la
+ * operación en una transacción que también guarda la respuesta: la clave queda COMPLETADA en el
+ * mismo commit que el trámite, o la operación no se confirma. Los reintentos con la misma clave reciben la respuesta
+ * guardada sin volver a ejecutar la operación: no se toma el lock del consecutivo, no se crea
+ * otro trámite ni se envía otra notificación. Las respuestas recientes se sirven desde un LRU
+ * acotado en memoria; la tabla cubre reinicios y los demás nodos.
+ *
+ * La clave es única por usuario y operación. Si la operación falla la clave se libera para que
+ * el cliente pueda reintentar. Si el nodo que la registró muere antes de liberarla, la clave
+ * queda EN_PROCESO; pasado idempotencia.plazo-proceso-ms desde su registro, un reintento con la
+ * misma solicitud la retoma. La fecha de registro funciona como testigo: solo quien la escribió
+ * puede completar o liberar la clave, así que la solicitud original, si seguía viva, no confirma
+ * su operación. Las claves vencen a las idempotencia.vigencia-horas; una clave vencida que el
+ * barrido aún no eliminó se trata como inexistente. Como la
+ * operación corre dentro de la transacción de la clave, los reintentos por contención
+ * (ReintentoRadicacion) deben envolver esta llamada y no la operación.
+ */
+@Service
+public class IdempotenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+    private static final String USUARIO_ANONIMO = "anonimo";
+
+    @Autowired
+    private ClaveIdempotenciaRepository claveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotencia.vigencia-horas:24}")
+    private long vigenciaHoras = 24;
+
+    @Value("${idempotencia.plazo-proceso-ms:30000}")
+    private long plazoProcesoMs = 30000;
+
+    @Value("${idempotencia.cache.tamano-maximo:10000}")
+    private int tamanoMaximoCache = 10000;
+
+    /** LRU acotado por tamanoMaximoCache; se accede sincronizado sobre el mismo mapa */
+    private final Map<String, RespuestaGuardada> respuestasRecientes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RespuestaGuardada> eldest) {
+            return size() > tamanoMaximoCache;
+        }
+    };
+
+    /**
+     * Ejecuta la operación una sola vez por clave. Sin clave, la operación se ejecuta siempre.
+     */
+    public <T> ResultadoIdempotente<T> ejecutar(String clave, String operacion, Object solicitud,
+                                                Class<T> tipoRespuesta, int codigoRespuesta,
+                                                Supplier<T> accion) {
+        if (clave == null || clave.isBlank()) {
+            return new ResultadoIdempotente<>(accion.get(), codigoRespuesta, false);
+        }
+        if (clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new ClaveIdempotenciaException(
+                    "La clave Idempotency-Key no puede superar " + LONGITUD_MAXIMA_CLAVE + " caracteres", false);
+        }
+
+        String usuario = obtenerUsuarioActual();
+        String llave = usuario + '\u0000' + operacion + '\u0000' + clave;
+        String hash = calcularHash(solicitud);
+
+        RespuestaGuardada guardada = obtenerDeCache(llave);
+        if (guardada != null) {
+            return repetir(guardada, hash, tipoRespuesta);
+        }
+
+        ClaveRegistrada registrada = null;
+        ClaveIdempotencia existente = buscarVigente(usuario, operacion, clave);
+        if (existente == null) {
+            try {
+                registrada = registrar(usuario, operacion, clave, hash);
+            } catch (DataIntegrityViolationException e) {
+                // Otra solicitud con la misma clave la registró primero
+                existente = buscarVigente(usuario, operacion, clave);
+                if (existente == null) {
+                    throw new ClaveIdempotenciaException(
+                            "La solicitud original con esta Idempotency-Key aún se está procesando", true);
+                }
+            }
+        }
+        if (registrada == null) {
+            if (existente.getEstado() == ClaveIdempotencia.EstadoClave.COMPLETADA) {
+                guardada = new RespuestaGuardada(existente.getHashSolicitud(), existente.getCodigoRespuesta(),
+                        existente.getCuerpoRespuesta(), existente.getFechaExpiracion());
+                guardarEnCache(llave, guardada);
+                return repetir(guardada, hash, tipoRespuesta);
+            }
+            registrada = retomar(existente, hash);
+        }
+
+        ClaveRegistrada propia = registrada;
+        T respuesta;
+        String cuerpo;
+        try {
+            RespuestaSerializada<T> completada = new TransactionTemplate(transactionManager).execute(status -> {
+                T resultado = accion.get();
+                String serializado = serializar(resultado);
+                if (claveRepository.completar(propia.idClave, propia.fechaRegistro, codigoRespuesta, serializado) == 0) {
+                    // Otra solicitud retomó la clave; esta operación no se confirma
+                    throw new ClaveIdempotenciaException(
+                            "La Idempotency-Key fue retomada por otra solicitud mientras se procesaba", true);
+                }
+                return new RespuestaSerializada<>(resultado, serializado);
+            });
+            respuesta = completada.respuesta;
+            cuerpo = completada.cuerpo;
+        } catch (RuntimeException e) {
+            liberar(propia);
+            throw e;
+        }
+
+        guardarEnCache(llave, new RespuestaGuardada(hash, codigoRespuesta, cuerpo,
+                LocalDateTime.now().plusHours(vigenciaHoras)));
+        return new ResultadoIdempotente<>(respuesta, codigoRespuesta, false);
+    }
+
+    /**
+     * Elimina las claves vencidas
+     */
+    @Scheduled(fixedDelayString = "${idempotencia.intervalo-barrido-ms:3600000}",
+               initialDelayString = "${idempotencia.intervalo-barrido-ms:3600000}")
+    public int eliminarVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer eliminadas = nuevaTransaccion().execute(status -> claveRepository.deleteVencidas(ahora));
+        synchronized (respuestasRecientes) {
+            respuestasRecientes.values().removeIf(respuesta -> respuesta.expiracion.isBefore(ahora));
+        }
+        if (eliminadas != null && eliminadas > 0) {
+            logger.info("{} claves de idempotencia vencidas eliminadas", eliminadas);
+        }
+        return eliminadas != null ? eliminadas : 0;
+    }
+
+    private <T> ResultadoIdempotente<T> repetir(RespuestaGuardada guardada, String hash, Class<T> tipoRespuesta) {
+        if (!guardada.hashSolicitud.equals(hash)) {
+            throw new ClaveIdempotenciaException(
+                    "La Idempotency-Key ya se usó con una solicitud diferente", false);
+        }
+        try {
+            T respuesta = objectMapper.readValue(guardada.cuerpo, tipoRespuesta);
+            return new ResultadoIdempotente<>(respuesta, guardada.codigoRespuesta, true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta guardada de la clave de idempotencia", e);
+        }
+    }
+
+    /**
+     * Registro de la clave, o null si no existe. Una clave vencida que el barrido aún no eliminó
+     * se elimina aquí y se trata como inexistente.
+     */
+    private ClaveIdempotencia buscarVigente(String usuario, String operacion, String clave) {
+        ClaveIdempotencia existente = claveRepository.findByUsuarioAndOperacionAndClave(usuario, operacion, clave)
+                .orElse(null);
+        if (existente == null) {
+            return null;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        if (existente.getFechaExpiracion().isBefore(ahora)) {
+            nuevaTransaccion().executeWithoutResult(status ->
+                    claveRepository.deleteSiVencida(existente.getIdClave(), ahora));
+            return null;
+        }
+        return existente;
+    }
+
+    /**
+     * Retoma una clave EN_PROCESO cuyo registro superó idempotencia.plazo-proceso-ms. Lanza
+     * ClaveIdempotenciaException si la clave aún está dentro del plazo o si la tomó otra solicitud.
+     */
+    private ClaveRegistrada retomar(ClaveIdempotencia existente, String hash) {
+        LocalDateTime ahora = ahora();
+        LocalDateTime registro = existente.getFechaRegistro();
+        if (registro == null || !registro.plus(plazoProcesoMs, ChronoUnit.MILLIS).isBefore(ahora)) {
+            throw new ClaveIdempotenciaException(
+                    "La solicitud original con esta Idempotency-Key aún se está procesando", true);
+        }
+        if (!existente.getHashSolicitud().equals(hash)) {
+            throw new ClaveIdempotenciaException(
+                    "La Idempotency-Key ya se usó con una solicitud diferente", false);
+        }
+        Integer retomadas = nuevaTransaccion().execute(status ->
+                claveRepository.retomarEnProceso(existente.getIdClave(), registro, ahora));
+        if (retomadas == null || retomadas == 0) {
+            throw new ClaveIdempotenciaException(
+                    "La solicitud original con esta Idempotency-Key aún se está procesando", true);
+        }
+        logger.warn("Clave de idempotencia {} retomada: la solicitud original no terminó desde {}",
+                existente.getIdClave(), registro);
+        return new ClaveRegistrada(existente.getIdClave(), ahora);
+    }
+
+    private ClaveRegistrada registrar(String usuario, String operacion, String clave, String hash) {
+        LocalDateTime ahora = ahora();
+        Long idClave = nuevaTransaccion().execute(status -> {
+            ClaveIdempotencia registro = new ClaveIdempotencia();
+            registro.setUsuario(usuario);
+            registro.setOperacion(operacion);
+            registro.setClave(clave);
+            registro.setHashSolicitud(hash);
+            registro.setEstado(ClaveIdempotencia.EstadoClave.EN_PROCESO);
+            registro.setFechaRegistro(ahora);
+            registro.setFechaExpiracion(ahora.plusHours(vigenciaHoras));
+            return claveRepository.saveAndFlush(registro).getIdClave();
+        });
+        return new ClaveRegistrada(idClave, ahora);
+    }
+
+    private void liberar(ClaveRegistrada registrada) {
+        try {
+            nuevaTransaccion().executeWithoutResult(status ->
+                    claveRepository.deleteEnProceso(registrada.idClave, registrada.fechaRegistro));
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo liberar la clave de idempotencia {}; vencerá sola: {}",
+                    registrada.idClave, e.getMessage());
+        }
+    }
+
+    /**
+     * Hora actual con la precisión de PostgreSQL, para comparar la fecha de registro guardada
+     */
+    private static LocalDateTime ahora() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private TransactionTemplate nuevaTransaccion() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaccion;
+    }
+
+    private RespuestaGuardada obtenerDeCache(String llave) {
+        synchronized (respuestasRecientes) {
+            RespuestaGuardada guardada = respuestasRecientes.get(llave);
+            if (guardada != null && guardada.expiracion.isBefore(LocalDateTime.now())) {
+                respuestasRecientes.remove(llave);
+                return null;
+            }
+            return guardada;
+        }
+    }
+
+    private void guardarEnCache(String llave, RespuestaGuardada guardada) {
+        synchronized (respuestasRecientes) {
+            respuestasRecientes.put(llave, guardada);
+        }
+    }
+
+    private String calcularHash(Object solicitud) {
+        try {
+            byte[] contenido = objectMapper.writeValueAsBytes(solicitud);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenido));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular el hash de la solicitud", e);
+        }
+    }
+
+    private String serializar(Object respuesta) {
+        try {
+            return objectMapper.writeValueAsString(respuesta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta de la clave de idempotencia", e);
+        }
+    }
+
+    private String obtenerUsuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion != null && autenticacion.getName() != null) {
+            return autenticacion.getName();
+        }
+        return USUARIO_ANONIMO;
+    }
+
+    private record RespuestaSerializada<T>(T respuesta, String cuerpo) {
+    }
+
+    /** Clave registrada o retomada por esta solicitud; la fecha de registro es su testigo */
+    private record ClaveRegistrada(Long idClave, LocalDateTime fechaRegistro) {
+    }
+
+    private static class RespuestaGuardada {
+        private final String hashSolicitud;
+        private final int codigoRespuesta;
+        private final String cuerpo;
+        private final LocalDateTime expiracion;
+
+        private RespuestaGuardada(String hashSolicitud, int codigoRespuesta, String cuerpo, LocalDateTime expiracion) {
+            this.hashSolicitud = hashSolicitud;
+            this.codigoRespuesta = codigoRespuesta;
+            this.cuerpo = cuerpo;
+            this.expiracion = expiracion;
+        }
+    }
+
+    public static class ResultadoIdempotente<T> {
+        private final T respuesta;
+        private final int codigoRespuesta;
+        private final boolean repetida;
+
+        public ResultadoIdempotente(T respuesta, int codigoRespuesta, boolean repetida) {
+            this.respuesta = respuesta;
+            this.codigoRespuesta = codigoRespuesta;
+            this.repetida = repetida;
+        }
+
+        public T getRespuesta() { return respuesta; }
+        public int getCodigoRespuesta() { return codigoRespuesta; }
+        public boolean isRepetida() { return repetida; }
+    }
+}
@@ -1,6 +1,7 @@
 package com.gestion.tramites.service;
 
 import com.gestion.tramites.dto.notificaciones.NotificacionEmailDTO;
+import com.gestion.tramites.model.EntidadSnapshot;
 import com.gestion.tramites.model.Tramite;
 import com.gestion.tramites.model.Usuario;
 import jakarta.mail.MessagingException;
@@ -40,6 +41,9 @@ public class NotificacionService {
     @Autowired
     private TemplateEngine templateEngine;
 
+    @Autowired
+    private CacheEntidades cacheEntidades;
+
     @Value("${notifications.email.enabled:true}")
     private boolean notificacionesHabilitadas;
 
@@ -206,7 +210,9 @@ public class NotificacionService {
         variables.put("fechaRadicacion", tramite.getFechaRadicacion() != null ?
                       tramite.getFechaRadicacion().format(FECHA_FORMATO) : "N/A");
         variables.put("nombreSolicitante", tramite.getSolicitante().getNombreCompleto());
-        variables.put("nombreEntidad", tramite.getEntidad().getNombre());
+        variables.put("nombreEntidad", cacheEntidades.obtener(tramite.getEntidad().getId())
+                .map(EntidadSnapshot::getNombre)
+                .orElseGet(() -> tramite.getEntidad().getNombre()));
         variables.put("urlConsulta", baseUrl + "/consulta/" + tramite.getNumeroRadicacion());
         variables.put("fechaActual", java.time.LocalDate.now().format(FECHA_FORMATO));
 
@@ -3,11 +3,15 @@ package com.gestion.tramites.service;
 import com.gestion.tramites.exception.ResourceNotFoundException;
 import com.gestion.tramites.model.ConsecutivoRadicacion;
 import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.model.ReservaNumeroRadicacion;
 import com.gestion.tramites.model.Tramite;
 import com.gestion.tramites.model.TipoTramite;
 import com.gestion.tramites.model.Usuario;
 import com.gestion.tramites.repository.ConsecutivoRadicacionRepository;
 import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.ReservaNumeroRadicacionRepository;
+import com.gestion.tramites.repository.TramiteLoteRepository;
 import com.gestion.tramites.repository.TramiteRepository;
 import com.gestion.tramites.repository.TipoTramiteRepository;
 import com.gestion.tramites.repository.UsuarioRepository;
@@ -15,15 +19,25 @@ import com.gestion.tramites.service.CustomUserDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -31,6 +45,9 @@ public class RadicacionService {
 
     private static final Logger logger = LoggerFactory.getLogger(RadicacionService.class);
 
+    /** Tipo de documento de los solicitantes creados en la radicación, hasta que completen sus datos */
+    static final String TIPO_DOCUMENTO_PROVISIONAL = "PENDIENTE";
+
     @Autowired
     private ConsecutivoRadicacionRepository consecutivoRepository;
 
@@ -52,54 +69,68 @@ public class RadicacionService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private AsignadorBloquesRadicacion asignadorBloques;
+
+    @Autowired
+    private TramiteLoteRepository tramiteLoteRepository;
+
+    @Autowired
+    private ReservaNumeroRadicacionRepository reservaRepository;
+
+    @Autowired
+    private CacheEntidades cacheEntidades;
+
+    @Autowired
+    private CacheTiposTramite cacheTiposTramite;
+
+    @Autowired
+    private CacheSolicitantes cacheSolicitantes;
+
+    @Value("${radicacion.lote.tamano-maximo:1000}")
+    private int tamanoMaximoLote = 1000;
+
+    @Value("${radicacion.reservas.vigencia-minutos:60}")
+    private int vigenciaReservaMinutos = 60;
+
     /**
-     * Genera automáticamente el siguiente número de radicación para una entidad
+     * Genera automáticamente el siguiente número de radicación para una entidad.
+     * El consecutivo lo entrega el asignador por bloques, sin aislamiento SERIALIZABLE.
      */
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public String generarSiguienteNumeroRadicacion(Long entidadId) {
         logger.info("Generando siguiente número de radicación para entidad: {}", entidadId);
 
-        Entidad entidad = entidadRepository.findById(entidadId)
-                .orElseThrow(() -> new ResourceNotFoundException("Entidad", "id", entidadId));
-
-        if (!entidad.isActivo()) {
-            throw new IllegalStateException("No se puede radicar en una entidad inactiva");
-        }
-
-        ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad = validacionService.determinarTipoEntidad(entidad);
+        EntidadSnapshot entidad = obtenerEntidadParaRadicar(entidadId);
         int anoActual = LocalDate.now().getYear();
 
-        ConsecutivoRadicacion consecutivo = obtenerOCrearConsecutivo(entidad, tipoEntidad, anoActual);
-        String numeroRadicacion = consecutivo.incrementarYGenerar();
-        consecutivoRepository.save(consecutivo);
+        String numeroRadicacion = asignadorBloques.asignarNumeroRadicacion(
+                entidad, entidad.getTipoRadicacion(), anoActual);
 
         logger.info("Número de radicación generado: {} para entidad: {}", numeroRadicacion, entidad.getNombre());
         return numeroRadicacion;
     }
 
     /**
-     * Radica un trámite asignando automáticamente el número de radicación
+     * Radica un trámite asignando automáticamente el número de radicación.
+     *
+     * La entidad y el tipo de trámite se toman de sus cachés y se referencian sin leerlos, así que
+     * en el camino normal la radicación ejecuta a lo sumo tres sentencias: la asignación del
+     * consecutivo, la resolución del solicitante (ninguna si está en caché) y la inserción del trámite.
      */
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional
     public SolicitudRadicacion radicarTramite(SolicitudRadicacionTramite solicitud) {
         logger.info("Iniciando radicación de trámite para entidad: {}", solicitud.getEntidadId());
 
         validarSolicitudRadicacion(solicitud);
-        String numeroRadicacion = generarSiguienteNumeroRadicacion(solicitud.getEntidadId());
+        String numeroRadicacion = solicitud.getNumeroRadicacionReservado() != null
+                ? utilizarReserva(solicitud.getEntidadId(), solicitud.getNumeroRadicacionReservado())
+                : generarSiguienteNumeroRadicacion(solicitud.getEntidadId());
         CustomUserDetails currentUser = getCurrentUser();
 
         Tramite tramite = crearTramiteDesdeRadicacion(solicitud, numeroRadicacion, currentUser);
         Tramite tramiteGuardado = tramiteRepository.save(tramite);
 
-        SolicitudRadicacion radicacion = new SolicitudRadicacion();
-        radicacion.setIdTramite(tramiteGuardado.getIdTramite());
-        radicacion.setNumeroRadicacion(numeroRadicacion);
-        radicacion.setFechaRadicacion(tramiteGuardado.getFechaRadicacion());
-        radicacion.setEntidadId(solicitud.getEntidadId());
-        radicacion.setTipoTramiteId(solicitud.getTipoTramiteId());
-        radicacion.setObjetoTramite(solicitud.getObjetoTramite());
-        radicacion.setEstado(tramiteGuardado.getEstadoActual());
-        radicacion.setSolicitanteEmail(solicitud.getSolicitanteEmail());
+        SolicitudRadicacion radicacion = construirRadicacion(solicitud, tramiteGuardado);
 
         enviarNotificacionRadicacion(radicacion, tramiteGuardado);
 
@@ -107,20 +138,113 @@ public class RadicacionService {
         return radicacion;
     }
 
+    /**
+     * Radica un lote de trámites en una sola transacción.
+     *
+     * Las solicitudes inválidas se reportan en su resultado sin afectar las demás. Por cada
+     * entidad se reserva un rango contiguo de consecutivos con una sola actualización del
+     * contador, los trámites se insertan en un batch JDBC y las notificaciones se encolan
+     * solo después del commit.
+     */
+    @Transactional
+    public List<ResultadoRadicacionLote> radicarLote(List<SolicitudRadicacionTramite> solicitudes) {
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            throw new IllegalArgumentException("El lote de radicación no puede estar vacío");
+        }
+        if (solicitudes.size() > tamanoMaximoLote) {
+            throw new IllegalArgumentException(String.format(
+                    "El lote de radicación excede el máximo de %d solicitudes", tamanoMaximoLote));
+        }
+        logger.info("Iniciando radicación por lote de {} solicitudes", solicitudes.size());
+
+        Map<Long, Entidad> entidades = entidadRepository.findAllById(solicitudes.stream()
+                        .map(SolicitudRadicacionTramite::getEntidadId).filter(Objects::nonNull).distinct().toList())
+                .stream().collect(Collectors.toMap(Entidad::getId, Function.identity()));
+        Map<Long, TipoTramite> tiposTramite = tipoTramiteRepository.findAllById(solicitudes.stream()
+                        .map(SolicitudRadicacionTramite::getTipoTramiteId).filter(Objects::nonNull).distinct().toList())
+                .stream().collect(Collectors.toMap(TipoTramite::getIdTipoTramite, Function.identity()));
+
+        // Validar cada solicitud y agrupar las válidas por entidad
+        ResultadoRadicacionLote[] resultados = new ResultadoRadicacionLote[solicitudes.size()];
+        Map<Long, List<Integer>> indicesPorEntidad = new LinkedHashMap<>();
+        for (int i = 0; i < solicitudes.size(); i++) {
+            SolicitudRadicacionTramite solicitud = solicitudes.get(i);
+            try {
+                validarSolicitudRadicacion(solicitud);
+                if (solicitud.getNumeroRadicacionReservado() != null) {
+                    throw new IllegalArgumentException("Las solicitudes con número reservado se radican individualmente");
+                }
+                Entidad entidad = entidades.get(solicitud.getEntidadId());
+                if (entidad == null) {
+                    throw new ResourceNotFoundException("Entidad", "id", solicitud.getEntidadId());
+                }
+                if (!entidad.isActivo()) {
+                    throw new IllegalStateException("No se puede radicar en una entidad inactiva");
+                }
+                if (!tiposTramite.containsKey(solicitud.getTipoTramiteId())) {
+                    throw new ResourceNotFoundException("TipoTramite", "id", solicitud.getTipoTramiteId());
+                }
+                indicesPorEntidad.computeIfAbsent(entidad.getId(), k -> new ArrayList<>()).add(i);
+            } catch (RuntimeException e) {
+                resultados[i] = ResultadoRadicacionLote.fallido(i, e.getMessage());
+            }
+        }
+
+        Map<String, Usuario> solicitantes = buscarOCrearSolicitantes(solicitudes, indicesPorEntidad, entidades);
+
+        // Reservar un rango contiguo por entidad y construir los trámites
+        int anoActual = LocalDate.now().getYear();
+        List<Tramite> tramites = new ArrayList<>();
+        List<Integer> indicesTramites = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> grupo : indicesPorEntidad.entrySet()) {
+            Entidad entidad = entidades.get(grupo.getKey());
+            List<Integer> indices = grupo.getValue();
+            ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad = validacionService.determinarTipoEntidad(entidad);
+            int consecutivo = asignadorBloques.asignarRango(entidad, tipoEntidad, anoActual, indices.size());
+
+            for (Integer indice : indices) {
+                SolicitudRadicacionTramite solicitud = solicitudes.get(indice);
+                String numeroRadicacion = ConsecutivoRadicacion.formatearRadicacion(
+                        entidad.getCodigoDane(), tipoEntidad, anoActual, consecutivo++, entidad.getDigitosConsecutivo());
+
+                tramites.add(construirTramite(solicitud, numeroRadicacion, entidad,
+                        tiposTramite.get(solicitud.getTipoTramiteId()),
+                        solicitantes.get(solicitud.getSolicitanteEmail())));
+                indicesTramites.add(indice);
+            }
+        }
+
+        tramiteLoteRepository.insertarTramites(tramites);
+
+        List<Runnable> notificaciones = new ArrayList<>(tramites.size());
+        for (int i = 0; i < tramites.size(); i++) {
+            Tramite tramite = tramites.get(i);
+            int indice = indicesTramites.get(i);
+            SolicitudRadicacion radicacion = construirRadicacion(solicitudes.get(indice), tramite);
+            resultados[indice] = ResultadoRadicacionLote.exitoso(indice, radicacion);
+            notificaciones.add(() -> enviarNotificacionRadicacion(radicacion, tramite));
+        }
+        programarDespuesDeCommit(notificaciones);
+
+        logger.info("Radicación por lote completada: {} radicados, {} con error",
+                tramites.size(), solicitudes.size() - tramites.size());
+        return List.of(resultados);
+    }
+
     /**
      * Obtiene estadísticas de radicación para una entidad
      */
     @Transactional(readOnly = true)
     public EstadisticasRadicacion obtenerEstadisticasRadicacion(Long entidadId, Integer ano) {
-        Entidad entidad = entidadRepository.findById(entidadId)
-                .orElseThrow(() -> new ResourceNotFoundException("Entidad", "id", entidadId));
+        EntidadSnapshot entidad = cacheEntidades.obtenerRequerida(entidadId);
 
         if (ano == null) {
             ano = LocalDate.now().getYear();
         }
 
         List<ConsecutivoRadicacion> consecutivos =
-                consecutivoRepository.findByEntidadAndAnoAndActivoTrueOrderByTipoEntidad(entidad, ano);
+                consecutivoRepository.findByEntidadAndAnoAndActivoTrueOrderByTipoEntidad(
+                        entidadRepository.getReferenceById(entidadId), ano);
 
         EstadisticasRadicacion estadisticas = new EstadisticasRadicacion();
         estadisticas.setEntidadId(entidadId);
@@ -139,28 +263,37 @@ public class RadicacionService {
         return estadisticas;
     }
 
-    private ConsecutivoRadicacion obtenerOCrearConsecutivo(Entidad entidad,
-                                                          ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad,
-                                                          int ano) {
-        Optional<ConsecutivoRadicacion> consecutivoExistente =
-                consecutivoRepository.findByEntidadAndTipoAndAnoWithLock(entidad, tipoEntidad, ano);
+    /**
+     * Valida contra el caché de entidades que la entidad exista y esté activa
+     */
+    private EntidadSnapshot obtenerEntidadParaRadicar(Long entidadId) {
+        EntidadSnapshot entidad = cacheEntidades.obtenerRequerida(entidadId);
 
-        if (consecutivoExistente.isPresent()) {
-            return consecutivoExistente.get();
+        if (!entidad.isActivo()) {
+            throw new IllegalStateException("No se puede radicar en una entidad inactiva");
         }
+        return entidad;
+    }
 
-        ConsecutivoRadicacion nuevoConsecutivo = new ConsecutivoRadicacion();
-        nuevoConsecutivo.setEntidad(entidad);
-        nuevoConsecutivo.setCodigoDane(entidad.getCodigoDane());
-        nuevoConsecutivo.setTipoEntidad(tipoEntidad);
-        nuevoConsecutivo.setAno(ano);
-        nuevoConsecutivo.setUltimoConsecutivo(0);
-        nuevoConsecutivo.setActivo(true);
+    /**
+     * Marca como utilizada la reserva vigente del número indicado
+     */
+    private String utilizarReserva(Long entidadId, String numeroRadicacion) {
+        int actualizadas = reservaRepository.marcarUtilizada(numeroRadicacion, entidadId, LocalDateTime.now(),
+                ReservaNumeroRadicacion.EstadoReserva.RESERVADO, ReservaNumeroRadicacion.EstadoReserva.UTILIZADO);
 
-        return consecutivoRepository.save(nuevoConsecutivo);
+        if (actualizadas == 0) {
+            throw new IllegalStateException(String.format(
+                    "El número %s no tiene una reserva vigente para la entidad %d", numeroRadicacion, entidadId));
+        }
+        logger.info("Reserva de número {} utilizada en radicación", numeroRadicacion);
+        return numeroRadicacion;
     }
 
-    private void validarSolicitudRadicacion(SolicitudRadicacionTramite solicitud) {
+    /**
+     * Valida los datos obligatorios de una solicitud de radicación
+     */
+    public void validarSolicitudRadicacion(SolicitudRadicacionTramite solicitud) {
         if (solicitud.getEntidadId() == null) {
             throw new IllegalArgumentException("ID de entidad es obligatorio");
         }
@@ -178,23 +311,39 @@ public class RadicacionService {
     private Tramite crearTramiteDesdeRadicacion(SolicitudRadicacionTramite solicitud,
                                               String numeroRadicacion,
                                               CustomUserDetails currentUser) {
-        // Obtener entidad
-        Entidad entidad = entidadRepository.findById(solicitud.getEntidadId())
-                .orElseThrow(() -> new ResourceNotFoundException("Entidad", "id", solicitud.getEntidadId()));
+        // Obtener entidad: los datos vienen del caché y el trámite solo necesita la referencia
+        EntidadSnapshot datosEntidad = cacheEntidades.obtenerRequerida(solicitud.getEntidadId());
+        Entidad entidad = entidadRepository.getReferenceById(datosEntidad.getId());
 
-        // Obtener tipo de trámite
-        TipoTramite tipoTramite = tipoTramiteRepository.findById(solicitud.getTipoTramiteId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoTramite", "id", solicitud.getTipoTramiteId()));
+        // Obtener tipo de trámite: el nombre viene del catálogo en caché
+        String nombreTipoTramite = cacheTiposTramite.obtenerNombreRequerido(solicitud.getTipoTramiteId());
+        TipoTramite tipoTramite = tipoTramiteRepository.getReferenceById(solicitud.getTipoTramiteId());
 
         // Buscar o crear usuario solicitante por email
         Usuario solicitante = buscarOCrearSolicitante(solicitud.getSolicitanteEmail(), entidad);
 
+        Tramite tramite = construirTramite(solicitud, numeroRadicacion, entidad, tipoTramite, solicitante);
+
+        logger.debug("Trámite creado: {} para tipo: {} en entidad: {}",
+                numeroRadicacion, nombreTipoTramite, datosEntidad.getNombre());
+
+        return tramite;
+    }
+
+    private Tramite construirTramite(SolicitudRadicacionTramite solicitud,
+                                     String numeroRadicacion,
+                                     Entidad entidad,
+                                     TipoTramite tipoTramite,
+                                     Usuario solicitante) {
+        LocalDateTime ahora = LocalDateTime.now();
+
         // Crear trámite completo
         Tramite tramite = new Tramite();
         tramite.setNumeroRadicacion(numeroRadicacion);
         tramite.setObjetoTramite(solicitud.getObjetoTramite());
-        tramite.setFechaRadicacion(LocalDate.now());
-        tramite.setFechaCreacion(LocalDateTime.now());
+        tramite.setFechaRadicacion(ahora.toLocalDate());
+        tramite.setFechaCreacion(ahora);
+        tramite.setFechaUltimoCambioEstado(ahora);
         tramite.setEstadoActual(Tramite.EstadoTramite.RADICADO);
 
         // Relaciones con entidades existentes
@@ -207,39 +356,126 @@ public class RadicacionService {
             tramite.setObservaciones(solicitud.getObservaciones());
         }
 
-        logger.debug("Trámite creado: {} para tipo: {} en entidad: {}",
-                numeroRadicacion, tipoTramite.getNombre(), entidad.getNombre());
-
         return tramite;
     }
 
+    private SolicitudRadicacion construirRadicacion(SolicitudRadicacionTramite solicitud, Tramite tramite) {
+        SolicitudRadicacion radicacion = new SolicitudRadicacion();
+        radicacion.setIdTramite(tramite.getIdTramite());
+        radicacion.setNumeroRadicacion(tramite.getNumeroRadicacion());
+        radicacion.setFechaRadicacion(tramite.getFechaRadicacion());
+        radicacion.setEntidadId(solicitud.getEntidadId());
+        radicacion.setTipoTramiteId(solicitud.getTipoTramiteId());
+        radicacion.setObjetoTramite(solicitud.getObjetoTramite());
+        radicacion.setEstado(tramite.getEstadoActual());
+        radicacion.setSolicitanteEmail(solicitud.getSolicitanteEmail());
+        return radicacion;
+    }
+
     /**
-     * Busca un usuario solicitante por email o crea uno nuevo si no existe
+     * Resuelve el solicitante por email y lo crea si no existe, en una sola sentencia
+     * (INSERT ... ON CONFLICT DO NOTHING). Los solicitantes resueltos recientemente se toman del
+     * caché sin consultar la base de datos. El trámite solo necesita la referencia al usuario.
      */
     private Usuario buscarOCrearSolicitante(String email, Entidad entidad) {
-        Optional<Usuario> usuarioExistente = usuarioRepository.findByCorreoElectronico(email);
+        Optional<Long> enCache = cacheSolicitantes.obtenerId(email);
+        if (enCache.isPresent()) {
+            return usuarioRepository.getReferenceById(enCache.get());
+        }
+
+        Long idSolicitante = insertarSolicitanteSiNoExiste(email, entidad);
 
-        if (usuarioExistente.isPresent()) {
-            return usuarioExistente.get();
+        cacheSolicitantes.guardarDespuesDeCommit(email, idSolicitante);
+        logger.debug("Solicitante {} resuelto con id {} para entidad: {}", email, idSolicitante, entidad.getId());
+        return usuarioRepository.getReferenceById(idSolicitante);
+    }
+
+    /**
+     * Crea el solicitante si su correo no está registrado (ON CONFLICT DO NOTHING) y retorna su id.
+     * Ambas sentencias son nativas: ven a los solicitantes de cualquier entidad, aunque entityFilter
+     * esté activo, y toleran que otra radicación concurrente cree el mismo correo.
+     */
+    private Long insertarSolicitanteSiNoExiste(String email, Entidad entidad) {
+        Long idSolicitante = usuarioRepository.insertarSolicitanteSiNoExiste(email, "Solicitante " + email,
+                TIPO_DOCUMENTO_PROVISIONAL, documentoProvisional(email), contrasenaTemporal(), entidad.getId());
+        if (idSolicitante == null) {
+            // Otra radicación concurrente lo creó después de iniciada la sentencia
+            idSolicitante = usuarioRepository.findIdByCorreoElectronico(email)
+                    .orElseThrow(() -> new IllegalStateException("No fue posible resolver el solicitante " + email));
         }
+        return idSolicitante;
+    }
 
-        // Crear nuevo usuario solicitante
-        Usuario nuevoSolicitante = new Usuario();
-        nuevoSolicitante.setCorreoElectronico(email);
-        nuevoSolicitante.setNombreCompleto("Solicitante " + email); // Se actualizará después
-        nuevoSolicitante.setRol(Usuario.Rol.SOLICITANTE);
-        nuevoSolicitante.setEntidad(entidad);
-        nuevoSolicitante.setActivo(true);
+    /**
+     * Resuelve los solicitantes de las solicitudes válidas de un lote con una sola consulta nativa
+     * (sin el filtro multi-tenant: un ciudadano puede estar registrado en otra entidad), y crea los
+     * que no existen con el mismo upsert de la radicación individual
+     */
+    private Map<String, Usuario> buscarOCrearSolicitantes(List<SolicitudRadicacionTramite> solicitudes,
+                                                          Map<Long, List<Integer>> indicesPorEntidad,
+                                                          Map<Long, Entidad> entidades) {
+        Map<String, Entidad> entidadPorEmail = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<Integer>> grupo : indicesPorEntidad.entrySet()) {
+            for (Integer indice : grupo.getValue()) {
+                entidadPorEmail.putIfAbsent(solicitudes.get(indice).getSolicitanteEmail(), entidades.get(grupo.getKey()));
+            }
+        }
+        if (entidadPorEmail.isEmpty()) {
+            return Map.of();
+        }
 
-        // Contraseña temporal (debe cambiarla en el primer acceso)
-        nuevoSolicitante.setContrasena("TEMPORAL_" + System.currentTimeMillis());
+        Map<String, Long> idsPorEmail = new LinkedHashMap<>();
+        for (Object[] fila : usuarioRepository.findIdsByCorreoElectronicoIn(entidadPorEmail.keySet())) {
+            idsPorEmail.put((String) fila[0], ((Number) fila[1]).longValue());
+        }
 
-        Usuario solicitanteGuardado = usuarioRepository.save(nuevoSolicitante);
+        int nuevos = 0;
+        for (Map.Entry<String, Entidad> solicitante : entidadPorEmail.entrySet()) {
+            if (!idsPorEmail.containsKey(solicitante.getKey())) {
+                idsPorEmail.put(solicitante.getKey(),
+                        insertarSolicitanteSiNoExiste(solicitante.getKey(), solicitante.getValue()));
+                nuevos++;
+            }
+        }
+        if (nuevos > 0) {
+            logger.info("{} nuevos usuarios solicitantes creados en radicación por lote", nuevos);
+        }
 
-        logger.info("Nuevo usuario solicitante creado: {} para entidad: {}",
-                email, entidad.getNombre());
+        Map<String, Usuario> solicitantes = new LinkedHashMap<>();
+        idsPorEmail.forEach((email, idSolicitante) -> {
+            cacheSolicitantes.guardarDespuesDeCommit(email, idSolicitante);
+            solicitantes.put(email, usuarioRepository.getReferenceById(idSolicitante));
+        });
+        return solicitantes;
+    }
 
-        return solicitanteGuardado;
+    /**
+     * Número de documento provisional y único por correo (20 caracteres), hasta que el
+     * solicitante registre el suyo
+     */
+    static String documentoProvisional(String email) {
+        String huella = UUID.nameUUIDFromBytes(email.getBytes(StandardCharsets.UTF_8)).toString().replace("-", "");
+        return "S" + huella.substring(0, 19);
+    }
+
+    private String contrasenaTemporal() {
+        return "TEMPORAL_" + System.currentTimeMillis();
+    }
+
+    /**
+     * Ejecuta las tareas después del commit de la transacción actual, o de inmediato si no hay una
+     */
+    private void programarDespuesDeCommit(List<Runnable> tareas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tareas.forEach(Runnable::run);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tareas.forEach(Runnable::run);
+            }
+        });
     }
 
     private void enviarNotificacionRadicacion(SolicitudRadicacion radicacion, Tramite tramite) {
@@ -267,6 +503,17 @@ public class RadicacionService {
         }
     }
 
+    private String nombreEntidad(Tramite tramite) {
+        return cacheEntidades.obtener(tramite.getEntidad().getId())
+                .map(EntidadSnapshot::getNombre)
+                .orElseGet(() -> tramite.getEntidad().getNombre());
+    }
+
+    private String nombreTipoTramite(Tramite tramite) {
+        return cacheTiposTramite.obtenerNombre(tramite.getTipoTramite().getIdTipoTramite())
+                .orElseGet(() -> tramite.getTipoTramite().getNombre());
+    }
+
     /**
      * Construye el mensaje de notificación de radicación
      */
@@ -276,8 +523,8 @@ public class RadicacionService {
         mensaje.append("Su trámite ha sido radicado exitosamente con la siguiente información:\n\n");
         mensaje.append("📋 Número de Radicación: ").append(radicacion.getNumeroRadicacion()).append("\n");
         mensaje.append("📅 Fecha de Radicación: ").append(radicacion.getFechaRadicacion()).append("\n");
-        mensaje.append("🏢 Entidad: ").append(tramite.getEntidad().getNombre()).append("\n");
-        mensaje.append("📝 Tipo de Trámite: ").append(tramite.getTipoTramite().getNombre()).append("\n");
+        mensaje.append("🏢 Entidad: ").append(nombreEntidad(tramite)).append("\n");
+        mensaje.append("📝 Tipo de Trámite: ").append(nombreTipoTramite(tramite)).append("\n");
         mensaje.append("🎯 Objeto: ").append(radicacion.getObjetoTramite()).append("\n");
         mensaje.append("📊 Estado Actual: ").append(radicacion.getEstado().name()).append("\n\n");
 
@@ -291,30 +538,54 @@ public class RadicacionService {
 
         mensaje.append("Atentamente,\n");
         mensaje.append("Plataforma de Gestión de Trámites\n");
-        mensaje.append(tramite.getEntidad().getNombre());
+        mensaje.append(nombreEntidad(tramite));
 
         return mensaje.toString();
     }
 
     /**
-     * Reserva un número de radicación para uso posterior
+     * Reserva un número de radicación para uso posterior. La reserva se persiste y vence
+     * tras radicacion.reservas.vigencia-minutos; si no se utiliza, el barrido de reservas
+     * devuelve el consecutivo al pool de la entidad.
      */
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional
     public ReservaRadicacion reservarNumeroRadicacion(Long entidadId, String motivo) {
         logger.info("Reservando número de radicación para entidad: {}, motivo: {}", entidadId, motivo);
 
-        String numeroReservado = generarSiguienteNumeroRadicacion(entidadId);
+        EntidadSnapshot datosEntidad = obtenerEntidadParaRadicar(entidadId);
+        Entidad entidad = entidadRepository.getReferenceById(entidadId);
+        ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad = datosEntidad.getTipoRadicacion();
+        int anoActual = LocalDate.now().getYear();
+
+        String numeroReservado = asignadorBloques.asignarNumeroRadicacion(datosEntidad, tipoEntidad, anoActual);
         CustomUserDetails currentUser = getCurrentUser();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        ReservaNumeroRadicacion reservaNumero = new ReservaNumeroRadicacion();
+        reservaNumero.setEntidad(entidad);
+        reservaNumero.setTipoEntidad(tipoEntidad);
+        reservaNumero.setAno(anoActual);
+        reservaNumero.setConsecutivo(ConsecutivoRadicacion.extraerConsecutivo(numeroReservado));
+        reservaNumero.setNumeroRadicacion(numeroReservado);
+        reservaNumero.setMotivo(motivo);
+        reservaNumero.setUsuarioReserva(currentUser.getUsername());
+        reservaNumero.setEstado(ReservaNumeroRadicacion.EstadoReserva.RESERVADO);
+        reservaNumero.setFechaReserva(ahora);
+        reservaNumero.setFechaExpiracion(ahora.plusMinutes(vigenciaReservaMinutos));
+        ReservaNumeroRadicacion reservaGuardada = reservaRepository.save(reservaNumero);
 
         ReservaRadicacion reserva = new ReservaRadicacion();
+        reserva.setIdReserva(reservaGuardada.getIdReserva());
         reserva.setNumeroRadicacion(numeroReservado);
         reserva.setEntidadId(entidadId);
         reserva.setMotivo(motivo);
         reserva.setUsuarioReserva(currentUser.getUsername());
-        reserva.setFechaReserva(LocalDateTime.now());
-        reserva.setEstado("RESERVADO");
+        reserva.setFechaReserva(reservaGuardada.getFechaReserva());
+        reserva.setFechaExpiracion(reservaGuardada.getFechaExpiracion());
+        reserva.setEstado(reservaGuardada.getEstado().name());
 
-        logger.info("Número reservado: {} por usuario: {}", numeroReservado, currentUser.getUsername());
+        logger.info("Número reservado: {} por usuario: {} hasta {}",
+                numeroReservado, currentUser.getUsername(), reservaGuardada.getFechaExpiracion());
         return reserva;
     }
 
@@ -329,7 +600,6 @@ public class RadicacionService {
     /**
      * Método de compatibilidad con TramiteService - genera número por entidad y tipo
      */
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public String generarNumeroRadicacion(Entidad entidad, TipoTramite tipoTramite) {
         return generarSiguienteNumeroRadicacion(entidad.getId());
     }
@@ -355,6 +625,7 @@ public class RadicacionService {
         private String objetoTramite;
         private String solicitanteEmail;
         private String observaciones;
+        private String numeroRadicacionReservado;
 
         public Long getEntidadId() { return entidadId; }
         public void setEntidadId(Long entidadId) { this.entidadId = entidadId; }
@@ -370,6 +641,9 @@ public class RadicacionService {
 
         public String getObservaciones() { return observaciones; }
         public void setObservaciones(String observaciones) { this.observaciones = observaciones; }
+
+        public String getNumeroRadicacionReservado() { return numeroRadicacionReservado; }
+        public void setNumeroRadicacionReservado(String numeroRadicacionReservado) { this.numeroRadicacionReservado = numeroRadicacionReservado; }
     }
 
     public static class SolicitudRadicacion {
@@ -407,6 +681,41 @@ public class RadicacionService {
         public void setSolicitanteEmail(String solicitanteEmail) { this.solicitanteEmail = solicitanteEmail; }
     }
 
+    public static class ResultadoRadicacionLote {
+        private int indice;
+        private boolean exitoso;
+        private SolicitudRadicacion radicacion;
+        private String error;
+
+        public static ResultadoRadicacionLote exitoso(int indice, SolicitudRadicacion radicacion) {
+            ResultadoRadicacionLote resultado = new ResultadoRadicacionLote();
+            resultado.setIndice(indice);
+            resultado.setExitoso(true);
+            resultado.setRadicacion(radicacion);
+            return resultado;
+        }
+
+        public static ResultadoRadicacionLote fallido(int indice, String error) {
+            ResultadoRadicacionLote resultado = new ResultadoRadicacionLote();
+            resultado.setIndice(indice);
+            resultado.setExitoso(false);
+            resultado.setError(error);
+            return resultado;
+        }
+
+        public int getIndice() { return indice; }
+        public void setIndice(int indice) { this.indice = indice; }
+
+        public boolean isExitoso() { return exitoso; }
+        public void setExitoso(boolean exitoso) { this.exitoso = exitoso; }
+
+        public SolicitudRadicacion getRadicacion() { return radicacion; }
+        public void setRadicacion(SolicitudRadicacion radicacion) { this.radicacion = radicacion; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+
     public static class EstadisticasRadicacion {
         private Long entidadId;
         private String nombreEntidad;
@@ -440,13 +749,18 @@ public class RadicacionService {
     }
 
     public static class ReservaRadicacion {
+        private Long idReserva;
         private String numeroRadicacion;
         private Long entidadId;
         private String motivo;
         private String usuarioReserva;
         private LocalDateTime fechaReserva;
+        private LocalDateTime fechaExpiracion;
         private String estado;
 
+        public Long getIdReserva() { return idReserva; }
+        public void setIdReserva(Long idReserva) { this.idReserva = idReserva; }
+
         public String getNumeroRadicacion() { return numeroRadicacion; }
         public void setNumeroRadicacion(String numeroRadicacion) { this.numeroRadicacion = numeroRadicacion; }
 
@@ -462,6 +776,9 @@ public class RadicacionService {
         public LocalDateTime getFechaReserva() { return fechaReserva; }
         public void setFechaReserva(LocalDateTime fechaReserva) { this.fechaReserva = fechaReserva; }
 
+        public LocalDateTime getFechaExpiracion() { return fechaExpiracion; }
+        public void setFechaExpiracion(LocalDateTime fechaExpiracion) { this.fechaExpiracion = fechaExpiracion; }
+
         public String getEstado() { return estado; }
         public void setEstado(String estado) { this.estado = estado; }
     }
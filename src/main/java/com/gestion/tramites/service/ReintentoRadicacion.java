@@ -0,0 +1,154 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.exception.ReintentosAgotadosException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reintenta las operaciones de radicación que fallan por contención en PostgreSQL.
+ *
+ * Solo se reintentan los errores cuyo SQLState está en radicacion.reintentos.sqlstates
+ * (por defecto 40001 serialización, 40P01 deadlock y 55P03 lock no disponible). Cada intento
+ * debe abrir su propia transacción, por eso la operación se invoca a través del proxy
+ * transaccional del servicio; si ya hay una transacción activa se ejecuta una sola vez y el
+ * reintento queda a cargo de quien la abrió.
+ *
+ * La espera entre intentos crece exponencialmente con jitter completo (un valor aleatorio
+ * entre 0 y el tope del intento) para que los clientes en conflicto no vuelvan a chocar al
+ * mismo tiempo. Intentos, reintentos y abandonos se cuentan por entidad.
+ */
+@Service
+public class ReintentoRadicacion {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReintentoRadicacion.class);
+
+    @Value("${radicacion.reintentos.max-intentos:4}")
+    private int maxIntentos = 4;
+
+    @Value("${radicacion.reintentos.espera-inicial-ms:25}")
+    private long esperaInicialMs = 25;
+
+    @Value("${radicacion.reintentos.espera-maxima-ms:500}")
+    private long esperaMaximaMs = 500;
+
+    @Value("${radicacion.reintentos.sqlstates:40001,40P01,55P03}")
+    private Set<String> sqlStatesReintentables = Set.of("40001", "40P01", "55P03");
+
+    private final ConcurrentMap<Long, ContadoresReintento> contadores = new ConcurrentHashMap<>();
+
+    /**
+     * Ejecuta la operación de radicación de la entidad, reintentándola ante errores de contención
+     */
+    public <T> T ejecutar(Long entidadId, Supplier<T> operacion) {
+        if (entidadId == null) {
+            // La solicitud no es válida; el servicio la rechaza sin tocar la base de datos
+            return operacion.get();
+        }
+        ContadoresReintento contadoresEntidad = contadores.computeIfAbsent(entidadId, id -> new ContadoresReintento());
+        boolean puedeReintentar = !TransactionSynchronizationManager.isActualTransactionActive();
+
+        for (int intento = 1; ; intento++) {
+            contadoresEntidad.intentos.increment();
+            try {
+                return operacion.get();
+            } catch (RuntimeException e) {
+                String sqlState = obtenerSqlStateReintentable(e);
+                if (sqlState == null || !puedeReintentar) {
+                    throw e;
+                }
+                if (intento >= maxIntentos) {
+                    contadoresEntidad.abandonos.increment();
+                    logger.warn("Radicación de entidad {} abandonada tras {} intentos (SQLState {})",
+                            entidadId, intento, sqlState);
+                    throw new ReintentosAgotadosException(String.format(
+                            "La radicación de la entidad %d no se completó por contención tras %d intentos",
+                            entidadId, intento), intento, e);
+                }
+
+                contadoresEntidad.reintentos.increment();
+                long espera = calcularEspera(intento);
+                logger.debug("Reintento {} de radicación para entidad {} en {} ms (SQLState {})",
+                        intento, entidadId, espera, sqlState);
+                esperar(espera, e);
+            }
+        }
+    }
+
+    /**
+     * Retorna el SQLState reintentable de la excepción o de alguna de sus causas, o null si no lo hay
+     */
+    String obtenerSqlStateReintentable(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException sqlException) {
+                for (SQLException siguiente = sqlException; siguiente != null; siguiente = siguiente.getNextException()) {
+                    if (siguiente.getSQLState() != null && sqlStatesReintentables.contains(siguiente.getSQLState())) {
+                        return siguiente.getSQLState();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    long calcularEspera(int intento) {
+        long tope = Math.min(esperaMaximaMs, esperaInicialMs << Math.min(intento - 1, 20));
+        return tope <= 0 ? 0 : ThreadLocalRandom.current().nextLong(tope + 1);
+    }
+
+    public List<EstadisticasReintento> obtenerEstadisticas() {
+        return contadores.entrySet().stream()
+                .map(e -> new EstadisticasReintento(e.getKey(), e.getValue().intentos.sum(),
+                        e.getValue().reintentos.sum(), e.getValue().abandonos.sum()))
+                .sorted((a, b) -> Long.compare(b.getReintentos(), a.getReintentos()))
+                .toList();
+    }
+
+    private void esperar(long milisegundos, RuntimeException error) {
+        if (milisegundos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException interrupcion) {
+            Thread.currentThread().interrupt();
+            throw error;
+        }
+    }
+
+    private static class ContadoresReintento {
+        private final LongAdder intentos = new LongAdder();
+        private final LongAdder reintentos = new LongAdder();
+        private final LongAdder abandonos = new LongAdder();
+    }
+
+    public static class EstadisticasReintento {
+        private final Long entidadId;
+        private final long intentos;
+        private final long reintentos;
+        private final long abandonos;
+
+        public EstadisticasReintento(Long entidadId, long intentos, long reintentos, long abandonos) {
+            this.entidadId = entidadId;
+            this.intentos = intentos;
+            this.reintentos = reintentos;
+            this.abandonos = abandonos;
+        }
+
+        public Long getEntidadId() { return entidadId; }
+        public long getIntentos() { return intentos; }
+        public long getReintentos() { return reintentos; }
+        public long getAbandonos() { return abandonos; }
+    }
+}
@@ -1,6 +1,8 @@
 package com.gestion.tramites.service;
 
 import com.gestion.tramites.exception.ResourceNotFoundException;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.model.NumeroRadicacion;
 import com.gestion.tramites.model.Tramite;
 import com.gestion.tramites.repository.TramiteRepository;
 import org.slf4j.Logger;
@@ -30,6 +32,9 @@ public class SeguimientoService {
     @Autowired
     private TramiteRepository tramiteRepository;
 
+    @Autowired
+    private CacheEntidades cacheEntidades;
+
     /**
      * Consulta un trámite por número de radicación (acceso público)
      */
@@ -43,7 +48,7 @@ public class SeguimientoService {
 
         String numeroLimpio = limpiarNumeroRadicacion(numeroRadicacion);
 
-        Optional<Tramite> tramite = tramiteRepository.findByNumeroRadicacion(numeroLimpio);
+        Optional<Tramite> tramite = tramiteRepository.findConsultaPublicaByNumeroRadicacion(numeroLimpio);
 
         if (tramite.isEmpty()) {
             throw new ResourceNotFoundException("Trámite", "número de radicación", numeroLimpio);
@@ -143,7 +148,7 @@ public class SeguimientoService {
             return false;
         }
 
-        Optional<Tramite> tramite = tramiteRepository.findByNumeroRadicacion(numeroRadicacion.trim());
+        Optional<Tramite> tramite = tramiteRepository.findConsultaPublicaByNumeroRadicacion(numeroRadicacion.trim());
 
         return tramite.isPresent() &&
                tramite.get().getSolicitante() != null &&
@@ -154,6 +159,10 @@ public class SeguimientoService {
     // Métodos auxiliares privados
 
     private String limpiarNumeroRadicacion(String numeroRadicacion) {
+        long numero = NumeroRadicacion.parsear(numeroRadicacion);
+        if (numero != NumeroRadicacion.INVALIDO) {
+            return NumeroRadicacion.formatear(numero);
+        }
         return numeroRadicacion.trim().toUpperCase().replaceAll("\\s+", "");
     }
 
@@ -168,9 +177,12 @@ public class SeguimientoService {
 
         // Información de la entidad
         if (tramite.getEntidad() != null) {
-            consulta.setNombreEntidad(tramite.getEntidad().getNombre());
-            consulta.setTelefonoEntidad(tramite.getEntidad().getTelefono());
-            consulta.setEmailEntidad(tramite.getEntidad().getEmail());
+            Optional<EntidadSnapshot> entidad = cacheEntidades.obtener(tramite.getEntidad().getId());
+            if (entidad.isPresent()) {
+                consulta.setNombreEntidad(entidad.get().getNombre());
+                consulta.setTelefonoEntidad(entidad.get().getTelefono());
+                consulta.setEmailEntidad(entidad.get().getEmail());
+            }
         }
 
         // Información del tipo de trámite
@@ -16,6 +16,9 @@ public class TipoTramiteService {
     @Autowired
     private TipoTramiteRepository tipoTramiteRepository; // ¡Debe ser tipoTramiteRepository!
 
+    @Autowired
+    private CacheTiposTramite cacheTiposTramite;
+
     public List<TipoTramite> getAllTipos() { // ¡Debe ser TipoTramite!
         return tipoTramiteRepository.findAll();
     }
@@ -32,12 +35,15 @@ public class TipoTramiteService {
     public TipoTramite updateTipo(Long id, TipoTramite detallesTipo) { // ¡Debe ser TipoTramite!
         TipoTramite tipo = getTipoById(id); // ¡Debe ser TipoTramite!
         tipo.setNombre(detallesTipo.getNombre());
-        return tipoTramiteRepository.save(tipo);
+        TipoTramite actualizado = tipoTramiteRepository.save(tipo);
+        cacheTiposTramite.invalidar(id);
+        return actualizado;
     }
 
     public Map<String, Boolean> deleteTipo(Long id) { // ¡Debe ser TipoTramite!
         TipoTramite tipo = getTipoById(id); // ¡Debe ser TipoTramite!
         tipoTramiteRepository.delete(tipo);
+        cacheTiposTramite.invalidar(id);
         Map<String, Boolean> respuesta = new HashMap<>();
         respuesta.put("eliminado", Boolean.TRUE);
         return respuesta;
@@ -7,17 +7,22 @@ import com.gestion.tramites.dto.tramite.TramitePublicoDTO;
 import com.gestion.tramites.model.*;
 import com.gestion.tramites.repository.*;
 import com.gestion.tramites.exception.ResourceNotFoundException;
-import org.modelmapper.ModelMapper;
+import com.gestion.tramites.mapper.TramiteMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 @Service
 @Transactional
@@ -39,11 +44,22 @@ public class TramiteService {
     private RadicacionService radicacionService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private TramiteMapper tramiteMapper;
 
     @Autowired
     private NotificacionService notificacionService;
 
+    @Autowired
+    private TramiteConsultaRepository tramiteConsultaRepository;
+
+    private static final int LONGITUD_MAXIMA_TEXTO_BUSQUEDA = 200;
+
+    @Value("${tramites.listado.tamano-pagina:50}")
+    private int tamanoPagina = 50;
+
+    @Value("${tramites.listado.tamano-maximo:200}")
+    private int tamanoMaximoPagina = 200;
+
     // ============ MÉTODOS MULTI-TENANT (con filtrado automático) ============
 
     /**
@@ -108,42 +124,186 @@ public class TramiteService {
     }
 
     /**
-     * Obtener todos los trámites de la entidad actual
+     * Obtener una página de trámites de la entidad actual, del más reciente al más antiguo.
+     *
+     * La paginación es por keyset: el cursor de la respuesta apunta a la última fila entregada y la
+     * siguiente página continúa desde ahí, con el mismo costo sin importar cuántas se hayan recorrido.
+     * El admin global ve todas las entidades (o la que indique el filtro); los demás usuarios solo la suya.
      */
     @Transactional(readOnly = true)
-    public List<TramiteResponseDTO> obtenerTramites() {
+    public PaginaTramites obtenerTramites(FiltroTramites filtro, String cursor, Integer limite) {
         CustomUserDetails currentUser = getCurrentUser();
+        FiltroTramites filtroEfectivo = filtro != null ? filtro : new FiltroTramites();
 
-        List<Tramite> tramites;
+        Long entidadId;
         if (currentUser.isAdminGlobal()) {
-            // Admin global ve todos los trámites
-            tramites = tramiteRepository.findAll();
+            // Admin global ve todos los trámites, o los de la entidad que filtre
+            entidadId = filtroEfectivo.getEntidadId();
         } else {
             // Usuarios de entidad ven solo trámites de su entidad
-            tramites = tramiteRepository.findAll();
+            entidadId = currentUser.getIdEntidad();
         }
 
-        return tramites.stream().map(this::convertToResponseDTO).collect(Collectors.toList());
+        filtroEfectivo.validarRangoFechas();
+
+        int tamano = limite == null ? tamanoPagina : limite;
+        if (tamano < 1 || tamano > tamanoMaximoPagina) {
+            throw new IllegalArgumentException(String.format(
+                    "El tamaño de página debe estar entre 1 y %d", tamanoMaximoPagina));
+        }
+
+        int huellaFiltros = filtroEfectivo.huella(entidadId);
+        CursorTramites desde = cursor == null || cursor.isBlank()
+                ? null : CursorTramites.decodificar(cursor, huellaFiltros);
+
+        // Se pide una fila de más para saber si hay una página siguiente sin contar el total
+        List<TramiteResponseDTO> tramites = tramiteConsultaRepository.buscarPagina(entidadId,
+                filtroEfectivo.getEstado(), filtroEfectivo.getTipoTramiteId(), filtroEfectivo.getRevisorId(),
+                filtroEfectivo.getFechaDesde(), filtroEfectivo.getFechaHasta(),
+                desde != null ? desde.getFechaRadicacion() : null, desde != null ? desde.getIdTramite() : null,
+                tamano + 1);
+
+        boolean hayMas = tramites.size() > tamano;
+        List<TramiteResponseDTO> pagina = hayMas ? new ArrayList<>(tramites.subList(0, tamano)) : tramites;
+
+        PaginaTramites resultado = new PaginaTramites();
+        resultado.setTramites(pagina);
+        resultado.setTamanoPagina(tamano);
+        if (hayMas) {
+            TramiteResponseDTO ultimo = pagina.get(pagina.size() - 1);
+            resultado.setSiguienteCursor(new CursorTramites(ultimo.getFechaRadicacion(), ultimo.getIdTramite(),
+                    huellaFiltros).codificar());
+        }
+        return resultado;
     }
 
     /**
-     * Obtener trámite por ID (con filtro de entidad automático)
+     * Obtener trámite por ID (con filtro de entidad automático).
+     * Se lee con la misma proyección del listado: una sola consulta, sin cargar relaciones.
      */
     @Transactional(readOnly = true)
     public TramiteResponseDTO obtenerTramitePorId(Long id) {
         CustomUserDetails currentUser = getCurrentUser();
 
-        Optional<Tramite> tramite;
-        if (currentUser.isAdminGlobal()) {
-            tramite = tramiteRepository.findById(id);
-        } else {
-            tramite = tramiteRepository.findById(id);
-        }
+        // Admin global ve cualquier trámite; los demás usuarios solo los de su entidad
+        Long entidadId = currentUser.isAdminGlobal() ? null : currentUser.getIdEntidad();
 
-        return tramite.map(this::convertToResponseDTO)
+        return tramiteConsultaRepository.buscarPorId(id, entidadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tramite", "id", id));
     }
 
+    /**
+     * Buscar trámites de una entidad combinando estado, tipo, revisor, dirección, fechas de radicación y
+     * vencimiento del próximo plazo, por páginas numeradas y con el total de resultados.
+     *
+     * La búsqueda siempre se acota a una entidad (la del usuario; el admin global debe indicarla), para
+     * que cada combinación de criterios se resuelva con un índice que empieza por id_entidad. Con
+     * vencenHasta se ordena del plazo más próximo al más lejano; si no, del más reciente al más antiguo.
+     */
+    @Transactional(readOnly = true)
+    public ResultadoBusquedaTramites buscarTramites(CriteriosBusquedaTramites criterios, Integer pagina,
+                                                    Integer limite) {
+        CustomUserDetails currentUser = getCurrentUser();
+        CriteriosBusquedaTramites criteriosEfectivos = criterios != null ? criterios : new CriteriosBusquedaTramites();
+
+        Long entidadId = currentUser.isAdminGlobal() ? criteriosEfectivos.getEntidadId() : currentUser.getIdEntidad();
+        if (entidadId == null) {
+            throw new IllegalArgumentException("El administrador global debe indicar la entidad de la búsqueda");
+        }
+        validarRangoFechas(criteriosEfectivos.getFechaDesde(), criteriosEfectivos.getFechaHasta());
+        if (criteriosEfectivos.getRevisorId() != null && criteriosEfectivos.isSinRevisor()) {
+            throw new IllegalArgumentException("No se puede buscar por revisor y sin revisor a la vez");
+        }
+
+        int numeroPagina = pagina == null ? 0 : pagina;
+        if (numeroPagina < 0) {
+            throw new IllegalArgumentException("El número de página no puede ser negativo");
+        }
+        int tamano = limite == null ? tamanoPagina : limite;
+        if (tamano < 1 || tamano > tamanoMaximoPagina) {
+            throw new IllegalArgumentException(String.format(
+                    "El tamaño de página debe estar entre 1 y %d", tamanoMaximoPagina));
+        }
+
+        Specification<Tramite> especificacion = Specification.where(EspecificacionesTramite.deEntidad(entidadId))
+                .and(EspecificacionesTramite.enEstados(criteriosEfectivos.getEstados()))
+                .and(EspecificacionesTramite.deTipo(criteriosEfectivos.getTipoTramiteId()))
+                .and(criteriosEfectivos.isSinRevisor() ? EspecificacionesTramite.sinRevisor()
+                        : EspecificacionesTramite.asignadoA(criteriosEfectivos.getRevisorId()))
+                .and(EspecificacionesTramite.direccionEmpiezaPor(criteriosEfectivos.getDireccion()))
+                .and(EspecificacionesTramite.radicadoDesde(criteriosEfectivos.getFechaDesde()))
+                .and(EspecificacionesTramite.radicadoHasta(criteriosEfectivos.getFechaHasta()))
+                .and(EspecificacionesTramite.vencenHasta(criteriosEfectivos.getVencenHasta()));
+        Sort orden = criteriosEfectivos.getVencenHasta() != null
+                ? Sort.by(Sort.Order.asc("fechaLimiteProximo"), Sort.Order.asc("idTramite"))
+                : Sort.by(Sort.Order.desc("fechaRadicacion"), Sort.Order.desc("idTramite"));
+
+        Page<Tramite> tramites = tramiteRepository.findAll(especificacion, PageRequest.of(numeroPagina, tamano, orden));
+
+        ResultadoBusquedaTramites resultado = new ResultadoBusquedaTramites();
+        resultado.setTramites(tramites.getContent().stream().map(this::convertToResponseDTO).toList());
+        resultado.setPagina(numeroPagina);
+        resultado.setTamanoPagina(tamano);
+        resultado.setTotalElementos(tramites.getTotalElements());
+        resultado.setTotalPaginas(tramites.getTotalPages());
+        return resultado;
+    }
+
+    /**
+     * Buscar trámites de una entidad por texto libre en el objeto, la descripción del proyecto y la
+     * dirección del inmueble (p. ej. "licencia ampliación calle 45"), del más relevante al menos relevante.
+     *
+     * Usa la búsqueda de texto completo de PostgreSQL en español, así que "ampliaciones" encuentra
+     * "ampliación". Como buscarTramites, siempre se acota a una entidad (la del usuario; el admin global
+     * debe indicarla). La paginación es por keyset sobre (relevancia, id), con cursor opaco.
+     */
+    @Transactional(readOnly = true)
+    public PaginaTramites buscarPorTexto(String texto, Long entidadIdFiltro, String cursor, Integer limite) {
+        CustomUserDetails currentUser = getCurrentUser();
+
+        Long entidadId = currentUser.isAdminGlobal() ? entidadIdFiltro : currentUser.getIdEntidad();
+        if (entidadId == null) {
+            throw new IllegalArgumentException("El administrador global debe indicar la entidad de la búsqueda");
+        }
+        String textoBuscado = texto == null ? "" : texto.trim();
+        if (textoBuscado.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar el texto a buscar");
+        }
+        if (textoBuscado.length() > LONGITUD_MAXIMA_TEXTO_BUSQUEDA) {
+            throw new IllegalArgumentException(String.format(
+                    "El texto de búsqueda no puede superar %d caracteres", LONGITUD_MAXIMA_TEXTO_BUSQUEDA));
+        }
+
+        int tamano = limite == null ? tamanoPagina : limite;
+        if (tamano < 1 || tamano > tamanoMaximoPagina) {
+            throw new IllegalArgumentException(String.format(
+                    "El tamaño de página debe estar entre 1 y %d", tamanoMaximoPagina));
+        }
+
+        int huellaBusqueda = Objects.hash(entidadId, textoBuscado);
+        CursorBusquedaTexto desde = cursor == null || cursor.isBlank()
+                ? null : CursorBusquedaTexto.decodificar(cursor, huellaBusqueda);
+
+        // Se pide una fila de más para saber si hay una página siguiente sin contar el total
+        List<TramiteConsultaRepository.CoincidenciaTexto> coincidencias = tramiteConsultaRepository.buscarPorTexto(
+                entidadId, textoBuscado, desde != null ? desde.getRango() : null,
+                desde != null ? desde.getIdTramite() : null, tamano + 1);
+
+        boolean hayMas = coincidencias.size() > tamano;
+        List<TramiteConsultaRepository.CoincidenciaTexto> pagina = hayMas ? coincidencias.subList(0, tamano) : coincidencias;
+
+        PaginaTramites resultado = new PaginaTramites();
+        resultado.setTramites(tramiteConsultaRepository.buscarPorIds(
+                pagina.stream().map(TramiteConsultaRepository.CoincidenciaTexto::getIdTramite).toList()));
+        resultado.setTamanoPagina(tamano);
+        if (hayMas) {
+            TramiteConsultaRepository.CoincidenciaTexto ultima = pagina.get(pagina.size() - 1);
+            resultado.setSiguienteCursor(new CursorBusquedaTexto(ultima.getRango(), ultima.getIdTramite(),
+                    huellaBusqueda).codificar());
+        }
+        return resultado;
+    }
+
     /**
      * Actualizar estado de trámite
      */
@@ -151,14 +311,8 @@ public class TramiteService {
             String comentarios) {
         CustomUserDetails currentUser = getCurrentUser();
 
-        Tramite tramite;
-        if (currentUser.isAdminGlobal()) {
-            tramite = tramiteRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Tramite", "id", id));
-        } else {
-            tramite = tramiteRepository.findById(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Tramite", "id", id));
-        }
+        // Se carga con sus relaciones: la respuesta y las notificaciones @Async las leen
+        Tramite tramite = obtenerTramiteConFiltro(id, currentUser);
 
         // Validar transición de estado
         validarTransicionEstado(tramite.getEstadoActual(), nuevoEstado);
@@ -227,7 +381,7 @@ public class TramiteService {
      * Actualizar un trámite existente.
      */
     public TramiteResponseDTO actualizarTramite(Long id, TramiteRequestDTO requestDTO) {
-        Tramite existingTramite = tramiteRepository.findById(id)
+        Tramite existingTramite = tramiteRepository.findDetalleById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tramite", "id", id));
 
         // Actualizar campos desde requestDTO
@@ -280,7 +434,7 @@ public class TramiteService {
             throw new IllegalArgumentException("Número de radicación inválido");
         }
 
-        Tramite tramite = tramiteRepository.findByNumeroRadicacion(numeroRadicacion)
+        Tramite tramite = tramiteRepository.findConsultaPublicaByNumeroRadicacion(numeroRadicacion)
                 .orElseThrow(() -> new ResourceNotFoundException("Tramite", "numeroRadicacion",
                         numeroRadicacion));
 
@@ -289,6 +443,12 @@ public class TramiteService {
 
     // ============ MÉTODOS AUXILIARES ============
 
+    private static void validarRangoFechas(LocalDate fechaDesde, LocalDate fechaHasta) {
+        if (fechaDesde != null && fechaHasta != null && fechaDesde.isAfter(fechaHasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+    }
+
     private CustomUserDetails getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (!(principal instanceof CustomUserDetails)) {
@@ -313,14 +473,10 @@ public class TramiteService {
     }
 
     private Tramite obtenerTramiteConFiltro(Long tramiteId, CustomUserDetails currentUser) {
-        if (currentUser.isAdminGlobal()) {
-            return tramiteRepository.findById(tramiteId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Tramite", "id", tramiteId));
-        } else {
-            // CORREGIDO: usar findById en lugar del método inexistente
-            return tramiteRepository.findById(tramiteId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Tramite", "id", tramiteId));
-        }
+        // Con el grafo de detalle: una sola consulta trae el trámite y todas sus relaciones.
+        // Es una consulta JPQL, así que el filtro multi-tenant se aplica a los usuarios de entidad
+        return tramiteRepository.findDetalleById(tramiteId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tramite", "id", tramiteId));
     }
 
     private void validarTransicionEstado(Tramite.EstadoTramite estadoActual,
@@ -351,23 +507,7 @@ public class TramiteService {
     }
 
     private TramiteResponseDTO convertToResponseDTO(Tramite tramite) {
-        TramiteResponseDTO dto = modelMapper.map(tramite, TramiteResponseDTO.class);
-
-        // Mapear campos específicos que ModelMapper no puede inferir
-        if (tramite.getEntidad() != null) {
-            dto.setNombreEntidad(tramite.getEntidad().getNombre());
-        }
-        if (tramite.getSolicitante() != null) {
-            dto.setNombreSolicitante(tramite.getSolicitante().getNombreCompleto());
-        }
-        if (tramite.getRevisorAsignado() != null) {
-            dto.setNombreRevisor(tramite.getRevisorAsignado().getNombreCompleto());
-        }
-        if (tramite.getTipoTramite() != null) {
-            dto.setNombreTipoTramite(tramite.getTipoTramite().getNombre());
-        }
-
-        return dto;
+        return tramiteMapper.toResponseDTO(tramite);
     }
 
     private TramitePublicoDTO convertToPublicDTO(Tramite tramite) {
@@ -383,4 +523,119 @@ public class TramiteService {
         // Solo información pública, sin datos sensibles
         return dto;
     }
-}
\ No newline at end of file
+
+    /**
+     * Filtros opcionales del listado de trámites
+     */
+    public static class FiltroTramites {
+        private Long entidadId;
+        private Tramite.EstadoTramite estado;
+        private Long tipoTramiteId;
+        private Long revisorId;
+        private LocalDate fechaDesde;
+        private LocalDate fechaHasta;
+
+        /**
+         * Huella de los filtros efectivos, para rechazar cursores generados con otros filtros. El
+         * estado entra por su nombre: el hashCode de un enum cambia entre JVMs y el cursor debe
+         * seguir sirviendo en otro nodo o tras un reinicio.
+         */
+        int huella(Long entidadEfectiva) {
+            return Objects.hash(entidadEfectiva, estado == null ? null : estado.name(), tipoTramiteId, revisorId,
+                    fechaDesde, fechaHasta);
+        }
+
+        /**
+         * Lanza IllegalArgumentException si la fecha inicial es posterior a la final
+         */
+        void validarRangoFechas() {
+            TramiteService.validarRangoFechas(fechaDesde, fechaHasta);
+        }
+
+        public Long getEntidadId() { return entidadId; }
+        public void setEntidadId(Long entidadId) { this.entidadId = entidadId; }
+        public Tramite.EstadoTramite getEstado() { return estado; }
+        public void setEstado(Tramite.EstadoTramite estado) { this.estado = estado; }
+        public Long getTipoTramiteId() { return tipoTramiteId; }
+        public void setTipoTramiteId(Long tipoTramiteId) { this.tipoTramiteId = tipoTramiteId; }
+        public Long getRevisorId() { return revisorId; }
+        public void setRevisorId(Long revisorId) { this.revisorId = revisorId; }
+        public LocalDate getFechaDesde() { return fechaDesde; }
+        public void setFechaDesde(LocalDate fechaDesde) { this.fechaDesde = fechaDesde; }
+        public LocalDate getFechaHasta() { return fechaHasta; }
+        public void setFechaHasta(LocalDate fechaHasta) { this.fechaHasta = fechaHasta; }
+    }
+
+    /**
+     * Página del listado de trámites. siguienteCursor es null en la última página.
+     */
+    public static class PaginaTramites {
+        private List<TramiteResponseDTO> tramites;
+        private String siguienteCursor;
+        private int tamanoPagina;
+
+        public List<TramiteResponseDTO> getTramites() { return tramites; }
+        public void setTramites(List<TramiteResponseDTO> tramites) { this.tramites = tramites; }
+        public String getSiguienteCursor() { return siguienteCursor; }
+        public void setSiguienteCursor(String siguienteCursor) { this.siguienteCursor = siguienteCursor; }
+        public int getTamanoPagina() { return tamanoPagina; }
+        public void setTamanoPagina(int tamanoPagina) { this.tamanoPagina = tamanoPagina; }
+    }
+
+    /**
+     * Criterios opcionales de la búsqueda de trámites. Varios estados se combinan con OR; los demás
+     * criterios, con AND.
+     */
+    public static class CriteriosBusquedaTramites {
+        private Long entidadId;
+        private List<Tramite.EstadoTramite> estados;
+        private Long tipoTramiteId;
+        private Long revisorId;
+        private boolean sinRevisor;
+        private String direccion;
+        private LocalDate fechaDesde;
+        private LocalDate fechaHasta;
+        private LocalDate vencenHasta;
+
+        public Long getEntidadId() { return entidadId; }
+        public void setEntidadId(Long entidadId) { this.entidadId = entidadId; }
+        public List<Tramite.EstadoTramite> getEstados() { return estados; }
+        public void setEstados(List<Tramite.EstadoTramite> estados) { this.estados = estados; }
+        public Long getTipoTramiteId() { return tipoTramiteId; }
+        public void setTipoTramiteId(Long tipoTramiteId) { this.tipoTramiteId = tipoTramiteId; }
+        public Long getRevisorId() { return revisorId; }
+        public void setRevisorId(Long revisorId) { this.revisorId = revisorId; }
+        public boolean isSinRevisor() { return sinRevisor; }
+        public void setSinRevisor(boolean sinRevisor) { this.sinRevisor = sinRevisor; }
+        public String getDireccion() { return direccion; }
+        public void setDireccion(String direccion) { this.direccion = direccion; }
+        public LocalDate getFechaDesde() { return fechaDesde; }
+        public void setFechaDesde(LocalDate fechaDesde) { this.fechaDesde = fechaDesde; }
+        public LocalDate getFechaHasta() { return fechaHasta; }
+        public void setFechaHasta(LocalDate fechaHasta) { this.fechaHasta = fechaHasta; }
+        public LocalDate getVencenHasta() { return vencenHasta; }
+        public void setVencenHasta(LocalDate vencenHasta) { this.vencenHasta = vencenHasta; }
+    }
+
+    /**
+     * Página de resultados de la búsqueda de trámites, con el total de coincidencias
+     */
+    public static class ResultadoBusquedaTramites {
+        private List<TramiteResponseDTO> tramites;
+        private int pagina;
+        private int tamanoPagina;
+        private long totalElementos;
+        private int totalPaginas;
+
+        public List<TramiteResponseDTO> getTramites() { return tramites; }
+        public void setTramites(List<TramiteResponseDTO> tramites) { this.tramites = tramites; }
+        public int getPagina() { return pagina; }
+        public void setPagina(int pagina) { this.pagina = pagina; }
+        public int getTamanoPagina() { return tamanoPagina; }
+        public void setTamanoPagina(int tamanoPagina) { this.tamanoPagina = tamanoPagina; }
+        public long getTotalElementos() { return totalElementos; }
+        public void setTotalElementos(long totalElementos) { this.totalElementos = totalElementos; }
+        public int getTotalPaginas() { return totalPaginas; }
+        public void setTotalPaginas(int totalPaginas) { this.totalPaginas = totalPaginas; }
+    }
+}
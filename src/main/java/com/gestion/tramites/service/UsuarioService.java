@@ -7,7 +7,7 @@ import com.gestion.tramites.repository.EntidadRepository; // Importa EntidadRepo
 import com.gestion.tramites.exception.ResourceNotFoundException;
 import com.gestion.tramites.dto.UsuarioDTO; // Para recibir datos
 import com.gestion.tramites.dto.UsuarioResponseDTO; // Para devolver datos
-import com.gestion.tramites.dto.EntidadDTO; // Para mapear la entidad en el response DTO
+import com.gestion.tramites.mapper.UsuarioMapper;
 import com.gestion.tramites.util.PasswordGenerator; // Para encriptar contraseñas
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,49 +25,23 @@ public class UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final EntidadRepository entidadRepository; // Inyecta EntidadRepository
     private final PasswordGenerator passwordGenerator; // Inyecta PasswordGenerator
+    private final CacheSolicitantes cacheSolicitantes;
+    private final UsuarioMapper usuarioMapper;
 
     @Autowired
     public UsuarioService(UsuarioRepository usuarioRepository, EntidadRepository entidadRepository,
-            PasswordGenerator passwordGenerator) {
+            PasswordGenerator passwordGenerator, CacheSolicitantes cacheSolicitantes,
+            UsuarioMapper usuarioMapper) {
         this.usuarioRepository = usuarioRepository;
         this.entidadRepository = entidadRepository;
         this.passwordGenerator = passwordGenerator;
+        this.cacheSolicitantes = cacheSolicitantes;
+        this.usuarioMapper = usuarioMapper;
     }
 
-    // Helper para convertir Usuario a UsuarioResponseDTO
+    // Helper para convertir Usuario a UsuarioResponseDTO (mapper generado en compilación)
     private UsuarioResponseDTO convertToResponseDto(Usuario usuario) {
-        if (usuario == null) {
-            return null;
-        }
-        UsuarioResponseDTO dto = new UsuarioResponseDTO();
-        dto.setIdUsuario(usuario.getIdUsuario());
-        dto.setNombreCompleto(usuario.getNombreCompleto());
-        dto.setTipoDocumento(usuario.getTipoDocumento());
-        dto.setNumeroDocumento(usuario.getNumeroDocumento());
-        dto.setCorreoElectronico(usuario.getCorreoElectronico());
-        dto.setTelefono(usuario.getTelefono());
-        dto.setRol(usuario.getRol().name());
-        // contrasenaHash no se incluye por seguridad
-        dto.setFechaCreacion(usuario.getFechaCreacion());
-        dto.setFechaUltimaSesion(usuario.getFechaUltimaSesion());
-        dto.setEstaActivo(usuario.getEstaActivo());
-        dto.setMatriculaProfesional(usuario.getMatriculaProfesional());
-        dto.setExperienciaAcreditada(usuario.getExperienciaAcreditada());
-
-        // Mapea la Entidad a EntidadDTO si existe
-        if (usuario.getEntidad() != null) {
-            EntidadDTO entidadDto =
-                    new EntidadDTO(usuario.getEntidad().getId(), usuario.getEntidad().getNombre(),
-                            usuario.getEntidad().getNit(), null, null, null, null, // No necesitas
-                                                                                   // todos los
-                                                                                   // detalles en el
-                                                                                   // DTO de
-                                                                                   // usuario, solo
-                                                                                   // los básicos
-                            usuario.getEntidad().isActivo());
-            dto.setEntidad(entidadDto);
-        }
-        return dto;
+        return usuarioMapper.toResponseDto(usuario);
     }
 
     // Helper para convertir UsuarioDTO a Usuario (para creación/actualización)
@@ -173,6 +147,7 @@ public class UsuarioService {
             }
 
             Usuario usuarioActualizado = usuarioRepository.save(usuarioExistente);
+            cacheSolicitantes.invalidar(id);
             return convertToResponseDto(usuarioActualizado);
         }).orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", id));
     }
@@ -183,6 +158,7 @@ public class UsuarioService {
             throw new ResourceNotFoundException("Usuario", "id", id);
         }
         usuarioRepository.deleteById(id);
+        cacheSolicitantes.invalidar(id);
     }
 
     @Transactional
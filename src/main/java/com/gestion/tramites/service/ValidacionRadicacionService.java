@@ -1,20 +1,39 @@
 package com.gestion.tramites.service;
 
+import com.gestion.tramites.model.ConsecutivoLiberado;
 import com.gestion.tramites.model.ConsecutivoRadicacion;
 import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.model.NumeroRadicacion;
+import com.gestion.tramites.model.ReservaNumeroRadicacion;
 import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.repository.ConsecutivoLiberadoRepository;
 import com.gestion.tramites.repository.ConsecutivoRadicacionRepository;
+import com.gestion.tramites.repository.ReservaNumeroRadicacionRepository;
 import com.gestion.tramites.repository.TramiteRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
 
 @Service
 @Transactional
@@ -28,10 +47,43 @@ public class ValidacionRadicacionService {
     @Autowired
     private TramiteRepository tramiteRepository;
 
-    // Patrones de validación para números de radicación
-    private static final Pattern PATRON_SECRETARIA = Pattern.compile("^\\d{5}-0-\\d{2}-\\d{4}$");
-    private static final Pattern PATRON_CURADURIA = Pattern.compile("^\\d{5}-CUR-\\d{2}-\\d{4}$");
-    private static final Pattern PATRON_GENERAL = Pattern.compile("^\\d{5}-(0|CUR)-\\d{2}-\\d{4}$");
+    @Autowired
+    private ConsecutivoLiberadoRepository consecutivoLiberadoRepository;
+
+    @Autowired
+    private AsignadorBloquesRadicacion asignadorBloques;
+
+    @Autowired
+    private ReservaNumeroRadicacionRepository reservaRepository;
+
+    @Autowired
+    private AuditorSecuenciaRadicacion auditorSecuencia;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheEntidades cacheEntidades;
+
+    @Autowired
+    @Qualifier("auditoriaExecutor")
+    private Executor auditoriaExecutor;
+
+    // Resultados exitosos inmutables, compartidos entre validaciones
+    private static final ResultadoValidacionRadicacion FORMATO_VALIDO =
+        new ResultadoValidacionRadicacion(true, "Formato válido", TipoValidacionRadicacion.FORMATO);
+    private static final ResultadoValidacionRadicacion COMPONENTES_VALIDOS =
+        new ResultadoValidacionRadicacion(true, "Componentes válidos", TipoValidacionRadicacion.COMPONENTES);
+    private static final ResultadoValidacionRadicacion NUMERO_UNICO =
+        new ResultadoValidacionRadicacion(true, "Número único", TipoValidacionRadicacion.UNICIDAD);
+    private static final ResultadoValidacionRadicacion SECUENCIA_VALIDA =
+        new ResultadoValidacionRadicacion(true, "Secuencia consecutiva válida", TipoValidacionRadicacion.SECUENCIA);
+    private static final ResultadoValidacionRadicacion NUMERO_VALIDO =
+        new ResultadoValidacionRadicacion(true, "Número de radicación válido", TipoValidacionRadicacion.COMPLETA);
+
+    // Validación por lotes: números por consulta IN y tamaño a partir del cual se valida en paralelo
+    private static final int TAMANO_CONSULTA_UNICIDAD = 1000;
+    private static final int UMBRAL_VALIDACION_PARALELA = 256;
 
     /**
      * Valida completamente un número de radicación
@@ -64,7 +116,7 @@ public class ValidacionRadicacionService {
         }
 
         logger.info("Número de radicación válido: {}", numeroRadicacion);
-        return new ResultadoValidacionRadicacion(true, "Número de radicación válido", TipoValidacionRadicacion.COMPLETA);
+        return NUMERO_VALIDO;
     }
 
     /**
@@ -75,72 +127,75 @@ public class ValidacionRadicacionService {
             return new ResultadoValidacionRadicacion(false, "El número de radicación no puede estar vacío", TipoValidacionRadicacion.FORMATO);
         }
 
-        String numero = numeroRadicacion.trim().toUpperCase();
-
-        if (!PATRON_GENERAL.matcher(numero).matches()) {
+        if (NumeroRadicacion.parsear(numeroRadicacion) == NumeroRadicacion.INVALIDO) {
             return new ResultadoValidacionRadicacion(false,
-                "Formato inválido. Debe ser: DANE-0-YY-NNNN (Secretaría) o DANE-CUR-YY-NNNN (Curaduría)",
+                "Formato inválido. Debe ser: DANE-0-YY-NNNN (Secretaría) o DANE-CUR-YY-NNNN (Curaduría), " +
+                "con un consecutivo de 4 a 7 dígitos",
                 TipoValidacionRadicacion.FORMATO);
         }
 
-        return new ResultadoValidacionRadicacion(true, "Formato válido", TipoValidacionRadicacion.FORMATO);
+        return FORMATO_VALIDO;
     }
 
     /**
      * Valida los componentes del número de radicación
      */
     public ResultadoValidacionRadicacion validarComponentes(String numeroRadicacion, Entidad entidad) {
-        String[] partes = numeroRadicacion.split("-");
+        long numero = NumeroRadicacion.parsear(numeroRadicacion);
+        if (numero == NumeroRadicacion.INVALIDO) {
+            return new ResultadoValidacionRadicacion(false,
+                "No se pudieron leer los componentes del número de radicación",
+                TipoValidacionRadicacion.COMPONENTES);
+        }
 
         // Validar código DANE
-        String codigoDane = partes[0];
-        if (!codigoDane.equals(entidad.getCodigoDane())) {
+        int codigoDane = NumeroRadicacion.codigoDane(numero);
+        if (codigoDane != NumeroRadicacion.parsearCodigoDane(entidad.getCodigoDane())) {
             return new ResultadoValidacionRadicacion(false,
-                String.format("Código DANE no coincide. Esperado: %s, Recibido: %s",
+                String.format("Código DANE no coincide. Esperado: %s, Recibido: %05d",
                     entidad.getCodigoDane(), codigoDane),
                 TipoValidacionRadicacion.COMPONENTES);
         }
 
         // Validar tipo de entidad
-        String tipoEntidad = partes[1];
+        ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad = NumeroRadicacion.tipoEntidad(numero);
         ConsecutivoRadicacion.TipoEntidadRadicacion tipoEsperado = determinarTipoEntidad(entidad);
-        if (!tipoEntidad.equals(tipoEsperado.getCodigo())) {
+        if (tipoEntidad != tipoEsperado) {
             return new ResultadoValidacionRadicacion(false,
                 String.format("Tipo de entidad no válido. Esperado: %s, Recibido: %s",
-                    tipoEsperado.getCodigo(), tipoEntidad),
+                    tipoEsperado.getCodigo(), tipoEntidad.getCodigo()),
                 TipoValidacionRadicacion.COMPONENTES);
         }
 
         // Validar año
-        String anoStr = partes[2];
+        int ano = NumeroRadicacion.anoCorto(numero);
         int anoActual = LocalDate.now().getYear() % 100;
-        try {
-            int ano = Integer.parseInt(anoStr);
-            if (ano != anoActual) {
-                return new ResultadoValidacionRadicacion(false,
-                    String.format("Año no válido. Esperado: %02d, Recibido: %s", anoActual, anoStr),
-                    TipoValidacionRadicacion.COMPONENTES);
-            }
-        } catch (NumberFormatException e) {
-            return new ResultadoValidacionRadicacion(false, "Año debe ser numérico", TipoValidacionRadicacion.COMPONENTES);
+        if (ano != anoActual) {
+            return new ResultadoValidacionRadicacion(false,
+                String.format("Año no válido. Esperado: %02d, Recibido: %02d", anoActual, ano),
+                TipoValidacionRadicacion.COMPONENTES);
         }
 
         // Validar número consecutivo
-        String consecutivoStr = partes[3];
-        try {
-            int consecutivo = Integer.parseInt(consecutivoStr);
-            if (consecutivo <= 0 || consecutivo > 9999) {
-                return new ResultadoValidacionRadicacion(false,
-                    "Número consecutivo debe estar entre 0001 y 9999",
-                    TipoValidacionRadicacion.COMPONENTES);
-            }
-        } catch (NumberFormatException e) {
+        int consecutivo = NumeroRadicacion.consecutivo(numero);
+        if (consecutivo <= 0) {
             return new ResultadoValidacionRadicacion(false,
-                "Número consecutivo debe ser numérico",
+                "Número consecutivo debe ser mayor a cero",
                 TipoValidacionRadicacion.COMPONENTES);
         }
 
-        return new ResultadoValidacionRadicacion(true, "Componentes válidos", TipoValidacionRadicacion.COMPONENTES);
+        // Los números con menos dígitos que los de la entidad se emitieron antes de ampliar el ancho;
+        // más dígitos solo se admiten cuando el consecutivo no cabe en el ancho de la entidad
+        int digitos = NumeroRadicacion.digitosConsecutivo(numero);
+        if (digitos > entidad.getDigitosConsecutivo()
+                && consecutivo <= NumeroRadicacion.consecutivoMaximo(digitos - 1)) {
+            return new ResultadoValidacionRadicacion(false,
+                String.format("El consecutivo tiene %d dígitos; la entidad usa %d",
+                    digitos, entidad.getDigitosConsecutivo()),
+                TipoValidacionRadicacion.COMPONENTES);
+        }
+
+        return COMPONENTES_VALIDOS;
     }
 
     /**
@@ -148,21 +203,35 @@ public class ValidacionRadicacionService {
      */
     public ResultadoValidacionRadicacion validarUnicidad(String numeroRadicacion) {
         Optional<Tramite> tramiteExistente = tramiteRepository.findByNumeroRadicacion(numeroRadicacion);
+        return resultadoUnicidad(numeroRadicacion, tramiteExistente.map(Tramite::getIdTramite).orElse(null));
+    }
 
-        if (tramiteExistente.isPresent()) {
+    private ResultadoValidacionRadicacion resultadoUnicidad(String numeroRadicacion, Long idTramiteExistente) {
+        if (idTramiteExistente != null) {
             return new ResultadoValidacionRadicacion(false,
                 String.format("El número de radicación %s ya existe para el trámite ID: %d",
-                    numeroRadicacion, tramiteExistente.get().getIdTramite()),
+                    numeroRadicacion, idTramiteExistente),
                 TipoValidacionRadicacion.UNICIDAD);
         }
 
-        return new ResultadoValidacionRadicacion(true, "Número único", TipoValidacionRadicacion.UNICIDAD);
+        return NUMERO_UNICO;
     }
 
     /**
      * Valida que el número consecutivo mantenga la secuencia
      */
     public ResultadoValidacionRadicacion validarSecuenciaConsecutiva(String numeroRadicacion, Entidad entidad) {
+        ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad = determinarTipoEntidad(entidad);
+        int anoActual = LocalDate.now().getYear();
+
+        Optional<ConsecutivoRadicacion> consecutivoActual =
+            consecutivoRepository.findByEntidadAndTipoEntidadAndAnoAndActivoTrue(entidad, tipoEntidad, anoActual);
+
+        return resultadoSecuencia(numeroRadicacion, consecutivoActual);
+    }
+
+    private ResultadoValidacionRadicacion resultadoSecuencia(String numeroRadicacion,
+                                                             Optional<ConsecutivoRadicacion> consecutivoActual) {
         Integer consecutivo = ConsecutivoRadicacion.extraerConsecutivo(numeroRadicacion);
         if (consecutivo == null) {
             return new ResultadoValidacionRadicacion(false,
@@ -170,12 +239,6 @@ public class ValidacionRadicacionService {
                 TipoValidacionRadicacion.SECUENCIA);
         }
 
-        ConsecutivoRadicacion.TipoEntidadRadicacion tipoEntidad = determinarTipoEntidad(entidad);
-        int anoActual = LocalDate.now().getYear();
-
-        Optional<ConsecutivoRadicacion> consecutivoActual =
-            consecutivoRepository.findByEntidadAndTipoEntidadAndAnoAndActivoTrue(entidad, tipoEntidad, anoActual);
-
         if (consecutivoActual.isPresent()) {
             int ultimoConsecutivo = consecutivoActual.get().getUltimoConsecutivo();
             int siguienteEsperado = ultimoConsecutivo + 1;
@@ -195,7 +258,7 @@ public class ValidacionRadicacionService {
             }
         }
 
-        return new ResultadoValidacionRadicacion(true, "Secuencia consecutiva válida", TipoValidacionRadicacion.SECUENCIA);
+        return SECUENCIA_VALIDA;
     }
 
     /**
@@ -205,11 +268,64 @@ public class ValidacionRadicacionService {
     public List<ResultadoValidacionRadicacion> validarLoteRadicaciones(List<String> numerosRadicacion, Entidad entidad) {
         logger.info("Validando lote de {} radicaciones para entidad: {}", numerosRadicacion.size(), entidad.getId());
 
-        return numerosRadicacion.stream()
-            .map(numero -> validarNumeroRadicacion(numero, entidad))
+        // Unicidad: una consulta IN por cada bloque de números con formato válido
+        List<String> numerosConFormato = numerosRadicacion.stream()
+            .filter(numero -> NumeroRadicacion.parsear(numero) != NumeroRadicacion.INVALIDO)
+            .distinct()
+            .toList();
+        Map<String, Long> existentes = new HashMap<>();
+        for (int desde = 0; desde < numerosConFormato.size(); desde += TAMANO_CONSULTA_UNICIDAD) {
+            List<String> bloque = numerosConFormato.subList(desde,
+                Math.min(desde + TAMANO_CONSULTA_UNICIDAD, numerosConFormato.size()));
+            for (TramiteRepository.NumeroRadicacionExistente existente :
+                    tramiteRepository.findExistentesByNumeroRadicacionIn(bloque)) {
+                existentes.put(existente.getNumeroRadicacion(), existente.getIdTramite());
+            }
+        }
+
+        // Secuencia: todos los números del lote se comparan contra el mismo contador (tipo y año actual)
+        Optional<ConsecutivoRadicacion> consecutivoActual = numerosConFormato.isEmpty()
+            ? Optional.empty()
+            : consecutivoRepository.findByEntidadAndTipoEntidadAndAnoAndActivoTrue(
+                entidad, determinarTipoEntidad(entidad), LocalDate.now().getYear());
+
+        // El resto de la validación es en memoria y conserva el orden del lote
+        IntStream indices = IntStream.range(0, numerosRadicacion.size());
+        if (numerosRadicacion.size() >= UMBRAL_VALIDACION_PARALELA) {
+            indices = indices.parallel();
+        }
+        return indices
+            .mapToObj(i -> validarEnMemoria(numerosRadicacion.get(i), entidad, existentes, consecutivoActual))
             .toList();
     }
 
+    private ResultadoValidacionRadicacion validarEnMemoria(String numeroRadicacion, Entidad entidad,
+                                                           Map<String, Long> existentes,
+                                                           Optional<ConsecutivoRadicacion> consecutivoActual) {
+        ResultadoValidacionRadicacion validacionFormato = validarFormato(numeroRadicacion);
+        if (!validacionFormato.isValido()) {
+            return validacionFormato;
+        }
+
+        ResultadoValidacionRadicacion validacionComponentes = validarComponentes(numeroRadicacion, entidad);
+        if (!validacionComponentes.isValido()) {
+            return validacionComponentes;
+        }
+
+        ResultadoValidacionRadicacion validacionUnicidad =
+            resultadoUnicidad(numeroRadicacion, existentes.get(numeroRadicacion));
+        if (!validacionUnicidad.isValido()) {
+            return validacionUnicidad;
+        }
+
+        ResultadoValidacionRadicacion validacionSecuencia = resultadoSecuencia(numeroRadicacion, consecutivoActual);
+        if (!validacionSecuencia.isValido()) {
+            return validacionSecuencia;
+        }
+
+        return NUMERO_VALIDO;
+    }
+
     /**
      * Detecta posibles problemas en la secuencia de consecutivos
      */
@@ -224,13 +340,40 @@ public class ValidacionRadicacionService {
                 consecutivoRepository.findByEntidadAndTipoEntidadAndAnoAndActivoTrue(entidad, tipo, ano);
 
             if (consecutivo.isPresent()) {
-                // Verificar saltos en la secuencia
-                String anoCorto = String.format("%02d", ano % 100);
-                List<Integer> consecutivosUsados = tramiteRepository
-                    .findConsecutivosUsadosByEntidadAndTipoAndAno(entidad, tipo.getCodigo(), anoCorto);
+                // Consecutivos usados, faltantes y duplicados en una sola pasada
+                AuditorSecuenciaRadicacion.ResultadoSecuencia secuencia = auditorSecuencia.auditar(
+                        entidad, tipo, ano, consecutivo.get().getUltimoConsecutivo());
+
+                // Consecutivos que no llegaron a un trámite pero cuyo salto está explicado
+                Map<Integer, ConsecutivoLiberado.MotivoLiberacion> liberados = new HashMap<>();
+                for (ConsecutivoLiberado liberado : consecutivoLiberadoRepository
+                        .findByEntidadAndTipoEntidadAndAnoOrderByConsecutivo(entidad, tipo, ano)) {
+                    liberados.put(liberado.getConsecutivo(), liberado.getMotivo());
+                }
 
-                for (int i = 1; i <= consecutivo.get().getUltimoConsecutivo(); i++) {
-                    if (!consecutivosUsados.contains(i)) {
+                // Consecutivos reservados que aún pueden utilizarse
+                Set<Integer> reservados = new HashSet<>(reservaRepository.findConsecutivosConReserva(
+                        entidad, tipo, ano, ReservaNumeroRadicacion.EstadoReserva.RESERVADO, LocalDateTime.now()));
+
+                BitSet faltantes = secuencia.getFaltantes();
+                for (int i = faltantes.nextSetBit(1); i >= 0; i = faltantes.nextSetBit(i + 1)) {
+                    if (asignadorBloques.estaPendienteEnBloque(entidad.getId(), tipo, ano, i)) {
+                        continue; // Tomado por un bloque de este nodo, aún sin entregar
+                    }
+                    if (reservados.contains(i)) {
+                        continue; // Reserva vigente, aún sin radicar
+                    }
+
+                    ConsecutivoLiberado.MotivoLiberacion motivo = liberados.get(i);
+                    if (motivo != null) {
+                        problemas.add(new ProblemaConsecutivo(
+                            tipo,
+                            ano,
+                            i,
+                            "Consecutivo liberado - " + motivo.getDescripcion(),
+                            TipoProblema.CONSECUTIVO_LIBERADO
+                        ));
+                    } else {
                         problemas.add(new ProblemaConsecutivo(
                             tipo,
                             ano,
@@ -242,14 +385,12 @@ public class ValidacionRadicacionService {
                 }
 
                 // Verificar duplicados
-                List<Integer> duplicados = tramiteRepository
-                    .findConsecutivosDuplicadosByEntidadAndTipoAndAno(entidad, tipo.getCodigo(), anoCorto);
-
-                for (Integer duplicado : duplicados) {
+                BitSet duplicados = secuencia.getDuplicados();
+                for (int i = duplicados.nextSetBit(0); i >= 0; i = duplicados.nextSetBit(i + 1)) {
                     problemas.add(new ProblemaConsecutivo(
                         tipo,
                         ano,
-                        duplicado,
+                        i,
                         "Consecutivo duplicado detectado",
                         TipoProblema.DUPLICADO
                     ));
@@ -266,16 +407,13 @@ public class ValidacionRadicacionService {
     }
 
     /**
-     * Determina el tipo de entidad para radicación basado en las características de la entidad
+     * Tipo de entidad para radicación, tomado del snapshot de la entidad en CacheEntidades (se
+     * clasifica una vez al cargarla). Solo una entidad sin id se clasifica por su nombre.
      */
     public ConsecutivoRadicacion.TipoEntidadRadicacion determinarTipoEntidad(Entidad entidad) {
-        String nombre = entidad.getNombre().toLowerCase();
-
-        if (nombre.contains("curadur") || nombre.contains("curador")) {
-            return ConsecutivoRadicacion.TipoEntidadRadicacion.CURADURIA;
-        } else {
-            return ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA;
-        }
+        return cacheEntidades.obtener(entidad.getId())
+                .map(EntidadSnapshot::getTipoRadicacion)
+                .orElseGet(() -> EntidadSnapshot.determinarTipoRadicacion(entidad.getNombre()));
     }
 
     /**
@@ -299,6 +437,40 @@ public class ValidacionRadicacionService {
         );
     }
 
+    /**
+     * Genera el reporte de validación de todas las entidades que radicaron en el año, en paralelo.
+     * Cada entidad se audita en su propia transacción de solo lectura en el executor de auditoría.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ReporteValidacionRadicacion> generarReportesValidacion(int ano) {
+        long inicio = System.currentTimeMillis();
+        List<Entidad> entidades = consecutivoRepository.findEntidadesParaMigracionAno(ano);
+        logger.info("Iniciando auditoría de secuencia {} para {} entidades", ano, entidades.size());
+
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+
+        List<CompletableFuture<ReporteValidacionRadicacion>> tareas = entidades.stream()
+            .map(entidad -> CompletableFuture.supplyAsync(
+                () -> transaccion.execute(status -> generarReporteValidacion(entidad, ano)),
+                auditoriaExecutor))
+            .toList();
+
+        List<ReporteValidacionRadicacion> reportes = new java.util.ArrayList<>(tareas.size());
+        for (int i = 0; i < tareas.size(); i++) {
+            try {
+                reportes.add(tareas.get(i).join());
+            } catch (CompletionException e) {
+                logger.error("Error auditando la secuencia de la entidad {} en {}",
+                    entidades.get(i).getId(), ano, e.getCause());
+            }
+        }
+
+        logger.info("Auditoría de secuencia {} completada: {} de {} entidades en {} ms",
+            ano, reportes.size(), entidades.size(), System.currentTimeMillis() - inicio);
+        return reportes;
+    }
+
     // DTOs para resultados de validación
     public static class ResultadoValidacionRadicacion {
         private final boolean valido;
@@ -344,7 +516,7 @@ public class ValidacionRadicacionService {
     }
 
     public enum TipoProblema {
-        SALTO_SECUENCIA, DUPLICADO, FORMATO_INVALIDO
+        SALTO_SECUENCIA, CONSECUTIVO_LIBERADO, DUPLICADO, FORMATO_INVALIDO
     }
 
     public static class ReporteValidacionRadicacion {
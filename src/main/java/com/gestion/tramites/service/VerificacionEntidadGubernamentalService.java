@@ -29,6 +29,9 @@ public class VerificacionEntidadGubernamentalService {
     @Autowired
     private NotificacionService notificacionService;
 
+    @Autowired
+    private CacheEntidades cacheEntidades;
+
     /**
      * Registra una nueva entidad gubernamental y inicia el proceso de verificación
      */
@@ -156,6 +159,7 @@ public class VerificacionEntidadGubernamentalService {
         // Desactivar entidad en sistema principal
         if (entidad.getEntidadSistema() != null) {
             entidad.getEntidadSistema().setActivo(false);
+            cacheEntidades.invalidar(entidad.getEntidadSistema().getId());
         }
 
         crearEntradaAuditoria(entidadActualizada, "ENTIDAD_SUSPENDIDA",
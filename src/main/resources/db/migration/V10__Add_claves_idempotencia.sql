@@ -0,0 +1,28 @@
+-- Migración V10: Claves de idempotencia
+-- Guarda la respuesta de cada Idempotency-Key para que los reintentos del cliente no consuman
+-- otro consecutivo ni creen un trámite duplicado
+
+CREATE TABLE claves_idempotencia (
+    id_clave BIGSERIAL PRIMARY KEY,
+    clave VARCHAR(255) NOT NULL,
+    operacion VARCHAR(50) NOT NULL,
+    usuario VARCHAR(100) NOT NULL,
+    hash_solicitud VARCHAR(64) NOT NULL,
+    estado VARCHAR(20) NOT NULL DEFAULT 'EN_PROCESO' CHECK (estado IN ('EN_PROCESO', 'COMPLETADA')),
+    codigo_respuesta INTEGER,
+    cuerpo_respuesta TEXT,
+    fecha_creacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_registro TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_expiracion TIMESTAMP NOT NULL,
+
+    -- Constraints
+    CONSTRAINT uk_clave_idempotencia UNIQUE (usuario, operacion, clave)
+);
+
+-- Índice para el barrido de claves vencidas
+CREATE INDEX idx_clave_idempotencia_expiracion ON claves_idempotencia(fecha_expiracion);
+
+-- Comentarios
+COMMENT ON TABLE claves_idempotencia IS 'Respuestas guardadas por Idempotency-Key, únicas por usuario y operación';
+COMMENT ON COLUMN claves_idempotencia.hash_solicitud IS 'SHA-256 del cuerpo de la solicitud; otra solicitud con la misma clave se rechaza';
+COMMENT ON COLUMN claves_idempotencia.fecha_registro IS 'Registro de la solicitud que procesa la clave; pasado el plazo de proceso otra solicitud puede retomarla'
@@ -0,0 +1,22 @@
+-- Migración V11: Ancho configurable del consecutivo de radicación
+-- Las entidades con más de 9999 radicaciones al año usan consecutivos de 5 a 7 dígitos.
+-- Los números de 4 dígitos ya emitidos no cambian
+
+ALTER TABLE entidades ADD COLUMN digitos_consecutivo INTEGER NOT NULL DEFAULT 4;
+ALTER TABLE entidades ADD CONSTRAINT chk_entidad_digitos_consecutivo
+    CHECK (digitos_consecutivo BETWEEN 4 AND 7);
+
+-- Componentes de los números que ya superaron 9999 (V8 solo pobló los de 4 dígitos)
+UPDATE tramites
+SET codigo_dane = split_part(numero_radicacion, '-', 1),
+    tipo_radicacion = CASE upper(split_part(numero_radicacion, '-', 2))
+                          WHEN '0' THEN 'SECRETARIA'
+                          WHEN 'CUR' THEN 'CURADURIA'
+                      END,
+    ano_radicacion = 2000 + split_part(numero_radicacion, '-', 3)::INTEGER,
+    consecutivo = split_part(numero_radicacion, '-', 4)::INTEGER
+WHERE consecutivo IS NULL
+  AND numero_radicacion ~* '^\d{5}-(0|CUR)-\d{2}-\d{5,7}$';
+
+-- Comentarios
+COMMENT ON COLUMN entidades.digitos_consecutivo IS 'Dígitos del consecutivo en los números de radicación de la entidad (4 a 7)';
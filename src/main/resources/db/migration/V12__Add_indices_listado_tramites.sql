@@ -0,0 +1,31 @@
+-- Migración V12: Índices del listado de trámites paginado por keyset
+-- El listado se ordena por (fecha_radicacion DESC, id_tramite DESC) y continúa desde la última
+-- fila entregada, así que cada filtro necesita un índice que empiece por la entidad (multi-tenant),
+-- siga por la columna filtrada y termine en la clave de orden.
+-- Reemplazan a idx_tramites_entidad_estado e idx_tramites_entidad_fecha de V3, que son prefijos suyos
+
+CREATE INDEX IF NOT EXISTS idx_tramite_entidad_listado
+    ON tramites(id_entidad, fecha_radicacion DESC, id_tramite DESC);
+
+CREATE INDEX IF NOT EXISTS idx_tramite_entidad_estado_listado
+    ON tramites(id_entidad, estado_actual, fecha_radicacion DESC, id_tramite DESC);
+
+CREATE INDEX IF NOT EXISTS idx_tramite_entidad_tipo_listado
+    ON tramites(id_entidad, id_tipo_tramite, fecha_radicacion DESC, id_tramite DESC);
+
+CREATE INDEX IF NOT EXISTS idx_tramite_entidad_revisor_listado
+    ON tramites(id_entidad, id_revisor_asignado, fecha_radicacion DESC, id_tramite DESC);
+
+-- Vista del administrador global, sin filtro de entidad
+CREATE INDEX IF NOT EXISTS idx_tramite_listado
+    ON tramites(fecha_radicacion DESC, id_tramite DESC);
+
+DROP INDEX IF EXISTS idx_tramites_entidad_estado;
+DROP INDEX IF EXISTS idx_tramites_entidad_fecha;
+
+-- Comentarios
+COMMENT ON INDEX idx_tramite_entidad_listado IS 'Listado de trámites de una entidad, del más reciente al más antiguo';
+COMMENT ON INDEX idx_tramite_entidad_estado_listado IS 'Listado de trámites de una entidad filtrado por estado';
+COMMENT ON INDEX idx_tramite_entidad_tipo_listado IS 'Listado de trámites de una entidad filtrado por tipo de trámite';
+COMMENT ON INDEX idx_tramite_entidad_revisor_listado IS 'Listado de trámites de una entidad filtrado por revisor asignado';
+COMMENT ON INDEX idx_tramite_listado IS 'Listado de trámites de todas las entidades (administrador global)';
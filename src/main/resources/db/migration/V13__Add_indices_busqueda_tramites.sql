@@ -0,0 +1,22 @@
+-- Migración V13: Índices de la búsqueda de trámites por criterios
+-- La búsqueda (GET /api/tramites/buscar) siempre filtra por entidad, así que cada índice empieza por
+-- id_entidad (multi-tenant). Estado, tipo, revisor y fechas de radicación ya se resuelven con los
+-- índices de V12; estos cubren las combinaciones nuevas.
+
+-- Trámites de un revisor en uno o varios estados (bandeja del revisor)
+CREATE INDEX IF NOT EXISTS idx_tramite_entidad_revisor_estado
+    ON tramites(id_entidad, id_revisor_asignado, estado_actual, fecha_radicacion DESC, id_tramite DESC);
+
+-- Trámites cuyo próximo plazo vence hasta una fecha, del más urgente al menos urgente
+CREATE INDEX IF NOT EXISTS idx_tramite_entidad_vencimiento
+    ON tramites(id_entidad, fecha_limite_proximo, id_tramite);
+
+-- Dirección del inmueble por prefijo, sin distinguir mayúsculas: lower(direccion_inmueble) LIKE 'calle 10%'.
+-- text_pattern_ops permite usar el índice con LIKE por prefijo con cualquier collation
+CREATE INDEX IF NOT EXISTS idx_tramite_entidad_direccion
+    ON tramites(id_entidad, lower(direccion_inmueble) text_pattern_ops);
+
+-- Comentarios
+COMMENT ON INDEX idx_tramite_entidad_revisor_estado IS 'Búsqueda de trámites de una entidad por revisor asignado y estado';
+COMMENT ON INDEX idx_tramite_entidad_vencimiento IS 'Búsqueda de trámites de una entidad por fecha límite del próximo plazo';
+COMMENT ON INDEX idx_tramite_entidad_direccion IS 'Búsqueda de trámites de una entidad por prefijo de la dirección del inmueble';
@@ -0,0 +1,20 @@
+-- Migración V14: Búsqueda de texto completo en trámites
+-- Columna tsvector con la configuración 'spanish' (raíces y palabras vacías del español) sobre el
+-- objeto, la descripción del proyecto y la dirección del inmueble, con pesos A, B y C para el ranking.
+-- Es una columna generada: PostgreSQL la recalcula en cada INSERT y UPDATE, sin triggers.
+
+ALTER TABLE tramites ADD COLUMN IF NOT EXISTS busqueda_texto tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('spanish', coalesce(objeto_tramite, '')), 'A') ||
+        setweight(to_tsvector('spanish', coalesce(descripcion_proyecto, '')), 'B') ||
+        setweight(to_tsvector('spanish', coalesce(direccion_inmueble, '')), 'C')
+    ) STORED;
+
+-- busqueda_texto @@ websearch_to_tsquery('spanish', ...) se resuelve con este índice; la entidad se
+-- filtra sobre las filas que coinciden
+CREATE INDEX IF NOT EXISTS idx_tramite_busqueda_texto
+    ON tramites USING gin (busqueda_texto);
+
+-- Comentarios
+COMMENT ON COLUMN tramites.busqueda_texto IS 'Texto de búsqueda (objeto A, descripción B, dirección C) con configuración spanish';
+COMMENT ON INDEX idx_tramite_busqueda_texto IS 'Búsqueda de texto completo en trámites';
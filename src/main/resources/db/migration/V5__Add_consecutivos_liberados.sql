@@ -0,0 +1,25 @@
+-- Migración V5: Consecutivos liberados
+-- Registra los consecutivos que se tomaron del contador pero no llegaron a un trámite
+-- (bloques no utilizados al detener un nodo, radicaciones revertidas)
+
+CREATE TABLE consecutivos_liberados (
+    id_consecutivo_liberado BIGSERIAL PRIMARY KEY,
+    entidad_id BIGINT NOT NULL,
+    tipo_entidad VARCHAR(10) NOT NULL CHECK (tipo_entidad IN ('SECRETARIA', 'CURADURIA')),
+    ano INTEGER NOT NULL,
+    consecutivo INTEGER NOT NULL,
+    motivo VARCHAR(30) NOT NULL CHECK (motivo IN ('BLOQUE_NO_UTILIZADO', 'RADICACION_REVERTIDA')),
+    fecha_liberacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Constraints
+    CONSTRAINT fk_liberado_entidad FOREIGN KEY (entidad_id) REFERENCES entidades(id) ON DELETE CASCADE,
+    CONSTRAINT uk_consecutivo_liberado UNIQUE (entidad_id, tipo_entidad, ano, consecutivo),
+    CONSTRAINT chk_liberado_positivo CHECK (consecutivo > 0)
+);
+
+-- Índice para la auditoría de secuencia
+CREATE INDEX idx_liberado_busqueda ON consecutivos_liberados(entidad_id, tipo_entidad, ano);
+
+-- Comentarios
+COMMENT ON TABLE consecutivos_liberados IS 'Consecutivos de radicación asignados al contador que no llegaron a un trámite';
+COMMENT ON COLUMN consecutivos_liberados.motivo IS 'BLOQUE_NO_UTILIZADO (nodo detenido) o RADICACION_REVERTIDA (rollback)';
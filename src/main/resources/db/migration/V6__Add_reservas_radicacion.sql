@@ -0,0 +1,38 @@
+-- Migración V6: Reservas de números de radicación
+-- Persiste las reservas con vencimiento; las reservas vencidas devuelven su consecutivo
+-- al pool de consecutivos_liberados para que la siguiente radicación lo reutilice
+
+CREATE TABLE reservas_radicacion (
+    id_reserva BIGSERIAL PRIMARY KEY,
+    entidad_id BIGINT NOT NULL,
+    tipo_entidad VARCHAR(10) NOT NULL CHECK (tipo_entidad IN ('SECRETARIA', 'CURADURIA')),
+    ano INTEGER NOT NULL,
+    consecutivo INTEGER NOT NULL,
+    numero_radicacion VARCHAR(50) NOT NULL,
+    motivo VARCHAR(500),
+    usuario_reserva VARCHAR(100),
+    estado VARCHAR(20) NOT NULL DEFAULT 'RESERVADO' CHECK (estado IN ('RESERVADO', 'UTILIZADO', 'EXPIRADO')),
+    fecha_reserva TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_expiracion TIMESTAMP NOT NULL,
+    fecha_utilizacion TIMESTAMP,
+
+    -- Constraints
+    CONSTRAINT fk_reserva_entidad FOREIGN KEY (entidad_id) REFERENCES entidades(id) ON DELETE CASCADE,
+    CONSTRAINT uk_reserva_numero_radicacion UNIQUE (numero_radicacion),
+    CONSTRAINT chk_reserva_vencimiento CHECK (fecha_expiracion > fecha_reserva)
+);
+
+-- Índice para el barrido de reservas vencidas
+CREATE INDEX idx_reserva_vencimiento ON reservas_radicacion(estado, fecha_expiracion);
+
+-- Índice para la auditoría de secuencia
+CREATE INDEX idx_reserva_consecutivo ON reservas_radicacion(entidad_id, tipo_entidad, ano);
+
+-- Las reservas vencidas se registran como consecutivos liberados
+ALTER TABLE consecutivos_liberados DROP CONSTRAINT IF EXISTS consecutivos_liberados_motivo_check;
+ALTER TABLE consecutivos_liberados ADD CONSTRAINT consecutivos_liberados_motivo_check
+    CHECK (motivo IN ('BLOQUE_NO_UTILIZADO', 'RADICACION_REVERTIDA', 'RESERVA_EXPIRADA'));
+
+-- Comentarios
+COMMENT ON TABLE reservas_radicacion IS 'Reservas de números de radicación con vencimiento';
+COMMENT ON COLUMN reservas_radicacion.estado IS 'RESERVADO (vigente), UTILIZADO (radicado) o EXPIRADO (consecutivo devuelto al pool)';
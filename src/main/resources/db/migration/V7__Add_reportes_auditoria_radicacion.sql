@@ -0,0 +1,40 @@
+-- Migración V7: Reportes guardados de la auditoría nocturna de secuencia
+-- Una fila por entidad y año con el último resultado; los problemas detectados van en
+-- problemas_auditoria_radicacion y se reemplazan en cada auditoría
+
+CREATE TABLE reportes_auditoria_radicacion (
+    id_reporte BIGSERIAL PRIMARY KEY,
+    entidad_id BIGINT NOT NULL,
+    ano INTEGER NOT NULL,
+    estado VARCHAR(20) NOT NULL CHECK (estado IN ('COMPLETA', 'TIEMPO_AGOTADO', 'ERROR')),
+    total_radicaciones BIGINT NOT NULL DEFAULT 0,
+    radicaciones_validas BIGINT NOT NULL DEFAULT 0,
+    problemas_detectados BIGINT NOT NULL DEFAULT 0,
+    marca_total_radicaciones BIGINT NOT NULL DEFAULT 0,
+    marca_ultimo_tramite_id BIGINT,
+    mensaje_error VARCHAR(500),
+    duracion_ms BIGINT NOT NULL DEFAULT 0,
+    fecha_auditoria TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- Constraints
+    CONSTRAINT fk_reporte_auditoria_entidad FOREIGN KEY (entidad_id) REFERENCES entidades(id) ON DELETE CASCADE,
+    CONSTRAINT uk_reporte_auditoria_entidad_ano UNIQUE (entidad_id, ano)
+);
+
+CREATE TABLE problemas_auditoria_radicacion (
+    reporte_id BIGINT NOT NULL,
+    tipo_entidad VARCHAR(10) NOT NULL CHECK (tipo_entidad IN ('SECRETARIA', 'CURADURIA')),
+    consecutivo INTEGER NOT NULL,
+    tipo_problema VARCHAR(30) NOT NULL,
+    descripcion VARCHAR(200),
+
+    CONSTRAINT fk_problema_auditoria_reporte FOREIGN KEY (reporte_id)
+        REFERENCES reportes_auditoria_radicacion(id_reporte) ON DELETE CASCADE
+);
+
+-- Índice para cargar los problemas de un reporte
+CREATE INDEX idx_problema_auditoria_reporte ON problemas_auditoria_radicacion(reporte_id);
+
+-- Comentarios
+COMMENT ON TABLE reportes_auditoria_radicacion IS 'Último reporte de la auditoría nocturna de secuencia por entidad y año';
+COMMENT ON COLUMN reportes_auditoria_radicacion.marca_ultimo_tramite_id IS 'Último trámite del año al auditar; si cambia, la entidad se vuelve a auditar';
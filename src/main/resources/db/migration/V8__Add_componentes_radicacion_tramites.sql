@@ -0,0 +1,29 @@
+-- Migración V8: Componentes del número de radicación en tramites
+-- La auditoría de secuencia filtraba con LIKE y SUBSTRING sobre numero_radicacion, lo que
+-- obligaba a recorrer toda la tabla; con estas columnas y el índice compuesto la consulta
+-- de consecutivos usados de una entidad, tipo y año es un range scan
+
+ALTER TABLE tramites ADD COLUMN codigo_dane VARCHAR(5);
+ALTER TABLE tramites ADD COLUMN tipo_radicacion VARCHAR(10)
+    CHECK (tipo_radicacion IN ('SECRETARIA', 'CURADURIA'));
+ALTER TABLE tramites ADD COLUMN ano_radicacion INTEGER;
+ALTER TABLE tramites ADD COLUMN consecutivo INTEGER;
+
+-- Poblar los trámites existentes con número de radicación en formato oficial
+UPDATE tramites
+SET codigo_dane = split_part(numero_radicacion, '-', 1),
+    tipo_radicacion = CASE upper(split_part(numero_radicacion, '-', 2))
+                          WHEN '0' THEN 'SECRETARIA'
+                          WHEN 'CUR' THEN 'CURADURIA'
+                      END,
+    ano_radicacion = 2000 + split_part(numero_radicacion, '-', 3)::INTEGER,
+    consecutivo = split_part(numero_radicacion, '-', 4)::INTEGER
+WHERE numero_radicacion ~* '^\d{5}-(0|CUR)-\d{2}-\d{4}$';
+
+-- Índice para la auditoría de secuencia (consecutivos usados por entidad, tipo y año)
+CREATE INDEX idx_tramite_radicacion_componentes
+    ON tramites(id_entidad, codigo_dane, tipo_radicacion, ano_radicacion, consecutivo);
+
+-- Comentarios
+COMMENT ON COLUMN tramites.consecutivo IS 'Consecutivo del número de radicación, derivado de numero_radicacion';
+COMMENT ON COLUMN tramites.ano_radicacion IS 'Año (cuatro dígitos) del número de radicación';
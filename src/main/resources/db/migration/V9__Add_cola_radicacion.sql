@@ -0,0 +1,38 @@
+-- Migración V9: Cola de radicación asíncrona
+-- Las solicitudes se guardan validadas con un ticket; el escritor de cada entidad las radica
+-- en orden de llegada y registra el número asignado o el motivo del rechazo
+
+CREATE TABLE cola_radicacion (
+    id_solicitud BIGSERIAL PRIMARY KEY,
+    ticket VARCHAR(36) NOT NULL,
+    entidad_id BIGINT NOT NULL,
+    tipo_tramite_id BIGINT NOT NULL,
+    objeto_tramite TEXT NOT NULL,
+    solicitante_email VARCHAR(255) NOT NULL,
+    observaciones TEXT,
+    usuario_solicitud VARCHAR(100),
+    estado VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE' CHECK (estado IN ('PENDIENTE', 'RADICADA', 'RECHAZADA')),
+    numero_radicacion VARCHAR(50),
+    id_tramite BIGINT,
+    mensaje_error VARCHAR(500),
+    intentos INTEGER NOT NULL DEFAULT 0,
+    fecha_solicitud TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_procesamiento TIMESTAMP,
+
+    -- Constraints
+    CONSTRAINT fk_cola_radicacion_entidad FOREIGN KEY (entidad_id) REFERENCES entidades(id) ON DELETE CASCADE,
+    CONSTRAINT uk_cola_radicacion_ticket UNIQUE (ticket)
+);
+
+-- Índice para que el escritor tome las pendientes de la entidad en orden de llegada
+CREATE INDEX idx_cola_radicacion_pendientes ON cola_radicacion(entidad_id, estado, id_solicitud);
+
+-- Índice parcial para que el barrido encuentre las entidades con solicitudes pendientes sin
+-- recorrer las resueltas, que son casi todas las filas de la tabla
+CREATE INDEX idx_cola_radicacion_entidades_pendientes ON cola_radicacion(entidad_id) WHERE estado = 'PENDIENTE';
+
+-- Comentarios
+COMMENT ON TABLE cola_radicacion IS 'Solicitudes de radicación asíncrona identificadas por ticket';
+COMMENT ON COLUMN cola_radicacion.estado IS 'PENDIENTE (en cola), RADICADA (número asignado) o RECHAZADA (ver mensaje_error)';
+COMMENT ON COLUMN cola_radicacion.fecha_procesamiento IS 'Fecha en que se resolvió; las resueltas se eliminan después de radicacion.cola.retencion-dias';
+COMMENT ON COLUMN cola_radicacion.intentos IS 'Veces que la radicación individual de la solicitud falló; al llegar a radicacion.cola.max-intentos se rechaza'
@@ -126,8 +126,8 @@ class MultiTenantSecurityIT {
                 .header("Authorization", "Bearer " + tokenUsuarioA))
                 // THEN: La solicitud es exitosa y solo recibe los trámites de su entidad
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1))) // Debe recibir solo 1 trámite
-                .andExpect(jsonPath("$[0].numeroRadicacion", is(tramiteA.getNumeroRadicacion())));
+                .andExpect(jsonPath("$.tramites", hasSize(1))) // Debe recibir solo 1 trámite
+                .andExpect(jsonPath("$.tramites[0].numeroRadicacion", is(tramiteA.getNumeroRadicacion())));
     }
 
     @Test
@@ -0,0 +1,143 @@
+package com.gestion.tramites.benchmark;
+
+import com.gestion.tramites.dto.tramite.TramiteResponseDTO;
+import com.gestion.tramites.mapper.TramiteMapper;
+import com.gestion.tramites.mapper.TramiteMapperImpl;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.model.Usuario;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el costo por objeto de TramiteMapper (MapStruct, código generado en compilación) con el
+ * mapeo anterior por reflexión de ModelMapper, con la misma configuración que tenía el bean
+ * ModelMapperConfig y los ajustes manuales de nombres que hacía TramiteService (reproducidos aquí
+ * como referencia).
+ *
+ * Ejecución (incluye el perfil de GC para ver bytes asignados por operación):
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.gestion.tramites.benchmark.MapeoDtoBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapeoDtoBenchmark {
+
+    private static final int TAMANO_PAGINA = 50;
+
+    private ModelMapper modelMapper;
+    private TramiteMapper tramiteMapper;
+    private Tramite[] tramites;
+
+    @Setup
+    public void preparar() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE)
+                .setSkipNullEnabled(true);
+        tramiteMapper = new TramiteMapperImpl();
+
+        Entidad entidad = new Entidad();
+        entidad.setId(1L);
+        entidad.setNombre("Secretaría de Planeación");
+
+        Usuario solicitante = new Usuario();
+        solicitante.setIdUsuario(50L);
+        solicitante.setNombreCompleto("Ana Ciudadana");
+        solicitante.setCorreoElectronico("ana@correo.com");
+
+        Usuario revisor = new Usuario();
+        revisor.setIdUsuario(7L);
+        revisor.setNombreCompleto("Carlos Revisor");
+
+        TipoTramite tipoTramite = new TipoTramite();
+        tipoTramite.setIdTipoTramite(3L);
+        tipoTramite.setNombre("Licencia de Construcción");
+
+        tramites = new Tramite[TAMANO_PAGINA];
+        for (int i = 0; i < TAMANO_PAGINA; i++) {
+            Tramite tramite = new Tramite();
+            tramite.setIdTramite((long) i + 1);
+            tramite.setNumeroRadicacion(String.format("11001-0-25-%04d", i + 1));
+            tramite.setFechaRadicacion(LocalDate.of(2025, 3, 10));
+            tramite.setObjetoTramite("Construcción de vivienda unifamiliar");
+            tramite.setDireccionInmueble("Calle 1 # 2-3");
+            tramite.setEstadoActual(Tramite.EstadoTramite.EN_REVISION);
+            tramite.setFechaUltimoCambioEstado(LocalDateTime.of(2025, 3, 12, 9, 30));
+            tramite.setEntidad(entidad);
+            tramite.setSolicitante(solicitante);
+            tramite.setRevisorAsignado(revisor);
+            tramite.setTipoTramite(tipoTramite);
+            tramites[i] = tramite;
+        }
+    }
+
+    private TramiteResponseDTO mapearConModelMapper(Tramite tramite) {
+        TramiteResponseDTO dto = modelMapper.map(tramite, TramiteResponseDTO.class);
+        if (tramite.getEntidad() != null) {
+            dto.setNombreEntidad(tramite.getEntidad().getNombre());
+        }
+        if (tramite.getSolicitante() != null) {
+            dto.setNombreSolicitante(tramite.getSolicitante().getNombreCompleto());
+        }
+        if (tramite.getRevisorAsignado() != null) {
+            dto.setNombreRevisor(tramite.getRevisorAsignado().getNombreCompleto());
+        }
+        if (tramite.getTipoTramite() != null) {
+            dto.setNombreTipoTramite(tramite.getTipoTramite().getNombre());
+        }
+        return dto;
+    }
+
+    @Benchmark
+    public TramiteResponseDTO tramiteModelMapper() {
+        return mapearConModelMapper(tramites[0]);
+    }
+
+    @Benchmark
+    public TramiteResponseDTO tramiteMapStruct() {
+        return tramiteMapper.toResponseDTO(tramites[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANO_PAGINA)
+    public void paginaModelMapper(Blackhole bh) {
+        for (Tramite tramite : tramites) {
+            bh.consume(mapearConModelMapper(tramite));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANO_PAGINA)
+    public void paginaMapStruct(Blackhole bh) {
+        for (Tramite tramite : tramites) {
+            bh.consume(tramiteMapper.toResponseDTO(tramite));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(MapeoDtoBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
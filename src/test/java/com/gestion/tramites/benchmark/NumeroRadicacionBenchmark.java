@@ -0,0 +1,98 @@
+package com.gestion.tramites.benchmark;
+
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.NumeroRadicacion;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compara el codec NumeroRadicacion con el camino anterior basado en regex, split, parseInt y
+ * String.format (reproducido aquí como referencia).
+ *
+ * Ejecución (incluye el perfil de GC para ver bytes asignados por operación):
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.gestion.tramites.benchmark.NumeroRadicacionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumeroRadicacionBenchmark {
+
+    private static final Pattern PATRON_GENERAL = Pattern.compile("^\\d{5}-(0|CUR)-\\d{2}-\\d{4}$");
+
+    private final String[] numeros = {
+        "11001-0-25-0001", "05001-CUR-25-0420", "76001-0-25-9999", "08001-cur-25-1234"
+    };
+    private int indice;
+
+    private String siguiente() {
+        indice = (indice + 1) & 3;
+        return numeros[indice];
+    }
+
+    @Benchmark
+    public void validarRegex(Blackhole bh) {
+        String numero = siguiente().trim().toUpperCase();
+        if (PATRON_GENERAL.matcher(numero).matches()) {
+            String[] partes = numero.split("-");
+            bh.consume(partes[0]);
+            bh.consume(partes[1]);
+            bh.consume(Integer.parseInt(partes[2]));
+            bh.consume(Integer.parseInt(partes[3]));
+        }
+    }
+
+    @Benchmark
+    public void validarCodec(Blackhole bh) {
+        long numero = NumeroRadicacion.parsear(siguiente());
+        if (numero != NumeroRadicacion.INVALIDO) {
+            bh.consume(NumeroRadicacion.codigoDane(numero));
+            bh.consume(NumeroRadicacion.tipoEntidad(numero));
+            bh.consume(NumeroRadicacion.anoCorto(numero));
+            bh.consume(NumeroRadicacion.consecutivo(numero));
+        }
+    }
+
+    @Benchmark
+    public String generarStringFormat() {
+        indice = (indice + 1) & 1023;
+        return String.format("%s-%s-%s-%s", "11001", ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA.getCodigo(),
+                String.valueOf(2025 % 100), String.format("%04d", indice + 1));
+    }
+
+    @Benchmark
+    public String generarCodec() {
+        indice = (indice + 1) & 1023;
+        return NumeroRadicacion.formatear("11001", ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA, 2025, indice + 1);
+    }
+
+    @Benchmark
+    public int extraerSplit() {
+        return Integer.parseInt(siguiente().split("-")[3]);
+    }
+
+    @Benchmark
+    public int extraerCodec() {
+        return NumeroRadicacion.consecutivo(NumeroRadicacion.parsear(siguiente()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+                .include(NumeroRadicacionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -139,11 +139,13 @@ public class TramiteControllerIT {
     void cuandoUsuarioDeEntidadAConsultaSusTramites_debeRetornarSoloLosDeSuEntidad()
             throws Exception {
         mockMvc.perform(get("/api/tramites").contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(2))) // Espera 2
-                                                                                 // trámites para la
-                                                                                 // Entidad A
-                .andExpect(jsonPath("$[0].numeroRadicacion", is(tramiteA1.getNumeroRadicacion())))
-                .andExpect(jsonPath("$[1].numeroRadicacion", is(tramiteA2.getNumeroRadicacion())));
+                .andExpect(status().isOk()).andExpect(jsonPath("$.tramites", hasSize(2))) // Espera 2
+                                                                                          // trámites para la
+                                                                                          // Entidad A
+                // Del más reciente al más antiguo: misma fecha, mayor id primero
+                .andExpect(jsonPath("$.tramites[0].numeroRadicacion", is(tramiteA2.getNumeroRadicacion())))
+                .andExpect(jsonPath("$.tramites[1].numeroRadicacion", is(tramiteA1.getNumeroRadicacion())))
+                .andExpect(jsonPath("$.siguienteCursor").doesNotExist());
     }
 
     /**
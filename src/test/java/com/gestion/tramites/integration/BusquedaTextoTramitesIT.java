@@ -0,0 +1,262 @@
+package com.gestion.tramites.integration;
+
+import com.gestion.tramites.dto.tramite.TramiteResponseDTO;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.TipoTramiteRepository;
+import com.gestion.tramites.repository.TramiteRepository;
+import com.gestion.tramites.repository.UsuarioRepository;
+import com.gestion.tramites.service.CustomUserDetails;
+import com.gestion.tramites.service.TramiteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Búsqueda de trámites por texto contra un PostgreSQL real: la columna generada busqueda_texto se
+ * mantiene en INSERT y UPDATE, la configuración 'spanish' reduce las palabras a su raíz, los resultados
+ * salen por relevancia y de una sola entidad, y la paginación por keyset recorre todo sin repetir filas.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@ContextConfiguration(initializers = {BusquedaTextoTramitesIT.Initializer.class})
+class BusquedaTextoTramitesIT {
+
+    /** Trámites de la entidad principal que mencionan "licencia" en el objeto */
+    private static final int LICENCIAS = 7;
+
+    @Container
+    public static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                "notifications.email.enabled=false"
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    @Autowired
+    private TramiteService tramiteService;
+
+    @Autowired
+    private EntidadRepository entidadRepository;
+
+    @Autowired
+    private TipoTramiteRepository tipoTramiteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TramiteRepository tramiteRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Los datos se crean una vez para todas las pruebas (el contenedor es compartido) */
+    private static Usuario revisor;
+    private static Usuario revisorOtraEntidad;
+    private static Long idAmpliacionEnObjeto;
+    private static Long idAmpliacionEnDescripcion;
+    private static Long idCalle45;
+    private static Long idActualizado;
+
+    @BeforeEach
+    void setUp() {
+        if (revisor == null) {
+            crearDatos();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void crearDatos() {
+        // La columna generada busqueda_texto y su índice GIN solo existen en la migración
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V14__Add_busqueda_texto_tramites.sql")).execute(dataSource);
+
+        Entidad entidad = entidad("Curaduría Urbana Texto", "900111222-1");
+        Entidad otraEntidad = entidad("Secretaría de Planeación Texto", "900333444-1");
+        TipoTramite tipoTramite = new TipoTramite();
+        tipoTramite.setNombre("Licencia de Construcción Texto");
+        tipoTramite = tipoTramiteRepository.save(tipoTramite);
+
+        Usuario solicitante = usuario("solicitante@texto.test", "SOLICITANTE", entidad, "3001");
+        revisor = usuario("revisor@texto.gov.co", "REVISOR", entidad, "3002");
+        revisorOtraEntidad = usuario("revisor@otra-texto.gov.co", "REVISOR", otraEntidad, "3003");
+
+        idAmpliacionEnObjeto = tramite(entidad, solicitante, tipoTramite, "TXT-0001",
+                "Licencia de ampliación de vivienda", "Segundo piso en mampostería", "Carrera 7 # 12-30").getIdTramite();
+        idAmpliacionEnDescripcion = tramite(entidad, solicitante, tipoTramite, "TXT-0002",
+                "Licencia de construcción", "Incluye la ampliación del garaje", "Carrera 9 # 20-11").getIdTramite();
+        idCalle45 = tramite(entidad, solicitante, tipoTramite, "TXT-0003",
+                "Licencia de demolición", "Demolición total", "Calle 45 # 10-20").getIdTramite();
+        for (int i = 4; i <= LICENCIAS; i++) {
+            tramite(entidad, solicitante, tipoTramite, String.format("TXT-%04d", i),
+                    "Licencia de urbanismo " + i, null, "Avenida " + i);
+        }
+        idActualizado = tramite(entidad, solicitante, tipoTramite, "TXT-0100",
+                "Reconocimiento de edificación", null, "Vereda El Salitre").getIdTramite();
+        // Coincide con todo, pero es de otra entidad
+        tramite(otraEntidad, solicitante, tipoTramite, "TXT-0200",
+                "Licencia de ampliación de bodega", "Ampliación calle 45", "Calle 45 # 1-1");
+    }
+
+    @Test
+    void buscarPorTexto_RaizEnEspanol_EncuentraFormasDistintasDeLaPalabra() {
+        autenticar(revisor);
+
+        TramiteService.PaginaTramites pagina = tramiteService.buscarPorTexto("ampliaciones", null, null, null);
+
+        assertThat(pagina.getTramites()).extracting(TramiteResponseDTO::getIdTramite)
+                .containsExactly(idAmpliacionEnObjeto, idAmpliacionEnDescripcion);
+    }
+
+    @Test
+    void buscarPorTexto_VariasPalabras_ExigeTodasEnObjetoDescripcionODireccion() {
+        autenticar(revisor);
+
+        TramiteService.PaginaTramites pagina = tramiteService.buscarPorTexto("licencia calle 45", null, null, null);
+
+        assertThat(pagina.getTramites()).extracting(TramiteResponseDTO::getIdTramite).containsExactly(idCalle45);
+        assertThat(pagina.getTramites().get(0).getNombreEntidad()).isEqualTo("Curaduría Urbana Texto");
+        assertThat(pagina.getSiguienteCursor()).isNull();
+    }
+
+    @Test
+    void buscarPorTexto_OtraEntidad_SoloVeSusTramites() {
+        autenticar(revisorOtraEntidad);
+
+        TramiteService.PaginaTramites pagina = tramiteService.buscarPorTexto("licencia", null, null, null);
+
+        assertThat(pagina.getTramites()).hasSize(1);
+        assertThat(pagina.getTramites().get(0).getNumeroRadicacion()).isEqualTo("TXT-0200");
+    }
+
+    @Test
+    void buscarPorTexto_PorPaginas_RecorreTodasLasCoincidenciasSinRepetir() {
+        autenticar(revisor);
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            TramiteService.PaginaTramites pagina = tramiteService.buscarPorTexto("licencia", null, cursor, 2);
+            pagina.getTramites().forEach(tramite -> ids.add(tramite.getIdTramite()));
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(ids).hasSize(LICENCIAS).doesNotHaveDuplicates();
+        assertThat(paginas).isEqualTo((LICENCIAS + 1) / 2);
+    }
+
+    @Test
+    void buscarPorTexto_TramiteActualizado_SeBuscaPorSuNuevoTexto() {
+        autenticar(revisor);
+        assertThat(tramiteService.buscarPorTexto("piscina", null, null, null).getTramites()).isEmpty();
+
+        Tramite tramite = tramiteRepository.findById(idActualizado).orElseThrow();
+        tramite.setDescripcionProyecto("Construcción de piscina y cubierta");
+        tramiteRepository.save(tramite);
+
+        assertThat(tramiteService.buscarPorTexto("piscina", null, null, null).getTramites())
+                .extracting(TramiteResponseDTO::getIdTramite).containsExactly(idActualizado);
+    }
+
+    @Test
+    void buscarPorTexto_UsaElIndiceGin() {
+        // Con pocas filas por entidad el planificador puede preferir el índice de id_entidad; aquí se
+        // verifica solo que la coincidencia de texto se resuelve con el GIN y no recorriendo la tabla
+        String plan = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN SELECT id_tramite FROM tramites " +
+                    "WHERE busqueda_texto @@ websearch_to_tsquery('spanish', 'licencia ampliación')", String.class));
+        });
+
+        assertThat(plan).contains("idx_tramite_busqueda_texto").doesNotContain("Seq Scan on tramites");
+    }
+
+    private void autenticar(Usuario usuario) {
+        CustomUserDetails usuarioActual = new CustomUserDetails(usuario);
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(usuarioActual, null, usuarioActual.getAuthorities())));
+    }
+
+    private Entidad entidad(String nombre, String nit) {
+        Entidad entidad = new Entidad();
+        entidad.setNombre(nombre);
+        entidad.setNit(nit);
+        entidad.setActivo(true);
+        return entidadRepository.save(entidad);
+    }
+
+    private Tramite tramite(Entidad entidad, Usuario solicitante, TipoTramite tipoTramite, String numeroRadicacion,
+                            String objeto, String descripcion, String direccion) {
+        Tramite tramite = new Tramite();
+        tramite.setNumeroRadicacion(numeroRadicacion);
+        tramite.setObjetoTramite(objeto);
+        tramite.setDescripcionProyecto(descripcion);
+        tramite.setDireccionInmueble(direccion);
+        tramite.setEstadoActual(Tramite.EstadoTramite.RADICADO);
+        tramite.setEntidad(entidad);
+        tramite.setSolicitante(solicitante);
+        tramite.setTipoTramite(tipoTramite);
+        return tramiteRepository.save(tramite);
+    }
+
+    private Usuario usuario(String correo, String rol, Entidad entidad, String documento) {
+        Usuario usuario = new Usuario();
+        usuario.setNombreCompleto("Usuario " + correo);
+        usuario.setCorreoElectronico(correo);
+        usuario.setTipoDocumento("CC");
+        usuario.setNumeroDocumento(documento);
+        usuario.setContrasena("password123");
+        usuario.setRol(rol);
+        usuario.setEntidad(entidad);
+        usuario.setFechaCreacion(LocalDateTime.now());
+        usuario.setActivo(true);
+        return usuarioRepository.save(usuario);
+    }
+}
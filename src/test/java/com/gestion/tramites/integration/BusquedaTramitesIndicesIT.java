@@ -0,0 +1,317 @@
+package com.gestion.tramites.integration;
+
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.EspecificacionesTramite;
+import com.gestion.tramites.repository.TipoTramiteRepository;
+import com.gestion.tramites.repository.TramiteRepository;
+import com.gestion.tramites.repository.UsuarioRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN que cada combinación de criterios de la búsqueda de trámites se resuelve con
+ * un índice que empieza por id_entidad, y no recorriendo toda la tabla.
+ *
+ * Se ejecuta la búsqueda real (EspecificacionesTramite + TramiteRepository.findAll) y se toma el SQL
+ * que emite Hibernate. Con hibernate.criteria.value_handling_mode=inline los valores de los criterios
+ * quedan como literales en el SQL, así que el plan es el de esos valores. El EXPLAIN se hace con
+ * enable_seqscan=off: si ningún índice sirve, el plan sigue siendo un Seq Scan.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@ContextConfiguration(initializers = {BusquedaTramitesIndicesIT.Initializer.class})
+class BusquedaTramitesIndicesIT {
+
+    private static final int ENTIDADES = 10;
+    private static final int REVISORES = 20;
+    private static final int TIPOS = 8;
+    private static final int TRAMITES = 20000;
+
+    private static final Sort RECIENTES = Sort.by(Sort.Order.desc("fechaRadicacion"), Sort.Order.desc("idTramite"));
+    private static final Sort POR_VENCER = Sort.by(Sort.Order.asc("fechaLimiteProximo"), Sort.Order.asc("idTramite"));
+
+    @Container
+    public static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + RegistroSentencias.class.getName(),
+                "notifications.email.enabled=false"
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    /**
+     * Guarda el SQL de cada sentencia que prepara Hibernate
+     */
+    public static class RegistroSentencias implements StatementInspector {
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private EntidadRepository entidadRepository;
+
+    @Autowired
+    private TipoTramiteRepository tipoTramiteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TramiteRepository tramiteRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Los datos se crean una vez para todas las pruebas (el contenedor es compartido) */
+    private static Long idEntidad;
+    private static Long idRevisor;
+    private static Long idTipo;
+
+    @BeforeEach
+    void setUp() {
+        if (idEntidad == null) {
+            crearDatos();
+        }
+        RegistroSentencias.SENTENCIAS.clear();
+    }
+
+    private void crearDatos() {
+        // Índices que solo existen en la migración (expresiones que @Index no puede declarar)
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V13__Add_indices_busqueda_tramites.sql")).execute(dataSource);
+
+        for (int i = 1; i <= ENTIDADES; i++) {
+            Entidad entidad = new Entidad();
+            entidad.setNombre("Secretaría de Planeación Búsqueda " + i);
+            entidad.setNit("90088" + String.format("%04d", i) + "-1");
+            entidad.setActivo(true);
+            entidad = entidadRepository.save(entidad);
+            if (idEntidad == null) {
+                idEntidad = entidad.getId();
+            }
+        }
+        for (int i = 1; i <= TIPOS; i++) {
+            TipoTramite tipoTramite = new TipoTramite();
+            tipoTramite.setNombre("Tipo de trámite búsqueda " + i);
+            tipoTramite = tipoTramiteRepository.save(tipoTramite);
+            if (idTipo == null) {
+                idTipo = tipoTramite.getIdTipoTramite();
+            }
+        }
+        Usuario solicitante = usuario("solicitante@busqueda.test", "SOLICITANTE", "2000");
+        for (int i = 1; i <= REVISORES; i++) {
+            Usuario revisor = usuario("revisor" + i + "@busqueda.gov.co", "REVISOR", String.valueOf(2000 + i));
+            if (idRevisor == null) {
+                idRevisor = revisor.getIdUsuario();
+            }
+        }
+
+        // Trámites repartidos entre entidades, estados, tipos, revisores (1 de cada 10 sin revisor),
+        // direcciones y plazos; insertados en bloque para que las estadísticas sean realistas
+        jdbcTemplate.update("""
+                INSERT INTO tramites (numero_radicacion, fecha_radicacion, direccion_inmueble, estado_actual,
+                                      fecha_creacion, fecha_limite_proximo, id_entidad, id_solicitante,
+                                      id_revisor_asignado, id_tipo_tramite)
+                SELECT 'BUSQ-' || g,
+                       DATE '2024-01-01' + (g % 700),
+                       'Calle ' || (g % 400) || ' # ' || (g % 97) || '-' || (g % 13),
+                       (ARRAY['RADICADO', 'ASIGNADO', 'EN_REVISION', 'PENDIENTE_DOCUMENTOS', 'APROBADO', 'RECHAZADO'])[1 + g % 6],
+                       now(),
+                       DATE '2025-01-01' + (g % 365),
+                       ? + (g % ?),
+                       ?,
+                       CASE WHEN g % 10 = 0 THEN NULL ELSE ? + (g % ?) END,
+                       ? + (g % ?)
+                FROM generate_series(1, ?) AS g
+                """, idEntidad, ENTIDADES, solicitante.getIdUsuario(), idRevisor, REVISORES, idTipo, TIPOS, TRAMITES);
+        jdbcTemplate.execute("ANALYZE tramites");
+    }
+
+    @Test
+    void soloEntidad_UsaIndiceDelListado() {
+        assertUsaIndice(EspecificacionesTramite.deEntidad(idEntidad), RECIENTES, "idx_tramite_entidad_listado");
+    }
+
+    @Test
+    void entidadYEstado_UsaIndiceDeEstado() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.enEstados(List.of(Tramite.EstadoTramite.EN_REVISION))),
+                RECIENTES, "idx_tramite_entidad_estado_listado");
+    }
+
+    @Test
+    void entidadYVariosEstados_UsaIndice() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.enEstados(List.of(
+                                Tramite.EstadoTramite.RADICADO, Tramite.EstadoTramite.ASIGNADO))),
+                RECIENTES, null);
+    }
+
+    @Test
+    void entidadYTipo_UsaIndiceDeTipo() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.deTipo(idTipo)),
+                RECIENTES, "idx_tramite_entidad_tipo_listado");
+    }
+
+    @Test
+    void entidadYRevisor_UsaIndice() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.asignadoA(idRevisor)),
+                RECIENTES, null);
+    }
+
+    @Test
+    void entidadRevisorYEstado_UsaIndiceDeRevisorYEstado() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.asignadoA(idRevisor))
+                        .and(EspecificacionesTramite.enEstados(List.of(Tramite.EstadoTramite.EN_REVISION))),
+                RECIENTES, "idx_tramite_entidad_revisor_estado");
+    }
+
+    @Test
+    void entidadSinRevisor_UsaIndice() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.sinRevisor()),
+                RECIENTES, null);
+    }
+
+    @Test
+    void entidadYDireccion_UsaIndiceDeDireccion() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.direccionEmpiezaPor("CALLE 12 #")),
+                RECIENTES, "idx_tramite_entidad_direccion");
+    }
+
+    @Test
+    void entidadYFechasDeRadicacion_UsaIndice() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.radicadoDesde(LocalDate.of(2024, 6, 1)))
+                        .and(EspecificacionesTramite.radicadoHasta(LocalDate.of(2024, 6, 30))),
+                RECIENTES, null);
+    }
+
+    @Test
+    void entidadEstadoYFechasDeRadicacion_UsaIndice() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.enEstados(List.of(Tramite.EstadoTramite.APROBADO)))
+                        .and(EspecificacionesTramite.radicadoDesde(LocalDate.of(2024, 6, 1)))
+                        .and(EspecificacionesTramite.radicadoHasta(LocalDate.of(2024, 6, 30))),
+                RECIENTES, null);
+    }
+
+    @Test
+    void entidadYVencimiento_UsaIndiceDeVencimiento() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.vencenHasta(LocalDate.of(2025, 1, 15))),
+                POR_VENCER, "idx_tramite_entidad_vencimiento");
+    }
+
+    @Test
+    void entidadEstadoYVencimiento_UsaIndice() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.enEstados(List.of(Tramite.EstadoTramite.EN_REVISION)))
+                        .and(EspecificacionesTramite.vencenHasta(LocalDate.of(2025, 1, 15))),
+                POR_VENCER, null);
+    }
+
+    @Test
+    void todosLosCriterios_UsaIndice() {
+        assertUsaIndice(Specification.where(EspecificacionesTramite.deEntidad(idEntidad))
+                        .and(EspecificacionesTramite.enEstados(List.of(Tramite.EstadoTramite.EN_REVISION)))
+                        .and(EspecificacionesTramite.deTipo(idTipo))
+                        .and(EspecificacionesTramite.asignadoA(idRevisor))
+                        .and(EspecificacionesTramite.direccionEmpiezaPor("calle 1"))
+                        .and(EspecificacionesTramite.radicadoDesde(LocalDate.of(2024, 1, 1)))
+                        .and(EspecificacionesTramite.vencenHasta(LocalDate.of(2025, 6, 30))),
+                POR_VENCER, null);
+    }
+
+    /**
+     * Ejecuta la búsqueda, toma su SQL y verifica con EXPLAIN que tramites se lee por un índice
+     * (el indicado, si no es null) y no por Seq Scan
+     */
+    private void assertUsaIndice(Specification<Tramite> especificacion, Sort orden, String indiceEsperado) {
+        tramiteRepository.findAll(especificacion, PageRequest.of(0, 20, orden));
+
+        String sql = RegistroSentencias.SENTENCIAS.stream()
+                .filter(s -> s.contains("from tramites") && !s.contains("count("))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("La búsqueda no consultó tramites: " + RegistroSentencias.SENTENCIAS));
+        // Con los criterios como literales solo quedan como parámetros el offset y el límite de la página
+        String sqlConLiterales = sql.replace("?", "20");
+
+        String plan = new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sqlConLiterales, String.class));
+        });
+
+        assertThat(plan).as("Plan de %s", sqlConLiterales).doesNotContain("Seq Scan on tramites");
+        assertThat(plan).as("Plan de %s", sqlConLiterales).containsPattern("Index (Only )?Scan .*on tramites|Bitmap Index Scan on idx_tramite");
+        if (indiceEsperado != null) {
+            assertThat(plan).as("Plan de %s", sqlConLiterales).contains(indiceEsperado);
+        }
+    }
+
+    private Usuario usuario(String correo, String rol, String documento) {
+        Usuario usuario = new Usuario();
+        usuario.setNombreCompleto("Usuario " + correo);
+        usuario.setCorreoElectronico(correo);
+        usuario.setTipoDocumento("CC");
+        usuario.setNumeroDocumento(documento);
+        usuario.setContrasena("password123");
+        usuario.setRol(rol);
+        usuario.setFechaCreacion(LocalDateTime.now());
+        usuario.setActivo(true);
+        return usuarioRepository.save(usuario);
+    }
+}
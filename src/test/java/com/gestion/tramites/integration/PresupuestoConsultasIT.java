@@ -0,0 +1,270 @@
+package com.gestion.tramites.integration;
+
+import com.gestion.tramites.dto.documentos.DocumentoResponseDTO;
+import com.gestion.tramites.dto.tramite.TramiteResponseDTO;
+import com.gestion.tramites.mapper.DocumentoMapper;
+import com.gestion.tramites.model.Documento;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.DocumentoRepository;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.TipoTramiteRepository;
+import com.gestion.tramites.repository.TramiteRepository;
+import com.gestion.tramites.repository.UsuarioRepository;
+import com.gestion.tramites.service.CustomUserDetails;
+import com.gestion.tramites.service.DocumentoService;
+import com.gestion.tramites.service.SeguimientoService;
+import com.gestion.tramites.service.TramiteService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Presupuesto de sentencias JDBC por caso de uso de lectura de trámites y documentos, medido contra
+ * un PostgreSQL real con las estadísticas de Hibernate.
+ *
+ * Listado y detalle usan la proyección a TramiteResponseDTO (un único SELECT, antes 1 + 4N por las
+ * relaciones LAZY). Consulta pública, cambios de estado y documentos por trámite usan los grafos de
+ * entidad de Tramite y Documento. Ningún presupuesto depende de cuántas filas se lean.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@ContextConfiguration(initializers = {PresupuestoConsultasIT.Initializer.class})
+class PresupuestoConsultasIT {
+
+    private static final int TRAMITES = 12;
+    private static final int DOCUMENTOS = 6;
+
+    private static final int PRESUPUESTO_LISTADO = 1;
+    private static final int PRESUPUESTO_DETALLE = 1;
+    private static final int PRESUPUESTO_CONSULTA_PUBLICA = 1;
+    /** Lectura con el grafo de detalle y el UPDATE */
+    private static final int PRESUPUESTO_CAMBIO_ESTADO = 2;
+    /** Validación de acceso al trámite y documentos con su trámite y usuario */
+    private static final int PRESUPUESTO_DOCUMENTOS_POR_TRAMITE = 2;
+
+    @Container
+    public static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.stat=WARN",
+                "notifications.email.enabled=false"
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    @Autowired
+    private TramiteService tramiteService;
+
+    @Autowired
+    private EntidadRepository entidadRepository;
+
+    @Autowired
+    private TipoTramiteRepository tipoTramiteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TramiteRepository tramiteRepository;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private SeguimientoService seguimientoService;
+
+    @Autowired
+    private DocumentoService documentoService;
+
+    @Autowired
+    private DocumentoMapper documentoMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /** Los datos se crean una vez para todas las pruebas (el contenedor es compartido) */
+    private static Long idPrimerTramite;
+    private static Long idUltimoTramite;
+    private static Usuario admin;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        if (idPrimerTramite == null) {
+            crearDatos();
+        }
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new CustomUserDetails(admin), null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN_GLOBAL"))));
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    private void crearDatos() {
+        Entidad entidad = new Entidad();
+        entidad.setNombre("Secretaría de Planeación Consultas");
+        entidad.setNit("900765432-1");
+        entidad.setCodigoDane("05001");
+        entidad.setEmail("planeacion@consultas.gov.co");
+        entidad.setActivo(true);
+        entidad = entidadRepository.save(entidad);
+
+        TipoTramite tipoTramite = new TipoTramite();
+        tipoTramite.setNombre("Licencia de Construcción Consultas");
+        tipoTramite = tipoTramiteRepository.save(tipoTramite);
+
+        Usuario solicitante = usuario("solicitante@consultas.test", "SOLICITANTE", entidad, "1001");
+        Usuario revisor = usuario("revisor@consultas.gov.co", "REVISOR", entidad, "1002");
+
+        for (int i = 1; i <= TRAMITES; i++) {
+            Tramite tramite = new Tramite();
+            tramite.setNumeroRadicacion("05001-0-25-" + String.format("%04d", i));
+            tramite.setObjetoTramite("Trámite de consulta " + i);
+            tramite.setEstadoActual(Tramite.EstadoTramite.ASIGNADO);
+            tramite.setEntidad(entidad);
+            tramite.setSolicitante(solicitante);
+            tramite.setRevisorAsignado(revisor);
+            tramite.setTipoTramite(tipoTramite);
+            tramite = tramiteRepository.save(tramite);
+            if (idPrimerTramite == null) {
+                idPrimerTramite = tramite.getIdTramite();
+            }
+            idUltimoTramite = tramite.getIdTramite();
+        }
+
+        Tramite primerTramite = tramiteRepository.getReferenceById(idPrimerTramite);
+        for (int i = 1; i <= DOCUMENTOS; i++) {
+            Documento documento = new Documento();
+            documento.setNombreArchivo("documento-" + i + ".pdf");
+            documento.setNombreOriginal("Plano " + i + ".pdf");
+            documento.setTipoMime("application/pdf");
+            documento.setExtension("pdf");
+            documento.setTamanoBytes(1024L * i);
+            documento.setRutaArchivo("/tmp/documentos/documento-" + i + ".pdf");
+            documento.setHashArchivo("hash-" + i);
+            documento.setTipoDocumento(Documento.TipoDocumento.PLANOS_ARQUITECTONICOS);
+            documento.setEntidad(entidad);
+            documento.setTramite(primerTramite);
+            // Usuarios distintos para que una carga por fila se note en el conteo
+            documento.setUsuarioSubida(i % 2 == 0 ? solicitante : revisor);
+            documentoRepository.save(documento);
+        }
+
+        admin = usuario("admin@consultas.gov.co", "ADMIN_GLOBAL", null, "1003");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void obtenerTramites_PaginaCompleta_UnaSolaSentenciaSinCargarEntidades() {
+        TramiteService.PaginaTramites pagina = tramiteService.obtenerTramites(null, null, TRAMITES);
+
+        assertThat(pagina.getTramites()).hasSize(TRAMITES);
+        TramiteResponseDTO primero = pagina.getTramites().get(0);
+        assertThat(primero.getNombreEntidad()).isEqualTo("Secretaría de Planeación Consultas");
+        assertThat(primero.getNombreSolicitante()).isEqualTo("Usuario solicitante@consultas.test");
+        assertThat(primero.getNombreRevisor()).isEqualTo("Usuario revisor@consultas.gov.co");
+        assertThat(primero.getNombreTipoTramite()).isEqualTo("Licencia de Construcción Consultas");
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(PRESUPUESTO_LISTADO);
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void obtenerTramitePorId_UnaSolaSentenciaSinCargarEntidades() {
+        TramiteResponseDTO tramite = tramiteService.obtenerTramitePorId(idPrimerTramite);
+
+        assertThat(tramite.getNumeroRadicacion()).isEqualTo("05001-0-25-0001");
+        assertThat(tramite.getCorreoSolicitante()).isEqualTo("solicitante@consultas.test");
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(PRESUPUESTO_DETALLE);
+        assertThat(estadisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void consultarPorNumeroRadicacion_DentroDelPresupuesto() {
+        SeguimientoService.ConsultaTramitePublico consulta =
+                seguimientoService.consultarPorNumeroRadicacion("05001-0-25-0002");
+
+        assertThat(consulta.getTipoTramite()).isEqualTo("Licencia de Construcción Consultas");
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(PRESUPUESTO_CONSULTA_PUBLICA);
+    }
+
+    @Test
+    void consultarPorEmailSolicitante_NoDependeDeCuantosTramitesTenga() {
+        List<SeguimientoService.ConsultaTramitePublico> consultas =
+                seguimientoService.consultarPorEmailSolicitante("solicitante@consultas.test");
+
+        assertThat(consultas).hasSize(TRAMITES);
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(PRESUPUESTO_CONSULTA_PUBLICA);
+    }
+
+    @Test
+    void actualizarEstado_DentroDelPresupuesto() {
+        TramiteResponseDTO tramite = tramiteService.actualizarEstado(idUltimoTramite,
+                Tramite.EstadoTramite.EN_REVISION, "Inicia la revisión");
+
+        assertThat(tramite.getNombreRevisor()).isEqualTo("Usuario revisor@consultas.gov.co");
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(PRESUPUESTO_CAMBIO_ESTADO);
+    }
+
+    @Test
+    void obtenerDocumentosPorTramite_NoDependeDeCuantosDocumentosTenga() {
+        // El mapeo ocurre fuera de la transacción, como en el controlador: si el grafo no trajera
+        // las relaciones, fallaría con LazyInitializationException
+        List<DocumentoResponseDTO> documentos = documentoService.obtenerDocumentosPorTramite(idPrimerTramite)
+                .stream().map(documentoMapper::toResponseDTO).toList();
+
+        assertThat(documentos).hasSize(DOCUMENTOS);
+        assertThat(documentos).extracting(DocumentoResponseDTO::getNombreUsuarioSubida)
+                .contains("Usuario solicitante@consultas.test", "Usuario revisor@consultas.gov.co");
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(PRESUPUESTO_DOCUMENTOS_POR_TRAMITE);
+    }
+
+    private Usuario usuario(String correo, String rol, Entidad entidad, String documento) {
+        Usuario usuario = new Usuario();
+        usuario.setNombreCompleto("Usuario " + correo);
+        usuario.setCorreoElectronico(correo);
+        usuario.setTipoDocumento("CC");
+        usuario.setNumeroDocumento(documento);
+        usuario.setContrasena("password123");
+        usuario.setRol(rol);
+        usuario.setEntidad(entidad);
+        usuario.setFechaCreacion(LocalDateTime.now());
+        usuario.setActivo(true);
+        return usuarioRepository.save(usuario);
+    }
+}
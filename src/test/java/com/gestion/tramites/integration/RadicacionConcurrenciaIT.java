@@ -0,0 +1,287 @@
+package com.gestion.tramites.integration;
+
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.TipoTramiteRepository;
+import com.gestion.tramites.repository.UsuarioRepository;
+import com.gestion.tramites.service.CustomUserDetails;
+import com.gestion.tramites.service.RadicacionService;
+import com.gestion.tramites.service.ValidacionRadicacionService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga y corrección de la radicación concurrente.
+ *
+ * Lanza miles de radicaciones desde hilos virtuales sobre varias entidades contra un PostgreSQL
+ * real y reporta throughput, percentiles de latencia, tiempo estimado en espera de locks, fallos
+ * de serialización/deadlock y los problemas de secuencia que detecta la auditoría. Sirve para
+ * comparar estrategias de numeración antes de desplegarlas; no corre con la suite normal.
+ *
+ * Ejemplo:
+ *   mvn test -Dtest=RadicacionConcurrenciaIT -Dcarga.radicaciones=5000 -Dcarga.entidades=50 \
+ *       -Dcarga.tamano-bloque=20 -Dcarga.pool=30
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@ContextConfiguration(initializers = {RadicacionConcurrenciaIT.Initializer.class})
+class RadicacionConcurrenciaIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(RadicacionConcurrenciaIT.class);
+
+    private static final int RADICACIONES = Integer.getInteger("carga.radicaciones", 2000);
+    private static final int ENTIDADES = Integer.getInteger("carga.entidades", 20);
+    private static final String TAMANO_BLOQUE = System.getProperty("carga.tamano-bloque", "1");
+    private static final String TAMANO_POOL = System.getProperty("carga.pool", "20");
+    private static final long INTERVALO_MUESTREO_MS = 10;
+
+    @Container
+    public static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                "spring.datasource.hikari.maximum-pool-size=" + TAMANO_POOL,
+                "spring.datasource.hikari.connection-timeout=120000",
+                "spring.jpa.show-sql=false",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "logging.level.com.gestion.tramites=WARN",
+                "notifications.email.enabled=false",
+                "radicacion.consecutivos.tamano-bloque=" + TAMANO_BLOQUE
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    @Autowired
+    private RadicacionService radicacionService;
+
+    @Autowired
+    private ValidacionRadicacionService validacionService;
+
+    @Autowired
+    private EntidadRepository entidadRepository;
+
+    @Autowired
+    private TipoTramiteRepository tipoTramiteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void radicacionConcurrente_SinDuplicadosNiSaltosInexplicados() throws Exception {
+        List<Entidad> entidades = crearEntidades();
+        TipoTramite tipoTramite = crearTipoTramite();
+        CustomUserDetails ventanilla = new CustomUserDetails(crearUsuarioVentanilla(entidades.get(0)));
+
+        long[] latenciasNs = new long[RADICACIONES];
+        Arrays.fill(latenciasNs, -1);
+        Set<String> numerosAsignados = ConcurrentHashMap.newKeySet();
+        AtomicInteger numerosRepetidos = new AtomicInteger();
+        Map<String, AtomicInteger> errores = new ConcurrentHashMap<>();
+        ConcurrentLinkedQueue<String> ejemplosError = new ConcurrentLinkedQueue<>();
+
+        AtomicLong esperaLocksMs = new AtomicLong();
+        AtomicInteger maximoEnEspera = new AtomicInteger();
+        ScheduledExecutorService muestreo = Executors.newSingleThreadScheduledExecutor();
+        Connection conexionMuestreo = dataSource.getConnection();
+        muestreo.scheduleAtFixedRate(() -> {
+            int enEspera = contarSesionesEsperandoLock(conexionMuestreo);
+            esperaLocksMs.addAndGet(enEspera * INTERVALO_MUESTREO_MS);
+            maximoEnEspera.accumulateAndGet(enEspera, Math::max);
+        }, 0, INTERVALO_MUESTREO_MS, TimeUnit.MILLISECONDS);
+
+        CountDownLatch inicio = new CountDownLatch(1);
+        long inicioNs;
+        long duracionNs;
+        try (ExecutorService hilosVirtuales = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < RADICACIONES; i++) {
+                final int indice = i;
+                hilosVirtuales.submit(() -> {
+                    RadicacionService.SolicitudRadicacionTramite solicitud = new RadicacionService.SolicitudRadicacionTramite();
+                    solicitud.setEntidadId(entidades.get(indice % entidades.size()).getId());
+                    solicitud.setTipoTramiteId(tipoTramite.getIdTipoTramite());
+                    solicitud.setObjetoTramite("Radicación de carga " + indice);
+                    solicitud.setSolicitanteEmail("solicitante" + indice + "@carga.test");
+
+                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                            ventanilla, null, List.of(new SimpleGrantedAuthority("ROLE_VENTANILLA_UNICA"))));
+                    try {
+                        inicio.await();
+                        long t0 = System.nanoTime();
+                        String numero = radicacionService.radicarTramite(solicitud).getNumeroRadicacion();
+                        latenciasNs[indice] = System.nanoTime() - t0;
+                        if (!numerosAsignados.add(numero)) {
+                            numerosRepetidos.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        String categoria = clasificarError(e);
+                        errores.computeIfAbsent(categoria, k -> new AtomicInteger()).incrementAndGet();
+                        if (ejemplosError.size() < 5) {
+                            ejemplosError.add(categoria + ": " + e.getMessage());
+                        }
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                    return null;
+                });
+            }
+            inicioNs = System.nanoTime();
+            inicio.countDown();
+        }
+        duracionNs = System.nanoTime() - inicioNs;
+        muestreo.shutdownNow();
+        muestreo.awaitTermination(5, TimeUnit.SECONDS);
+        conexionMuestreo.close();
+
+        // Auditoría de secuencia de cada entidad
+        Map<ValidacionRadicacionService.TipoProblema, Integer> problemas =
+                new EnumMap<>(ValidacionRadicacionService.TipoProblema.class);
+        int anoActual = LocalDate.now().getYear();
+        for (Entidad entidad : entidades) {
+            for (ValidacionRadicacionService.ProblemaConsecutivo problema :
+                    validacionService.detectarProblemasSecuencia(entidad, anoActual)) {
+                problemas.merge(problema.getTipoProblema(), 1, Integer::sum);
+            }
+        }
+
+        long[] exitosas = Arrays.stream(latenciasNs).filter(l -> l >= 0).sorted().toArray();
+        double segundos = duracionNs / 1_000_000_000.0;
+
+        StringBuilder reporte = new StringBuilder();
+        reporte.append(String.format("%n=== Radicación concurrente: %d solicitudes, %d entidades, bloque %s, pool %s ===%n",
+                RADICACIONES, ENTIDADES, TAMANO_BLOQUE, TAMANO_POOL));
+        reporte.append(String.format("Exitosas: %d | Fallidas: %d | Duración: %.2f s | Throughput: %.1f radicaciones/s%n",
+                exitosas.length, RADICACIONES - exitosas.length, segundos, exitosas.length / segundos));
+        reporte.append(String.format("Latencia ms -> p50: %.1f | p95: %.1f | p99: %.1f | máx: %.1f%n",
+                percentilMs(exitosas, 50), percentilMs(exitosas, 95), percentilMs(exitosas, 99), percentilMs(exitosas, 100)));
+        reporte.append(String.format("Espera por locks (muestreo cada %d ms) -> total estimado: %d ms | máx. sesiones en espera: %d%n",
+                INTERVALO_MUESTREO_MS, esperaLocksMs.get(), maximoEnEspera.get()));
+        reporte.append(String.format("Errores por tipo: %s%n", errores));
+        ejemplosError.forEach(ejemplo -> reporte.append("  ").append(ejemplo).append(System.lineSeparator()));
+        reporte.append(String.format("Números repetidos entregados: %d | Problemas de secuencia: %s%n",
+                numerosRepetidos.get(), problemas));
+        logger.warn(reporte.toString());
+
+        assertThat(numerosRepetidos.get()).isZero();
+        assertThat(problemas.getOrDefault(ValidacionRadicacionService.TipoProblema.DUPLICADO, 0)).isZero();
+        assertThat(problemas.getOrDefault(ValidacionRadicacionService.TipoProblema.SALTO_SECUENCIA, 0)).isZero();
+    }
+
+    /**
+     * Clasifica el error por SQLState: 40001 (serialización), 40P01 (deadlock), 55P03 (lock no disponible)
+     */
+    private String clasificarError(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return switch (sqlException.getSQLState()) {
+                    case "40001" -> "SERIALIZACION";
+                    case "40P01" -> "DEADLOCK";
+                    case "55P03" -> "LOCK_NO_DISPONIBLE";
+                    default -> "SQL_" + sqlException.getSQLState();
+                };
+            }
+        }
+        return error.getClass().getSimpleName();
+    }
+
+    private int contarSesionesEsperandoLock(Connection conexion) {
+        try (Statement statement = conexion.createStatement();
+             ResultSet resultado = statement.executeQuery(
+                     "SELECT count(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'")) {
+            return resultado.next() ? resultado.getInt(1) : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    private double percentilMs(long[] ordenadas, int percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int posicion = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(posicion, ordenadas.length - 1))] / 1_000_000.0;
+    }
+
+    private List<Entidad> crearEntidades() {
+        List<Entidad> entidades = new ArrayList<>();
+        for (int i = 0; i < ENTIDADES; i++) {
+            Entidad entidad = new Entidad();
+            entidad.setNombre("Secretaría de Planeación de Carga " + i);
+            entidad.setNit(String.format("9%08d-1", i));
+            entidad.setCodigoDane(String.format("%05d", 10000 + i));
+            entidad.setEmail("planeacion" + i + "@carga.gov.co");
+            entidad.setActivo(true);
+            entidades.add(entidad);
+        }
+        return entidadRepository.saveAll(entidades);
+    }
+
+    private TipoTramite crearTipoTramite() {
+        TipoTramite tipo = new TipoTramite();
+        tipo.setNombre("Licencia de Construcción Carga");
+        tipo.setDescripcion("Tipo de trámite para la prueba de carga");
+        tipo.setActivo(true);
+        return tipoTramiteRepository.save(tipo);
+    }
+
+    private Usuario crearUsuarioVentanilla(Entidad entidad) {
+        Usuario usuario = new Usuario();
+        usuario.setNombreCompleto("Ventanilla de Carga");
+        usuario.setCorreoElectronico("ventanilla@carga.gov.co");
+        usuario.setTipoDocumento("CC");
+        usuario.setNumeroDocumento("2001");
+        usuario.setContrasena("password123");
+        usuario.setRol(Usuario.Rol.VENTANILLA_UNICA);
+        usuario.setEntidad(entidad);
+        usuario.setFechaCreacion(LocalDateTime.now());
+        usuario.setActivo(true);
+        return usuarioRepository.save(usuario);
+    }
+}
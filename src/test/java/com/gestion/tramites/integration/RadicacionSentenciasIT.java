@@ -0,0 +1,141 @@
+package com.gestion.tramites.integration;
+
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.TipoTramiteRepository;
+import com.gestion.tramites.repository.UsuarioRepository;
+import com.gestion.tramites.service.CustomUserDetails;
+import com.gestion.tramites.service.RadicacionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cuenta las sentencias JDBC que ejecuta una radicación contra un PostgreSQL real, usando las
+ * estadísticas de Hibernate. En el camino normal (entidad y tipo de trámite ya en caché,
+ * solicitante existente) una radicación no debe pasar de tres sentencias: la asignación del
+ * consecutivo, la búsqueda del solicitante y la inserción del trámite.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@ContextConfiguration(initializers = {RadicacionSentenciasIT.Initializer.class})
+class RadicacionSentenciasIT {
+
+    private static final int MAXIMO_SENTENCIAS_RADICACION = 3;
+
+    @Container
+    public static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.org.hibernate.stat=WARN",
+                "notifications.email.enabled=false",
+                "radicacion.consecutivos.tamano-bloque=1"
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    @Autowired
+    private RadicacionService radicacionService;
+
+    @Autowired
+    private EntidadRepository entidadRepository;
+
+    @Autowired
+    private TipoTramiteRepository tipoTramiteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Entidad entidad;
+    private TipoTramite tipoTramite;
+
+    @BeforeEach
+    void setUp() {
+        entidad = new Entidad();
+        entidad.setNombre("Secretaría de Planeación Sentencias");
+        entidad.setNit("900123456-7");
+        entidad.setCodigoDane("11001");
+        entidad.setEmail("planeacion@sentencias.gov.co");
+        entidad.setActivo(true);
+        entidad = entidadRepository.save(entidad);
+
+        tipoTramite = new TipoTramite();
+        tipoTramite.setNombre("Licencia de Construcción Sentencias");
+        tipoTramite = tipoTramiteRepository.save(tipoTramite);
+
+        Usuario ventanilla = new Usuario();
+        ventanilla.setNombreCompleto("Ventanilla Sentencias");
+        ventanilla.setCorreoElectronico("ventanilla@sentencias.gov.co");
+        ventanilla.setTipoDocumento("CC");
+        ventanilla.setNumeroDocumento("5001");
+        ventanilla.setContrasena("password123");
+        ventanilla.setRol(Usuario.Rol.VENTANILLA_UNICA);
+        ventanilla.setEntidad(entidad);
+        ventanilla.setFechaCreacion(LocalDateTime.now());
+        ventanilla.setActivo(true);
+        ventanilla = usuarioRepository.save(ventanilla);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new CustomUserDetails(ventanilla), null, List.of(new SimpleGrantedAuthority("ROLE_VENTANILLA_UNICA"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void radicarTramite_CaminoNormal_NoPasaDeTresSentencias() {
+        // La primera radicación carga la entidad y el tipo en sus cachés y crea el solicitante
+        radicacionService.radicarTramite(solicitud("Radicación de calentamiento"));
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        String numero = radicacionService.radicarTramite(solicitud("Radicación medida")).getNumeroRadicacion();
+
+        assertThat(numero).endsWith("0002");
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(MAXIMO_SENTENCIAS_RADICACION);
+        assertThat(estadisticas.getEntityLoadCount()).isLessThanOrEqualTo(1);
+    }
+
+    private RadicacionService.SolicitudRadicacionTramite solicitud(String objeto) {
+        RadicacionService.SolicitudRadicacionTramite solicitud = new RadicacionService.SolicitudRadicacionTramite();
+        solicitud.setEntidadId(entidad.getId());
+        solicitud.setTipoTramiteId(tipoTramite.getIdTipoTramite());
+        solicitud.setObjetoTramite(objeto);
+        solicitud.setSolicitanteEmail("ciudadano@sentencias.test");
+        return solicitud;
+    }
+}
@@ -0,0 +1,125 @@
+package com.gestion.tramites.integration;
+
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.UsuarioRepository;
+import com.gestion.tramites.service.BarridoReservasRadicacion;
+import com.gestion.tramites.service.CustomUserDetails;
+import com.gestion.tramites.service.RadicacionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ciclo de vida de una reserva de número de radicación contra un PostgreSQL real: una reserva
+ * vencida devuelve su consecutivo al pool y la siguiente reserva de la entidad lo vuelve a tomar
+ * sin violar la restricción única de numero_radicacion.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@ContextConfiguration(initializers = {ReservasRadicacionIT.Initializer.class})
+class ReservasRadicacionIT {
+
+    @Container
+    public static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                "notifications.email.enabled=false"
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    @Autowired
+    private RadicacionService radicacionService;
+
+    @Autowired
+    private BarridoReservasRadicacion barridoReservas;
+
+    @Autowired
+    private EntidadRepository entidadRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void reservaVencida_SuNumeroSeVuelveAReservarSinViolarLaRestriccionUnica() {
+        Entidad entidad = new Entidad();
+        entidad.setNombre("Secretaría de Planeación Reservas");
+        entidad.setNit("900555666-1");
+        entidad.setCodigoDane("05001");
+        entidad.setEmail("planeacion@reservas.gov.co");
+        entidad.setActivo(true);
+        entidad = entidadRepository.save(entidad);
+        autenticar(ventanilla(entidad));
+
+        RadicacionService.ReservaRadicacion primera =
+                radicacionService.reservarNumeroRadicacion(entidad.getId(), "Radicación presencial");
+
+        // Vence la reserva (fecha_expiracion debe seguir siendo posterior a fecha_reserva)
+        jdbcTemplate.update("UPDATE reservas_radicacion SET fecha_reserva = ?, fecha_expiracion = ? WHERE id_reserva = ?",
+                LocalDateTime.now().minusHours(2), LocalDateTime.now().minusHours(1), primera.getIdReserva());
+        assertThat(barridoReservas.liberarReservasVencidas()).isEqualTo(1);
+
+        RadicacionService.ReservaRadicacion segunda =
+                radicacionService.reservarNumeroRadicacion(entidad.getId(), "Radicación presencial");
+
+        assertThat(segunda.getNumeroRadicacion()).isEqualTo(primera.getNumeroRadicacion());
+        assertThat(segunda.getEstado()).isEqualTo("RESERVADO");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM reservas_radicacion WHERE numero_radicacion = ?",
+                Integer.class, primera.getNumeroRadicacion())).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM consecutivos_liberados WHERE entidad_id = ?",
+                Integer.class, entidad.getId())).isZero();
+    }
+
+    private Usuario ventanilla(Entidad entidad) {
+        Usuario usuario = new Usuario();
+        usuario.setNombreCompleto("Ventanilla de Reservas");
+        usuario.setCorreoElectronico("ventanilla@reservas.gov.co");
+        usuario.setTipoDocumento("CC");
+        usuario.setNumeroDocumento("4001");
+        usuario.setContrasena("password123");
+        usuario.setRol(Usuario.Rol.VENTANILLA_UNICA);
+        usuario.setEntidad(entidad);
+        usuario.setFechaCreacion(LocalDateTime.now());
+        usuario.setActivo(true);
+        return usuarioRepository.save(usuario);
+    }
+
+    private void autenticar(Usuario usuario) {
+        CustomUserDetails usuarioActual = new CustomUserDetails(usuario);
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(usuarioActual, null, usuarioActual.getAuthorities())));
+    }
+}
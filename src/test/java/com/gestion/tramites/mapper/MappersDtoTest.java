@@ -0,0 +1,114 @@
+package com.gestion.tramites.mapper;
+
+import com.gestion.tramites.dto.UsuarioResponseDTO;
+import com.gestion.tramites.dto.documentos.DocumentoResponseDTO;
+import com.gestion.tramites.dto.tramite.TramiteResponseDTO;
+import com.gestion.tramites.model.Documento;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappersDtoTest {
+
+    private final TramiteMapper tramiteMapper = new TramiteMapperImpl();
+    private final UsuarioMapper usuarioMapper = new UsuarioMapperImpl();
+    private final DocumentoMapper documentoMapper = new DocumentoMapperImpl();
+
+    private Entidad entidad;
+    private Usuario solicitante;
+    private Tramite tramite;
+
+    @BeforeEach
+    void setUp() {
+        entidad = new Entidad();
+        entidad.setId(1L);
+        entidad.setNombre("Secretaría de Planeación");
+        entidad.setNit("900123456-7");
+        entidad.setDireccion("Calle 1 # 2-3");
+        entidad.setActivo(true);
+
+        solicitante = new Usuario();
+        solicitante.setIdUsuario(50L);
+        solicitante.setNombreCompleto("Ana Ciudadana");
+        solicitante.setCorreoElectronico("ana@correo.com");
+        solicitante.setContrasena("secreta");
+        solicitante.setRol(Usuario.Rol.SOLICITANTE);
+        solicitante.setEntidad(entidad);
+
+        TipoTramite tipoTramite = new TipoTramite();
+        tipoTramite.setIdTipoTramite(3L);
+        tipoTramite.setNombre("Licencia de Construcción");
+
+        tramite = new Tramite();
+        tramite.setIdTramite(100L);
+        tramite.setNumeroRadicacion("11001-0-25-0001");
+        tramite.setFechaRadicacion(LocalDate.of(2025, 3, 10));
+        tramite.setEstadoActual(Tramite.EstadoTramite.RADICADO);
+        tramite.setEntidad(entidad);
+        tramite.setSolicitante(solicitante);
+        tramite.setTipoTramite(tipoTramite);
+    }
+
+    @Test
+    void tramiteMapper_CopiaCamposYRelacionesSinRevisor() {
+        TramiteResponseDTO dto = tramiteMapper.toResponseDTO(tramite);
+
+        assertEquals(100L, dto.getIdTramite());
+        assertEquals("11001-0-25-0001", dto.getNumeroRadicacion());
+        assertEquals(Tramite.EstadoTramite.RADICADO, dto.getEstadoActual());
+        assertEquals(1L, dto.getIdEntidad());
+        assertEquals("Secretaría de Planeación", dto.getNombreEntidad());
+        assertEquals(50L, dto.getIdSolicitante());
+        assertEquals("ana@correo.com", dto.getCorreoSolicitante());
+        assertEquals("Licencia de Construcción", dto.getNombreTipoTramite());
+        assertNull(dto.getIdRevisorAsignado());
+        assertNull(dto.getNombreRevisor());
+        assertNull(dto.getNombreModalidadTramite());
+    }
+
+    @Test
+    void usuarioMapper_ResumeLaEntidadYNoExponeLaContrasena() {
+        UsuarioResponseDTO dto = usuarioMapper.toResponseDto(solicitante);
+
+        assertEquals("SOLICITANTE", dto.getRol());
+        assertEquals(1L, dto.getEntidad().getId());
+        assertEquals("900123456-7", dto.getEntidad().getNit());
+        assertTrue(dto.getEntidad().isActivo());
+        assertNull(dto.getEntidad().getDireccion());
+    }
+
+    @Test
+    void documentoMapper_CopiaTramiteUsuarioYVersionPadre() {
+        Documento padre = new Documento();
+        padre.setIdDocumento(7L);
+
+        Documento documento = new Documento();
+        documento.setIdDocumento(8L);
+        documento.setNombreOriginal("plano.pdf");
+        documento.setTamanoBytes(2048L);
+        documento.setTipoDocumento(Documento.TipoDocumento.PLANOS_ARQUITECTONICOS);
+        documento.setEstado(Documento.EstadoDocumento.ACTIVO);
+        documento.setTramite(tramite);
+        documento.setUsuarioSubida(solicitante);
+        documento.setDocumentoPadre(padre);
+
+        DocumentoResponseDTO dto = documentoMapper.toResponseDTO(documento);
+
+        assertEquals(8L, dto.getId());
+        assertEquals("PLANOS_ARQUITECTONICOS", dto.getTipoDocumento());
+        assertEquals(Documento.TipoDocumento.PLANOS_ARQUITECTONICOS.getDescripcion(), dto.getDescripcionTipoDocumento());
+        assertEquals("ACTIVO", dto.getEstado());
+        assertEquals(documento.getTamanoLegible(), dto.getTamanoLegible());
+        assertEquals(100L, dto.getTramiteId());
+        assertEquals("11001-0-25-0001", dto.getNumeroRadicacionTramite());
+        assertEquals("Ana Ciudadana", dto.getNombreUsuarioSubida());
+        assertEquals(7L, dto.getDocumentoPadreId());
+    }
+}
@@ -0,0 +1,139 @@
+package com.gestion.tramites.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumeroRadicacionTest {
+
+    private static final ConsecutivoRadicacion.TipoEntidadRadicacion SECRETARIA =
+            ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA;
+    private static final ConsecutivoRadicacion.TipoEntidadRadicacion CURADURIA =
+            ConsecutivoRadicacion.TipoEntidadRadicacion.CURADURIA;
+
+    @Test
+    void parsear_ExtraeLosComponentes() {
+        long secretaria = NumeroRadicacion.parsear("11001-0-25-0042");
+        assertEquals(11001, NumeroRadicacion.codigoDane(secretaria));
+        assertEquals(SECRETARIA, NumeroRadicacion.tipoEntidad(secretaria));
+        assertEquals(25, NumeroRadicacion.anoCorto(secretaria));
+        assertEquals(42, NumeroRadicacion.consecutivo(secretaria));
+
+        long curaduria = NumeroRadicacion.parsear("  05001-cur-24-9999 ");
+        assertEquals(5001, NumeroRadicacion.codigoDane(curaduria));
+        assertEquals(CURADURIA, NumeroRadicacion.tipoEntidad(curaduria));
+        assertEquals(24, NumeroRadicacion.anoCorto(curaduria));
+        assertEquals(9999, NumeroRadicacion.consecutivo(curaduria));
+    }
+
+    @Test
+    void parsear_RechazaFormatosInvalidos() {
+        String[] invalidos = {
+            null, "", "   ", "1100-0-25-0001", "110011-0-25-0001", "11001-1-25-0001", "11001-CURA-25-0001",
+            "11001-0-2025-0001", "11001-0-25-001", "11001-0-25-00000001", "11001_0_25_0001", "11001-0-25-00a1",
+            "11001-0-25-0001-", "11001 -0-25-0001"
+        };
+        for (String invalido : invalidos) {
+            assertEquals(NumeroRadicacion.INVALIDO, NumeroRadicacion.parsear(invalido), "Debe rechazar: " + invalido);
+        }
+    }
+
+    @Test
+    void formatear_ProduceElTextoOficial() {
+        assertEquals("11001-0-25-0001", NumeroRadicacion.formatear("11001", SECRETARIA, 2025, 1));
+        assertEquals("05001-CUR-25-0420", NumeroRadicacion.formatear("05001", CURADURIA, 2025, 420));
+        assertEquals("76001-0-30-12345", NumeroRadicacion.formatear("76001", SECRETARIA, 2030, 12345));
+    }
+
+    @Test
+    void parsear_AceptaConsecutivosDeCuatroASieteDigitos() {
+        long cinco = NumeroRadicacion.parsear("11001-0-25-00001");
+        assertEquals(1, NumeroRadicacion.consecutivo(cinco));
+        assertEquals(5, NumeroRadicacion.digitosConsecutivo(cinco));
+
+        long siete = NumeroRadicacion.parsear("11001-CUR-25-1234567");
+        assertEquals(1234567, NumeroRadicacion.consecutivo(siete));
+        assertEquals(7, NumeroRadicacion.digitosConsecutivo(siete));
+        assertEquals(NumeroRadicacion.LONGITUD_MAXIMA, "11001-CUR-25-1234567".length());
+
+        assertEquals(4, NumeroRadicacion.digitosConsecutivo(NumeroRadicacion.parsear("11001-0-25-0001")));
+        assertNotEquals(NumeroRadicacion.parsear("11001-0-25-0001"), cinco);
+    }
+
+    @Test
+    void formatear_UsaElAnchoDeLaEntidad() {
+        assertEquals("11001-0-25-000001", NumeroRadicacion.formatear("11001", SECRETARIA, 2025, 1, 6));
+        assertEquals("11001-0-25-1234567", NumeroRadicacion.formatear("11001", SECRETARIA, 2025, 1234567, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> NumeroRadicacion.formatear("11001", SECRETARIA, 2025, 1, 8));
+        assertThrows(IllegalArgumentException.class,
+                () -> NumeroRadicacion.formatear("11001", SECRETARIA, 2025, NumeroRadicacion.CONSECUTIVO_MAXIMO + 1));
+        assertEquals(99999, NumeroRadicacion.consecutivoMaximo(5));
+    }
+
+    @Test
+    void parsearYFormatear_SonInversos() {
+        for (String numero : new String[] {"11001-0-25-0001", "05001-CUR-25-0420", "00001-0-00-9999",
+                                           "11001-0-25-00042", "11001-0-25-10000", "05001-CUR-25-9999999"}) {
+            long valor = NumeroRadicacion.parsear(numero);
+            assertEquals(numero, NumeroRadicacion.formatear(valor));
+            assertEquals(numero, NumeroRadicacion.escribir(new StringBuilder(), valor).toString());
+            assertEquals(numero, NumeroRadicacion.de(numero).toString());
+        }
+        assertEquals("08001-CUR-25-1234", NumeroRadicacion.formatear(NumeroRadicacion.parsear("08001-cur-25-1234")));
+    }
+
+    @Test
+    void empaquetar_OrdenaPorEntidadTipoAnoYConsecutivo() {
+        long primero = NumeroRadicacion.empaquetar(11001, SECRETARIA, 25, 9999);
+        long segundo = NumeroRadicacion.empaquetar(11001, SECRETARIA, 26, 1);
+        long tercero = NumeroRadicacion.empaquetar(11001, CURADURIA, 20, 1);
+        long cuarto = NumeroRadicacion.empaquetar(11002, SECRETARIA, 20, 1);
+
+        assertTrue(primero < segundo && segundo < tercero && tercero < cuarto);
+        assertEquals(NumeroRadicacion.de(primero), NumeroRadicacion.de("11001-0-25-9999"));
+    }
+
+    @Test
+    void de_TextoInvalido_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> NumeroRadicacion.de("11001-X-25-0001"));
+    }
+
+    @Test
+    void consecutivoRadicacion_UsaElCodec() {
+        ConsecutivoRadicacion consecutivo = new ConsecutivoRadicacion();
+        consecutivo.setCodigoDane("11001");
+        consecutivo.setTipoEntidad(SECRETARIA);
+        consecutivo.setAno(2025);
+        consecutivo.setUltimoConsecutivo(7);
+
+        assertEquals("11001-0-25-0008", consecutivo.generarSiguienteRadicacion());
+        assertTrue(consecutivo.correspondeAEsteConsecutivo("11001-0-25-0001"));
+        assertFalse(consecutivo.correspondeAEsteConsecutivo("11001-CUR-25-0001"));
+        assertFalse(consecutivo.correspondeAEsteConsecutivo("11001-0-24-0001"));
+        assertEquals(8, ConsecutivoRadicacion.extraerConsecutivo("11001-0-25-0008"));
+        assertEquals(123456, ConsecutivoRadicacion.extraerConsecutivo("11001-0-25-123456"));
+
+        Entidad entidad = new Entidad();
+        entidad.setDigitosConsecutivo(6);
+        consecutivo.setEntidad(entidad);
+        assertEquals("11001-0-25-000008", consecutivo.generarSiguienteRadicacion());
+        assertThrows(IllegalArgumentException.class, () -> entidad.setDigitosConsecutivo(8));
+        assertNull(ConsecutivoRadicacion.extraerConsecutivo("no-es-un-numero"));
+    }
+
+    @Test
+    void tramite_DerivaLosComponentesDelNumero() {
+        Tramite tramite = new Tramite();
+        tramite.setNumeroRadicacion("05001-CUR-25-0420");
+
+        assertEquals("05001", tramite.getCodigoDane());
+        assertEquals(CURADURIA, tramite.getTipoRadicacion());
+        assertEquals(2025, tramite.getAnoRadicacion());
+        assertEquals(420, tramite.getConsecutivo());
+
+        tramite.setNumeroRadicacion("RAD-ANTIGUO-1");
+        assertNull(tramite.getCodigoDane());
+        assertNull(tramite.getConsecutivo());
+    }
+}
@@ -0,0 +1,183 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoLiberado;
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.repository.ConsecutivoLiberadoRepository;
+import com.gestion.tramites.repository.ConsecutivoRadicacionRepository;
+import com.gestion.tramites.repository.EntidadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsignadorBloquesRadicacionTest {
+
+    private static final ConsecutivoRadicacion.TipoEntidadRadicacion SECRETARIA =
+            ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA;
+
+    @Mock
+    private ConsecutivoRadicacionRepository consecutivoRepository;
+
+    @Mock
+    private ConsecutivoLiberadoRepository consecutivoLiberadoRepository;
+
+    @Mock
+    private EntidadRepository entidadRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AsignadorBloquesRadicacion asignador;
+
+    private EntidadSnapshot entidad;
+    private int ultimoConsecutivo;
+
+    @BeforeEach
+    void setUp() {
+        Entidad datos = new Entidad();
+        datos.setId(1L);
+        datos.setNombre("Secretaría de Planeación");
+        datos.setCodigoDane("11001");
+        entidad = EntidadSnapshot.de(datos, 0);
+
+        ultimoConsecutivo = 0;
+
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(consecutivoLiberadoRepository.tomarConsecutivoLiberado(anyLong(), anyString(), anyInt()))
+                .thenReturn(null);
+        lenient().when(consecutivoRepository.avanzarConsecutivo(eq(1L), eq("11001"), eq("SECRETARIA"), eq(2025), anyInt()))
+                .thenAnswer(invocation -> {
+                    ultimoConsecutivo += invocation.<Integer>getArgument(4);
+                    return ultimoConsecutivo;
+                });
+        lenient().when(consecutivoRepository.tomarLiberadoOAvanzarConsecutivo(1L, "11001", "SECRETARIA", 2025))
+                .thenAnswer(invocation -> ++ultimoConsecutivo);
+    }
+
+    @Test
+    void asignarNumeroRadicacion_SinBloques_UnaSentenciaPorNumero() {
+        ReflectionTestUtils.setField(asignador, "tamanoBloque", 1);
+
+        assertEquals("11001-0-25-0001", asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025));
+        assertEquals("11001-0-25-0002", asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025));
+
+        verify(consecutivoRepository, times(2)).tomarLiberadoOAvanzarConsecutivo(1L, "11001", "SECRETARIA", 2025);
+        verify(consecutivoRepository, never()).avanzarConsecutivo(anyLong(), anyString(), anyString(), anyInt(), anyInt());
+        verify(consecutivoLiberadoRepository, never()).tomarConsecutivoLiberado(anyLong(), anyString(), anyInt());
+        verify(consecutivoRepository, never()).save(any());
+        verifyNoInteractions(entidadRepository);
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void asignarNumeroRadicacion_ContadorInactivo_LanzaExcepcion() {
+        ReflectionTestUtils.setField(asignador, "tamanoBloque", 1);
+        when(consecutivoRepository.tomarLiberadoOAvanzarConsecutivo(1L, "11001", "SECRETARIA", 2025)).thenReturn(null);
+
+        assertThrows(IllegalStateException.class,
+                () -> asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025));
+    }
+
+    @Test
+    void asignarNumeroRadicacion_ConConsecutivoLiberado_LoReutilizaSinAvanzarContador() {
+        ReflectionTestUtils.setField(asignador, "tamanoBloque", 5);
+        when(consecutivoLiberadoRepository.tomarConsecutivoLiberado(1L, "SECRETARIA", 2025)).thenReturn(3, (Integer) null);
+
+        assertEquals("11001-0-25-0003", asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025));
+        verify(consecutivoRepository, never()).avanzarConsecutivo(anyLong(), anyString(), anyString(), anyInt(), anyInt());
+
+        assertEquals("11001-0-25-0001", asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025));
+    }
+
+    @Test
+    void asignarNumeroRadicacion_ReutilizacionDeshabilitada_NoConsultaPool() {
+        ReflectionTestUtils.setField(asignador, "tamanoBloque", 1);
+        ReflectionTestUtils.setField(asignador, "reutilizarLiberados", false);
+
+        assertEquals("11001-0-25-0001", asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025));
+        verify(consecutivoLiberadoRepository, never()).tomarConsecutivoLiberado(anyLong(), anyString(), anyInt());
+        verify(consecutivoRepository).avanzarConsecutivo(1L, "11001", "SECRETARIA", 2025, 1);
+    }
+
+    @Test
+    void asignarNumeroRadicacion_ConBloques_TomaUnBloquePorCadaNNumeros() {
+        ReflectionTestUtils.setField(asignador, "tamanoBloque", 5);
+
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(String.format("11001-0-25-%04d", i),
+                    asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025));
+        }
+        verify(consecutivoRepository, times(1)).avanzarConsecutivo(1L, "11001", "SECRETARIA", 2025, 5);
+        assertEquals(5, ultimoConsecutivo);
+
+        assertEquals("11001-0-25-0006", asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025));
+        verify(consecutivoRepository, times(2)).avanzarConsecutivo(1L, "11001", "SECRETARIA", 2025, 5);
+        assertEquals(10, ultimoConsecutivo);
+    }
+
+    @Test
+    void estaPendienteEnBloque_ConsecutivosNoEntregados_RetornaTrue() {
+        ReflectionTestUtils.setField(asignador, "tamanoBloque", 5);
+
+        asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025);
+
+        assertFalse(asignador.estaPendienteEnBloque(1L, SECRETARIA, 2025, 1));
+        assertTrue(asignador.estaPendienteEnBloque(1L, SECRETARIA, 2025, 2));
+        assertTrue(asignador.estaPendienteEnBloque(1L, SECRETARIA, 2025, 5));
+        assertFalse(asignador.estaPendienteEnBloque(1L, SECRETARIA, 2025, 6));
+        assertFalse(asignador.estaPendienteEnBloque(2L, SECRETARIA, 2025, 2));
+    }
+
+    @Test
+    void liberarBloquesPendientes_ContadorSinCambios_DevuelveConsecutivos() {
+        ReflectionTestUtils.setField(asignador, "tamanoBloque", 5);
+        asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025);
+        asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025);
+        when(consecutivoRepository.devolverConsecutivos(1L, SECRETARIA, 2025, 5, 2)).thenReturn(1);
+
+        asignador.liberarBloquesPendientes();
+
+        verify(consecutivoRepository).devolverConsecutivos(1L, SECRETARIA, 2025, 5, 2);
+        verify(consecutivoLiberadoRepository, never()).saveAll(anyList());
+        assertFalse(asignador.estaPendienteEnBloque(1L, SECRETARIA, 2025, 3));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void liberarBloquesPendientes_ContadorAvanzadoPorOtroNodo_RegistraLiberados() {
+        ReflectionTestUtils.setField(asignador, "tamanoBloque", 5);
+        asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025);
+        asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025);
+        asignador.asignarNumeroRadicacion(entidad, SECRETARIA, 2025);
+        when(consecutivoRepository.devolverConsecutivos(1L, SECRETARIA, 2025, 5, 3)).thenReturn(0);
+        Entidad referencia = new Entidad();
+        when(entidadRepository.getReferenceById(1L)).thenReturn(referencia);
+
+        asignador.liberarBloquesPendientes();
+
+        ArgumentCaptor<List<ConsecutivoLiberado>> captor = ArgumentCaptor.forClass(List.class);
+        verify(consecutivoLiberadoRepository).saveAll(captor.capture());
+        List<ConsecutivoLiberado> liberados = captor.getValue();
+        assertEquals(2, liberados.size());
+        assertEquals(4, liberados.get(0).getConsecutivo());
+        assertEquals(5, liberados.get(1).getConsecutivo());
+        assertEquals(ConsecutivoLiberado.MotivoLiberacion.BLOQUE_NO_UTILIZADO, liberados.get(0).getMotivo());
+        assertSame(referencia, liberados.get(0).getEntidad());
+    }
+}
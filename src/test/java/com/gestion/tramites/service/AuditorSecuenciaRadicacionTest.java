@@ -0,0 +1,84 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.repository.TramiteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.BitSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditorSecuenciaRadicacionTest {
+
+    private static final ConsecutivoRadicacion.TipoEntidadRadicacion SECRETARIA =
+            ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA;
+
+    @Mock
+    private TramiteRepository tramiteRepository;
+
+    @InjectMocks
+    private AuditorSecuenciaRadicacion auditor;
+
+    private Entidad entidad;
+
+    @BeforeEach
+    void setUp() {
+        entidad = new Entidad();
+        entidad.setId(1L);
+        entidad.setNombre("Secretaría de Planeación");
+        entidad.setCodigoDane("11001");
+    }
+
+    @Test
+    void auditar_DetectaFaltantesYDuplicados() {
+        when(tramiteRepository.streamConsecutivosUsadosByEntidadAndTipoAndAno(entidad, "11001", SECRETARIA, 2025))
+                .thenReturn(Stream.of(1, 2, 2, 4, 6, 6, 6));
+
+        AuditorSecuenciaRadicacion.ResultadoSecuencia resultado = auditor.auditar(entidad, SECRETARIA, 2025, 7);
+
+        assertEquals(7, resultado.getTotalUsados());
+        assertEquals(bits(3, 5, 7), resultado.getFaltantes());
+        assertEquals(bits(2, 6), resultado.getDuplicados());
+    }
+
+    @Test
+    void auditar_SecuenciaCompleta_SinProblemas() {
+        when(tramiteRepository.streamConsecutivosUsadosByEntidadAndTipoAndAno(entidad, "11001", SECRETARIA, 2025))
+                .thenReturn(IntStream.rangeClosed(1, 50_000).boxed());
+
+        AuditorSecuenciaRadicacion.ResultadoSecuencia resultado = auditor.auditar(entidad, SECRETARIA, 2025, 50_000);
+
+        assertEquals(50_000, resultado.getTotalUsados());
+        assertTrue(resultado.getFaltantes().isEmpty());
+        assertTrue(resultado.getDuplicados().isEmpty());
+    }
+
+    @Test
+    void auditar_CierraElStream() {
+        boolean[] cerrado = {false};
+        when(tramiteRepository.streamConsecutivosUsadosByEntidadAndTipoAndAno(entidad, "11001", SECRETARIA, 2025))
+                .thenReturn(Stream.of(1).onClose(() -> cerrado[0] = true));
+
+        auditor.auditar(entidad, SECRETARIA, 2025, 1);
+
+        assertTrue(cerrado[0]);
+    }
+
+    private BitSet bits(int... valores) {
+        BitSet bitSet = new BitSet();
+        for (int valor : valores) {
+            bitSet.set(valor);
+        }
+        return bitSet;
+    }
+}
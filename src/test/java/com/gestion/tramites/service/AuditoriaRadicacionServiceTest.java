@@ -0,0 +1,133 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.ReporteAuditoriaRadicacion;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.ReporteAuditoriaRadicacionRepository;
+import com.gestion.tramites.repository.TramiteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditoriaRadicacionServiceTest {
+
+    @Mock
+    private ValidacionRadicacionService validacionService;
+
+    @Mock
+    private EntidadRepository entidadRepository;
+
+    @Mock
+    private TramiteRepository tramiteRepository;
+
+    @Mock
+    private ReporteAuditoriaRadicacionRepository reporteRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AuditoriaRadicacionService auditoriaService;
+
+    private Entidad sinCambios;
+    private Entidad conRadicacionesNuevas;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(auditoriaService, "auditoriaExecutor", (Executor) Runnable::run);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        sinCambios = entidad(1L);
+        conRadicacionesNuevas = entidad(2L);
+        when(entidadRepository.findByActivoTrue()).thenReturn(List.of(sinCambios, conRadicacionesNuevas));
+        when(tramiteRepository.findMarcasRadicacionByAno(2025)).thenReturn(List.of(marca(1L, 10, 100L), marca(2L, 6, 120L)));
+        when(reporteRepository.findByAno(2025)).thenReturn(List.of(
+                reporteCompleto(sinCambios, 10, 100L), reporteCompleto(conRadicacionesNuevas, 5, 90L)));
+    }
+
+    @Test
+    void ejecutarAuditoria_SoloAuditaEntidadesConRadicacionesNuevasYGuardaElReporte() {
+        ReporteAuditoriaRadicacion anterior = reporteCompleto(conRadicacionesNuevas, 5, 90L);
+        when(reporteRepository.findByEntidadIdAndAno(2L, 2025)).thenReturn(Optional.of(anterior));
+        when(validacionService.generarReporteValidacion(conRadicacionesNuevas, 2025)).thenReturn(
+                new ValidacionRadicacionService.ReporteValidacionRadicacion(2L, "Secretaría 2", 2025, 6, 5, 1,
+                        List.of(new ValidacionRadicacionService.ProblemaConsecutivo(
+                                ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA, 2025, 4,
+                                "Salto en secuencia - consecutivo no utilizado",
+                                ValidacionRadicacionService.TipoProblema.SALTO_SECUENCIA))));
+
+        AuditoriaRadicacionService.ResumenAuditoria resumen = auditoriaService.ejecutarAuditoria(2025, false);
+
+        assertEquals(2, resumen.getEntidadesEvaluadas());
+        assertEquals(1, resumen.getEntidadesSinCambios());
+        assertEquals(1, resumen.getEntidadesAuditadas());
+        verify(validacionService, never()).generarReporteValidacion(eq(sinCambios), anyInt());
+
+        ArgumentCaptor<ReporteAuditoriaRadicacion> guardado = ArgumentCaptor.forClass(ReporteAuditoriaRadicacion.class);
+        verify(reporteRepository).save(guardado.capture());
+        assertEquals(ReporteAuditoriaRadicacion.EstadoAuditoria.COMPLETA, guardado.getValue().getEstado());
+        assertEquals(6, guardado.getValue().getMarcaTotalRadicaciones());
+        assertEquals(120L, guardado.getValue().getMarcaUltimoTramiteId());
+        assertEquals(1, guardado.getValue().getProblemas().size());
+        assertEquals(4, guardado.getValue().getProblemas().get(0).getConsecutivo());
+        assertSame(resumen, auditoriaService.getUltimoResumen());
+    }
+
+    @Test
+    void ejecutarAuditoria_TiempoAgotado_ConservaLaMarcaAnterior() {
+        ReporteAuditoriaRadicacion anterior = reporteCompleto(conRadicacionesNuevas, 5, 90L);
+        when(reporteRepository.findByEntidadIdAndAno(2L, 2025)).thenReturn(Optional.of(anterior));
+        when(validacionService.generarReporteValidacion(conRadicacionesNuevas, 2025))
+                .thenThrow(new TransactionTimedOutException("Transaction timed out"));
+
+        AuditoriaRadicacionService.ResumenAuditoria resumen = auditoriaService.ejecutarAuditoria(2025, false);
+
+        assertEquals(1, resumen.getEntidadesConTiempoAgotado());
+        assertEquals(ReporteAuditoriaRadicacion.EstadoAuditoria.TIEMPO_AGOTADO, anterior.getEstado());
+        assertEquals(5, anterior.getMarcaTotalRadicaciones());
+        assertEquals(90L, anterior.getMarcaUltimoTramiteId());
+        verify(reporteRepository).save(anterior);
+    }
+
+    private Entidad entidad(Long id) {
+        Entidad entidad = new Entidad();
+        entidad.setId(id);
+        entidad.setNombre("Secretaría " + id);
+        entidad.setCodigoDane("1100" + id);
+        return entidad;
+    }
+
+    private ReporteAuditoriaRadicacion reporteCompleto(Entidad entidad, long total, Long ultimoTramite) {
+        ReporteAuditoriaRadicacion reporte = new ReporteAuditoriaRadicacion(entidad, 2025);
+        reporte.setEstado(ReporteAuditoriaRadicacion.EstadoAuditoria.COMPLETA);
+        reporte.setMarcaTotalRadicaciones(total);
+        reporte.setMarcaUltimoTramiteId(ultimoTramite);
+        return reporte;
+    }
+
+    private TramiteRepository.MarcaRadicacionEntidad marca(Long entidadId, long total, Long ultimoTramite) {
+        return new TramiteRepository.MarcaRadicacionEntidad() {
+            @Override public Long getEntidadId() { return entidadId; }
+            @Override public long getTotalRadicaciones() { return total; }
+            @Override public Long getUltimoTramiteId() { return ultimoTramite; }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoLiberado;
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.ReservaNumeroRadicacion;
+import com.gestion.tramites.repository.ConsecutivoLiberadoRepository;
+import com.gestion.tramites.repository.ReservaNumeroRadicacionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BarridoReservasRadicacionTest {
+
+    @Mock
+    private ReservaNumeroRadicacionRepository reservaRepository;
+
+    @Mock
+    private ConsecutivoLiberadoRepository consecutivoLiberadoRepository;
+
+    @InjectMocks
+    private BarridoReservasRadicacion barrido;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void liberarReservasVencidas_ReservasVencidas_LasEliminaYDevuelveConsecutivosAlPool() {
+        Entidad entidad = new Entidad();
+        entidad.setId(1L);
+        ReservaNumeroRadicacion reserva = new ReservaNumeroRadicacion();
+        reserva.setEntidad(entidad);
+        reserva.setTipoEntidad(ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA);
+        reserva.setAno(2025);
+        reserva.setConsecutivo(12);
+        reserva.setNumeroRadicacion("11001-0-25-0012");
+        reserva.setEstado(ReservaNumeroRadicacion.EstadoReserva.RESERVADO);
+        reserva.setFechaExpiracion(LocalDateTime.now().minusMinutes(5));
+        when(reservaRepository.findVencidasParaBarrido(any(LocalDateTime.class), eq(500))).thenReturn(List.of(reserva));
+
+        assertEquals(1, barrido.liberarReservasVencidas());
+
+        // La fila se elimina para que el número pueda volver a reservarse (numero_radicacion es único)
+        verify(reservaRepository).deleteAllInBatch(List.of(reserva));
+        verify(reservaRepository, never()).saveAll(anyList());
+        ArgumentCaptor<List<ConsecutivoLiberado>> captor = ArgumentCaptor.forClass(List.class);
+        verify(consecutivoLiberadoRepository).saveAll(captor.capture());
+        ConsecutivoLiberado liberado = captor.getValue().get(0);
+        assertEquals(12, liberado.getConsecutivo());
+        assertEquals(ConsecutivoLiberado.MotivoLiberacion.RESERVA_EXPIRADA, liberado.getMotivo());
+    }
+
+    @Test
+    void liberarReservasVencidas_SinReservasVencidas_NoGuardaNada() {
+        when(reservaRepository.findVencidasParaBarrido(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, barrido.liberarReservasVencidas());
+        verifyNoInteractions(consecutivoLiberadoRepository);
+    }
+}
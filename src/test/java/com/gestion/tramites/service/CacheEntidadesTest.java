@@ -0,0 +1,133 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.exception.ResourceNotFoundException;
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.repository.EntidadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheEntidadesTest {
+
+    @Mock
+    private EntidadRepository entidadRepository;
+
+    @InjectMocks
+    private CacheEntidades cacheEntidades;
+
+    private Entidad secretaria;
+    private Entidad curaduria;
+
+    @BeforeEach
+    void setUp() {
+        secretaria = entidad(1L, "Secretaría de Planeación", "11001");
+        curaduria = entidad(2L, "Curaduría Urbana No. 1", "05001");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cargar_GuardaTodasLasEntidadesConSuTipo() {
+        when(entidadRepository.findAll()).thenReturn(List.of(secretaria, curaduria));
+
+        cacheEntidades.cargar();
+
+        assertEquals(2, cacheEntidades.getTamano());
+        assertEquals(ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA,
+                cacheEntidades.obtenerRequerida(1L).getTipoRadicacion());
+        EntidadSnapshot snapshot = cacheEntidades.obtenerRequerida(2L);
+        assertEquals(ConsecutivoRadicacion.TipoEntidadRadicacion.CURADURIA, snapshot.getTipoRadicacion());
+        assertEquals("05001", snapshot.getCodigoDane());
+        verify(entidadRepository, never()).findById(any());
+    }
+
+    @Test
+    void obtener_EntidadNoCargada_LaLeeUnaSolaVez() {
+        when(entidadRepository.findById(1L)).thenReturn(Optional.of(secretaria));
+
+        cacheEntidades.obtener(1L);
+        cacheEntidades.obtener(1L);
+
+        verify(entidadRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void obtenerRequerida_EntidadInexistente_LanzaExcepcion() {
+        when(entidadRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> cacheEntidades.obtenerRequerida(9L));
+    }
+
+    @Test
+    void invalidar_DescartaLaEntidadEIncrementaLaVersion() {
+        when(entidadRepository.findById(1L)).thenReturn(Optional.of(secretaria));
+        cacheEntidades.obtener(1L);
+        long versionInicial = cacheEntidades.getVersion();
+
+        secretaria.setActivo(false);
+        cacheEntidades.invalidar(1L);
+
+        EntidadSnapshot snapshot = cacheEntidades.obtenerRequerida(1L);
+        assertFalse(snapshot.isActivo());
+        assertTrue(snapshot.getVersion() > versionInicial);
+        verify(entidadRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void invalidar_DentroDeTransaccion_DescartaOtraVezAlTerminar() {
+        when(entidadRepository.findById(1L)).thenReturn(Optional.of(secretaria));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheEntidades.invalidar(1L);
+        // Una lectura concurrente antes del commit vuelve a cargar los datos anteriores
+        cacheEntidades.obtener(1L);
+        assertEquals(1, cacheEntidades.getTamano());
+
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertEquals(0, cacheEntidades.getTamano());
+    }
+
+    @Test
+    void determinarTipoRadicacion_ReconoceCuradurias() {
+        assertEquals(ConsecutivoRadicacion.TipoEntidadRadicacion.CURADURIA,
+                EntidadSnapshot.determinarTipoRadicacion("CURADOR URBANO 2"));
+        assertEquals(ConsecutivoRadicacion.TipoEntidadRadicacion.CURADURIA,
+                EntidadSnapshot.determinarTipoRadicacion("Primera curaduría de Medellín"));
+        assertEquals(ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA,
+                EntidadSnapshot.determinarTipoRadicacion("Secretaría de Planeación"));
+        assertEquals(ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA,
+                EntidadSnapshot.determinarTipoRadicacion("Cura"));
+    }
+
+    private Entidad entidad(Long id, String nombre, String codigoDane) {
+        Entidad entidad = new Entidad();
+        entidad.setId(id);
+        entidad.setNombre(nombre);
+        entidad.setCodigoDane(codigoDane);
+        entidad.setActivo(true);
+        return entidad;
+    }
+}
@@ -0,0 +1,69 @@
+package com.gestion.tramites.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSolicitantesTest {
+
+    private CacheSolicitantes cacheSolicitantes;
+
+    @BeforeEach
+    void setUp() {
+        cacheSolicitantes = new CacheSolicitantes();
+        ReflectionTestUtils.setField(cacheSolicitantes, "tamanoMaximo", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void guardarDespuesDeCommit_SoloGuardaSiLaTransaccionConfirma() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheSolicitantes.guardarDespuesDeCommit("ciudadano@correo.com", 50L);
+        cacheSolicitantes.guardarDespuesDeCommit("revertido@correo.com", 51L);
+        assertEquals(Optional.empty(), cacheSolicitantes.obtenerId("ciudadano@correo.com"));
+
+        TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+        TransactionSynchronizationManager.getSynchronizations().get(1)
+                .afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(Optional.of(50L), cacheSolicitantes.obtenerId("ciudadano@correo.com"));
+        assertEquals(Optional.empty(), cacheSolicitantes.obtenerId("revertido@correo.com"));
+    }
+
+    @Test
+    void guardar_ExcedeElTamanoMaximo_DescartaElMenosReciente() {
+        cacheSolicitantes.guardarDespuesDeCommit("a@correo.com", 1L);
+        cacheSolicitantes.guardarDespuesDeCommit("b@correo.com", 2L);
+        cacheSolicitantes.obtenerId("a@correo.com");
+        cacheSolicitantes.guardarDespuesDeCommit("c@correo.com", 3L);
+
+        assertEquals(2, cacheSolicitantes.getTamano());
+        assertEquals(Optional.of(1L), cacheSolicitantes.obtenerId("a@correo.com"));
+        assertEquals(Optional.empty(), cacheSolicitantes.obtenerId("b@correo.com"));
+    }
+
+    @Test
+    void invalidar_DescartaElUsuarioCualquieraSeaSuCorreo() {
+        cacheSolicitantes.guardarDespuesDeCommit("a@correo.com", 1L);
+        cacheSolicitantes.guardarDespuesDeCommit("b@correo.com", 2L);
+
+        cacheSolicitantes.invalidar(1L);
+
+        assertEquals(Optional.empty(), cacheSolicitantes.obtenerId("a@correo.com"));
+        assertEquals(Optional.of(2L), cacheSolicitantes.obtenerId("b@correo.com"));
+    }
+}
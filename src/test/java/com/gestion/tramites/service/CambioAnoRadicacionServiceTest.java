@@ -0,0 +1,123 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.repository.ConsecutivoRadicacionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CambioAnoRadicacionServiceTest {
+
+    private static final ConsecutivoRadicacion.TipoEntidadRadicacion SECRETARIA =
+            ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA;
+
+    /** El cambio de año solo acepta el año en curso o el siguiente */
+    private static final int ANO_DESTINO = LocalDate.now().getYear() + 1;
+    private static final int ANO_ORIGEN = ANO_DESTINO - 1;
+
+    @Mock
+    private ConsecutivoRadicacionRepository consecutivoRepository;
+
+    @Mock
+    private ValidacionRadicacionService validacionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CambioAnoRadicacionService cambioAnoService;
+
+    private Entidad nueva;
+    private Entidad existente;
+    private Entidad inactiva;
+
+    @BeforeEach
+    void setUp() {
+        nueva = entidad(1L, "11001", true);
+        existente = entidad(2L, "05001", true);
+        inactiva = entidad(3L, "76001", false);
+
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(validacionService.determinarTipoEntidad(any(Entidad.class))).thenReturn(SECRETARIA);
+        lenient().when(consecutivoRepository.findEntidadesParaMigracionAno(ANO_ORIGEN)).thenReturn(List.of(nueva, existente, inactiva));
+    }
+
+    @Test
+    void ejecutarCambioAno_CreaConsecutivosFaltantesEnLotesYDesactivaAntiguos() {
+        ReflectionTestUtils.setField(cambioAnoService, "tamanoLote", 2);
+        when(consecutivoRepository.crearConsecutivoSiNoExiste(1L, "11001", "SECRETARIA", ANO_DESTINO)).thenReturn(1);
+        when(consecutivoRepository.crearConsecutivoSiNoExiste(2L, "05001", "SECRETARIA", ANO_DESTINO)).thenReturn(0);
+        when(consecutivoRepository.desactivarConsecutivosAntiguos(ANO_ORIGEN)).thenReturn(4);
+
+        CambioAnoRadicacionService.ReporteCambioAno reporte = cambioAnoService.ejecutarCambioAno(ANO_DESTINO, false);
+
+        assertEquals(3, reporte.getEntidadesEvaluadas());
+        assertEquals(2, reporte.getLotesProcesados());
+        assertEquals(1, reporte.getConsecutivosCreados());
+        assertEquals(1, reporte.getConsecutivosExistentes());
+        assertEquals(List.of("3: entidad inactiva"), reporte.getEntidadesOmitidas());
+        assertEquals(4, reporte.getConsecutivosDesactivados());
+        assertSame(reporte, cambioAnoService.getUltimoReporte());
+    }
+
+    @Test
+    void ejecutarCambioAno_Simulacion_NoEscribe() {
+        when(consecutivoRepository.existsByEntidadAndTipoEntidadAndAnoAndActivoTrue(nueva, SECRETARIA, ANO_DESTINO)).thenReturn(false);
+        when(consecutivoRepository.existsByEntidadAndTipoEntidadAndAnoAndActivoTrue(existente, SECRETARIA, ANO_DESTINO)).thenReturn(true);
+        when(consecutivoRepository.countByAnoLessThanAndActivoTrue(ANO_ORIGEN)).thenReturn(4L);
+
+        CambioAnoRadicacionService.ReporteCambioAno reporte = cambioAnoService.ejecutarCambioAno(ANO_DESTINO, true);
+
+        assertTrue(reporte.isSimulacion());
+        assertEquals(1, reporte.getConsecutivosCreados());
+        assertEquals(1, reporte.getConsecutivosExistentes());
+        assertEquals(4, reporte.getConsecutivosDesactivados());
+        verify(consecutivoRepository, never()).crearConsecutivoSiNoExiste(anyLong(), anyString(), anyString(), anyInt());
+        verify(consecutivoRepository, never()).desactivarConsecutivosAntiguos(anyInt());
+        assertNull(cambioAnoService.getUltimoReporte());
+    }
+
+    @Test
+    void ejecutarCambioAno_AnoDestinoFueraDeRango_LanzaIllegalArgumentSinDesactivar() {
+        assertThrows(IllegalArgumentException.class, () -> cambioAnoService.ejecutarCambioAno(ANO_DESTINO + 1, false));
+        assertThrows(IllegalArgumentException.class, () -> cambioAnoService.ejecutarCambioAno(ANO_ORIGEN - 1, false));
+
+        verify(consecutivoRepository, never()).findEntidadesParaMigracionAno(anyInt());
+        verify(consecutivoRepository, never()).desactivarConsecutivosAntiguos(anyInt());
+    }
+
+    @Test
+    void ejecutarCambioAno_AnoEnCurso_NoDesactivaLosConsecutivosDelAnoEnCurso() {
+        when(consecutivoRepository.findEntidadesParaMigracionAno(ANO_ORIGEN - 1)).thenReturn(List.of());
+        when(consecutivoRepository.desactivarConsecutivosAntiguos(ANO_ORIGEN - 1)).thenReturn(2);
+
+        CambioAnoRadicacionService.ReporteCambioAno reporte = cambioAnoService.ejecutarCambioAno(ANO_ORIGEN, false);
+
+        assertEquals(2, reporte.getConsecutivosDesactivados());
+        verify(consecutivoRepository).desactivarConsecutivosAntiguos(ANO_ORIGEN - 1);
+    }
+
+    private Entidad entidad(Long id, String codigoDane, boolean activo) {
+        Entidad entidad = new Entidad();
+        entidad.setId(id);
+        entidad.setNombre("Secretaría " + id);
+        entidad.setCodigoDane(codigoDane);
+        entidad.setActivo(activo);
+        return entidad;
+    }
+}
@@ -0,0 +1,242 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.model.SolicitudRadicacionEncolada;
+import com.gestion.tramites.repository.SolicitudRadicacionEncoladaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ColaRadicacionServiceTest {
+
+    @Mock
+    private SolicitudRadicacionEncoladaRepository colaRepository;
+
+    @Mock
+    private RadicacionService radicacionService;
+
+    @Mock
+    private CacheEntidades cacheEntidades;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Executor colaExecutor;
+
+    @InjectMocks
+    private ColaRadicacionService colaRadicacionService;
+
+    @BeforeEach
+    void setUp() {
+        ReintentoRadicacion reintento = new ReintentoRadicacion();
+        ReflectionTestUtils.setField(reintento, "esperaInicialMs", 0L);
+        ReflectionTestUtils.setField(colaRadicacionService, "reintentoRadicacion", reintento);
+        ReflectionTestUtils.setField(colaRadicacionService, "colaExecutor", colaExecutor);
+        ReflectionTestUtils.setField(colaRadicacionService, "habilitada", true);
+    }
+
+    @Test
+    void encolar_SolicitudValida_GuardaPendienteConTicketYProgramaEscritor() {
+        Entidad entidad = new Entidad();
+        entidad.setId(1L);
+        entidad.setNombre("Secretaría de Planeación");
+        entidad.setCodigoDane("11001");
+        entidad.setActivo(true);
+        when(cacheEntidades.obtenerRequerida(1L)).thenReturn(EntidadSnapshot.de(entidad, 0));
+        when(colaRepository.save(any(SolicitudRadicacionEncolada.class))).thenAnswer(inv -> {
+            SolicitudRadicacionEncolada guardada = inv.getArgument(0);
+            guardada.setIdSolicitud(10L);
+            return guardada;
+        });
+
+        ColaRadicacionService.TicketRadicacion ticket = colaRadicacionService.encolar(solicitud(1L, "Obra nueva"));
+
+        ArgumentCaptor<SolicitudRadicacionEncolada> captor = ArgumentCaptor.forClass(SolicitudRadicacionEncolada.class);
+        verify(colaRepository).save(captor.capture());
+        assertEquals(SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE, captor.getValue().getEstado());
+        assertEquals(36, ticket.getTicket().length());
+        assertEquals(captor.getValue().getTicket(), ticket.getTicket());
+        assertFalse(ticket.estaResuelto());
+        verify(radicacionService).validarSolicitudRadicacion(any());
+        verify(colaExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void encolar_EntidadInactiva_NoGuarda() {
+        Entidad entidad = new Entidad();
+        entidad.setId(1L);
+        entidad.setNombre("Secretaría de Planeación");
+        entidad.setActivo(false);
+        when(cacheEntidades.obtenerRequerida(1L)).thenReturn(EntidadSnapshot.de(entidad, 0));
+
+        assertThrows(IllegalStateException.class, () -> colaRadicacionService.encolar(solicitud(1L, "Obra nueva")));
+        verify(colaRepository, never()).save(any());
+    }
+
+    @Test
+    void radicarSiguienteLote_MarcaRadicadasYRechazadasEnOrdenDeLlegada() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        SolicitudRadicacionEncolada primera = pendiente(1L, "a");
+        SolicitudRadicacionEncolada segunda = pendiente(2L, "b");
+        when(colaRepository.bloquearEscritorEntidad(ColaRadicacionService.CLASE_BLOQUEO_ESCRITOR, 5L)).thenReturn(true);
+        when(colaRepository.findPendientesParaRadicar(eq(5L), anyInt())).thenReturn(List.of(primera, segunda));
+
+        RadicacionService.SolicitudRadicacion radicacion = new RadicacionService.SolicitudRadicacion();
+        radicacion.setIdTramite(100L);
+        radicacion.setNumeroRadicacion("11001-0-25-0001");
+        when(radicacionService.radicarLote(anyList())).thenReturn(List.of(
+                RadicacionService.ResultadoRadicacionLote.exitoso(0, radicacion),
+                RadicacionService.ResultadoRadicacionLote.fallido(1, "Tipo de trámite no encontrado")));
+
+        int procesadas = colaRadicacionService.radicarSiguienteLote(5L);
+
+        assertEquals(2, procesadas);
+        assertEquals(SolicitudRadicacionEncolada.EstadoSolicitud.RADICADA, primera.getEstado());
+        assertEquals("11001-0-25-0001", primera.getNumeroRadicacion());
+        assertEquals(100L, primera.getIdTramite());
+        assertEquals(SolicitudRadicacionEncolada.EstadoSolicitud.RECHAZADA, segunda.getEstado());
+        assertEquals("Tipo de trámite no encontrado", segunda.getMensajeError());
+        verify(colaRepository).saveAll(List.of(primera, segunda));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void radicarSiguienteLote_LoteFallaCompleto_RadicaUnaPorUnaYDejaPendienteSoloLaQueFalla() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        SolicitudRadicacionEncolada valida = pendiente(1L, "a");
+        SolicitudRadicacionEncolada problematica = pendiente(2L, "b");
+        when(colaRepository.bloquearEscritorEntidad(ColaRadicacionService.CLASE_BLOQUEO_ESCRITOR, 5L)).thenReturn(true);
+        when(colaRepository.findPendientesParaRadicar(eq(5L), anyInt())).thenReturn(List.of(valida, problematica));
+        when(colaRepository.findById(1L)).thenReturn(Optional.of(valida));
+        when(colaRepository.findById(2L)).thenReturn(Optional.of(problematica));
+        radicarLoteFallandoCon("b");
+
+        int procesadas = colaRadicacionService.radicarSiguienteLote(5L);
+
+        assertEquals(1, procesadas);
+        assertEquals(SolicitudRadicacionEncolada.EstadoSolicitud.RADICADA, valida.getEstado());
+        assertEquals("11001-0-25-0001", valida.getNumeroRadicacion());
+        assertEquals(SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE, problematica.getEstado());
+        assertEquals(1, problematica.getIntentos());
+        verify(colaRepository).save(valida);
+        verify(colaRepository).save(problematica);
+    }
+
+    @Test
+    void radicarSiguienteLote_SolicitudAgotaIntentos_SeRechazaYLiberaLaCola() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        SolicitudRadicacionEncolada problematica = pendiente(2L, "b");
+        problematica.setIntentos(4);
+        when(colaRepository.bloquearEscritorEntidad(ColaRadicacionService.CLASE_BLOQUEO_ESCRITOR, 5L)).thenReturn(true);
+        when(colaRepository.findPendientesParaRadicar(eq(5L), anyInt())).thenReturn(List.of(problematica));
+        when(colaRepository.findById(2L)).thenReturn(Optional.of(problematica));
+        radicarLoteFallandoCon("b");
+
+        int procesadas = colaRadicacionService.radicarSiguienteLote(5L);
+
+        assertEquals(1, procesadas);
+        assertEquals(SolicitudRadicacionEncolada.EstadoSolicitud.RECHAZADA, problematica.getEstado());
+        assertEquals(5, problematica.getIntentos());
+        assertTrue(problematica.getMensajeError().startsWith("No se pudo radicar tras 5 intentos"));
+    }
+
+    @Test
+    void radicarSiguienteLote_NingunaSolicitudAvanza_EsperaAlSiguienteBarrido() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        SolicitudRadicacionEncolada problematica = pendiente(2L, "b");
+        when(colaRepository.bloquearEscritorEntidad(ColaRadicacionService.CLASE_BLOQUEO_ESCRITOR, 5L)).thenReturn(true);
+        when(colaRepository.findPendientesParaRadicar(eq(5L), anyInt())).thenReturn(List.of(problematica));
+        when(colaRepository.findById(2L)).thenReturn(Optional.of(problematica));
+        radicarLoteFallandoCon("b");
+
+        colaRadicacionService.ejecutarEscritor(5L, new AtomicBoolean(true));
+
+        assertEquals(SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE, problematica.getEstado());
+        assertEquals(1, problematica.getIntentos());
+        verify(colaRepository, never()).existsByEntidadIdAndEstado(anyLong(), any());
+    }
+
+    @Test
+    void radicarSiguienteLote_OtroNodoTieneElLock_NoRadica() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(colaRepository.bloquearEscritorEntidad(ColaRadicacionService.CLASE_BLOQUEO_ESCRITOR, 5L)).thenReturn(false);
+
+        int procesadas = colaRadicacionService.radicarSiguienteLote(5L);
+
+        assertEquals(ColaRadicacionService.ESCRITOR_EN_OTRO_NODO, procesadas);
+        verify(colaRepository, never()).findPendientesParaRadicar(anyLong(), anyInt());
+        verify(radicacionService, never()).radicarLote(anyList());
+    }
+
+    @Test
+    void eliminarResueltasAntiguas_EliminaLasResueltasAntesDeLaRetencion() {
+        ReflectionTestUtils.setField(colaRadicacionService, "retencionDias", 7);
+        when(colaRepository.deleteResueltasAntesDe(any(LocalDateTime.class))).thenReturn(3);
+        LocalDateTime antes = LocalDateTime.now().minusDays(7);
+
+        int eliminadas = colaRadicacionService.eliminarResueltasAntiguas();
+
+        assertEquals(3, eliminadas);
+        ArgumentCaptor<LocalDateTime> corte = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(colaRepository).deleteResueltasAntesDe(corte.capture());
+        assertFalse(corte.getValue().isBefore(antes));
+        assertTrue(corte.getValue().isBefore(LocalDateTime.now().minusDays(6)));
+    }
+
+    /**
+     * radicarLote falla con cualquier lote que incluya la solicitud con el objeto indicado
+     */
+    private void radicarLoteFallandoCon(String objetoProblematico) {
+        when(radicacionService.radicarLote(anyList())).thenAnswer(inv -> {
+            List<RadicacionService.SolicitudRadicacionTramite> solicitudes = inv.getArgument(0);
+            if (solicitudes.stream().anyMatch(s -> objetoProblematico.equals(s.getObjetoTramite()))) {
+                throw new IllegalStateException("Error inesperado al radicar");
+            }
+            RadicacionService.SolicitudRadicacion radicacion = new RadicacionService.SolicitudRadicacion();
+            radicacion.setIdTramite(100L);
+            radicacion.setNumeroRadicacion("11001-0-25-0001");
+            return List.of(RadicacionService.ResultadoRadicacionLote.exitoso(0, radicacion));
+        });
+    }
+
+    private RadicacionService.SolicitudRadicacionTramite solicitud(Long entidadId, String objeto) {
+        RadicacionService.SolicitudRadicacionTramite solicitud = new RadicacionService.SolicitudRadicacionTramite();
+        solicitud.setEntidadId(entidadId);
+        solicitud.setTipoTramiteId(7L);
+        solicitud.setObjetoTramite(objeto);
+        solicitud.setSolicitanteEmail("ciudadano@correo.com");
+        return solicitud;
+    }
+
+    private SolicitudRadicacionEncolada pendiente(Long id, String objeto) {
+        SolicitudRadicacionEncolada pendiente = new SolicitudRadicacionEncolada();
+        pendiente.setIdSolicitud(id);
+        pendiente.setTicket("ticket-" + id);
+        pendiente.setEntidadId(5L);
+        pendiente.setTipoTramiteId(7L);
+        pendiente.setObjetoTramite(objeto);
+        pendiente.setSolicitanteEmail("ciudadano@correo.com");
+        pendiente.setEstado(SolicitudRadicacionEncolada.EstadoSolicitud.PENDIENTE);
+        return pendiente;
+    }
+}
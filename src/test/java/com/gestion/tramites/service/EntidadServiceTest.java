@@ -2,6 +2,8 @@ package com.gestion.tramites.service;
 
 import com.gestion.tramites.dto.EntidadDTO;
 import com.gestion.tramites.exception.ResourceNotFoundException;
+import com.gestion.tramites.mapper.EntidadMapper;
+import com.gestion.tramites.mapper.EntidadMapperImpl;
 import com.gestion.tramites.model.Entidad;
 import com.gestion.tramites.repository.EntidadRepository;
 import com.gestion.tramites.repository.EntidadGubernamentalRepository;
@@ -10,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
@@ -33,6 +36,12 @@ class EntidadServiceTest {
     @Mock
     private VerificacionEntidadGubernamentalService verificacionService;
 
+    @Mock
+    private CacheEntidades cacheEntidades;
+
+    @Spy
+    private EntidadMapper entidadMapper = new EntidadMapperImpl();
+
     @InjectMocks
     private EntidadService entidadService;
 
@@ -165,6 +174,39 @@ class EntidadServiceTest {
         verify(entidadRepository).save(any(Entidad.class));
     }
 
+    @Test
+    void actualizarEntidad_ReduceDigitosConsecutivo_LanzaIllegalArgumentSinGuardar() {
+        testEntidad.setDigitosConsecutivo(6);
+        EntidadDTO entidadActualizadaDTO = new EntidadDTO(1L, "Alcaldía Test", "123456789",
+                "Calle Test 123", "3001234567", "test@alcaldia.gov.co",
+                "www.alcaldiatest.gov.co", true);
+        entidadActualizadaDTO.setDigitosConsecutivo(5);
+        when(entidadRepository.findById(1L)).thenReturn(Optional.of(testEntidad));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+            entidadService.actualizarEntidad(1L, entidadActualizadaDTO));
+
+        assertTrue(ex.getMessage().contains("de 6 a 5"));
+        assertEquals(6, testEntidad.getDigitosConsecutivo());
+        verify(entidadRepository, never()).save(any(Entidad.class));
+        verify(cacheEntidades, never()).invalidar(anyLong());
+    }
+
+    @Test
+    void actualizarEntidad_AmpliaDigitosConsecutivo_Actualiza() {
+        EntidadDTO entidadActualizadaDTO = new EntidadDTO(1L, "Alcaldía Test", "123456789",
+                "Calle Test 123", "3001234567", "test@alcaldia.gov.co",
+                "www.alcaldiatest.gov.co", true);
+        entidadActualizadaDTO.setDigitosConsecutivo(5);
+        when(entidadRepository.findById(1L)).thenReturn(Optional.of(testEntidad));
+        when(entidadRepository.save(any(Entidad.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        entidadService.actualizarEntidad(1L, entidadActualizadaDTO);
+
+        assertEquals(5, testEntidad.getDigitosConsecutivo());
+        verify(cacheEntidades).invalidar(1L);
+    }
+
     @Test
     void actualizarEntidad_NonExistingId_ThrowsException() {
         // Arrange
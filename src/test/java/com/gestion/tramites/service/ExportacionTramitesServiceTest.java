@@ -0,0 +1,197 @@
+package com.gestion.tramites.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gestion.tramites.context.EntityContext;
+import com.gestion.tramites.mapper.TramiteMapper;
+import com.gestion.tramites.mapper.TramiteMapperImpl;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.TramiteConsultaRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Filter;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacionTramitesServiceTest {
+
+    @Mock
+    private TramiteConsultaRepository tramiteConsultaRepository;
+
+    @Spy
+    private TramiteMapper tramiteMapper = new TramiteMapperImpl();
+
+    // Como el ObjectMapper de Spring Boot: fechas en ISO-8601
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Filter filtro;
+
+    @InjectMocks
+    private ExportacionTramitesService exportacionService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        EntityContext.clear();
+    }
+
+    @Test
+    void preparar_UsuarioDeEntidad_ExportaSoloSuEntidadConElFiltroDelRequest() {
+        autenticar("REVISOR", 1L);
+        EntityContext.setCurrentEntityId(1L);
+
+        TramiteService.FiltroTramites filtroTramites = new TramiteService.FiltroTramites();
+        filtroTramites.setEntidadId(2L);
+        ExportacionTramitesService.SolicitudExportacion solicitud = exportacionService.preparar(filtroTramites, "CSV");
+
+        assertEquals(ExportacionTramitesService.FormatoExportacion.CSV, solicitud.getFormato());
+        assertEquals(1L, solicitud.getEntidadId());
+        assertEquals(1L, solicitud.getEntidadFiltro());
+    }
+
+    @Test
+    void preparar_FormatoNoSoportadoOFechasInvertidas_LanzaIllegalArgument() {
+        autenticar("REVISOR", 1L);
+
+        assertThrows(IllegalArgumentException.class, () -> exportacionService.preparar(null, "xlsx"));
+
+        TramiteService.FiltroTramites filtroTramites = new TramiteService.FiltroTramites();
+        filtroTramites.setFechaDesde(LocalDate.of(2025, 3, 10));
+        filtroTramites.setFechaHasta(LocalDate.of(2025, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> exportacionService.preparar(filtroTramites, "ndjson"));
+        verifyNoInteractions(tramiteConsultaRepository);
+    }
+
+    @Test
+    void escribir_Ndjson_UnObjetoPorLineaConElFiltroDeEntidadActivo() throws Exception {
+        autenticar("REVISOR", 1L);
+        EntityContext.setCurrentEntityId(1L);
+        ExportacionTramitesService.SolicitudExportacion solicitud = exportacionService.preparar(null, null);
+        prepararSesion();
+        when(tramiteConsultaRepository.streamExportacion(eq(1L), any(), any(), any(), any(), any(), eq(500)))
+                .thenReturn(Stream.of(tramite(2L, "Casa 2"), tramite(1L, "Casa 1")));
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long total = exportacionService.escribir(solicitud, salida);
+
+        String contenido = salida.toString(StandardCharsets.UTF_8);
+        String[] lineas = contenido.split("\n");
+        assertEquals(2, total);
+        assertEquals(2, lineas.length);
+        assertTrue(contenido.endsWith("\n"));
+        JsonNode primera = objectMapper.readTree(lineas[0]);
+        assertEquals(2L, primera.get("idTramite").asLong());
+        assertEquals("2025-03-10", primera.get("fechaRadicacion").asText());
+        assertEquals("Secretaría de Planeación", primera.get("nombreEntidad").asText());
+
+        verify(session).enableFilter("entityFilter");
+        verify(filtro).setParameter("entityId", 1L);
+        verify(session).disableFilter("entityFilter");
+    }
+
+    @Test
+    void escribir_Csv_EscapaCamposYNeutralizaFormulas() throws Exception {
+        autenticar("REVISOR", 1L);
+        EntityContext.setCurrentEntityId(1L);
+        ExportacionTramitesService.SolicitudExportacion solicitud = exportacionService.preparar(null, "csv");
+        prepararSesion();
+        when(tramiteConsultaRepository.streamExportacion(eq(1L), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(Stream.of(tramite(1L, "Casa \"El Roble\", lote 3"), tramite(2L, "=HYPERLINK(\"x\")")));
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        exportacionService.escribir(solicitud, salida);
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lineas.length);
+        assertTrue(lineas[0].startsWith("\uFEFFid_tramite,numero_radicacion,fecha_radicacion,estado,"));
+        assertTrue(lineas[1].startsWith("1,11001-0-25-0001,2025-03-10,RADICADO,\"Casa \"\"El Roble\"\", lote 3\","));
+        assertTrue(lineas[2].contains(",\"'=HYPERLINK(\"\"x\"\")\","));
+    }
+
+    @Test
+    void escribir_LimpiaElContextoDePersistenciaCadaLote() throws Exception {
+        ReflectionTestUtils.setField(exportacionService, "tamanoLote", 2);
+        autenticar("ADMIN_GLOBAL", 1L);
+        ExportacionTramitesService.SolicitudExportacion solicitud = exportacionService.preparar(null, "ndjson");
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(tramiteConsultaRepository.streamExportacion(isNull(), any(), any(), any(), any(), any(), eq(2)))
+                .thenReturn(IntStream.rangeClosed(1, 5).mapToObj(i -> tramite((long) i, "Casa " + i)));
+
+        long total = exportacionService.escribir(solicitud, new ByteArrayOutputStream());
+
+        assertEquals(5, total);
+        verify(entityManager, times(2)).clear();
+        // Sin filtro en el request no se activa ninguno
+        verify(session, never()).enableFilter(anyString());
+    }
+
+    private void prepararSesion() {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.enableFilter("entityFilter")).thenReturn(filtro);
+    }
+
+    private void autenticar(String rol, Long entidadId) {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(5L);
+        usuario.setCorreoElectronico("usuario@planeacion.gov.co");
+        usuario.setContrasena("secreta");
+        usuario.setRol(rol);
+        usuario.setActivo(true);
+        if (entidadId != null) {
+            Entidad entidad = new Entidad();
+            entidad.setId(entidadId);
+            usuario.setEntidad(entidad);
+        }
+        CustomUserDetails usuarioActual = new CustomUserDetails(usuario);
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(usuarioActual, null, usuarioActual.getAuthorities())));
+    }
+
+    private Tramite tramite(Long id, String objeto) {
+        Entidad entidad = new Entidad();
+        entidad.setId(1L);
+        entidad.setNombre("Secretaría de Planeación");
+
+        Tramite tramite = new Tramite();
+        tramite.setIdTramite(id);
+        tramite.setNumeroRadicacion(String.format("11001-0-25-%04d", id));
+        tramite.setFechaRadicacion(LocalDate.of(2025, 3, 10));
+        tramite.setObjetoTramite(objeto);
+        tramite.setEstadoActual(Tramite.EstadoTramite.RADICADO);
+        tramite.setEntidad(entidad);
+        return tramite;
+    }
+}
@@ -0,0 +1,290 @@
+package com.gestion.tramites.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestion.tramites.exception.ClaveIdempotenciaException;
+import com.gestion.tramites.model.ClaveIdempotencia;
+import com.gestion.tramites.repository.ClaveIdempotenciaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotenciaServiceTest {
+
+    @Mock
+    private ClaveIdempotenciaRepository claveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private IdempotenciaService idempotenciaService;
+
+    private final AtomicInteger radicaciones = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotenciaService, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void ejecutar_SinClave_EjecutaSiempre() {
+        idempotenciaService.ejecutar(null, "RADICAR", solicitud("Obra nueva"),
+                RadicacionService.SolicitudRadicacion.class, 201, this::radicar);
+        idempotenciaService.ejecutar(" ", "RADICAR", solicitud("Obra nueva"),
+                RadicacionService.SolicitudRadicacion.class, 201, this::radicar);
+
+        assertEquals(2, radicaciones.get());
+        verifyNoInteractions(claveRepository);
+    }
+
+    @Test
+    void ejecutar_ClaveRepetida_DevuelveLaRespuestaGuardadaSinRadicarDeNuevo() {
+        when(claveRepository.findByUsuarioAndOperacionAndClave(anyString(), eq("RADICAR"), eq("clave-1")))
+                .thenReturn(Optional.empty());
+        registrarClave(1L);
+
+        IdempotenciaService.ResultadoIdempotente<RadicacionService.SolicitudRadicacion> primera =
+                idempotenciaService.ejecutar("clave-1", "RADICAR", solicitud("Obra nueva"),
+                        RadicacionService.SolicitudRadicacion.class, 201, this::radicar);
+        IdempotenciaService.ResultadoIdempotente<RadicacionService.SolicitudRadicacion> repetida =
+                idempotenciaService.ejecutar("clave-1", "RADICAR", solicitud("Obra nueva"),
+                        RadicacionService.SolicitudRadicacion.class, 201, this::radicar);
+
+        assertEquals(1, radicaciones.get());
+        assertFalse(primera.isRepetida());
+        assertTrue(repetida.isRepetida());
+        assertEquals(201, repetida.getCodigoRespuesta());
+        assertEquals("11001-0-25-0001", repetida.getRespuesta().getNumeroRadicacion());
+        assertEquals(LocalDate.of(2025, 3, 1), repetida.getRespuesta().getFechaRadicacion());
+        verify(claveRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void ejecutar_CompletaLaClaveEnLaTransaccionDeLaOperacion() {
+        when(claveRepository.findByUsuarioAndOperacionAndClave(anyString(), eq("RADICAR"), eq("clave-5")))
+                .thenReturn(Optional.empty());
+        ClaveIdempotencia[] registro = registrarClave(5L);
+
+        idempotenciaService.ejecutar("clave-5", "RADICAR", solicitud("Obra nueva"),
+                RadicacionService.SolicitudRadicacion.class, 201, () -> {
+                    assertEquals(ClaveIdempotencia.EstadoClave.EN_PROCESO, registro[0].getEstado());
+                    return radicar();
+                });
+
+        assertEquals(ClaveIdempotencia.EstadoClave.COMPLETADA, registro[0].getEstado());
+        assertEquals(201, registro[0].getCodigoRespuesta());
+        assertTrue(registro[0].getCuerpoRespuesta().contains("11001-0-25-0001"));
+        // Un commit para registrar la clave y otro para la operación junto con la respuesta
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void ejecutar_CommitDeLaOperacionFalla_LiberaLaClaveYPermiteReintentar() {
+        when(claveRepository.findByUsuarioAndOperacionAndClave(anyString(), eq("RADICAR"), eq("clave-6")))
+                .thenReturn(Optional.empty());
+        registrarClave(6L);
+        doNothing().doThrow(new TransactionSystemException("Conexión perdida en el commit"))
+                .doNothing().when(transactionManager).commit(any());
+
+        assertThrows(TransactionSystemException.class,
+                () -> idempotenciaService.ejecutar("clave-6", "RADICAR", solicitud("Obra nueva"),
+                        RadicacionService.SolicitudRadicacion.class, 201, this::radicar));
+        verify(claveRepository).deleteEnProceso(eq(6L), any(LocalDateTime.class));
+
+        IdempotenciaService.ResultadoIdempotente<RadicacionService.SolicitudRadicacion> reintento =
+                idempotenciaService.ejecutar("clave-6", "RADICAR", solicitud("Obra nueva"),
+                        RadicacionService.SolicitudRadicacion.class, 201, this::radicar);
+
+        assertFalse(reintento.isRepetida());
+        assertEquals(2, radicaciones.get());
+    }
+
+    @Test
+    void ejecutar_ClaveUsadaConOtroCuerpo_Rechaza() {
+        ClaveIdempotencia existente = completada("clave-2", "otro-hash");
+        when(claveRepository.findByUsuarioAndOperacionAndClave(anyString(), eq("RADICAR"), eq("clave-2")))
+                .thenReturn(Optional.of(existente));
+
+        ClaveIdempotenciaException excepcion = assertThrows(ClaveIdempotenciaException.class,
+                () -> idempotenciaService.ejecutar("clave-2", "RADICAR", solicitud("Obra nueva"),
+                        RadicacionService.SolicitudRadicacion.class, 201, this::radicar));
+
+        assertFalse(excepcion.isEnProceso());
+        assertEquals(0, radicaciones.get());
+    }
+
+    @Test
+    void ejecutar_SolicitudOriginalEnProceso_Rechaza() {
+        ClaveIdempotencia enProceso = completada("clave-3", "hash");
+        enProceso.setEstado(ClaveIdempotencia.EstadoClave.EN_PROCESO);
+        when(claveRepository.findByUsuarioAndOperacionAndClave(anyString(), eq("RADICAR"), eq("clave-3")))
+                .thenReturn(Optional.of(enProceso));
+
+        ClaveIdempotenciaException excepcion = assertThrows(ClaveIdempotenciaException.class,
+                () -> idempotenciaService.ejecutar("clave-3", "RADICAR", solicitud("Obra nueva"),
+                        RadicacionService.SolicitudRadicacion.class, 201, this::radicar));
+
+        assertTrue(excepcion.isEnProceso());
+        assertEquals(0, radicaciones.get());
+        verify(claveRepository, never()).retomarEnProceso(anyLong(), any(), any());
+    }
+
+    @Test
+    void ejecutar_ClaveEnProcesoAbandonada_OtraSolicitudLaRetomaYEjecuta() {
+        RadicacionService.SolicitudRadicacionTramite solicitud = solicitud("Obra nueva");
+        ClaveIdempotencia abandonada = completada("clave-7", hash(solicitud));
+        abandonada.setEstado(ClaveIdempotencia.EstadoClave.EN_PROCESO);
+        LocalDateTime registroOriginal = LocalDateTime.now().minusMinutes(5);
+        abandonada.setFechaRegistro(registroOriginal);
+        when(claveRepository.findByUsuarioAndOperacionAndClave(anyString(), eq("RADICAR"), eq("clave-7")))
+                .thenReturn(Optional.of(abandonada));
+        when(claveRepository.retomarEnProceso(eq(9L), eq(registroOriginal), any(LocalDateTime.class))).thenReturn(1);
+        when(claveRepository.completar(eq(9L), any(LocalDateTime.class), eq(201), anyString())).thenReturn(1);
+
+        IdempotenciaService.ResultadoIdempotente<RadicacionService.SolicitudRadicacion> resultado =
+                idempotenciaService.ejecutar("clave-7", "RADICAR", solicitud,
+                        RadicacionService.SolicitudRadicacion.class, 201, this::radicar);
+
+        assertFalse(resultado.isRepetida());
+        assertEquals(1, radicaciones.get());
+        // La respuesta se guarda con el registro de quien retomó la clave, no con el original
+        ArgumentCaptor<LocalDateTime> nuevoRegistro = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(claveRepository).retomarEnProceso(eq(9L), eq(registroOriginal), nuevoRegistro.capture());
+        verify(claveRepository).completar(eq(9L), eq(nuevoRegistro.getValue()), eq(201), anyString());
+        verify(claveRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void ejecutar_ClaveRetomadaMientrasSeProcesaba_NoConfirmaLaOperacion() {
+        when(claveRepository.findByUsuarioAndOperacionAndClave(anyString(), eq("RADICAR"), eq("clave-8")))
+                .thenReturn(Optional.empty());
+        ClaveIdempotencia[] registro = registrarClave(8L);
+
+        ClaveIdempotenciaException excepcion = assertThrows(ClaveIdempotenciaException.class,
+                () -> idempotenciaService.ejecutar("clave-8", "RADICAR", solicitud("Obra nueva"),
+                        RadicacionService.SolicitudRadicacion.class, 201, () -> {
+                            // Otra solicitud retoma la clave mientras esta opera
+                            registro[0].setFechaRegistro(LocalDateTime.now().plusSeconds(1));
+                            return radicar();
+                        }));
+
+        assertTrue(excepcion.isEnProceso());
+        assertEquals(ClaveIdempotencia.EstadoClave.EN_PROCESO, registro[0].getEstado());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void ejecutar_RespuestaVencidaSinBarrer_SeEliminaYSeEjecutaDeNuevo() {
+        RadicacionService.SolicitudRadicacionTramite solicitud = solicitud("Obra nueva");
+        ClaveIdempotencia vencida = completada("clave-9", hash(solicitud));
+        vencida.setFechaExpiracion(LocalDateTime.now().minusMinutes(1));
+        when(claveRepository.findByUsuarioAndOperacionAndClave(anyString(), eq("RADICAR"), eq("clave-9")))
+                .thenReturn(Optional.of(vencida));
+        when(claveRepository.deleteSiVencida(eq(9L), any(LocalDateTime.class))).thenReturn(1);
+        ClaveIdempotencia[] registro = registrarClave(10L);
+
+        IdempotenciaService.ResultadoIdempotente<RadicacionService.SolicitudRadicacion> resultado =
+                idempotenciaService.ejecutar("clave-9", "RADICAR", solicitud,
+                        RadicacionService.SolicitudRadicacion.class, 201, this::radicar);
+
+        assertFalse(resultado.isRepetida());
+        assertEquals(1, radicaciones.get());
+        assertEquals("11001-0-25-0001", resultado.getRespuesta().getNumeroRadicacion());
+        assertEquals(ClaveIdempotencia.EstadoClave.COMPLETADA, registro[0].getEstado());
+        verify(claveRepository).deleteSiVencida(eq(9L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void ejecutar_OperacionFalla_LiberaLaClave() {
+        when(claveRepository.findByUsuarioAndOperacionAndClave(anyString(), eq("RADICAR"), eq("clave-4")))
+                .thenReturn(Optional.empty());
+        registrarClave(4L);
+
+        assertThrows(IllegalStateException.class,
+                () -> idempotenciaService.ejecutar("clave-4", "RADICAR", solicitud("Obra nueva"),
+                        RadicacionService.SolicitudRadicacion.class, 201, () -> {
+                            throw new IllegalStateException("Entidad inactiva");
+                        }));
+
+        verify(claveRepository).deleteEnProceso(eq(4L), any(LocalDateTime.class));
+    }
+
+    /**
+     * saveAndFlush asigna el id a la clave registrada y completar la actualiza como lo haría la base de
+     * datos (solo con la fecha de registro vigente); el arreglo expone el registro
+     */
+    private ClaveIdempotencia[] registrarClave(Long idClave) {
+        ClaveIdempotencia[] registro = new ClaveIdempotencia[1];
+        when(claveRepository.saveAndFlush(any(ClaveIdempotencia.class))).thenAnswer(inv -> {
+            registro[0] = inv.getArgument(0);
+            registro[0].setIdClave(idClave);
+            return registro[0];
+        });
+        lenient().when(claveRepository.completar(eq(idClave), any(LocalDateTime.class), anyInt(), anyString()))
+                .thenAnswer(inv -> {
+                    boolean propia = registro[0].getEstado() == ClaveIdempotencia.EstadoClave.EN_PROCESO
+                            && registro[0].getFechaRegistro().equals(inv.getArgument(1));
+                    if (propia) {
+                        registro[0].completar(inv.getArgument(2), inv.getArgument(3));
+                    }
+                    return propia ? 1 : 0;
+                });
+        return registro;
+    }
+
+    private RadicacionService.SolicitudRadicacion radicar() {
+        radicaciones.incrementAndGet();
+        RadicacionService.SolicitudRadicacion radicacion = new RadicacionService.SolicitudRadicacion();
+        radicacion.setIdTramite(100L);
+        radicacion.setNumeroRadicacion("11001-0-25-0001");
+        radicacion.setFechaRadicacion(LocalDate.of(2025, 3, 1));
+        return radicacion;
+    }
+
+    private String hash(Object solicitud) {
+        return ReflectionTestUtils.invokeMethod(idempotenciaService, "calcularHash", solicitud);
+    }
+
+    private RadicacionService.SolicitudRadicacionTramite solicitud(String objeto) {
+        RadicacionService.SolicitudRadicacionTramite solicitud = new RadicacionService.SolicitudRadicacionTramite();
+        solicitud.setEntidadId(1L);
+        solicitud.setTipoTramiteId(7L);
+        solicitud.setObjetoTramite(objeto);
+        solicitud.setSolicitanteEmail("ciudadano@correo.com");
+        return solicitud;
+    }
+
+    private ClaveIdempotencia completada(String clave, String hash) {
+        ClaveIdempotencia registro = new ClaveIdempotencia();
+        registro.setIdClave(9L);
+        registro.setClave(clave);
+        registro.setOperacion("RADICAR");
+        registro.setUsuario("anonimo");
+        registro.setHashSolicitud(hash);
+        registro.setEstado(ClaveIdempotencia.EstadoClave.COMPLETADA);
+        registro.setCodigoRespuesta(201);
+        registro.setCuerpoRespuesta("{}");
+        registro.setFechaRegistro(LocalDateTime.now());
+        registro.setFechaExpiracion(LocalDateTime.now().plusHours(1));
+        return registro;
+    }
+}
@@ -33,6 +33,9 @@ class NotificacionServiceTest {
     @Mock
     private TemplateEngine templateEngine;
 
+    @Mock
+    private CacheEntidades cacheEntidades;
+
     @InjectMocks
     private NotificacionService notificacionService;
 
@@ -0,0 +1,215 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.TipoTramiteRepository;
+import com.gestion.tramites.repository.TramiteLoteRepository;
+import com.gestion.tramites.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RadicacionServiceLoteTest {
+
+    private static final ConsecutivoRadicacion.TipoEntidadRadicacion SECRETARIA =
+            ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA;
+
+    @Mock
+    private EntidadRepository entidadRepository;
+
+    @Mock
+    private TipoTramiteRepository tipoTramiteRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private ValidacionRadicacionService validacionService;
+
+    @Mock
+    private NotificacionService notificacionService;
+
+    @Mock
+    private AsignadorBloquesRadicacion asignadorBloques;
+
+    @Mock
+    private TramiteLoteRepository tramiteLoteRepository;
+
+    @Mock
+    private CacheEntidades cacheEntidades;
+
+    @Mock
+    private CacheTiposTramite cacheTiposTramite;
+
+    @Mock
+    private CacheSolicitantes cacheSolicitantes;
+
+    @InjectMocks
+    private RadicacionService radicacionService;
+
+    private Entidad entidad;
+    private TipoTramite tipoTramite;
+    private int anoActual;
+
+    @BeforeEach
+    void setUp() {
+        entidad = new Entidad();
+        entidad.setId(1L);
+        entidad.setNombre("Secretaría de Planeación");
+        entidad.setCodigoDane("11001");
+        entidad.setActivo(true);
+
+        tipoTramite = new TipoTramite();
+        tipoTramite.setIdTipoTramite(7L);
+        tipoTramite.setNombre("Licencia de Construcción");
+
+        anoActual = LocalDate.now().getYear();
+
+        lenient().when(entidadRepository.findAllById(anyList())).thenReturn(List.of(entidad));
+        lenient().when(tipoTramiteRepository.findAllById(anyList())).thenReturn(List.of(tipoTramite));
+        lenient().when(validacionService.determinarTipoEntidad(entidad)).thenReturn(SECRETARIA);
+        lenient().when(usuarioRepository.findIdsByCorreoElectronicoIn(anyCollection())).thenReturn(List.of());
+        AtomicLong siguienteIdUsuario = new AtomicLong(100);
+        lenient().when(usuarioRepository.insertarSolicitanteSiNoExiste(anyString(), anyString(), anyString(),
+                anyString(), anyString(), any())).thenAnswer(invocation -> siguienteIdUsuario.getAndIncrement());
+        lenient().when(usuarioRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Usuario usuario = new Usuario();
+            usuario.setIdUsuario(invocation.getArgument(0));
+            return usuario;
+        });
+        lenient().when(tramiteLoteRepository.insertarTramites(anyList())).thenAnswer(invocation -> {
+            List<Tramite> tramites = invocation.getArgument(0);
+            List<Long> ids = new ArrayList<>();
+            long id = 500;
+            for (Tramite tramite : tramites) {
+                tramite.setIdTramite(id);
+                ids.add(id++);
+            }
+            return ids;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void radicarLote_SolicitudesValidas_AsignaRangoContiguoConUnaActualizacion() {
+        when(asignadorBloques.asignarRango(entidad, SECRETARIA, anoActual, 3)).thenReturn(41);
+
+        List<RadicacionService.ResultadoRadicacionLote> resultados = radicacionService.radicarLote(List.of(
+                solicitud("a@correo.com"), solicitud("b@correo.com"), solicitud("a@correo.com")));
+
+        assertEquals(3, resultados.size());
+        String anoCorto = String.valueOf(anoActual % 100);
+        for (int i = 0; i < 3; i++) {
+            RadicacionService.ResultadoRadicacionLote resultado = resultados.get(i);
+            assertTrue(resultado.isExitoso());
+            assertEquals(i, resultado.getIndice());
+            assertEquals(String.format("11001-0-%s-%04d", anoCorto, 41 + i),
+                    resultado.getRadicacion().getNumeroRadicacion());
+            assertEquals(500L + i, resultado.getRadicacion().getIdTramite());
+        }
+
+        verify(asignadorBloques, times(1)).asignarRango(entidad, SECRETARIA, anoActual, 3);
+        verify(tramiteLoteRepository, times(1)).insertarTramites(anyList());
+
+        // Un upsert por correo nuevo, sin saveAll: no falla si el correo ya existe en otra entidad
+        verify(usuarioRepository, times(2)).insertarSolicitanteSiNoExiste(anyString(), anyString(), anyString(),
+                anyString(), anyString(), eq(entidad.getId()));
+        verify(usuarioRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void radicarLote_SolicitanteRegistradoEnOtraEntidad_LoReutilizaSinCrearlo() {
+        when(asignadorBloques.asignarRango(entidad, SECRETARIA, anoActual, 1)).thenReturn(1);
+        // La consulta nativa no aplica entityFilter: encuentra al ciudadano aunque sea de otra entidad
+        when(usuarioRepository.findIdsByCorreoElectronicoIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] {"a@correo.com", 77L}));
+
+        List<RadicacionService.ResultadoRadicacionLote> resultados =
+                radicacionService.radicarLote(List.of(solicitud("a@correo.com")));
+
+        assertTrue(resultados.get(0).isExitoso());
+        verify(usuarioRepository).getReferenceById(77L);
+        verify(usuarioRepository, never()).insertarSolicitanteSiNoExiste(anyString(), anyString(), anyString(),
+                anyString(), anyString(), any());
+    }
+
+    @Test
+    void radicarLote_SolicitudInvalida_ReportaErrorSinConsumirConsecutivo() {
+        RadicacionService.SolicitudRadicacionTramite sinEmail = solicitud(null);
+        RadicacionService.SolicitudRadicacionTramite tipoInexistente = solicitud("c@correo.com");
+        tipoInexistente.setTipoTramiteId(99L);
+        when(asignadorBloques.asignarRango(entidad, SECRETARIA, anoActual, 1)).thenReturn(1);
+
+        List<RadicacionService.ResultadoRadicacionLote> resultados = radicacionService.radicarLote(List.of(
+                sinEmail, solicitud("a@correo.com"), tipoInexistente));
+
+        assertFalse(resultados.get(0).isExitoso());
+        assertEquals("Email del solicitante es obligatorio", resultados.get(0).getError());
+        assertTrue(resultados.get(1).isExitoso());
+        assertFalse(resultados.get(2).isExitoso());
+        assertNull(resultados.get(2).getRadicacion());
+        verify(asignadorBloques, times(1)).asignarRango(entidad, SECRETARIA, anoActual, 1);
+    }
+
+    @Test
+    void radicarLote_ConTransaccion_NotificaSoloDespuesDelCommit() {
+        when(asignadorBloques.asignarRango(entidad, SECRETARIA, anoActual, 2)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        radicacionService.radicarLote(List.of(solicitud("a@correo.com"), solicitud("b@correo.com")));
+
+        verify(notificacionService, never()).enviarNotificacionEmail(anyString(), anyString(), anyString(), any());
+
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            sincronizacion.afterCommit();
+        }
+        verify(notificacionService, times(2)).enviarNotificacionEmail(anyString(), anyString(), anyString(),
+                eq(NotificacionService.TipoNotificacion.RADICACION_EXITOSA));
+    }
+
+    @Test
+    void radicarLote_ExcedeTamanoMaximo_LanzaExcepcion() {
+        ReflectionTestUtils.setField(radicacionService, "tamanoMaximoLote", 2);
+
+        assertThrows(IllegalArgumentException.class, () -> radicacionService.radicarLote(
+                Collections.nCopies(3, solicitud("a@correo.com"))));
+        verifyNoInteractions(asignadorBloques, tramiteLoteRepository);
+    }
+
+    private RadicacionService.SolicitudRadicacionTramite solicitud(String email) {
+        RadicacionService.SolicitudRadicacionTramite solicitud = new RadicacionService.SolicitudRadicacionTramite();
+        solicitud.setEntidadId(1L);
+        solicitud.setTipoTramiteId(7L);
+        solicitud.setObjetoTramite("Construcción de vivienda");
+        solicitud.setSolicitanteEmail(email);
+        return solicitud;
+    }
+}
@@ -0,0 +1,203 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.exception.ResourceNotFoundException;
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.model.TipoTramite;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.EntidadRepository;
+import com.gestion.tramites.repository.TipoTramiteRepository;
+import com.gestion.tramites.repository.TramiteRepository;
+import com.gestion.tramites.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RadicacionServiceRadicarTest {
+
+    @Mock
+    private EntidadRepository entidadRepository;
+
+    @Mock
+    private TipoTramiteRepository tipoTramiteRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private TramiteRepository tramiteRepository;
+
+    @Mock
+    private NotificacionService notificacionService;
+
+    @Mock
+    private AsignadorBloquesRadicacion asignadorBloques;
+
+    @Mock
+    private CacheEntidades cacheEntidades;
+
+    @Mock
+    private CacheTiposTramite cacheTiposTramite;
+
+    @Mock
+    private CacheSolicitantes cacheSolicitantes;
+
+    @InjectMocks
+    private RadicacionService radicacionService;
+
+    private Entidad entidad;
+    private EntidadSnapshot snapshot;
+    private Usuario solicitante;
+
+    @BeforeEach
+    void setUp() {
+        entidad = new Entidad();
+        entidad.setId(1L);
+        entidad.setNombre("Secretaría de Planeación");
+        entidad.setCodigoDane("11001");
+        entidad.setActivo(true);
+        snapshot = EntidadSnapshot.de(entidad, 0);
+
+        solicitante = new Usuario();
+        solicitante.setIdUsuario(50L);
+        solicitante.setCorreoElectronico("ciudadano@correo.com");
+
+        Usuario ventanilla = new Usuario();
+        ventanilla.setIdUsuario(2L);
+        ventanilla.setCorreoElectronico("ventanilla@planeacion.gov.co");
+        ventanilla.setContrasena("secreta");
+        ventanilla.setRol(Usuario.Rol.VENTANILLA_UNICA);
+        ventanilla.setActivo(true);
+        CustomUserDetails usuarioActual = new CustomUserDetails(ventanilla);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuarioActual, null, usuarioActual.getAuthorities()));
+
+        lenient().when(cacheEntidades.obtenerRequerida(1L)).thenReturn(snapshot);
+        lenient().when(cacheEntidades.obtener(1L)).thenReturn(Optional.of(snapshot));
+        lenient().when(entidadRepository.getReferenceById(1L)).thenReturn(entidad);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void radicarTramite_SolicitanteEnCache_SoloAsignaEInserta() {
+        prepararRadicacion();
+        when(cacheSolicitantes.obtenerId("ciudadano@correo.com")).thenReturn(Optional.of(50L));
+
+        RadicacionService.SolicitudRadicacion radicacion = radicacionService.radicarTramite(solicitud());
+
+        assertEquals(100L, radicacion.getIdTramite());
+        assertEquals("11001-0-25-0001", radicacion.getNumeroRadicacion());
+
+        // Ninguna lectura de entidad, tipo de trámite ni solicitante: solo referencias
+        verify(entidadRepository, never()).findById(any());
+        verify(tipoTramiteRepository, never()).findById(any());
+        verify(usuarioRepository).getReferenceById(50L);
+        verify(tramiteRepository, times(1)).save(any(Tramite.class));
+        verifyNoMoreInteractions(usuarioRepository, tramiteRepository);
+
+        ArgumentCaptor<String> mensaje = ArgumentCaptor.forClass(String.class);
+        verify(notificacionService).enviarNotificacionEmail(eq("ciudadano@correo.com"), anyString(), mensaje.capture(),
+                eq(NotificacionService.TipoNotificacion.RADICACION_EXITOSA));
+        assertTrue(mensaje.getValue().contains("Licencia de Construcción"));
+        assertTrue(mensaje.getValue().contains("Secretaría de Planeación"));
+    }
+
+    @Test
+    void radicarTramite_SolicitanteNuevo_LoResuelveConUnaSentenciaYLoGuardaEnCache() {
+        prepararRadicacion();
+        when(usuarioRepository.insertarSolicitanteSiNoExiste(eq("ciudadano@correo.com"), anyString(),
+                eq(RadicacionService.TIPO_DOCUMENTO_PROVISIONAL), eq(RadicacionService.documentoProvisional("ciudadano@correo.com")),
+                anyString(), eq(1L))).thenReturn(50L);
+
+        radicacionService.radicarTramite(solicitud());
+
+        verify(usuarioRepository, never()).findByCorreoElectronico(anyString());
+        verify(usuarioRepository, never()).save(any());
+        verify(usuarioRepository, never()).findIdByCorreoElectronico(anyString());
+        verify(cacheSolicitantes).guardarDespuesDeCommit("ciudadano@correo.com", 50L);
+        ArgumentCaptor<Tramite> tramite = ArgumentCaptor.forClass(Tramite.class);
+        verify(tramiteRepository).save(tramite.capture());
+        assertSame(solicitante, tramite.getValue().getSolicitante());
+    }
+
+    @Test
+    void radicarTramite_SolicitanteCreadoPorRadicacionConcurrente_LoLeeSinFallar() {
+        prepararRadicacion();
+        when(usuarioRepository.insertarSolicitanteSiNoExiste(anyString(), anyString(), anyString(), anyString(),
+                anyString(), anyLong())).thenReturn(null);
+        when(usuarioRepository.findIdByCorreoElectronico("ciudadano@correo.com")).thenReturn(Optional.of(50L));
+
+        RadicacionService.SolicitudRadicacion radicacion = radicacionService.radicarTramite(solicitud());
+
+        assertEquals(100L, radicacion.getIdTramite());
+        verify(cacheSolicitantes).guardarDespuesDeCommit("ciudadano@correo.com", 50L);
+    }
+
+    @Test
+    void documentoProvisional_EsUnicoPorCorreoYCabeEnLaColumna() {
+        String documento = RadicacionService.documentoProvisional("ciudadano@correo.com");
+
+        assertEquals(20, documento.length());
+        assertEquals(documento, RadicacionService.documentoProvisional("ciudadano@correo.com"));
+        assertNotEquals(documento, RadicacionService.documentoProvisional("otro@correo.com"));
+    }
+
+    @Test
+    void radicarTramite_TipoTramiteInexistente_NoInsertaTramite() {
+        when(asignadorBloques.asignarNumeroRadicacion(any(), any(), anyInt())).thenReturn("11001-0-25-0001");
+        when(cacheTiposTramite.obtenerNombreRequerido(7L))
+                .thenThrow(new ResourceNotFoundException("TipoTramite", "id", 7L));
+
+        assertThrows(ResourceNotFoundException.class, () -> radicacionService.radicarTramite(solicitud()));
+
+        verify(tramiteRepository, never()).save(any());
+        verifyNoInteractions(usuarioRepository, notificacionService);
+    }
+
+    private void prepararRadicacion() {
+        int anoActual = LocalDate.now().getYear();
+        TipoTramite referenciaTipo = new TipoTramite();
+        referenciaTipo.setIdTipoTramite(7L);
+        when(asignadorBloques.asignarNumeroRadicacion(snapshot, ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA, anoActual))
+                .thenReturn("11001-0-25-0001");
+        when(cacheTiposTramite.obtenerNombreRequerido(7L)).thenReturn("Licencia de Construcción");
+        when(cacheTiposTramite.obtenerNombre(7L)).thenReturn(Optional.of("Licencia de Construcción"));
+        when(tipoTramiteRepository.getReferenceById(7L)).thenReturn(referenciaTipo);
+        when(usuarioRepository.getReferenceById(50L)).thenReturn(solicitante);
+        when(tramiteRepository.save(any(Tramite.class))).thenAnswer(inv -> {
+            Tramite tramite = inv.getArgument(0);
+            tramite.setIdTramite(100L);
+            return tramite;
+        });
+    }
+
+    private RadicacionService.SolicitudRadicacionTramite solicitud() {
+        RadicacionService.SolicitudRadicacionTramite solicitud = new RadicacionService.SolicitudRadicacionTramite();
+        solicitud.setEntidadId(1L);
+        solicitud.setTipoTramiteId(7L);
+        solicitud.setObjetoTramite("Obra nueva");
+        solicitud.setSolicitanteEmail("ciudadano@correo.com");
+        return solicitud;
+    }
+}
@@ -45,6 +45,18 @@ class RadicacionServiceTest {
     @Mock
     private NotificacionService notificacionService;
 
+    @Mock
+    private AsignadorBloquesRadicacion asignadorBloques;
+
+    @Mock
+    private CacheEntidades cacheEntidades;
+
+    @Mock
+    private CacheTiposTramite cacheTiposTramite;
+
+    @Mock
+    private CacheSolicitantes cacheSolicitantes;
+
     @InjectMocks
     private RadicacionService radicacionService;
 
@@ -0,0 +1,101 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.exception.ReintentosAgotadosException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReintentoRadicacionTest {
+
+    private ReintentoRadicacion reintento;
+
+    @BeforeEach
+    void setUp() {
+        reintento = new ReintentoRadicacion();
+        ReflectionTestUtils.setField(reintento, "esperaInicialMs", 0L);
+    }
+
+    @Test
+    void ejecutar_ErrorDeSerializacion_ReintentaHastaCompletar() {
+        AtomicInteger llamadas = new AtomicInteger();
+
+        String numero = reintento.ejecutar(1L, () -> {
+            if (llamadas.incrementAndGet() < 3) {
+                throw errorContencion("40001");
+            }
+            return "11001-0-25-0001";
+        });
+
+        assertEquals("11001-0-25-0001", numero);
+        assertEquals(3, llamadas.get());
+        ReintentoRadicacion.EstadisticasReintento estadisticas = reintento.obtenerEstadisticas().get(0);
+        assertEquals(1L, estadisticas.getEntidadId());
+        assertEquals(3, estadisticas.getIntentos());
+        assertEquals(2, estadisticas.getReintentos());
+        assertEquals(0, estadisticas.getAbandonos());
+    }
+
+    @Test
+    void ejecutar_ContencionPersistente_AbandonaTrasElMaximoDeIntentos() {
+        AtomicInteger llamadas = new AtomicInteger();
+
+        ReintentosAgotadosException excepcion = assertThrows(ReintentosAgotadosException.class,
+                () -> reintento.ejecutar(2L, () -> {
+                    llamadas.incrementAndGet();
+                    throw errorContencion("40P01");
+                }));
+
+        assertEquals(4, llamadas.get());
+        assertEquals(4, excepcion.getIntentos());
+        assertInstanceOf(CannotAcquireLockException.class, excepcion.getCause());
+        assertEquals(1, reintento.obtenerEstadisticas().get(0).getAbandonos());
+    }
+
+    @Test
+    void ejecutar_ErrorNoReintentable_SePropagaSinReintentar() {
+        AtomicInteger llamadas = new AtomicInteger();
+
+        assertThrows(DataIntegrityViolationException.class, () -> reintento.ejecutar(3L, () -> {
+            llamadas.incrementAndGet();
+            throw new DataIntegrityViolationException("duplicado",
+                    new SQLException("llave duplicada", "23505"));
+        }));
+
+        assertEquals(1, llamadas.get());
+        assertEquals(0, reintento.obtenerEstadisticas().get(0).getReintentos());
+    }
+
+    @Test
+    void obtenerSqlStateReintentable_RevisaLaCadenaDeCausas() {
+        SQLException siguiente = new SQLException("lock no disponible", "55P03");
+        SQLException lote = new SQLException("batch abortado", "25P02");
+        lote.setNextException(siguiente);
+
+        assertEquals("55P03", reintento.obtenerSqlStateReintentable(
+                new IllegalStateException(new RuntimeException(lote))));
+        assertNull(reintento.obtenerSqlStateReintentable(new IllegalStateException("sin causa SQL")));
+    }
+
+    @Test
+    void calcularEspera_NoSuperaElTopeExponencial() {
+        ReflectionTestUtils.setField(reintento, "esperaInicialMs", 25L);
+        ReflectionTestUtils.setField(reintento, "esperaMaximaMs", 500L);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(reintento.calcularEspera(1) <= 25);
+            assertTrue(reintento.calcularEspera(3) <= 100);
+            assertTrue(reintento.calcularEspera(10) <= 500);
+        }
+    }
+
+    private RuntimeException errorContencion(String sqlState) {
+        return new CannotAcquireLockException("contención", new SQLException("contención", sqlState));
+    }
+}
@@ -25,6 +25,9 @@ class TipoTramiteServiceTest {
     @Mock
     private TipoTramiteRepository tipoTramiteRepository;
 
+    @Mock
+    private CacheTiposTramite cacheTiposTramite;
+
     @InjectMocks
     private TipoTramiteService tipoTramiteService;
 
@@ -146,6 +149,7 @@ class TipoTramiteServiceTest {
         assertEquals("Tipo Actualizado", resultado.getNombre());
         verify(tipoTramiteRepository).findById(1L);
         verify(tipoTramiteRepository).save(testTipo);
+        verify(cacheTiposTramite).invalidar(1L);
     }
 
     @Test
@@ -177,6 +181,7 @@ class TipoTramiteServiceTest {
         assertTrue(resultado.get("eliminado"));
         verify(tipoTramiteRepository).findById(1L);
         verify(tipoTramiteRepository).delete(testTipo);
+        verify(cacheTiposTramite).invalidar(1L);
     }
 
     @Test
@@ -190,6 +195,7 @@ class TipoTramiteServiceTest {
 
         verify(tipoTramiteRepository).findById(999L);
         verify(tipoTramiteRepository, never()).delete(any(TipoTramite.class));
+        verifyNoInteractions(cacheTiposTramite);
     }
 
     @Test
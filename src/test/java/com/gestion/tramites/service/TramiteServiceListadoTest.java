@@ -0,0 +1,293 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.dto.tramite.TramiteResponseDTO;
+import com.gestion.tramites.exception.ResourceNotFoundException;
+import com.gestion.tramites.mapper.TramiteMapper;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.model.Usuario;
+import com.gestion.tramites.repository.TramiteConsultaRepository;
+import com.gestion.tramites.repository.TramiteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TramiteServiceListadoTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private TramiteConsultaRepository tramiteConsultaRepository;
+
+    @Mock
+    private TramiteRepository tramiteRepository;
+
+    @Mock
+    private TramiteMapper tramiteMapper;
+
+    @InjectMocks
+    private TramiteService tramiteService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void obtenerTramites_UsuarioDeEntidad_FiltraPorSuEntidadAunqueIndiqueOtra() {
+        autenticar("REVISOR", 1L);
+        when(tramiteConsultaRepository.buscarPagina(eq(1L), any(), any(), any(), any(), any(), any(), any(), eq(51)))
+                .thenReturn(List.of());
+
+        TramiteService.FiltroTramites filtro = new TramiteService.FiltroTramites();
+        filtro.setEntidadId(2L);
+        TramiteService.PaginaTramites pagina = tramiteService.obtenerTramites(filtro, null, null);
+
+        assertTrue(pagina.getTramites().isEmpty());
+        assertNull(pagina.getSiguienteCursor());
+        assertEquals(50, pagina.getTamanoPagina());
+    }
+
+    @Test
+    void obtenerTramites_HayMasFilas_RetornaCursorQueContinuaDesdeLaUltima() {
+        autenticar("REVISOR", 1L);
+        when(tramiteConsultaRepository.buscarPagina(eq(1L), eq(Tramite.EstadoTramite.RADICADO), isNull(), isNull(),
+                isNull(), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(tramite(30L, HOY), tramite(20L, HOY), tramite(10L, HOY.minusDays(1))));
+
+        TramiteService.FiltroTramites filtro = new TramiteService.FiltroTramites();
+        filtro.setEstado(Tramite.EstadoTramite.RADICADO);
+        TramiteService.PaginaTramites primera = tramiteService.obtenerTramites(filtro, null, 2);
+
+        assertEquals(2, primera.getTramites().size());
+        assertNotNull(primera.getSiguienteCursor());
+        // La proyección ya trae el DTO: no hay mapeo de entidades ni carga de relaciones
+        verifyNoInteractions(tramiteMapper);
+
+        when(tramiteConsultaRepository.buscarPagina(eq(1L), eq(Tramite.EstadoTramite.RADICADO), isNull(), isNull(),
+                isNull(), isNull(), eq(HOY), eq(20L), eq(3)))
+                .thenReturn(List.of(tramite(10L, HOY.minusDays(1))));
+
+        TramiteService.PaginaTramites segunda = tramiteService.obtenerTramites(filtro, primera.getSiguienteCursor(), 2);
+
+        assertEquals(1, segunda.getTramites().size());
+        assertNull(segunda.getSiguienteCursor());
+    }
+
+    @Test
+    void obtenerTramitePorId_UsuarioDeEntidad_SoloBuscaEnSuEntidad() {
+        autenticar("REVISOR", 1L);
+        when(tramiteConsultaRepository.buscarPorId(7L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> tramiteService.obtenerTramitePorId(7L));
+        verify(tramiteConsultaRepository).buscarPorId(7L, 1L);
+    }
+
+    @Test
+    void obtenerTramites_CursorDeOtrosFiltros_LanzaIllegalArgument() {
+        autenticar("REVISOR", 1L);
+        String cursor = new CursorTramites(HOY, 20L, new TramiteService.FiltroTramites().huella(1L)).codificar();
+
+        TramiteService.FiltroTramites otroFiltro = new TramiteService.FiltroTramites();
+        otroFiltro.setEstado(Tramite.EstadoTramite.APROBADO);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> tramiteService.obtenerTramites(otroFiltro, cursor, null));
+        assertTrue(ex.getMessage().contains("otros filtros"));
+        verifyNoInteractions(tramiteConsultaRepository);
+    }
+
+    @Test
+    void huella_EstadoEntraPorNombre_EsEstableEntreJvms() {
+        TramiteService.FiltroTramites filtro = new TramiteService.FiltroTramites();
+        filtro.setEstado(Tramite.EstadoTramite.APROBADO);
+        filtro.setTipoTramiteId(3L);
+
+        assertEquals(Objects.hash(1L, "APROBADO", 3L, null, null, null), filtro.huella(1L));
+    }
+
+    @Test
+    void obtenerTramites_CursorMalFormado_LanzaIllegalArgument() {
+        autenticar("REVISOR", 1L);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> tramiteService.obtenerTramites(null, "no-es-un-cursor", null));
+        verifyNoInteractions(tramiteConsultaRepository);
+    }
+
+    @Test
+    void obtenerTramites_LimiteFueraDeRango_LanzaIllegalArgument() {
+        autenticar("ADMIN_GLOBAL", null);
+
+        assertThrows(IllegalArgumentException.class, () -> tramiteService.obtenerTramites(null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> tramiteService.obtenerTramites(null, null, 201));
+        verifyNoInteractions(tramiteConsultaRepository);
+    }
+
+    @Test
+    void obtenerTramites_AdminGlobalSinEntidad_ListaTodasLasEntidades() {
+        autenticar("ADMIN_GLOBAL", null);
+        when(tramiteConsultaRepository.buscarPagina(isNull(), any(), any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of());
+
+        tramiteService.obtenerTramites(new TramiteService.FiltroTramites(), null, null);
+
+        verify(tramiteConsultaRepository).buscarPagina(isNull(), any(), any(), any(), any(), any(), any(), any(), eq(51));
+    }
+
+    @Test
+    void buscarTramites_UsuarioDeEntidad_OrdenaPorRadicacionMasReciente() {
+        autenticar("REVISOR", 1L);
+        Tramite encontrado = new Tramite();
+        when(tramiteRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(encontrado), Pageable.ofSize(20), 41));
+        when(tramiteMapper.toResponseDTO(encontrado)).thenReturn(tramite(7L, HOY));
+
+        TramiteService.CriteriosBusquedaTramites criterios = new TramiteService.CriteriosBusquedaTramites();
+        criterios.setEntidadId(2L);
+        criterios.setEstados(List.of(Tramite.EstadoTramite.EN_REVISION));
+        TramiteService.ResultadoBusquedaTramites resultado = tramiteService.buscarTramites(criterios, null, 20);
+
+        ArgumentCaptor<Pageable> paginaSolicitada = ArgumentCaptor.forClass(Pageable.class);
+        verify(tramiteRepository).findAll(any(Specification.class), paginaSolicitada.capture());
+        assertEquals(0, paginaSolicitada.getValue().getPageNumber());
+        assertEquals(20, paginaSolicitada.getValue().getPageSize());
+        assertEquals(Sort.by(Sort.Order.desc("fechaRadicacion"), Sort.Order.desc("idTramite")),
+                paginaSolicitada.getValue().getSort());
+        assertEquals(1, resultado.getTramites().size());
+        assertEquals(41, resultado.getTotalElementos());
+        assertEquals(3, resultado.getTotalPaginas());
+    }
+
+    @Test
+    void buscarTramites_PorVencimiento_OrdenaPorPlazoMasProximo() {
+        autenticar("REVISOR", 1L);
+        Page<Tramite> vacia = Page.empty();
+        when(tramiteRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(vacia);
+
+        TramiteService.CriteriosBusquedaTramites criterios = new TramiteService.CriteriosBusquedaTramites();
+        criterios.setVencenHasta(HOY.plusDays(5));
+        tramiteService.buscarTramites(criterios, 2, null);
+
+        ArgumentCaptor<Pageable> paginaSolicitada = ArgumentCaptor.forClass(Pageable.class);
+        verify(tramiteRepository).findAll(any(Specification.class), paginaSolicitada.capture());
+        assertEquals(2, paginaSolicitada.getValue().getPageNumber());
+        assertEquals(Sort.by(Sort.Order.asc("fechaLimiteProximo"), Sort.Order.asc("idTramite")),
+                paginaSolicitada.getValue().getSort());
+    }
+
+    @Test
+    void buscarTramites_AdminGlobalSinEntidad_LanzaIllegalArgument() {
+        autenticar("ADMIN_GLOBAL", null);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> tramiteService.buscarTramites(new TramiteService.CriteriosBusquedaTramites(), null, null));
+        verifyNoInteractions(tramiteRepository);
+    }
+
+    @Test
+    void buscarTramites_RevisorYSinRevisor_LanzaIllegalArgument() {
+        autenticar("REVISOR", 1L);
+
+        TramiteService.CriteriosBusquedaTramites criterios = new TramiteService.CriteriosBusquedaTramites();
+        criterios.setRevisorId(5L);
+        criterios.setSinRevisor(true);
+        assertThrows(IllegalArgumentException.class, () -> tramiteService.buscarTramites(criterios, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> tramiteService.buscarTramites(new TramiteService.CriteriosBusquedaTramites(), -1, null));
+        verifyNoInteractions(tramiteRepository);
+    }
+
+    @Test
+    void buscarPorTexto_HayMasCoincidencias_RetornaEnOrdenDeRelevanciaConCursor() {
+        autenticar("REVISOR", 1L);
+        when(tramiteConsultaRepository.buscarPorTexto(eq(1L), eq("licencia ampliación"), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(new TramiteConsultaRepository.CoincidenciaTexto(9L, 0.5f),
+                        new TramiteConsultaRepository.CoincidenciaTexto(4L, 0.2f),
+                        new TramiteConsultaRepository.CoincidenciaTexto(7L, 0.1f)));
+        when(tramiteConsultaRepository.buscarPorIds(List.of(9L, 4L)))
+                .thenReturn(List.of(tramite(9L, HOY), tramite(4L, HOY)));
+
+        TramiteService.PaginaTramites primera = tramiteService.buscarPorTexto("  licencia ampliación ", 2L, null, 2);
+
+        assertEquals(List.of(9L, 4L), primera.getTramites().stream().map(TramiteResponseDTO::getIdTramite).toList());
+        assertNotNull(primera.getSiguienteCursor());
+
+        when(tramiteConsultaRepository.buscarPorTexto(eq(1L), eq("licencia ampliación"), eq(0.2f), eq(4L), eq(3)))
+                .thenReturn(List.of(new TramiteConsultaRepository.CoincidenciaTexto(7L, 0.1f)));
+        when(tramiteConsultaRepository.buscarPorIds(List.of(7L))).thenReturn(List.of(tramite(7L, HOY)));
+
+        TramiteService.PaginaTramites segunda = tramiteService.buscarPorTexto("licencia ampliación", 2L,
+                primera.getSiguienteCursor(), 2);
+
+        assertEquals(1, segunda.getTramites().size());
+        assertNull(segunda.getSiguienteCursor());
+    }
+
+    @Test
+    void buscarPorTexto_CursorDeOtroTexto_LanzaIllegalArgument() {
+        autenticar("REVISOR", 1L);
+        String cursor = new CursorBusquedaTexto(0.2f, 4L, Objects.hash(1L, "licencia")).codificar();
+
+        assertThrows(IllegalArgumentException.class, () -> tramiteService.buscarPorTexto("licencia", null, cursor + "x", null));
+        assertThrows(IllegalArgumentException.class, () -> tramiteService.buscarPorTexto("ampliación", null, cursor, null));
+        verifyNoInteractions(tramiteConsultaRepository);
+    }
+
+    @Test
+    void buscarPorTexto_TextoVacioOAdminSinEntidad_LanzaIllegalArgument() {
+        autenticar("REVISOR", 1L);
+        assertThrows(IllegalArgumentException.class, () -> tramiteService.buscarPorTexto("   ", null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> tramiteService.buscarPorTexto("a".repeat(201), null, null, null));
+
+        autenticar("ADMIN_GLOBAL", null);
+        assertThrows(IllegalArgumentException.class, () -> tramiteService.buscarPorTexto("licencia", null, null, null));
+        verifyNoInteractions(tramiteConsultaRepository);
+    }
+
+    private void autenticar(String rol, Long entidadId) {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(5L);
+        usuario.setCorreoElectronico("usuario@planeacion.gov.co");
+        usuario.setContrasena("secreta");
+        usuario.setRol(rol);
+        usuario.setActivo(true);
+        if (entidadId != null) {
+            Entidad entidad = new Entidad();
+            entidad.setId(entidadId);
+            usuario.setEntidad(entidad);
+        }
+        CustomUserDetails usuarioActual = new CustomUserDetails(usuario);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuarioActual, null, usuarioActual.getAuthorities()));
+    }
+
+    private TramiteResponseDTO tramite(Long id, LocalDate fechaRadicacion) {
+        TramiteResponseDTO tramite = new TramiteResponseDTO();
+        tramite.setIdTramite(id);
+        tramite.setFechaRadicacion(fechaRadicacion);
+        return tramite;
+    }
+}
@@ -7,6 +7,8 @@ import com.gestion.tramites.model.Usuario;
 import com.gestion.tramites.repository.EntidadRepository;
 import com.gestion.tramites.repository.UsuarioRepository;
 import com.gestion.tramites.exception.ResourceNotFoundException;
+import com.gestion.tramites.mapper.UsuarioMapper;
+import com.gestion.tramites.mapper.UsuarioMapperImpl;
 import com.gestion.tramites.util.PasswordGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -34,6 +37,10 @@ class UsuarioServiceTest {
     private EntidadRepository entidadRepository;
     @Mock
     private PasswordGenerator passwordGenerator;
+    @Mock
+    private CacheSolicitantes cacheSolicitantes;
+    @Spy
+    private UsuarioMapper usuarioMapper = new UsuarioMapperImpl();
 
     @InjectMocks
     private UsuarioService usuarioService;
@@ -200,6 +207,7 @@ class UsuarioServiceTest {
         assertEquals("updated@example.com", result.getCorreoElectronico());
         assertEquals("ADMIN_GLOBAL", result.getRol());
         verify(usuarioRepository, times(1)).save(any(Usuario.class));
+        verify(cacheSolicitantes).invalidar(1L);
     }
 
     @Test
@@ -264,6 +272,7 @@ class UsuarioServiceTest {
 
         verify(usuarioRepository, times(1)).existsById(1L);
         verify(usuarioRepository, times(1)).deleteById(1L);
+        verify(cacheSolicitantes).invalidar(1L);
     }
 
     @Test
@@ -0,0 +1,151 @@
+package com.gestion.tramites.service;
+
+import com.gestion.tramites.model.ConsecutivoRadicacion;
+import com.gestion.tramites.model.Entidad;
+import com.gestion.tramites.model.EntidadSnapshot;
+import com.gestion.tramites.model.Tramite;
+import com.gestion.tramites.repository.ConsecutivoRadicacionRepository;
+import com.gestion.tramites.repository.TramiteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ValidacionRadicacionServiceLoteTest {
+
+    private static final ConsecutivoRadicacion.TipoEntidadRadicacion SECRETARIA =
+            ConsecutivoRadicacion.TipoEntidadRadicacion.SECRETARIA;
+
+    @Mock
+    private ConsecutivoRadicacionRepository consecutivoRepository;
+
+    @Mock
+    private TramiteRepository tramiteRepository;
+
+    @Mock
+    private CacheEntidades cacheEntidades;
+
+    @InjectMocks
+    private ValidacionRadicacionService validacionService;
+
+    private Entidad entidad;
+    private int ano;
+    private String anoCorto;
+
+    @BeforeEach
+    void setUp() {
+        entidad = new Entidad();
+        entidad.setId(1L);
+        entidad.setNombre("Secretaría de Planeación");
+        entidad.setCodigoDane("11001");
+        lenient().when(cacheEntidades.obtener(1L)).thenAnswer(inv -> Optional.of(EntidadSnapshot.de(entidad, 0)));
+
+        ano = LocalDate.now().getYear();
+        anoCorto = String.format("%02d", ano % 100);
+    }
+
+    @Test
+    void determinarTipoEntidad_UsaElTipoDelSnapshotEnCache() {
+        Entidad curaduria = new Entidad();
+        curaduria.setId(2L);
+        curaduria.setNombre("Curaduría Urbana 1");
+        when(cacheEntidades.obtener(2L)).thenReturn(Optional.of(EntidadSnapshot.de(curaduria, 0)));
+
+        // La entidad recibida no se vuelve a clasificar por su nombre
+        Entidad recibida = new Entidad();
+        recibida.setId(2L);
+        recibida.setNombre("Secretaría de Planeación");
+
+        assertEquals(ConsecutivoRadicacion.TipoEntidadRadicacion.CURADURIA, validacionService.determinarTipoEntidad(recibida));
+    }
+
+    @Test
+    void validarLoteRadicaciones_ConsultaUnicidadYSecuenciaUnaSolaVez() {
+        ConsecutivoRadicacion contador = new ConsecutivoRadicacion();
+        contador.setUltimoConsecutivo(41);
+        when(consecutivoRepository.findByEntidadAndTipoEntidadAndAnoAndActivoTrue(entidad, SECRETARIA, ano))
+                .thenReturn(Optional.of(contador));
+        when(tramiteRepository.findExistentesByNumeroRadicacionIn(anyCollection()))
+                .thenReturn(List.of(existente("11001-0-" + anoCorto + "-0040", 7L)));
+
+        List<String> numeros = List.of(
+                "11001-0-" + anoCorto + "-0042",
+                "11001-0-" + anoCorto + "-0040",
+                "11001-0-" + anoCorto + "-0050",
+                "11001-CUR-" + anoCorto + "-0042",
+                "formato-invalido");
+
+        List<ValidacionRadicacionService.ResultadoValidacionRadicacion> resultados =
+                validacionService.validarLoteRadicaciones(numeros, entidad);
+
+        assertEquals(5, resultados.size());
+        assertTrue(resultados.get(0).isValido());
+        assertEquals(ValidacionRadicacionService.TipoValidacionRadicacion.COMPLETA, resultados.get(0).getTipoValidacion());
+        assertEquals(ValidacionRadicacionService.TipoValidacionRadicacion.UNICIDAD, resultados.get(1).getTipoValidacion());
+        assertTrue(resultados.get(1).getMensaje().contains("trámite ID: 7"));
+        assertEquals(ValidacionRadicacionService.TipoValidacionRadicacion.SECUENCIA, resultados.get(2).getTipoValidacion());
+        assertEquals(ValidacionRadicacionService.TipoValidacionRadicacion.COMPONENTES, resultados.get(3).getTipoValidacion());
+        assertEquals(ValidacionRadicacionService.TipoValidacionRadicacion.FORMATO, resultados.get(4).getTipoValidacion());
+
+        verify(tramiteRepository).findExistentesByNumeroRadicacionIn(anyCollection());
+        verify(tramiteRepository, never()).findByNumeroRadicacion(anyString());
+        verify(consecutivoRepository).findByEntidadAndTipoEntidadAndAnoAndActivoTrue(any(), any(), anyInt());
+    }
+
+    @Test
+    void validarLoteRadicaciones_LoteGrande_MismosResultadosQueLaValidacionIndividual() {
+        when(consecutivoRepository.findByEntidadAndTipoEntidadAndAnoAndActivoTrue(entidad, SECRETARIA, ano))
+                .thenReturn(Optional.empty());
+        when(tramiteRepository.findExistentesByNumeroRadicacionIn(anyCollection())).thenReturn(List.of());
+        when(tramiteRepository.findByNumeroRadicacion(anyString())).thenReturn(Optional.<Tramite>empty());
+
+        List<String> numeros = new ArrayList<>();
+        for (int i = 1; i <= 2500; i++) {
+            numeros.add(String.format("11001-0-%s-%04d", anoCorto, i % 10_000));
+        }
+
+        List<ValidacionRadicacionService.ResultadoValidacionRadicacion> lote =
+                validacionService.validarLoteRadicaciones(numeros, entidad);
+
+        // 2500 números en bloques de 1000 para la consulta IN
+        verify(tramiteRepository, times(3)).findExistentesByNumeroRadicacionIn(anyCollection());
+        assertEquals(numeros.size(), lote.size());
+        for (int i = 0; i < numeros.size(); i++) {
+            ValidacionRadicacionService.ResultadoValidacionRadicacion individual =
+                    validacionService.validarNumeroRadicacion(numeros.get(i), entidad);
+            assertEquals(individual.isValido(), lote.get(i).isValido(), numeros.get(i));
+            assertEquals(individual.getMensaje(), lote.get(i).getMensaje(), numeros.get(i));
+            assertEquals(individual.getTipoValidacion(), lote.get(i).getTipoValidacion(), numeros.get(i));
+        }
+    }
+
+    @Test
+    void validarComponentes_AceptaElAnchoDeLaEntidadYLosNumerosAnteriores() {
+        entidad.setDigitosConsecutivo(5);
+
+        assertTrue(validacionService.validarComponentes("11001-0-" + anoCorto + "-00042", entidad).isValido());
+        assertTrue(validacionService.validarComponentes("11001-0-" + anoCorto + "-0042", entidad).isValido());
+        assertTrue(validacionService.validarComponentes("11001-0-" + anoCorto + "-123456", entidad).isValido());
+        assertFalse(validacionService.validarComponentes("11001-0-" + anoCorto + "-000042", entidad).isValido());
+        assertFalse(validacionService.validarComponentes("11001-0-" + anoCorto + "-00000", entidad).isValido());
+    }
+
+    private TramiteRepository.NumeroRadicacionExistente existente(String numero, Long idTramite) {
+        return new TramiteRepository.NumeroRadicacionExistente() {
+            @Override public String getNumeroRadicacion() { return numero; }
+            @Override public Long getIdTramite() { return idTramite; }
+        };
+    }
+}
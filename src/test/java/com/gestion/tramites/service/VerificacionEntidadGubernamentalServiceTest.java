@@ -41,6 +41,9 @@ class VerificacionEntidadGubernamentalServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private CacheEntidades cacheEntidades;
+
     @InjectMocks
     private VerificacionEntidadGubernamentalService verificacionService;
 